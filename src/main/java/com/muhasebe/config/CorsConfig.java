@@ -63,7 +63,8 @@ public class CorsConfig {
                 "Authorization",
                 "X-Total-Count",
                 "X-Page-Number",
-                "X-Page-Size"
+                "X-Page-Size",
+                "ETag"
         ));
 
         UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
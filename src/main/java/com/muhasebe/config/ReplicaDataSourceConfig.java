@@ -0,0 +1,95 @@
+package com.muhasebe.config;
+
+import com.muhasebe.replica.ReadYourWritesTracker;
+import com.muhasebe.replica.ReplicaRoutingDataSource;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.util.StringUtils;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Okuma replikaları açıkken (app.datasource.replica.enabled) Spring Boot'un DataSource'u yerine primary ve replika
+ * havuzları arasında yönlendiren DataSource'u tanımlar
+ * Primary havuzu spring.datasource.* ayarlarıyla Boot'taki gibi kurulur; replika havuzları primary'nin havuz
+ * ayarlarını kopyalar, yalnızca URL, kullanıcı, havuz boyutu ve bağlantı bekleme süresi ayrıdır
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.datasource.replica.enabled", havingValue = "true")
+public class ReplicaDataSourceConfig {
+
+    @Value("${app.datasource.replica.urls}")
+    private String replicaUrls;
+
+    @Value("${app.datasource.replica.username:${spring.datasource.username}}")
+    private String replicaUsername;
+
+    @Value("${app.datasource.replica.password:${spring.datasource.password}}")
+    private String replicaPassword;
+
+    @Value("${app.datasource.replica.maximum-pool-size:10}")
+    private int replicaPoolSize;
+
+    /**
+     * Ulaşılamayan replikada okuma bu süreden sonra primary'ye düşer
+     */
+    @Value("${app.datasource.replica.connection-timeout-ms:1000}")
+    private long replicaConnectionTimeoutMillis;
+
+    @Value("${app.datasource.replica.max-lag-ms:2000}")
+    private long maxLagMillis;
+
+    @Value("${app.datasource.replica.lag-query:}")
+    private String lagQuery;
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    public ReplicaRoutingDataSource replicaRoutingDataSource(HikariDataSource primaryDataSource,
+                                                             ReadYourWritesTracker readYourWritesTracker,
+                                                             ObjectProvider<MeterRegistry> meterRegistry) {
+        List<HikariDataSource> replicas = new ArrayList<>();
+        String[] urls = replicaUrls.split(",");
+        for (int i = 0; i < urls.length; i++) {
+            HikariConfig config = new HikariConfig();
+            primaryDataSource.copyStateTo(config);
+            config.setJdbcUrl(urls[i].trim());
+            config.setUsername(replicaUsername);
+            config.setPassword(replicaPassword);
+            config.setPoolName("replica-" + (i + 1));
+            config.setMaximumPoolSize(replicaPoolSize);
+            config.setMinimumIdle(Math.min(config.getMinimumIdle(), replicaPoolSize));
+            config.setConnectionTimeout(replicaConnectionTimeoutMillis);
+            // Replika havuzları bean olmadığından Boot'un havuz metrikleri (hikaricp.*) burada bağlanır
+            meterRegistry.ifAvailable(config::setMetricRegistry);
+            replicas.add(new HikariDataSource(config));
+        }
+        return new ReplicaRoutingDataSource(primaryDataSource, replicas, readYourWritesTracker, maxLagMillis,
+                StringUtils.hasText(lagQuery) ? lagQuery : ReplicaRoutingDataSource.DEFAULT_LAG_QUERY);
+    }
+
+    /**
+     * Uygulamanın (JPA, Flyway, JdbcTemplate) kullandığı DataSource
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource replicaRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(replicaRoutingDataSource);
+    }
+}
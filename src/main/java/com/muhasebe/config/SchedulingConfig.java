@@ -0,0 +1,12 @@
+package com.muhasebe.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Zamanlanmış görevleri (periyodik flush, temizlik vb.) etkinleştirir
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
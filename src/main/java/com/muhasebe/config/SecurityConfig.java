@@ -1,8 +1,13 @@
 package com.muhasebe.config;
 
+import com.muhasebe.security.BoundedPasswordEncoder;
+import com.muhasebe.security.CustomUserDetailsService;
 import com.muhasebe.security.JwtAuthenticationEntryPoint;
 import com.muhasebe.security.JwtAuthenticationFilter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.DispatcherType;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
@@ -13,7 +18,6 @@ import org.springframework.security.config.annotation.method.configuration.Enabl
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
-import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
@@ -29,7 +33,7 @@ import org.springframework.security.web.authentication.UsernamePasswordAuthentic
 public class SecurityConfig {
 
     @Autowired
-    private UserDetailsService userDetailsService;
+    private CustomUserDetailsService userDetailsService;
 
     @Autowired
     private JwtAuthenticationEntryPoint jwtAuthenticationEntryPoint;
@@ -37,12 +41,40 @@ public class SecurityConfig {
     @Autowired
     private JwtAuthenticationFilter jwtAuthenticationFilter;
 
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.security.password-hashing.strength:12}")
+    private int bcryptStrength;
+
+    /**
+     * 0 ise işlemci sayısı kadar thread kullanılır
+     */
+    @Value("${app.security.password-hashing.pool-size:0}")
+    private int hashingPoolSize;
+
+    @Value("${app.security.password-hashing.queue-capacity:64}")
+    private int hashingQueueCapacity;
+
+    @Value("${app.security.password-hashing.retry-after-seconds:2}")
+    private long hashingRetryAfterSeconds;
+
+    @Value("${app.security.password-hashing.rehash-on-login:true}")
+    private boolean rehashOnLogin;
+
     /**
      * Password encoder bean'i
+     * BCrypt işlemleri sınırlı bir thread havuzunda çalışır, havuz doluysa 503 döner
      */
     @Bean
     public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder(12);
+        int poolSize = hashingPoolSize > 0 ? hashingPoolSize : Runtime.getRuntime().availableProcessors();
+        return new BoundedPasswordEncoder(
+                new BCryptPasswordEncoder(bcryptStrength),
+                poolSize,
+                hashingQueueCapacity,
+                hashingRetryAfterSeconds,
+                meterRegistry);
     }
 
     /**
@@ -53,6 +85,10 @@ public class SecurityConfig {
         DaoAuthenticationProvider authProvider = new DaoAuthenticationProvider();
         authProvider.setUserDetailsService(userDetailsService);
         authProvider.setPasswordEncoder(passwordEncoder());
+        if (rehashOnLogin) {
+            // Maliyet faktörü artırıldığında eski hash'ler başarılı girişte yeniden oluşturulur
+            authProvider.setUserDetailsPasswordService(userDetailsService);
+        }
         return authProvider;
     }
 
@@ -77,6 +113,9 @@ public class SecurityConfig {
                 .sessionManagement(session ->
                         session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 .authorizeHttpRequests(auth -> auth
+                        // Akış yanıtlarının (dışa aktarım) tamamlanma dispatch'i; istek ilk dispatch'te yetkilendirildi
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
+
                         // Public endpoints
                         .requestMatchers("/api/auth/**").permitAll()
                         .requestMatchers("/api/public/**").permitAll()
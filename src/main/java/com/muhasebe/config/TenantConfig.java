@@ -0,0 +1,27 @@
+package com.muhasebe.config;
+
+import com.muhasebe.tenant.TenantFilterTransactionManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.transaction.TransactionManagerCustomizers;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionManager;
+
+/**
+ * Spring Boot'un JpaTransactionManager'ı yerine tenant filtresini açan transaction manager'ı kullanır
+ * spring.transaction.* ayarları Boot'taki gibi customizer'larla uygulanır
+ */
+@Configuration
+public class TenantConfig {
+
+    @Bean
+    public PlatformTransactionManager transactionManager(EntityManagerFactory entityManagerFactory,
+                                                         ObjectProvider<TransactionManagerCustomizers> customizers) {
+        TenantFilterTransactionManager transactionManager = new TenantFilterTransactionManager(entityManagerFactory);
+        // TransactionManager overload'u: PlatformTransactionManager alan customize kaldırılmak üzere deprecated
+        customizers.ifAvailable(customizer -> customizer.customize((TransactionManager) transactionManager));
+        return transactionManager;
+    }
+}
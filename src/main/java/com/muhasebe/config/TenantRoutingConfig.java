@@ -0,0 +1,41 @@
+package com.muhasebe.config;
+
+import com.muhasebe.tenant.TenantConnectionProvider;
+import com.muhasebe.tenant.TenantDirectory;
+import com.muhasebe.tenant.TenantIdentifierResolver;
+import com.muhasebe.tenant.TenantStorageService;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Büyük şirketlerin müşteri ve tedarikçilerini kendi şemalarında tutan tenant yönlendirmesi
+ * (app.tenancy.routing.enabled, varsayılan kapalı)
+ * Açıkken Hibernate oturumları şirketin şemasına bağlanan havuzdan bağlantı alır; ana migration'lardan sonra
+ * dizindeki şemalara db/tenant migration'ları uygulanır
+ */
+@Configuration
+public class TenantRoutingConfig {
+
+    @Bean
+    public HibernatePropertiesCustomizer tenantRoutingCustomizer(TenantDirectory tenantDirectory,
+                                                                 TenantConnectionProvider connectionProvider,
+                                                                 TenantIdentifierResolver identifierResolver) {
+        return properties -> {
+            if (tenantDirectory.isEnabled()) {
+                properties.put(AvailableSettings.MULTI_TENANT_CONNECTION_PROVIDER, connectionProvider);
+                properties.put(AvailableSettings.MULTI_TENANT_IDENTIFIER_RESOLVER, identifierResolver);
+            }
+        };
+    }
+
+    @Bean
+    public FlywayMigrationStrategy tenantSchemaMigrationStrategy(TenantStorageService tenantStorageService) {
+        return flyway -> {
+            flyway.migrate();
+            tenantStorageService.migrateDedicatedSchemas();
+        };
+    }
+}
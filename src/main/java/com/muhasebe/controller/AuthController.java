@@ -3,9 +3,14 @@ package com.muhasebe.controller;
 import com.muhasebe.dto.request.LoginRequest;
 import com.muhasebe.dto.request.RegisterRequest;
 import com.muhasebe.dto.response.AuthResponse;
+import com.muhasebe.exception.ServiceUnavailableException;
+import com.muhasebe.security.JwtTokenProvider;
+import com.muhasebe.security.LoginRateLimiter;
 import com.muhasebe.service.AuthService;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -24,15 +29,29 @@ public class AuthController {
     @Autowired
     private AuthService authService;
 
+    @Autowired
+    private LoginRateLimiter loginRateLimiter;
+
+    @Autowired
+    private JwtTokenProvider jwtTokenProvider;
+
     /**
      * Kullanıcı girişi
      * POST /api/auth/login
      */
     @PostMapping("/login")
-    public ResponseEntity<?> login(@Valid @RequestBody LoginRequest request) {
+    public ResponseEntity<?> login(@Valid @RequestBody LoginRequest request, HttpServletRequest httpRequest) {
+        // Sınır aşımı veritabanı ve BCrypt işinden önce 429 olarak döner
+        loginRateLimiter.checkLogin(httpRequest.getRemoteAddr(), request.getUsernameOrEmail());
         try {
             AuthResponse response = authService.login(request);
             return ResponseEntity.ok(response);
+        } catch (ServiceUnavailableException e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("message", e.getMessage());
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                    .body(error);
         } catch (Exception e) {
             Map<String, String> error = new HashMap<>();
             error.put("message", e.getMessage());
@@ -45,10 +64,17 @@ public class AuthController {
      * POST /api/auth/register
      */
     @PostMapping("/register")
-    public ResponseEntity<?> register(@Valid @RequestBody RegisterRequest request) {
+    public ResponseEntity<?> register(@Valid @RequestBody RegisterRequest request, HttpServletRequest httpRequest) {
+        loginRateLimiter.checkRegister(httpRequest.getRemoteAddr(), request.getEmail());
         try {
             AuthResponse response = authService.register(request);
             return ResponseEntity.status(HttpStatus.CREATED).body(response);
+        } catch (ServiceUnavailableException e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("message", e.getMessage());
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                    .body(error);
         } catch (Exception e) {
             Map<String, String> error = new HashMap<>();
             error.put("message", e.getMessage());
@@ -84,13 +110,29 @@ public class AuthController {
      * POST /api/auth/logout
      */
     @PostMapping("/logout")
-    public ResponseEntity<?> logout() {
-        authService.logout();
+    public ResponseEntity<?> logout(
+            @RequestHeader(value = "Authorization", required = false) String authorization,
+            @RequestBody(required = false) Map<String, String> request) {
+        String accessToken = authorization != null && authorization.startsWith("Bearer ")
+                ? authorization.substring(7)
+                : null;
+        String refreshToken = request != null ? request.get("refreshToken") : null;
+
+        authService.logout(accessToken, refreshToken);
         Map<String, String> response = new HashMap<>();
         response.put("message", "Başarıyla çıkış yapıldı");
         return ResponseEntity.ok(response);
     }
 
+    /**
+     * Token doğrulamak için kullanılan açık anahtarlar (JWKS)
+     * GET /api/auth/jwks
+     */
+    @GetMapping("/jwks")
+    public ResponseEntity<?> jwks() {
+        return ResponseEntity.ok(jwtTokenProvider.getPublicKeySet());
+    }
+
     /**
      * API sağlık kontrolü
      * GET /api/auth/health
@@ -1,22 +1,47 @@
 package com.muhasebe.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.muhasebe.dto.request.CustomerRequest;
+import com.muhasebe.dto.response.BalanceSummaryResponse;
 import com.muhasebe.dto.response.CustomerResponse;
+import com.muhasebe.dto.response.CustomerSummaryResponse;
+import com.muhasebe.dto.response.ImportResultResponse;
+import com.muhasebe.dto.response.ScrollResponse;
+import com.muhasebe.dto.response.SearchResponse;
+import com.muhasebe.dto.response.SuggestionResponse;
+import com.muhasebe.exporter.ExportFormat;
+import com.muhasebe.exception.GlobalExceptionHandler;
+import com.muhasebe.exception.PreconditionFailedException;
+import com.muhasebe.exporter.ExportService;
+import com.muhasebe.importer.BulkImportService;
+import com.muhasebe.repository.support.CountMode;
 import com.muhasebe.service.CustomerService;
 import jakarta.validation.Valid;
+import jakarta.validation.Validator;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.LocalDate;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * Müşteri yönetimi için REST Controller
@@ -26,9 +51,25 @@ import java.util.Map;
 @CrossOrigin(origins = "*", maxAge = 3600)
 public class CustomerController {
 
+    private static final int MAX_SUGGESTIONS = 50;
+
+    private static final int MAX_SCROLL_SIZE = 100;
+
     @Autowired
     private CustomerService customerService;
 
+    @Autowired
+    private BulkImportService bulkImportService;
+
+    @Autowired
+    private ExportService exportService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private Validator validator;
+
     /**
      * Yeni müşteri oluştur
      * POST /api/companies/{companyId}/customers
@@ -49,18 +90,113 @@ public class CustomerController {
     }
 
     /**
-     * Müşteri güncelle
+     * CSV veya Excel (xlsx) dosyasından toplu müşteri içe aktar
+     * POST /api/companies/{companyId}/customers/import (multipart, "file" alanı)
+     */
+    @PostMapping(value = "/import", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    @PreAuthorize("hasAnyRole('ADMIN', 'OWNER', 'ACCOUNTANT')")
+    public ResponseEntity<?> importCustomers(
+            @PathVariable Long companyId,
+            @RequestParam("file") MultipartFile file) {
+        try {
+            ImportResultResponse response = bulkImportService.importCustomers(companyId, file);
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("message", e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
+        }
+    }
+
+    /**
+     * Şirketin tüm müşterileri CSV, Excel (xlsx) veya PDF olarak indir
+     * GET /api/companies/{companyId}/customers/export?format=xlsx|pdf|csv
+     */
+    @GetMapping("/export")
+    @PreAuthorize("hasAnyRole('ADMIN', 'OWNER', 'ACCOUNTANT')")
+    public ResponseEntity<StreamingResponseBody> exportCustomers(
+            @PathVariable Long companyId,
+            @RequestParam(defaultValue = "xlsx") String format) {
+        // Gövde akış olarak yazıldığından hatalar Map yerine GlobalExceptionHandler'a bırakılır
+        ExportFormat exportFormat = ExportFormat.from(format);
+        StreamingResponseBody body = exportService.exportCustomers(companyId, exportFormat);
+        String filename = "musteriler-" + companyId + "-" + LocalDate.now() + "." + exportFormat.getExtension();
+        return ResponseEntity.ok()
+                .contentType(exportFormat.getMediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(filename).build().toString())
+                .body(body);
+    }
+
+    /**
+     * Müşteri güncelle (tüm alanlar)
      * PUT /api/companies/{companyId}/customers/{customerId}
+     * If-Match: GET'te dönen ETag; kayıt o sürümden sonra değiştiyse 412 döner
      */
     @PutMapping("/{customerId}")
     @PreAuthorize("hasAnyRole('ADMIN', 'OWNER', 'ACCOUNTANT', 'USER')")
     public ResponseEntity<?> updateCustomer(
             @PathVariable Long companyId,
             @PathVariable Long customerId,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
             @Valid @RequestBody CustomerRequest request) {
         try {
-            CustomerResponse response = customerService.updateCustomer(companyId, customerId, request);
-            return ResponseEntity.ok(response);
+            CustomerResponse response = customerService.updateCustomer(companyId, customerId, request, EntityTags.parseIfMatch(ifMatch));
+            return ResponseEntity.ok().eTag(EntityTags.of(response.getVersion())).body(response);
+        } catch (PreconditionFailedException e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("message", e.getMessage());
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).body(error);
+        } catch (OptimisticLockingFailureException e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("message", GlobalExceptionHandler.CONCURRENT_UPDATE_MESSAGE);
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(error);
+        } catch (Exception e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("message", e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
+        }
+    }
+
+    /**
+     * Müşterinin yalnızca gönderilen alanlarını güncelle (gövdede olmayan alanlar değişmez, null alanı temizler)
+     * PATCH /api/companies/{companyId}/customers/{customerId}
+     * If-Match verilmezse farklı alanları aynı anda düzenleyen istekler birbirini ezmeden uygulanır
+     */
+    @PatchMapping("/{customerId}")
+    @PreAuthorize("hasAnyRole('ADMIN', 'OWNER', 'ACCOUNTANT', 'USER')")
+    public ResponseEntity<?> patchCustomer(
+            @PathVariable Long companyId,
+            @PathVariable Long customerId,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            @RequestBody ObjectNode patch) {
+        try {
+            CustomerRequest request = objectMapper.treeToValue(patch, CustomerRequest.class);
+            Set<String> fields = new LinkedHashSet<>();
+            patch.fieldNames().forEachRemaining(fields::add);
+
+            // Yalnızca gönderilen alanlar doğrulanır (PUT'taki @Valid ile aynı kurallar)
+            Map<String, String> errors = new HashMap<>();
+            for (String field : fields) {
+                validator.validateProperty(request, field)
+                        .forEach(violation -> errors.put(field, violation.getMessage()));
+            }
+            if (!errors.isEmpty()) {
+                Map<String, Object> error = new HashMap<>();
+                error.put("message", "Girilen veriler geçersiz");
+                error.put("errors", errors);
+                return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
+            }
+
+            CustomerResponse response = customerService.patchCustomer(companyId, customerId, request, fields, EntityTags.parseIfMatch(ifMatch));
+            return ResponseEntity.ok().eTag(EntityTags.of(response.getVersion())).body(response);
+        } catch (PreconditionFailedException e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("message", e.getMessage());
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).body(error);
+        } catch (OptimisticLockingFailureException e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("message", GlobalExceptionHandler.CONCURRENT_UPDATE_MESSAGE);
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(error);
         } catch (Exception e) {
             Map<String, String> error = new HashMap<>();
             error.put("message", e.getMessage());
@@ -100,7 +236,7 @@ public class CustomerController {
             @PathVariable Long customerId) {
         try {
             CustomerResponse response = customerService.getCustomer(companyId, customerId);
-            return ResponseEntity.ok(response);
+            return ResponseEntity.ok().eTag(EntityTags.of(response.getVersion())).body(response);
         } catch (Exception e) {
             Map<String, String> error = new HashMap<>();
             error.put("message", e.getMessage());
@@ -126,7 +262,7 @@ public class CustomerController {
                     Sort.by(sortBy).descending();
 
             Pageable pageable = PageRequest.of(page, size, sort);
-            Page<CustomerResponse> customers = customerService.getAllCustomers(companyId, pageable);
+            Page<CustomerSummaryResponse> customers = customerService.getAllCustomers(companyId, pageable);
 
             Map<String, Object> response = new HashMap<>();
             response.put("customers", customers.getContent());
@@ -142,6 +278,40 @@ public class CustomerController {
         }
     }
 
+    /**
+     * Tüm müşterileri cursor ile listele (OFFSET ve COUNT yapılmaz)
+     * GET /api/companies/{companyId}/customers/scroll?cursor=...&count=none|estimate|exact
+     */
+    @GetMapping("/scroll")
+    @PreAuthorize("hasAnyRole('ADMIN', 'OWNER', 'ACCOUNTANT', 'USER', 'VIEWER')")
+    public ResponseEntity<?> scrollCustomers(
+            @PathVariable Long companyId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "name") String sortBy,
+            @RequestParam(defaultValue = "asc") String sortDir,
+            @RequestParam(defaultValue = "none") String count) {
+        try {
+            CountMode countMode = CountMode.valueOf(count.toUpperCase(Locale.ROOT));
+            int boundedSize = Math.max(1, Math.min(size, MAX_SCROLL_SIZE));
+            ScrollResponse<CustomerResponse> customers = customerService.scrollCustomers(
+                    companyId, cursor, boundedSize, sortBy, sortDir, countMode);
+
+            Map<String, Object> response = new HashMap<>();
+            response.put("customers", customers.getItems());
+            response.put("nextCursor", customers.getNextCursor());
+            response.put("hasNext", customers.isHasNext());
+            response.put("totalItems", customers.getTotalItems());
+            response.put("totalEstimated", customers.isTotalEstimated());
+
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("message", e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
+        }
+    }
+
     /**
      * Aktif müşterileri listele
      * GET /api/companies/{companyId}/customers/active
@@ -154,7 +324,7 @@ public class CustomerController {
             @RequestParam(defaultValue = "10") int size) {
         try {
             Pageable pageable = PageRequest.of(page, size, Sort.by("name").ascending());
-            Page<CustomerResponse> customers = customerService.getActiveCustomers(companyId, pageable);
+            Page<CustomerSummaryResponse> customers = customerService.getActiveCustomers(companyId, pageable);
 
             Map<String, Object> response = new HashMap<>();
             response.put("customers", customers.getContent());
@@ -170,9 +340,31 @@ public class CustomerController {
         }
     }
 
+    /**
+     * Yazarken müşteri önerisi
+     * GET /api/companies/{companyId}/customers/suggest?q=...
+     */
+    @GetMapping("/suggest")
+    @PreAuthorize("hasAnyRole('ADMIN', 'OWNER', 'ACCOUNTANT', 'USER', 'VIEWER')")
+    public ResponseEntity<?> suggestCustomers(
+            @PathVariable Long companyId,
+            @RequestParam String q,
+            @RequestParam(defaultValue = "10") int limit) {
+        try {
+            int boundedLimit = Math.max(1, Math.min(limit, MAX_SUGGESTIONS));
+            List<SuggestionResponse> suggestions = customerService.suggestCustomers(companyId, q, boundedLimit);
+            return ResponseEntity.ok(suggestions);
+        } catch (Exception e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("message", e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
+        }
+    }
+
     /**
      * Müşteri ara
-     * GET /api/companies/{companyId}/customers/search?keyword=...
+     * GET /api/companies/{companyId}/customers/search?keyword=...&count=none|estimate|exact
+     * Toplam sayı varsayılan olarak hesaplanmaz; sonraki sayfanın varlığı hasNext ile döner
      */
     @GetMapping("/search")
     @PreAuthorize("hasAnyRole('ADMIN', 'OWNER', 'ACCOUNTANT', 'USER', 'VIEWER')")
@@ -180,16 +372,19 @@ public class CustomerController {
             @PathVariable Long companyId,
             @RequestParam String keyword,
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "10") int size) {
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "none") String count) {
         try {
-            Pageable pageable = PageRequest.of(page, size, Sort.by("name").ascending());
-            Page<CustomerResponse> customers = customerService.globalSearch(companyId, keyword, pageable);
+            CountMode countMode = CountMode.valueOf(count.toUpperCase(Locale.ROOT));
+            Pageable pageable = PageRequest.of(page, size);
+            SearchResponse<CustomerSummaryResponse> customers = customerService.globalSearch(companyId, keyword, pageable, countMode);
 
             Map<String, Object> response = new HashMap<>();
-            response.put("customers", customers.getContent());
-            response.put("currentPage", customers.getNumber());
-            response.put("totalItems", customers.getTotalElements());
-            response.put("totalPages", customers.getTotalPages());
+            response.put("customers", customers.getItems());
+            response.put("currentPage", customers.getPage());
+            response.put("hasNext", customers.isHasNext());
+            response.put("totalItems", customers.getTotalItems());
+            response.put("totalEstimated", customers.isTotalEstimated());
 
             return ResponseEntity.ok(response);
         } catch (Exception e) {
@@ -215,4 +410,21 @@ public class CustomerController {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
         }
     }
+
+    /**
+     * Müşteri borç/alacak özeti (toplam, şehir ve tip kırılımı)
+     * GET /api/companies/{companyId}/customers/balance-summary
+     */
+    @GetMapping("/balance-summary")
+    @PreAuthorize("hasAnyRole('ADMIN', 'OWNER', 'ACCOUNTANT', 'VIEWER')")
+    public ResponseEntity<?> getBalanceSummary(@PathVariable Long companyId) {
+        try {
+            BalanceSummaryResponse summary = customerService.getBalanceSummary(companyId);
+            return ResponseEntity.ok(summary);
+        } catch (Exception e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("message", e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,35 @@
+package com.muhasebe.controller;
+
+import com.muhasebe.exception.PreconditionFailedException;
+
+/**
+ * Kaydın sürümünü (BaseEntity.version) ETag olarak yazar ve If-Match başlığından geri okur
+ */
+final class EntityTags {
+
+    private EntityTags() {
+    }
+
+    static String of(Long version) {
+        return "\"" + version + "\"";
+    }
+
+    /**
+     * If-Match yoksa veya "*" ise null döner (sürüm kontrolü yapılmaz)
+     * Zayıf ETag (W/) veya sürüm taşımayan değer kayıtla eşleşemez; güncelleme 412 ile reddedilir
+     */
+    static Long parseIfMatch(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String tag = ifMatch.trim();
+        if (tag.length() > 2 && tag.startsWith("\"") && tag.endsWith("\"")) {
+            try {
+                return Long.parseLong(tag.substring(1, tag.length() - 1));
+            } catch (NumberFormatException e) {
+                // aşağıda reddedilir
+            }
+        }
+        throw new PreconditionFailedException("If-Match kaydın sürümüyle eşleşmiyor: " + ifMatch);
+    }
+}
@@ -1,21 +1,47 @@
 package com.muhasebe.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.muhasebe.dto.request.SupplierRequest;
+import com.muhasebe.dto.response.BalanceSummaryResponse;
 import com.muhasebe.dto.response.SupplierResponse;
+import com.muhasebe.dto.response.SupplierSummaryResponse;
+import com.muhasebe.dto.response.ImportResultResponse;
+import com.muhasebe.dto.response.ScrollResponse;
+import com.muhasebe.dto.response.SearchResponse;
+import com.muhasebe.dto.response.SuggestionResponse;
+import com.muhasebe.exporter.ExportFormat;
+import com.muhasebe.exception.GlobalExceptionHandler;
+import com.muhasebe.exception.PreconditionFailedException;
+import com.muhasebe.exporter.ExportService;
+import com.muhasebe.importer.BulkImportService;
+import com.muhasebe.repository.support.CountMode;
 import com.muhasebe.service.SupplierService;
 import jakarta.validation.Valid;
+import jakarta.validation.Validator;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.LocalDate;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * Tedarikçi yönetimi için REST Controller
@@ -25,9 +51,25 @@ import java.util.Map;
 @CrossOrigin(origins = "*", maxAge = 3600)
 public class SupplierController {
 
+    private static final int MAX_SUGGESTIONS = 50;
+
+    private static final int MAX_SCROLL_SIZE = 100;
+
     @Autowired
     private SupplierService supplierService;
 
+    @Autowired
+    private BulkImportService bulkImportService;
+
+    @Autowired
+    private ExportService exportService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private Validator validator;
+
     /**
      * Yeni tedarikçi oluştur
      * POST /api/companies/{companyId}/suppliers
@@ -48,18 +90,113 @@ public class SupplierController {
     }
 
     /**
-     * Tedarikçi güncelle
+     * CSV veya Excel (xlsx) dosyasından toplu tedarikçi içe aktar
+     * POST /api/companies/{companyId}/suppliers/import (multipart, "file" alanı)
+     */
+    @PostMapping(value = "/import", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    @PreAuthorize("hasAnyRole('ADMIN', 'OWNER', 'ACCOUNTANT')")
+    public ResponseEntity<?> importSuppliers(
+            @PathVariable Long companyId,
+            @RequestParam("file") MultipartFile file) {
+        try {
+            ImportResultResponse response = bulkImportService.importSuppliers(companyId, file);
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("message", e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
+        }
+    }
+
+    /**
+     * Şirketin tüm tedarikçileri CSV, Excel (xlsx) veya PDF olarak indir
+     * GET /api/companies/{companyId}/suppliers/export?format=xlsx|pdf|csv
+     */
+    @GetMapping("/export")
+    @PreAuthorize("hasAnyRole('ADMIN', 'OWNER', 'ACCOUNTANT')")
+    public ResponseEntity<StreamingResponseBody> exportSuppliers(
+            @PathVariable Long companyId,
+            @RequestParam(defaultValue = "xlsx") String format) {
+        // Gövde akış olarak yazıldığından hatalar Map yerine GlobalExceptionHandler'a bırakılır
+        ExportFormat exportFormat = ExportFormat.from(format);
+        StreamingResponseBody body = exportService.exportSuppliers(companyId, exportFormat);
+        String filename = "tedarikciler-" + companyId + "-" + LocalDate.now() + "." + exportFormat.getExtension();
+        return ResponseEntity.ok()
+                .contentType(exportFormat.getMediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(filename).build().toString())
+                .body(body);
+    }
+
+    /**
+     * Tedarikçi güncelle (tüm alanlar)
      * PUT /api/companies/{companyId}/suppliers/{supplierId}
+     * If-Match: GET'te dönen ETag; kayıt o sürümden sonra değiştiyse 412 döner
      */
     @PutMapping("/{supplierId}")
     @PreAuthorize("hasAnyRole('ADMIN', 'OWNER', 'ACCOUNTANT', 'USER')")
     public ResponseEntity<?> updateSupplier(
             @PathVariable Long companyId,
             @PathVariable Long supplierId,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
             @Valid @RequestBody SupplierRequest request) {
         try {
-            SupplierResponse response = supplierService.updateSupplier(companyId, supplierId, request);
-            return ResponseEntity.ok(response);
+            SupplierResponse response = supplierService.updateSupplier(companyId, supplierId, request, EntityTags.parseIfMatch(ifMatch));
+            return ResponseEntity.ok().eTag(EntityTags.of(response.getVersion())).body(response);
+        } catch (PreconditionFailedException e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("message", e.getMessage());
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).body(error);
+        } catch (OptimisticLockingFailureException e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("message", GlobalExceptionHandler.CONCURRENT_UPDATE_MESSAGE);
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(error);
+        } catch (Exception e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("message", e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
+        }
+    }
+
+    /**
+     * Tedarikçinin yalnızca gönderilen alanlarını güncelle (gövdede olmayan alanlar değişmez, null alanı temizler)
+     * PATCH /api/companies/{companyId}/suppliers/{supplierId}
+     * If-Match verilmezse farklı alanları aynı anda düzenleyen istekler birbirini ezmeden uygulanır
+     */
+    @PatchMapping("/{supplierId}")
+    @PreAuthorize("hasAnyRole('ADMIN', 'OWNER', 'ACCOUNTANT', 'USER')")
+    public ResponseEntity<?> patchSupplier(
+            @PathVariable Long companyId,
+            @PathVariable Long supplierId,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            @RequestBody ObjectNode patch) {
+        try {
+            SupplierRequest request = objectMapper.treeToValue(patch, SupplierRequest.class);
+            Set<String> fields = new LinkedHashSet<>();
+            patch.fieldNames().forEachRemaining(fields::add);
+
+            // Yalnızca gönderilen alanlar doğrulanır (PUT'taki @Valid ile aynı kurallar)
+            Map<String, String> errors = new HashMap<>();
+            for (String field : fields) {
+                validator.validateProperty(request, field)
+                        .forEach(violation -> errors.put(field, violation.getMessage()));
+            }
+            if (!errors.isEmpty()) {
+                Map<String, Object> error = new HashMap<>();
+                error.put("message", "Girilen veriler geçersiz");
+                error.put("errors", errors);
+                return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
+            }
+
+            SupplierResponse response = supplierService.patchSupplier(companyId, supplierId, request, fields, EntityTags.parseIfMatch(ifMatch));
+            return ResponseEntity.ok().eTag(EntityTags.of(response.getVersion())).body(response);
+        } catch (PreconditionFailedException e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("message", e.getMessage());
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).body(error);
+        } catch (OptimisticLockingFailureException e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("message", GlobalExceptionHandler.CONCURRENT_UPDATE_MESSAGE);
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(error);
         } catch (Exception e) {
             Map<String, String> error = new HashMap<>();
             error.put("message", e.getMessage());
@@ -99,7 +236,7 @@ public class SupplierController {
             @PathVariable Long supplierId) {
         try {
             SupplierResponse response = supplierService.getSupplier(companyId, supplierId);
-            return ResponseEntity.ok(response);
+            return ResponseEntity.ok().eTag(EntityTags.of(response.getVersion())).body(response);
         } catch (Exception e) {
             Map<String, String> error = new HashMap<>();
             error.put("message", e.getMessage());
@@ -125,7 +262,7 @@ public class SupplierController {
                     Sort.by(sortBy).descending();
 
             Pageable pageable = PageRequest.of(page, size, sort);
-            Page<SupplierResponse> suppliers = supplierService.getAllSuppliers(companyId, pageable);
+            Page<SupplierSummaryResponse> suppliers = supplierService.getAllSuppliers(companyId, pageable);
 
             Map<String, Object> response = new HashMap<>();
             response.put("suppliers", suppliers.getContent());
@@ -141,9 +278,65 @@ public class SupplierController {
         }
     }
 
+    /**
+     * Tüm tedarikçileri cursor ile listele (OFFSET ve COUNT yapılmaz)
+     * GET /api/companies/{companyId}/suppliers/scroll?cursor=...&count=none|estimate|exact
+     */
+    @GetMapping("/scroll")
+    @PreAuthorize("hasAnyRole('ADMIN', 'OWNER', 'ACCOUNTANT', 'USER', 'VIEWER')")
+    public ResponseEntity<?> scrollSuppliers(
+            @PathVariable Long companyId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "name") String sortBy,
+            @RequestParam(defaultValue = "asc") String sortDir,
+            @RequestParam(defaultValue = "none") String count) {
+        try {
+            CountMode countMode = CountMode.valueOf(count.toUpperCase(Locale.ROOT));
+            int boundedSize = Math.max(1, Math.min(size, MAX_SCROLL_SIZE));
+            ScrollResponse<SupplierResponse> suppliers = supplierService.scrollSuppliers(
+                    companyId, cursor, boundedSize, sortBy, sortDir, countMode);
+
+            Map<String, Object> response = new HashMap<>();
+            response.put("suppliers", suppliers.getItems());
+            response.put("nextCursor", suppliers.getNextCursor());
+            response.put("hasNext", suppliers.isHasNext());
+            response.put("totalItems", suppliers.getTotalItems());
+            response.put("totalEstimated", suppliers.isTotalEstimated());
+
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("message", e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
+        }
+    }
+
+    /**
+     * Yazarken tedarikçi önerisi
+     * GET /api/companies/{companyId}/suppliers/suggest?q=...
+     */
+    @GetMapping("/suggest")
+    @PreAuthorize("hasAnyRole('ADMIN', 'OWNER', 'ACCOUNTANT', 'USER', 'VIEWER')")
+    public ResponseEntity<?> suggestSuppliers(
+            @PathVariable Long companyId,
+            @RequestParam String q,
+            @RequestParam(defaultValue = "10") int limit) {
+        try {
+            int boundedLimit = Math.max(1, Math.min(limit, MAX_SUGGESTIONS));
+            List<SuggestionResponse> suggestions = supplierService.suggestSuppliers(companyId, q, boundedLimit);
+            return ResponseEntity.ok(suggestions);
+        } catch (Exception e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("message", e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
+        }
+    }
+
     /**
      * Tedarikçi ara
-     * GET /api/companies/{companyId}/suppliers/search?keyword=...
+     * GET /api/companies/{companyId}/suppliers/search?keyword=...&count=none|estimate|exact
+     * Toplam sayı varsayılan olarak hesaplanmaz; sonraki sayfanın varlığı hasNext ile döner
      */
     @GetMapping("/search")
     @PreAuthorize("hasAnyRole('ADMIN', 'OWNER', 'ACCOUNTANT', 'USER', 'VIEWER')")
@@ -151,16 +344,19 @@ public class SupplierController {
             @PathVariable Long companyId,
             @RequestParam String keyword,
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "10") int size) {
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "none") String count) {
         try {
-            Pageable pageable = PageRequest.of(page, size, Sort.by("name").ascending());
-            Page<SupplierResponse> suppliers = supplierService.globalSearch(companyId, keyword, pageable);
+            CountMode countMode = CountMode.valueOf(count.toUpperCase(Locale.ROOT));
+            Pageable pageable = PageRequest.of(page, size);
+            SearchResponse<SupplierSummaryResponse> suppliers = supplierService.globalSearch(companyId, keyword, pageable, countMode);
 
             Map<String, Object> response = new HashMap<>();
-            response.put("suppliers", suppliers.getContent());
-            response.put("currentPage", suppliers.getNumber());
-            response.put("totalItems", suppliers.getTotalElements());
-            response.put("totalPages", suppliers.getTotalPages());
+            response.put("suppliers", suppliers.getItems());
+            response.put("currentPage", suppliers.getPage());
+            response.put("hasNext", suppliers.isHasNext());
+            response.put("totalItems", suppliers.getTotalItems());
+            response.put("totalEstimated", suppliers.isTotalEstimated());
 
             return ResponseEntity.ok(response);
         } catch (Exception e) {
@@ -169,4 +365,21 @@ public class SupplierController {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
         }
     }
+
+    /**
+     * Tedarikçi borç/alacak özeti (toplam, şehir ve tip kırılımı)
+     * GET /api/companies/{companyId}/suppliers/balance-summary
+     */
+    @GetMapping("/balance-summary")
+    @PreAuthorize("hasAnyRole('ADMIN', 'OWNER', 'ACCOUNTANT', 'VIEWER')")
+    public ResponseEntity<?> getBalanceSummary(@PathVariable Long companyId) {
+        try {
+            BalanceSummaryResponse summary = supplierService.getBalanceSummary(companyId);
+            return ResponseEntity.ok(summary);
+        } catch (Exception e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("message", e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,76 @@
+package com.muhasebe.controller;
+
+import com.muhasebe.dto.response.TenantStorageResponse;
+import com.muhasebe.tenant.TenantStorageService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Şirketlerin paylaşılan tablolarla kendi şemaları arasında taşınması için REST Controller (yalnızca sistem yöneticisi)
+ */
+@RestController
+@RequestMapping("/api/admin/tenants")
+@CrossOrigin(origins = "*", maxAge = 3600)
+public class TenantStorageController {
+
+    @Autowired
+    private TenantStorageService tenantStorageService;
+
+    /**
+     * Ayrı şemadaki şirketler
+     * GET /api/admin/tenants
+     */
+    @GetMapping
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> getDedicatedTenants() {
+        try {
+            List<TenantStorageResponse> response = tenantStorageService.getDedicatedTenants();
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("message", e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
+        }
+    }
+
+    /**
+     * Şirketin müşteri ve tedarikçilerini kendi şemasına taşı
+     * POST /api/admin/tenants/{companyId}/dedicated
+     */
+    @PostMapping("/{companyId}/dedicated")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> moveToDedicated(@PathVariable Long companyId) {
+        try {
+            TenantStorageResponse response = tenantStorageService.moveToDedicated(companyId);
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("message", e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
+        }
+    }
+
+    /**
+     * Şirketin müşteri ve tedarikçilerini paylaşılan tablolara geri taşı
+     * DELETE /api/admin/tenants/{companyId}/dedicated
+     */
+    @DeleteMapping("/{companyId}/dedicated")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> moveToShared(@PathVariable Long companyId) {
+        try {
+            TenantStorageResponse response = tenantStorageService.moveToShared(companyId);
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("message", e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.muhasebe.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+/**
+ * Bakiye özetinde bir grup (şirket toplamı, bir şehir veya bir tip)
+ * Borç tutarları pozitif döner; debtBuckets borçlu sayısını tutar aralığına göre verir
+ * Kredi limiti tutulmayan kayıtlarda (tedarikçiler) overLimit alanları yanıtta yer almaz
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BalanceGroupResponse {
+
+    private String key;
+    private long totalCount;
+    private long debtorCount;
+    private BigDecimal totalDebt;
+    private long creditorCount;
+    private BigDecimal totalCredit;
+    private BigDecimal netBalance;
+    private Long overLimitCount;
+    private BigDecimal overLimitAmount;
+    private Map<String, Long> debtBuckets;
+}
@@ -0,0 +1,23 @@
+package com.muhasebe.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Şirketin borç/alacak özeti: toplam, şehir bazında ve tip bazında kırılım
+ * Gruplar toplam borca göre büyükten küçüğe sıralıdır; şehri veya tipi boş kayıtların grubu key alanı olmadan döner
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BalanceSummaryResponse {
+
+    private BalanceGroupResponse total;
+    private List<BalanceGroupResponse> byCity;
+    private List<BalanceGroupResponse> byType;
+}
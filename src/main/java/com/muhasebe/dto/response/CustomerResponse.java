@@ -42,6 +42,7 @@ public class CustomerResponse {
     private LocalDateTime updatedAt;
     private String createdBy;
     private String updatedBy;
+    private Long version;
 
     // Helper methodlar
     private Boolean hasDebt;
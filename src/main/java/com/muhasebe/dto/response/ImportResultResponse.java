@@ -0,0 +1,25 @@
+package com.muhasebe.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Toplu içe aktarma sonucu
+ * errors en fazla app.import.max-errors kayıt içerir, aşılırsa errorsTruncated true olur
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ImportResultResponse {
+
+    private int totalRows;
+    private int importedRows;
+    private int failedRows;
+    private List<ImportRowError> errors;
+    private boolean errorsTruncated;
+}
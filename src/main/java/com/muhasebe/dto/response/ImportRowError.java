@@ -0,0 +1,21 @@
+package com.muhasebe.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * İçe aktarılamayan satır için hata kaydı
+ * row dosyadaki satır numarasıdır (başlık satırı 1), field satırın tamamıyla ilgili hatalarda null'dır
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ImportRowError {
+
+    private int row;
+    private String field;
+    private String message;
+}
@@ -0,0 +1,25 @@
+package com.muhasebe.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * İlgiye göre sıralı aramanın bir sayfası
+ * totalItems istenmediyse null, totalEstimated true ise yaklaşık değerdir
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SearchResponse<T> {
+
+    private List<T> items;
+    private int page;
+    private boolean hasNext;
+    private Long totalItems;
+    private boolean totalEstimated;
+}
@@ -0,0 +1,22 @@
+package com.muhasebe.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Yazarken öneri listesindeki tek bir müşteri veya tedarikçi
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SuggestionResponse {
+
+    private Long id;
+    private String name;
+    private String taxNumber;
+    private String phone;
+    private String email;
+}
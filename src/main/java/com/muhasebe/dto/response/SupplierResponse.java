@@ -43,6 +43,7 @@ public class SupplierResponse {
     private LocalDateTime updatedAt;
     private String createdBy;
     private String updatedBy;
+    private Long version;
 
     // Helper methodlar
     private Boolean hasDebt;
@@ -0,0 +1,25 @@
+package com.muhasebe.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * Tedarikçi listesi, arama ve aktif kayıtlar için özet yanıt (detay için SupplierResponse kullanılır)
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SupplierSummaryResponse {
+
+    private Long id;
+    private String name;
+    private String taxNumber;
+    private String city;
+    private BigDecimal balance;
+    private Boolean isActive;
+}
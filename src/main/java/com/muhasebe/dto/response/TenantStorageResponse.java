@@ -0,0 +1,24 @@
+package com.muhasebe.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Şirketin müşteri ve tedarikçi kayıtlarının nerede tutulduğu
+ * schemaName paylaşılan tablolardaki şirket için null'dır; taşınan kayıt sayıları yalnızca taşıma yanıtında döner
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class TenantStorageResponse {
+
+    private Long companyId;
+    private String schemaName;
+    private Integer movedCustomers;
+    private Integer movedSuppliers;
+}
@@ -1,8 +1,10 @@
 package com.muhasebe.entity;
 
+import com.muhasebe.entity.support.TableSequenceGenerator;
 import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.Setter;
+import org.hibernate.annotations.GenericGenerator;
 import org.springframework.data.annotation.CreatedBy;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedBy;
@@ -13,7 +15,7 @@ import java.time.LocalDateTime;
 
 /**
  * Tüm entity'lerin miras alacağı temel sınıf
- * Ortak alanları içerir: id, createdAt, updatedAt, createdBy, updatedBy
+ * Ortak alanları içerir: id, createdAt, updatedAt, createdBy, updatedBy, version
  */
 @Getter
 @Setter
@@ -21,8 +23,12 @@ import java.time.LocalDateTime;
 @EntityListeners(AuditingEntityListener.class)
 public abstract class BaseEntity {
 
+    /**
+     * Tablonun dizisinden pooled-lo ile blok halinde alınır, INSERT'ler batch'lenebilir (TableSequenceGenerator)
+     */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(generator = "table_sequence")
+    @GenericGenerator(name = "table_sequence", type = TableSequenceGenerator.class)
     private Long id;
 
     @CreatedDate
@@ -44,6 +50,14 @@ public abstract class BaseEntity {
     @Column(name = "is_deleted")
     private Boolean isDeleted = false;
 
+    /**
+     * İyimser kilitleme: UPDATE okunan sürümle koşullanır, arada değişen kayıtta OptimisticLockException alınır
+     * API'de ETag olarak döner, PUT/PATCH'te If-Match ile karşılaştırılır
+     */
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+
     @PrePersist
     protected void onCreate() {
         if (createdAt == null) {
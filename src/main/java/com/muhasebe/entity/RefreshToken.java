@@ -0,0 +1,44 @@
+package com.muhasebe.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Üretilen refresh token kayıtları
+ * Aynı girişten türeyen token'lar aynı family_id'yi paylaşır; tekrar kullanımda tüm aile iptal edilir
+ */
+@Entity
+@Table(name = "refresh_tokens", uniqueConstraints = {
+        @UniqueConstraint(columnNames = "jti")
+}, indexes = {
+        @Index(name = "idx_refresh_tokens_family_id", columnList = "family_id")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RefreshToken extends BaseEntity {
+
+    @Column(name = "jti", nullable = false, length = 36)
+    private String jti;
+
+    @Column(name = "family_id", nullable = false, length = 36)
+    private String familyId;
+
+    @Column(name = "username", nullable = false, length = 50)
+    private String username;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+
+    @Column(name = "used", nullable = false)
+    @Builder.Default
+    private Boolean used = false;
+
+    @Column(name = "revoked", nullable = false)
+    @Builder.Default
+    private Boolean revoked = false;
+}
@@ -0,0 +1,31 @@
+package com.muhasebe.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Çıkış yapılarak iptal edilen erişim token'ları (deny-list)
+ * Kayıt, token'ın kendi süresi dolduğunda silinir
+ */
+@Entity
+@Table(name = "revoked_tokens", uniqueConstraints = {
+        @UniqueConstraint(columnNames = "jti")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RevokedToken extends BaseEntity {
+
+    @Column(name = "jti", nullable = false, length = 36)
+    private String jti;
+
+    @Column(name = "username", length = 50)
+    private String username;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+}
@@ -1,18 +1,28 @@
 package com.muhasebe.entity;
 
+import com.muhasebe.search.SearchIndexEntityListener;
+import com.muhasebe.tenant.TenantContext;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
 import lombok.*;
+import org.hibernate.annotations.DynamicUpdate;
+import org.hibernate.annotations.Filter;
+import org.hibernate.annotations.SQLRestriction;
 
 import java.math.BigDecimal;
 
 /**
  * Tedarikçi Entity Sınıfı
  * Dosya Yolu: src/main/java/com/muhasebe/entity/Supplier.java
+ * UPDATE yalnızca değişen kolonları yazar (@DynamicUpdate); farklı alanları güncelleyen istekler tüm satırı yeniden yazmaz
  */
 @Entity
+@DynamicUpdate
+@Filter(name = TenantContext.FILTER_NAME)
+@SQLRestriction("is_deleted = false")
+@EntityListeners(SearchIndexEntityListener.class)
 @Table(name = "suppliers", uniqueConstraints = {
         @UniqueConstraint(columnNames = {"tax_number", "company_id"})
 })
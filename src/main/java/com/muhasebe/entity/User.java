@@ -1,13 +1,20 @@
 package com.muhasebe.entity;
 
 import com.muhasebe.enums.Role;
+import com.muhasebe.security.UserSecurityEntityListener;
+import com.muhasebe.tenant.TenantContext;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
 import lombok.*;
+import org.hibernate.annotations.Filter;
+import org.hibernate.annotations.SQLRestriction;
 
 @Entity
+@Filter(name = TenantContext.USER_FILTER_NAME)
+@SQLRestriction("is_deleted = false")
+@EntityListeners(UserSecurityEntityListener.class)
 @Table(name = "users", uniqueConstraints = {
         @UniqueConstraint(columnNames = "email"),
         @UniqueConstraint(columnNames = "username")
@@ -19,6 +26,16 @@ import lombok.*;
 @Builder
 public class User extends BaseEntity {
 
+    /**
+     * Hesabın kilitlenmesi için gereken ardışık başarısız giriş sayısı
+     */
+    public static final int MAX_FAILED_LOGIN_ATTEMPTS = 5;
+
+    /**
+     * Hesabın kilitli kalacağı süre (dakika)
+     */
+    public static final int LOCK_DURATION_MINUTES = 30;
+
     @NotBlank
     @Size(min = 3, max = 50)
     @Column(name = "username", nullable = false, unique = true, length = 50)
@@ -72,6 +89,12 @@ public class User extends BaseEntity {
     @Column(name = "locked_until")
     private java.time.LocalDateTime lockedUntil;
 
+    /**
+     * Token iptal sayacı; yalnızca TokenRevocationRegistry tarafından artırılır, JPA ile yazılmaz
+     */
+    @Column(name = "token_epoch", insertable = false, updatable = false)
+    private Long tokenEpoch;
+
     public String getFullName() {
         return firstName + " " + lastName;
     }
@@ -85,8 +108,8 @@ public class User extends BaseEntity {
 
     public void incrementFailedLoginAttempts() {
         this.failedLoginAttempts++;
-        if (this.failedLoginAttempts >= 5) {
-            this.lockedUntil = java.time.LocalDateTime.now().plusMinutes(30);
+        if (this.failedLoginAttempts >= MAX_FAILED_LOGIN_ATTEMPTS) {
+            this.lockedUntil = java.time.LocalDateTime.now().plusMinutes(LOCK_DURATION_MINUTES);
         }
     }
 
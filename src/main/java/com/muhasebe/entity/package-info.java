@@ -0,0 +1,15 @@
+/**
+ * Tenant filtreleri: Customer/Supplier ve User sorgularına şirket koşulunu ekler
+ * Transaction başında TenantContext'teki şirketle açılır (TenantFilterTransactionManager)
+ */
+@FilterDef(name = TenantContext.FILTER_NAME,
+        parameters = @ParamDef(name = TenantContext.FILTER_PARAMETER, type = Long.class),
+        defaultCondition = "company_id = :" + TenantContext.FILTER_PARAMETER)
+@FilterDef(name = TenantContext.USER_FILTER_NAME,
+        parameters = @ParamDef(name = TenantContext.FILTER_PARAMETER, type = Long.class),
+        defaultCondition = "company_id = :" + TenantContext.FILTER_PARAMETER)
+package com.muhasebe.entity;
+
+import com.muhasebe.tenant.TenantContext;
+import org.hibernate.annotations.FilterDef;
+import org.hibernate.annotations.ParamDef;
@@ -0,0 +1,36 @@
+package com.muhasebe.entity.support;
+
+import org.hibernate.MappingException;
+import org.hibernate.engine.config.spi.ConfigurationService;
+import org.hibernate.id.PersistentIdentifierGenerator;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+import org.hibernate.id.enhanced.StandardOptimizerDescriptor;
+import org.hibernate.internal.util.config.ConfigurationHelper;
+import org.hibernate.service.ServiceRegistry;
+import org.hibernate.type.Type;
+
+import java.util.Properties;
+
+/**
+ * Her tablonun kendi bigserial dizisini ({tablo}_id_seq) pooled-lo optimizer ile kullanan id üreteci
+ * Hibernate her nextval ile allocation size kadar id'lik bir blok ayırır; IDENTITY'nin aksine id INSERT'ten önce
+ * bilindiği için INSERT'ler JDBC batch ile gönderilebilir
+ * Blok boyutu app.id-allocation-size Hibernate ayarından okunur ve dizinin INCREMENT değeriyle aynı olmalıdır
+ * (db/migration/R__id_sequence_increments.sql); farklıysa uygulama açılışta hata verir
+ */
+public class TableSequenceGenerator extends SequenceStyleGenerator {
+
+    public static final String ALLOCATION_SIZE_SETTING = "app.id-allocation-size";
+
+    public static final int DEFAULT_ALLOCATION_SIZE = 50;
+
+    @Override
+    public void configure(Type type, Properties parameters, ServiceRegistry serviceRegistry) throws MappingException {
+        int allocationSize = ConfigurationHelper.getInt(ALLOCATION_SIZE_SETTING,
+                serviceRegistry.getService(ConfigurationService.class).getSettings(), DEFAULT_ALLOCATION_SIZE);
+        parameters.putIfAbsent(SEQUENCE_PARAM, parameters.getProperty(PersistentIdentifierGenerator.TABLE) + "_id_seq");
+        parameters.put(INCREMENT_PARAM, String.valueOf(allocationSize));
+        parameters.put(OPT_PARAM, StandardOptimizerDescriptor.POOLED_LO.getExternalName());
+        super.configure(type, parameters, serviceRegistry);
+    }
+}
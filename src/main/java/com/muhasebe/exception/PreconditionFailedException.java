@@ -0,0 +1,11 @@
+package com.muhasebe.exception;
+
+/**
+ * İstekteki If-Match sürümü kaydın güncel sürümüyle eşleşmediğinde fırlatılır (412)
+ */
+public class PreconditionFailedException extends RuntimeException {
+
+    public PreconditionFailedException(String message) {
+        super(message);
+    }
+}
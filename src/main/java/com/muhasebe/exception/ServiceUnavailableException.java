@@ -0,0 +1,18 @@
+package com.muhasebe.exception;
+
+/**
+ * Sunucu geçici olarak isteği karşılayamadığında fırlatılır (503)
+ */
+public class ServiceUnavailableException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public ServiceUnavailableException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -0,0 +1,61 @@
+package com.muhasebe.exporter;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * UTF-8 BOM'lu, ';' ayraçlı CSV: Türkçe yerel ayarlı Excel doğrudan açar, toplu içe aktarma geri okuyabilir
+ */
+class CsvExportWriter implements ExportWriter {
+
+    private static final char DELIMITER = ';';
+
+    private final Writer writer;
+
+    CsvExportWriter(OutputStream output) throws IOException {
+        this.writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+        writer.write('\uFEFF');
+    }
+
+    @Override
+    public void header(List<String> columns) throws IOException {
+        writeLine(List.copyOf(columns));
+    }
+
+    @Override
+    public void row(List<Object> values) throws IOException {
+        writeLine(values);
+    }
+
+    @Override
+    public void close() throws IOException {
+        writer.flush();
+    }
+
+    private void writeLine(List<?> values) throws IOException {
+        for (int i = 0; i < values.size(); i++) {
+            if (i > 0) {
+                writer.write(DELIMITER);
+            }
+            writer.write(escape(values.get(i)));
+        }
+        writer.write("\r\n");
+    }
+
+    private static String escape(Object value) {
+        if (value == null) {
+            return "";
+        }
+        String text = value instanceof BigDecimal decimal ? decimal.toPlainString() : value.toString();
+        if (text.indexOf(DELIMITER) >= 0 || text.indexOf('"') >= 0 || text.indexOf('\n') >= 0 || text.indexOf('\r') >= 0) {
+            return '"' + text.replace("\"", "\"\"") + '"';
+        }
+        return text;
+    }
+}
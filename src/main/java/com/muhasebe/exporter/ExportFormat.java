@@ -0,0 +1,52 @@
+package com.muhasebe.exporter;
+
+import com.muhasebe.exception.BadRequestException;
+import org.springframework.http.MediaType;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Locale;
+
+/**
+ * Desteklenen dışa aktarım biçimleri
+ */
+public enum ExportFormat {
+
+    CSV("csv", "text/csv;charset=UTF-8"),
+    XLSX("xlsx", "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet"),
+    PDF("pdf", "application/pdf");
+
+    private final String extension;
+
+    private final MediaType mediaType;
+
+    ExportFormat(String extension, String mediaType) {
+        this.extension = extension;
+        this.mediaType = MediaType.parseMediaType(mediaType);
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    public MediaType getMediaType() {
+        return mediaType;
+    }
+
+    public static ExportFormat from(String value) {
+        for (ExportFormat format : values()) {
+            if (format.extension.equals(value.toLowerCase(Locale.ROOT))) {
+                return format;
+            }
+        }
+        throw new BadRequestException("Desteklenen biçimler: csv, xlsx, pdf");
+    }
+
+    ExportWriter open(OutputStream output, String title) throws IOException {
+        return switch (this) {
+            case CSV -> new CsvExportWriter(output);
+            case XLSX -> new XlsxExportWriter(output, title);
+            case PDF -> new PdfExportWriter(output, title);
+        };
+    }
+}
@@ -0,0 +1,130 @@
+package com.muhasebe.exporter;
+
+import com.muhasebe.exception.ResourceNotFoundException;
+import com.muhasebe.repository.CompanyRepository;
+import com.muhasebe.repository.CustomerRepository;
+import com.muhasebe.repository.SupplierRepository;
+import com.muhasebe.repository.projection.CustomerExportRow;
+import com.muhasebe.repository.projection.SupplierExportRow;
+import com.muhasebe.tenant.TenantContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Müşteri ve tedarikçilerin CSV, Excel ve PDF olarak dışa aktarımı
+ * Kayıtlar sunucu tarafı cursor'dan akış olarak okunup doğrudan yanıta yazılır; liste belleğe alınmaz
+ * Yazım StreamingResponseBody içinde, istek thread'inden ayrı ve kendi read-only transaction'ında yapılır
+ */
+@Service
+public class ExportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExportService.class);
+
+    private static final List<ExportColumn<CustomerExportRow>> CUSTOMER_COLUMNS = List.of(
+            new ExportColumn<>("Ad", CustomerExportRow::getName),
+            new ExportColumn<>("Vergi No", CustomerExportRow::getTaxNumber),
+            new ExportColumn<>("Vergi Dairesi", CustomerExportRow::getTaxOffice),
+            new ExportColumn<>("Şehir", CustomerExportRow::getCity),
+            new ExportColumn<>("İlçe", CustomerExportRow::getDistrict),
+            new ExportColumn<>("Telefon", CustomerExportRow::getPhone),
+            new ExportColumn<>("Email", CustomerExportRow::getEmail),
+            new ExportColumn<>("Müşteri Tipi", CustomerExportRow::getCustomerType),
+            new ExportColumn<>("Bakiye", CustomerExportRow::getBalance),
+            new ExportColumn<>("Kredi Limiti", CustomerExportRow::getCreditLimit),
+            new ExportColumn<>("Vade", CustomerExportRow::getPaymentTerms),
+            new ExportColumn<>("Aktif", CustomerExportRow::getIsActive));
+
+    private static final List<ExportColumn<SupplierExportRow>> SUPPLIER_COLUMNS = List.of(
+            new ExportColumn<>("Ad", SupplierExportRow::getName),
+            new ExportColumn<>("Vergi No", SupplierExportRow::getTaxNumber),
+            new ExportColumn<>("Vergi Dairesi", SupplierExportRow::getTaxOffice),
+            new ExportColumn<>("Şehir", SupplierExportRow::getCity),
+            new ExportColumn<>("İlçe", SupplierExportRow::getDistrict),
+            new ExportColumn<>("Telefon", SupplierExportRow::getPhone),
+            new ExportColumn<>("Email", SupplierExportRow::getEmail),
+            new ExportColumn<>("Tedarikçi Tipi", SupplierExportRow::getSupplierType),
+            new ExportColumn<>("Bakiye", SupplierExportRow::getBalance),
+            new ExportColumn<>("Vade", SupplierExportRow::getPaymentTerms),
+            new ExportColumn<>("IBAN", SupplierExportRow::getIban),
+            new ExportColumn<>("Aktif", SupplierExportRow::getIsActive));
+
+    @Autowired
+    private CompanyRepository companyRepository;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private SupplierRepository supplierRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    /**
+     * Şirket kontrolü yanıt başlamadan yapılır; dönen gövde yazılırken hata olursa yanıt yarıda kesilir
+     */
+    public StreamingResponseBody exportCustomers(Long companyId, ExportFormat format) {
+        requireCompany(companyId);
+        return output -> write(format, "Müşteriler", CUSTOMER_COLUMNS,
+                () -> customerRepository.streamExportRows(), output, companyId);
+    }
+
+    public StreamingResponseBody exportSuppliers(Long companyId, ExportFormat format) {
+        requireCompany(companyId);
+        return output -> write(format, "Tedarikçiler", SUPPLIER_COLUMNS,
+                () -> supplierRepository.streamExportRows(), output, companyId);
+    }
+
+    private void requireCompany(Long companyId) {
+        TenantContext.requireCompanyId(companyId);
+        if (!companyRepository.existsById(companyId)) {
+            throw new ResourceNotFoundException("Şirket bulunamadı");
+        }
+    }
+
+    private <T> void write(ExportFormat format, String title, List<ExportColumn<T>> columns,
+                           Supplier<Stream<T>> source, OutputStream output, Long companyId) throws IOException {
+        // Sunucu tarafı cursor yalnızca autocommit kapalıyken (transaction içinde) kullanılır
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setReadOnly(true);
+        long start = System.currentTimeMillis();
+        try {
+            // Akış istek thread'i dışında çalışır; tenant filtresi için şirket burada verilir
+            long rows = TenantContext.callAs(companyId, () -> transactionTemplate.execute(status -> {
+                try (Stream<T> stream = source.get(); ExportWriter writer = format.open(output, title)) {
+                    writer.header(columns.stream().map(ExportColumn::header).toList());
+                    long count = 0;
+                    for (Iterator<T> iterator = stream.iterator(); iterator.hasNext(); count++) {
+                        T row = iterator.next();
+                        writer.row(columns.stream().map(column -> column.value().apply(row)).toList());
+                    }
+                    return count;
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }));
+            logger.info("Export {} {} company={} rows={} in {} ms", title, format, companyId, rows,
+                    System.currentTimeMillis() - start);
+        } catch (UncheckedIOException e) {
+            // İstemci indirmeyi yarıda bıraktığında buraya düşülür
+            throw e.getCause();
+        }
+    }
+
+    private record ExportColumn<T>(String header, Function<T, Object> value) {
+    }
+}
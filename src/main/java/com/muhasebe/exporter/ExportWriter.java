@@ -0,0 +1,17 @@
+package com.muhasebe.exporter;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Dışa aktarım biçimlerinin ortak arayüzü: önce başlık, sonra satırlar sırayla yazılır
+ * Satırlar alındıkça çıktıya aktarılır; close() dosyayı tamamlar ancak alttaki çıktı akışını kapatmaz
+ * Değerler String, BigDecimal, Integer, Boolean veya null olabilir
+ */
+interface ExportWriter extends Closeable {
+
+    void header(List<String> columns) throws IOException;
+
+    void row(List<Object> values) throws IOException;
+}
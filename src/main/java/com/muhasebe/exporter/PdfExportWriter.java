@@ -0,0 +1,108 @@
+package com.muhasebe.exporter;
+
+import com.itextpdf.io.font.constants.StandardFonts;
+import com.itextpdf.kernel.font.PdfFont;
+import com.itextpdf.kernel.font.PdfFontFactory;
+import com.itextpdf.kernel.geom.PageSize;
+import com.itextpdf.kernel.pdf.PdfDocument;
+import com.itextpdf.kernel.pdf.PdfWriter;
+import com.itextpdf.layout.Document;
+import com.itextpdf.layout.element.Cell;
+import com.itextpdf.layout.element.Paragraph;
+import com.itextpdf.layout.element.Table;
+import com.itextpdf.layout.properties.TextAlignment;
+import com.itextpdf.layout.properties.UnitValue;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.text.DecimalFormat;
+import java.text.DecimalFormatSymbols;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Yatay A4 sayfalara tablo olarak yazan PDF yazıcı
+ * Tablo "large table" modunda eklenir: her FLUSH_INTERVAL satırda tamamlanan sayfalar çıktıya yazılıp bellekten atılır
+ * Türkçe karakterler için standart Helvetica fontu Cp1254 kodlamasıyla kullanılır, font gömülmez
+ */
+class PdfExportWriter implements ExportWriter {
+
+    private static final int FLUSH_INTERVAL = 100;
+
+    private static final float FONT_SIZE = 7f;
+
+    private static final Locale TURKISH = Locale.forLanguageTag("tr-TR");
+
+    private static final String TURKISH_ENCODING = "Cp1254";
+
+    private final Document document;
+
+    private final PdfFont font;
+
+    private final PdfFont boldFont;
+
+    private final String title;
+
+    private final DecimalFormat amountFormat = new DecimalFormat("#,##0.00", DecimalFormatSymbols.getInstance(TURKISH));
+
+    private Table table;
+
+    private int pendingRows;
+
+    PdfExportWriter(OutputStream output, String title) throws IOException {
+        PdfWriter writer = new PdfWriter(output);
+        writer.setCloseStream(false);
+        this.document = new Document(new PdfDocument(writer), PageSize.A4.rotate());
+        document.setMargins(24, 24, 24, 24);
+        this.font = PdfFontFactory.createFont(StandardFonts.HELVETICA, TURKISH_ENCODING);
+        this.boldFont = PdfFontFactory.createFont(StandardFonts.HELVETICA_BOLD, TURKISH_ENCODING);
+        this.title = title;
+    }
+
+    @Override
+    public void header(List<String> columns) {
+        document.add(new Paragraph(title).setFont(boldFont).setFontSize(12));
+        table = new Table(UnitValue.createPercentArray(columns.size()), true).useAllAvailableWidth();
+        for (String column : columns) {
+            table.addHeaderCell(new Cell().add(new Paragraph(column).setFont(boldFont).setFontSize(FONT_SIZE)));
+        }
+        document.add(table);
+    }
+
+    @Override
+    public void row(List<Object> values) {
+        for (Object value : values) {
+            Paragraph paragraph = new Paragraph(format(value)).setFont(font).setFontSize(FONT_SIZE);
+            if (value instanceof Number) {
+                paragraph.setTextAlignment(TextAlignment.RIGHT);
+            }
+            table.addCell(new Cell().add(paragraph));
+        }
+        if (++pendingRows == FLUSH_INTERVAL) {
+            table.flush();
+            pendingRows = 0;
+        }
+    }
+
+    @Override
+    public void close() {
+        if (table != null) {
+            table.complete();
+        }
+        document.close();
+    }
+
+    private String format(Object value) {
+        if (value == null) {
+            return "";
+        }
+        if (value instanceof BigDecimal decimal) {
+            return amountFormat.format(decimal);
+        }
+        if (value instanceof Boolean bool) {
+            return bool ? "Evet" : "Hayır";
+        }
+        return value.toString();
+    }
+}
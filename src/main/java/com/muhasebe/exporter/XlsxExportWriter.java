@@ -0,0 +1,110 @@
+package com.muhasebe.exporter;
+
+import org.apache.poi.ss.SpreadsheetVersion;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.Font;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.xssf.streaming.SXSSFSheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * SXSSFWorkbook ile satır penceresi kadar satırı bellekte tutan Excel yazıcı
+ * Pencereden çıkan satırlar sıkıştırılmış geçici dosyaya yazılır, close() ile çıktıya aktarılır
+ * Bir sayfanın satır sınırı (1.048.576) aşılırsa başlıkla birlikte yeni sayfaya geçilir
+ */
+class XlsxExportWriter implements ExportWriter {
+
+    private static final int ROW_WINDOW = 100;
+
+    private static final int COLUMN_WIDTH = 20 * 256;
+
+    private final OutputStream output;
+
+    private final String title;
+
+    private final SXSSFWorkbook workbook;
+
+    private final CellStyle headerStyle;
+
+    private final CellStyle amountStyle;
+
+    private List<String> columns;
+
+    private SXSSFSheet sheet;
+
+    private int sheetCount;
+
+    private int rowIndex;
+
+    XlsxExportWriter(OutputStream output, String title) {
+        this.output = output;
+        this.title = title;
+        this.workbook = new SXSSFWorkbook(ROW_WINDOW);
+        workbook.setCompressTempFiles(true);
+
+        Font bold = workbook.createFont();
+        bold.setBold(true);
+        headerStyle = workbook.createCellStyle();
+        headerStyle.setFont(bold);
+        amountStyle = workbook.createCellStyle();
+        amountStyle.setDataFormat(workbook.createDataFormat().getFormat("#,##0.00"));
+    }
+
+    @Override
+    public void header(List<String> columns) {
+        this.columns = columns;
+        newSheet();
+    }
+
+    @Override
+    public void row(List<Object> values) {
+        if (rowIndex > SpreadsheetVersion.EXCEL2007.getLastRowIndex()) {
+            newSheet();
+        }
+        Row row = sheet.createRow(rowIndex++);
+        for (int i = 0; i < values.size(); i++) {
+            Object value = values.get(i);
+            if (value instanceof BigDecimal decimal) {
+                var cell = row.createCell(i);
+                cell.setCellValue(decimal.doubleValue());
+                cell.setCellStyle(amountStyle);
+            } else if (value instanceof Number number) {
+                row.createCell(i).setCellValue(number.doubleValue());
+            } else if (value instanceof Boolean bool) {
+                row.createCell(i).setCellValue(bool);
+            } else if (value != null) {
+                row.createCell(i).setCellValue(value.toString());
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            workbook.write(output);
+            output.flush();
+        } finally {
+            workbook.dispose();
+            workbook.close();
+        }
+    }
+
+    private void newSheet() {
+        sheetCount++;
+        sheet = workbook.createSheet(sheetCount == 1 ? title : title + " (" + sheetCount + ")");
+        Row header = sheet.createRow(0);
+        for (int i = 0; i < columns.size(); i++) {
+            var cell = header.createCell(i);
+            cell.setCellValue(columns.get(i));
+            cell.setCellStyle(headerStyle);
+            sheet.setColumnWidth(i, COLUMN_WIDTH);
+        }
+        sheet.createFreezePane(0, 1);
+        rowIndex = 1;
+    }
+}
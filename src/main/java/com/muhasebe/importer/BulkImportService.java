@@ -0,0 +1,379 @@
+package com.muhasebe.importer;
+
+import com.muhasebe.dto.response.ImportResultResponse;
+import com.muhasebe.dto.response.ImportRowError;
+import com.muhasebe.exception.BadRequestException;
+import com.muhasebe.exception.ResourceNotFoundException;
+import com.muhasebe.repository.CompanyRepository;
+import com.muhasebe.repository.CustomerRepository;
+import com.muhasebe.repository.SupplierRepository;
+import com.muhasebe.search.SearchIndexService;
+import com.muhasebe.tenant.TenantContext;
+import com.muhasebe.tenant.TenantDirectory;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.BeanWrapper;
+import org.springframework.beans.BeanWrapperImpl;
+import org.springframework.beans.TypeMismatchException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.AuditorAware;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiFunction;
+import java.util.stream.Collectors;
+
+/**
+ * CSV ve Excel (xlsx) dosyalarından toplu müşteri/tedarikçi içe aktarma
+ * Dosya satır satır okunur, geçerli satırlar app.import.chunk-size'lık parçalar halinde işlenir:
+ * parça başına vergi numaraları tek sorguyla kontrol edilir, id blokları diziden tek sorguyla alınır
+ * ve kayıtlar tek JDBC batch'iyle eklenir
+ * Her parça kendi transaction'ında commit edilir; hatalı satırlar atlanır ve sonuçta satır numarasıyla raporlanır
+ */
+@Service
+public class BulkImportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(BulkImportService.class);
+
+    @Autowired
+    private CompanyRepository companyRepository;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private SupplierRepository supplierRepository;
+
+    @Autowired
+    private SearchIndexService searchIndexService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TenantDirectory tenantDirectory;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private Validator validator;
+
+    @Autowired
+    private AuditorAware<String> auditorProvider;
+
+    @Value("${app.import.chunk-size:1000}")
+    private int chunkSize;
+
+    @Value("${app.import.max-errors:1000}")
+    private int maxErrors;
+
+    @Value("${app.jpa.id-allocation-size:50}")
+    private int idAllocationSize;
+
+    public ImportResultResponse importCustomers(Long companyId, MultipartFile file) {
+        return importFile(companyId, file, ImportTarget.CUSTOMERS, customerRepository::findExistingTaxNumbers);
+    }
+
+    public ImportResultResponse importSuppliers(Long companyId, MultipartFile file) {
+        return importFile(companyId, file, ImportTarget.SUPPLIERS, supplierRepository::findExistingTaxNumbers);
+    }
+
+    private <R> ImportResultResponse importFile(Long companyId, MultipartFile file, ImportTarget<R> target,
+                                                BiFunction<Long, Collection<String>, Set<String>> existingTaxNumbers) {
+        TenantContext.requireCompanyId(companyId);
+        if (!companyRepository.existsById(companyId)) {
+            throw new ResourceNotFoundException("Şirket bulunamadı");
+        }
+        if (file == null || file.isEmpty()) {
+            throw new BadRequestException("Dosya boş");
+        }
+
+        ImportSession<R> session = new ImportSession<>(companyId, target, existingTaxNumbers,
+                auditorProvider.getCurrentAuditor().orElse("system"));
+        long start = System.currentTimeMillis();
+        try {
+            switch (extensionOf(file)) {
+                case "csv" -> {
+                    try (InputStream input = file.getInputStream()) {
+                        CsvRowReader.read(input, session::onRow);
+                    }
+                }
+                case "xlsx" -> readXlsx(file, session);
+                default -> throw new BadRequestException("Desteklenen dosya türleri: csv, xlsx");
+            }
+        } catch (IOException e) {
+            throw new BadRequestException("Dosya okunamadı: " + e.getMessage());
+        } finally {
+            // Okuma hatasında bile önceki parçalar commit edilmiş olabilir
+            if (session.importedRows > 0) {
+                searchIndexService.invalidate(target.kind(), companyId);
+            }
+        }
+        session.finish();
+
+        logger.info("Import {} company={} rows={} imported={} failed={} in {} ms", target.kind(), companyId,
+                session.totalRows, session.importedRows, session.failedRows, System.currentTimeMillis() - start);
+        return session.result();
+    }
+
+    /**
+     * OPCPackage dosyadan açıldığında zip girdileri gerektikçe okunur; InputStream'den açmak paketin tamamını belleğe alır
+     */
+    private void readXlsx(MultipartFile file, ImportSession<?> session) throws IOException {
+        Path temp = Files.createTempFile("import-", ".xlsx");
+        try {
+            file.transferTo(temp);
+            XlsxRowReader.read(temp.toFile(), session::onRow);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private static String extensionOf(MultipartFile file) {
+        String name = file.getOriginalFilename();
+        int dot = name != null ? name.lastIndexOf('.') : -1;
+        return dot >= 0 ? name.substring(dot + 1).toLowerCase(Locale.ROOT) : "";
+    }
+
+    /**
+     * Sayısal alanlarda Türkçe biçimi kabul eder: "1.234,56" -> "1234.56"
+     */
+    private static String normalizeValue(String value, Class<?> type) {
+        if (type != null && Number.class.isAssignableFrom(type) && value.indexOf(',') >= 0) {
+            return value.replace(".", "").replace(',', '.');
+        }
+        return value;
+    }
+
+    private record PendingRow<R>(int rowNumber, R request) {
+    }
+
+    /**
+     * Tek bir içe aktarma isteğinin durumu: başlık eşlemesi, bekleyen parça ve sayaçlar
+     */
+    private class ImportSession<R> {
+
+        private final Long companyId;
+
+        private final ImportTarget<R> target;
+
+        private final BiFunction<Long, Collection<String>, Set<String>> existingTaxNumbers;
+
+        private final String createdBy;
+
+        private final Timestamp createdAt = Timestamp.valueOf(LocalDateTime.now());
+
+        // Dosya içi tekrarlar için vergi numarası -> ilk görüldüğü satır
+        private final Map<String, Integer> seenTaxNumbers = new HashMap<>();
+
+        private final List<PendingRow<R>> pending = new ArrayList<>();
+
+        private final List<ImportRowError> errors = new ArrayList<>();
+
+        private String[] properties;
+
+        private int totalRows;
+
+        private int importedRows;
+
+        private int failedRows;
+
+        private boolean errorsTruncated;
+
+        ImportSession(Long companyId, ImportTarget<R> target,
+                      BiFunction<Long, Collection<String>, Set<String>> existingTaxNumbers, String createdBy) {
+            this.companyId = companyId;
+            this.target = target;
+            this.existingTaxNumbers = existingTaxNumbers;
+            this.createdBy = createdBy;
+        }
+
+        void onRow(int rowNumber, List<String> cells) {
+            if (properties == null) {
+                readHeader(cells);
+                return;
+            }
+            if (cells.stream().allMatch(String::isBlank)) {
+                return;
+            }
+            totalRows++;
+
+            R request = BeanUtils.instantiateClass(target.requestType());
+            BeanWrapper wrapper = new BeanWrapperImpl(request);
+            List<ImportRowError> rowErrors = new ArrayList<>();
+            for (int i = 0; i < cells.size() && i < properties.length; i++) {
+                String value = cells.get(i).trim();
+                if (properties[i] == null || value.isEmpty()) {
+                    continue;
+                }
+                try {
+                    wrapper.setPropertyValue(properties[i], normalizeValue(value, wrapper.getPropertyType(properties[i])));
+                } catch (TypeMismatchException e) {
+                    rowErrors.add(new ImportRowError(rowNumber, properties[i], "Geçersiz değer: " + value));
+                }
+            }
+            for (ConstraintViolation<R> violation : validator.validate(request)) {
+                rowErrors.add(new ImportRowError(rowNumber, violation.getPropertyPath().toString(), violation.getMessage()));
+            }
+
+            String taxNumber = target.taxNumber(request);
+            if (rowErrors.isEmpty() && taxNumber != null) {
+                Integer firstRow = seenTaxNumbers.putIfAbsent(taxNumber, rowNumber);
+                if (firstRow != null) {
+                    rowErrors.add(new ImportRowError(rowNumber, "taxNumber",
+                            "Vergi numarası dosyada tekrar ediyor (satır " + firstRow + ")"));
+                }
+            }
+
+            if (!rowErrors.isEmpty()) {
+                fail(rowErrors);
+                return;
+            }
+            pending.add(new PendingRow<>(rowNumber, request));
+            if (pending.size() >= chunkSize) {
+                flush();
+            }
+        }
+
+        void finish() {
+            if (properties == null) {
+                throw new BadRequestException("Dosyada başlık satırı bulunamadı");
+            }
+            flush();
+        }
+
+        ImportResultResponse result() {
+            return ImportResultResponse.builder()
+                    .totalRows(totalRows)
+                    .importedRows(importedRows)
+                    .failedRows(failedRows)
+                    .errors(errors)
+                    .errorsTruncated(errorsTruncated)
+                    .build();
+        }
+
+        private void readHeader(List<String> cells) {
+            properties = new String[cells.size()];
+            for (int i = 0; i < cells.size(); i++) {
+                properties[i] = target.propertyForHeader(cells.get(i));
+            }
+            if (!List.of(properties).contains("name")) {
+                throw new BadRequestException("Dosyada ad (name) sütunu bulunamadı");
+            }
+        }
+
+        /**
+         * Bekleyen parçayı tek transaction'da yazar: mevcut vergi numaraları tek sorguyla elenir, kalanlar batch ile eklenir
+         * Sayaçlar ve satır hataları commit sonrasında işlenir; geri alınan parçanın her satırı bir kez raporlanır
+         */
+        private void flush() {
+            if (pending.isEmpty()) {
+                return;
+            }
+            List<PendingRow<R>> chunk = List.copyOf(pending);
+            pending.clear();
+            try {
+                List<PendingRow<R>> duplicates = transactionTemplate.execute(status -> insert(chunk));
+                for (PendingRow<R> row : duplicates) {
+                    fail(List.of(new ImportRowError(row.rowNumber(), "taxNumber", "Bu vergi numarası zaten kayıtlı")));
+                }
+                importedRows += chunk.size() - duplicates.size();
+            } catch (DataAccessException e) {
+                String reason = e.getMostSpecificCause().getMessage();
+                logger.warn("Import chunk failed for company {}: {}", companyId, reason);
+                for (PendingRow<R> row : chunk) {
+                    fail(List.of(new ImportRowError(row.rowNumber(), null, "Kaydedilemedi: " + reason)));
+                }
+            }
+        }
+
+        /**
+         * Parçanın eklenebilen satırlarını yazar ve veritabanında vergi numarası zaten kayıtlı olan satırları döner
+         */
+        private List<PendingRow<R>> insert(List<PendingRow<R>> chunk) {
+            Set<String> taxNumbers = chunk.stream()
+                    .map(row -> target.taxNumber(row.request()))
+                    .filter(taxNumber -> taxNumber != null)
+                    .collect(Collectors.toSet());
+            Set<String> existing = taxNumbers.isEmpty() ? Set.of() : existingTaxNumbers.apply(companyId, taxNumbers);
+
+            List<PendingRow<R>> rows = new ArrayList<>(chunk.size());
+            List<PendingRow<R>> duplicates = new ArrayList<>();
+            for (PendingRow<R> row : chunk) {
+                // Vergi numarası zorunlu değildir; Set.of().contains(null) NullPointerException fırlatır
+                String taxNumber = target.taxNumber(row.request());
+                if (taxNumber != null && existing.contains(taxNumber)) {
+                    duplicates.add(row);
+                } else {
+                    rows.add(row);
+                }
+            }
+            if (rows.isEmpty()) {
+                return duplicates;
+            }
+
+            // Ayrı şemadaki şirketin satırları kendi tablosuna yazılır; vergi no kontrolü de (Hibernate oturumu,
+            // şirketin havuzu) o tabloya bakar. id dizileri şemalarda olmadığından public'ten alınır
+            String schema = tenantDirectory.schemaFor(companyId);
+            Iterator<Long> ids = allocateIds(rows.size()).iterator();
+            jdbcTemplate.batchUpdate(target.insertSql(schema), rows, rows.size(), (statement, row) -> {
+                int index = 1;
+                statement.setLong(index++, ids.next());
+                statement.setLong(index++, companyId);
+                statement.setTimestamp(index++, createdAt);
+                statement.setString(index++, createdBy);
+                for (ImportTarget.Column<R> column : target.columns()) {
+                    statement.setObject(index++, column.value().apply(row.request()), column.sqlType());
+                }
+            });
+            return duplicates;
+        }
+
+        /**
+         * Dizi başına tek sorguda gereken sayıda blok ayırır; blok içindeki id'ler Hibernate'in pooled-lo'su gibi ardışıktır
+         */
+        private List<Long> allocateIds(int count) {
+            int blocks = (count + idAllocationSize - 1) / idAllocationSize;
+            List<Long> ids = new ArrayList<>(count);
+            for (Long low : jdbcTemplate.queryForList(target.idBlocksSql(), Long.class, blocks)) {
+                for (int i = 0; i < idAllocationSize && ids.size() < count; i++) {
+                    ids.add(low + i);
+                }
+            }
+            return ids;
+        }
+
+        private void fail(List<ImportRowError> rowErrors) {
+            failedRows++;
+            for (ImportRowError error : rowErrors) {
+                if (errors.size() < maxErrors) {
+                    errors.add(error);
+                } else {
+                    errorsTruncated = true;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package com.muhasebe.importer;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Dosyayı belleğe almadan kayıt kayıt okuyan RFC 4180 uyumlu CSV okuyucu
+ * Tırnak içindeki ayraç ve satır sonlarını destekler, UTF-8 BOM'u atlar
+ * Ayraç başlık satırından belirlenir: Türkçe yerel ayarlı Excel ';', diğerleri ',' veya sekme kullanır
+ */
+final class CsvRowReader {
+
+    private static final char BOM = '\uFEFF';
+
+    private static final int HEADER_READ_LIMIT = 64 * 1024;
+
+    private CsvRowReader() {
+    }
+
+    static void read(InputStream input, RowHandler handler) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+        reader.mark(HEADER_READ_LIMIT);
+        String headerLine = reader.readLine();
+        if (headerLine == null) {
+            return;
+        }
+        reader.reset();
+        if (headerLine.charAt(0) == BOM) {
+            reader.read();
+        }
+        char delimiter = detectDelimiter(headerLine);
+
+        int rowNumber = 0;
+        List<String> record;
+        while ((record = readRecord(reader, delimiter)) != null) {
+            handler.onRow(++rowNumber, record);
+        }
+    }
+
+    private static char detectDelimiter(String headerLine) {
+        int commas = 0;
+        int semicolons = 0;
+        int tabs = 0;
+        boolean quoted = false;
+        for (char ch : headerLine.toCharArray()) {
+            if (ch == '"') {
+                quoted = !quoted;
+            } else if (!quoted) {
+                switch (ch) {
+                    case ',' -> commas++;
+                    case ';' -> semicolons++;
+                    case '\t' -> tabs++;
+                    default -> {
+                    }
+                }
+            }
+        }
+        if (semicolons > commas && semicolons >= tabs) {
+            return ';';
+        }
+        return tabs > commas ? '\t' : ',';
+    }
+
+    /**
+     * Bir sonraki kaydı okur, dosya sonunda null döner
+     */
+    private static List<String> readRecord(BufferedReader reader, char delimiter) throws IOException {
+        int c = reader.read();
+        if (c == -1) {
+            return null;
+        }
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        while (c != -1) {
+            char ch = (char) c;
+            if (quoted) {
+                if (ch == '"') {
+                    c = reader.read();
+                    if (c != '"') {
+                        quoted = false;
+                        continue;
+                    }
+                }
+                field.append(ch);
+            } else if (ch == '"' && field.length() == 0) {
+                quoted = true;
+            } else if (ch == delimiter) {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (ch == '\r' || ch == '\n') {
+                if (ch == '\r') {
+                    reader.mark(1);
+                    if (reader.read() != '\n') {
+                        reader.reset();
+                    }
+                }
+                break;
+            } else {
+                field.append(ch);
+            }
+            c = reader.read();
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+}
@@ -0,0 +1,200 @@
+package com.muhasebe.importer;
+
+import com.muhasebe.dto.request.CustomerRequest;
+import com.muhasebe.dto.request.SupplierRequest;
+import com.muhasebe.search.SearchDocument;
+import com.muhasebe.search.TurkishFolding;
+import org.springframework.beans.BeanUtils;
+
+import java.beans.PropertyDescriptor;
+import java.math.BigDecimal;
+import java.sql.Types;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Bir kayıt türünün toplu içe aktarma tanımı: satırın bağlanacağı istek sınıfı, hedef tablo ve sütunlar
+ * Varsayılan değerler (ülke, aktiflik, bakiye) createCustomer / createSupplier ile aynıdır
+ */
+final class ImportTarget<R> {
+
+    /**
+     * Alan adlarına ek olarak kabul edilen Türkçe başlıklar (TurkishFolding ile katlanmış, harf/rakam dışı karakterler atılmış)
+     */
+    private static final Map<String, String> HEADER_ALIASES = Map.ofEntries(
+            Map.entry("ad", "name"),
+            Map.entry("unvan", "name"),
+            Map.entry("firmaadi", "name"),
+            Map.entry("yetkili", "contactPerson"),
+            Map.entry("iletisimkisisi", "contactPerson"),
+            Map.entry("vergino", "taxNumber"),
+            Map.entry("verginumarasi", "taxNumber"),
+            Map.entry("tckimlikno", "identityNumber"),
+            Map.entry("vergidairesi", "taxOffice"),
+            Map.entry("adres", "address"),
+            Map.entry("il", "city"),
+            Map.entry("sehir", "city"),
+            Map.entry("ilce", "district"),
+            Map.entry("postakodu", "postalCode"),
+            Map.entry("ulke", "country"),
+            Map.entry("telefon", "phone"),
+            Map.entry("cep", "mobile"),
+            Map.entry("eposta", "email"),
+            Map.entry("aktif", "isActive"),
+            Map.entry("bakiye", "balance"),
+            Map.entry("notlar", "notes"),
+            Map.entry("musteritipi", "customerType"),
+            Map.entry("tedarikcitipi", "supplierType"),
+            Map.entry("vade", "paymentTerms"),
+            Map.entry("kredilimiti", "creditLimit"),
+            Map.entry("banka", "bankName"),
+            Map.entry("hesapno", "bankAccountNumber"));
+
+    static final ImportTarget<CustomerRequest> CUSTOMERS = new ImportTarget<>(
+            SearchDocument.Kind.CUSTOMER, CustomerRequest.class, "customers", CustomerRequest::getTaxNumber, List.of(
+            text("name", CustomerRequest::getName),
+            text("contact_person", CustomerRequest::getContactPerson),
+            text("tax_number", CustomerRequest::getTaxNumber),
+            text("identity_number", CustomerRequest::getIdentityNumber),
+            text("tax_office", CustomerRequest::getTaxOffice),
+            text("address", CustomerRequest::getAddress),
+            text("city", CustomerRequest::getCity),
+            text("district", CustomerRequest::getDistrict),
+            text("postal_code", CustomerRequest::getPostalCode),
+            text("country", request -> request.getCountry() != null ? request.getCountry() : "Türkiye"),
+            text("phone", CustomerRequest::getPhone),
+            text("mobile", CustomerRequest::getMobile),
+            text("fax", CustomerRequest::getFax),
+            text("email", CustomerRequest::getEmail),
+            text("website", CustomerRequest::getWebsite),
+            new Column<>("is_active", Types.BOOLEAN,
+                    request -> request.getIsActive() != null ? request.getIsActive() : true),
+            new Column<>("balance", Types.NUMERIC,
+                    request -> request.getBalance() != null ? request.getBalance() : BigDecimal.ZERO),
+            text("notes", CustomerRequest::getNotes),
+            text("customer_type", CustomerRequest::getCustomerType),
+            new Column<>("payment_terms", Types.INTEGER, CustomerRequest::getPaymentTerms),
+            new Column<>("credit_limit", Types.NUMERIC, CustomerRequest::getCreditLimit)));
+
+    static final ImportTarget<SupplierRequest> SUPPLIERS = new ImportTarget<>(
+            SearchDocument.Kind.SUPPLIER, SupplierRequest.class, "suppliers", SupplierRequest::getTaxNumber, List.of(
+            text("name", SupplierRequest::getName),
+            text("contact_person", SupplierRequest::getContactPerson),
+            text("tax_number", SupplierRequest::getTaxNumber),
+            text("tax_office", SupplierRequest::getTaxOffice),
+            text("address", SupplierRequest::getAddress),
+            text("city", SupplierRequest::getCity),
+            text("district", SupplierRequest::getDistrict),
+            text("postal_code", SupplierRequest::getPostalCode),
+            text("country", request -> request.getCountry() != null ? request.getCountry() : "Türkiye"),
+            text("phone", SupplierRequest::getPhone),
+            text("mobile", SupplierRequest::getMobile),
+            text("fax", SupplierRequest::getFax),
+            text("email", SupplierRequest::getEmail),
+            text("website", SupplierRequest::getWebsite),
+            new Column<>("is_active", Types.BOOLEAN,
+                    request -> request.getIsActive() != null ? request.getIsActive() : true),
+            new Column<>("balance", Types.NUMERIC,
+                    request -> request.getBalance() != null ? request.getBalance() : BigDecimal.ZERO),
+            text("notes", SupplierRequest::getNotes),
+            text("supplier_type", SupplierRequest::getSupplierType),
+            new Column<>("payment_terms", Types.INTEGER, SupplierRequest::getPaymentTerms),
+            text("bank_name", SupplierRequest::getBankName),
+            text("bank_account_number", SupplierRequest::getBankAccountNumber),
+            text("iban", SupplierRequest::getIban)));
+
+    private final SearchDocument.Kind kind;
+
+    private final Class<R> requestType;
+
+    private final Function<R, String> taxNumber;
+
+    private final List<Column<R>> columns;
+
+    private final String idBlocksSql;
+
+    private final String table;
+
+    private final String insertColumnsAndValues;
+
+    private final Map<String, String> headerProperties;
+
+    private ImportTarget(SearchDocument.Kind kind, Class<R> requestType, String table,
+                         Function<R, String> taxNumber, List<Column<R>> columns) {
+        this.kind = kind;
+        this.requestType = requestType;
+        this.taxNumber = taxNumber;
+        this.columns = columns;
+        // Hibernate ile aynı dizi ve pooled-lo düzeni: her nextval allocation size kadar id'lik bloğun ilk değeri
+        this.idBlocksSql = "SELECT nextval('" + table + "_id_seq') FROM generate_series(1, ?)";
+        this.table = table;
+        this.insertColumnsAndValues = " (id, company_id, created_at, created_by, is_deleted, "
+                + columns.stream().map(Column::name).collect(Collectors.joining(", "))
+                + ") VALUES (?, ?, ?, ?, false, "
+                + columns.stream().map(column -> "?").collect(Collectors.joining(", ")) + ")";
+        this.headerProperties = new HashMap<>();
+        for (PropertyDescriptor descriptor : BeanUtils.getPropertyDescriptors(requestType)) {
+            if (descriptor.getWriteMethod() != null) {
+                headerProperties.put(normalizeHeader(descriptor.getName()), descriptor.getName());
+            }
+        }
+        HEADER_ALIASES.forEach((alias, property) -> {
+            if (headerProperties.containsValue(property)) {
+                headerProperties.putIfAbsent(alias, property);
+            }
+        });
+    }
+
+    SearchDocument.Kind kind() {
+        return kind;
+    }
+
+    Class<R> requestType() {
+        return requestType;
+    }
+
+    String taxNumber(R request) {
+        return taxNumber.apply(request);
+    }
+
+    List<Column<R>> columns() {
+        return columns;
+    }
+
+    /**
+     * Parametre olarak blok sayısını alır, her satırda bir id bloğunun ilk değerini döndürür
+     */
+    String idBlocksSql() {
+        return idBlocksSql;
+    }
+
+    /**
+     * id, company_id, created_at, created_by ve ardından columns() sırasıyla parametre alan INSERT
+     * schema verilirse (ayrı şemadaki şirket) tablo o şemayla nitelenir, null ise paylaşılan tabloya yazılır
+     */
+    String insertSql(String schema) {
+        return "INSERT INTO " + (schema != null ? schema + "." + table : table) + insertColumnsAndValues;
+    }
+
+    /**
+     * Başlık hücresine karşılık gelen istek alanı; tanınmayan başlıklarda null
+     * "taxNumber", "tax_number", "Vergi No" ve "VERGİ NO" aynı alana eşlenir
+     */
+    String propertyForHeader(String header) {
+        return headerProperties.get(normalizeHeader(header));
+    }
+
+    private static String normalizeHeader(String header) {
+        return TurkishFolding.fold(header).replaceAll("[^a-z0-9]", "");
+    }
+
+    private static <R> Column<R> text(String name, Function<R, Object> value) {
+        return new Column<>(name, Types.VARCHAR, value);
+    }
+
+    record Column<R>(String name, int sqlType, Function<R, Object> value) {
+    }
+}
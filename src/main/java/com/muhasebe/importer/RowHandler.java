@@ -0,0 +1,13 @@
+package com.muhasebe.importer;
+
+import java.util.List;
+
+/**
+ * Okuyuculardan satır satır hücre değerlerini alan geri çağırma
+ * rowNumber dosyadaki satır numarasıdır (1'den başlar), boş hücreler "" olarak gelir
+ */
+@FunctionalInterface
+interface RowHandler {
+
+    void onRow(int rowNumber, List<String> cells);
+}
@@ -0,0 +1,90 @@
+package com.muhasebe.importer;
+
+import org.apache.poi.openxml4j.exceptions.OpenXML4JException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.ss.usermodel.DataFormatter;
+import org.apache.poi.ss.util.CellReference;
+import org.apache.poi.util.XMLHelper;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.eventusermodel.XSSFSheetXMLHandler;
+import org.apache.poi.xssf.model.StylesTable;
+import org.apache.poi.xssf.usermodel.XSSFComment;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.XMLReader;
+
+import javax.xml.parsers.ParserConfigurationException;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Excel (xlsx) dosyasının ilk sayfasını POI'nin SAX tabanlı olay API'si ile satır satır okur
+ * XSSFWorkbook'un aksine sayfa DOM olarak belleğe alınmaz; yalnızca paylaşılan metin tablosu tutulur
+ * Formül hücrelerinde dosyada saklanan son hesaplanmış değer kullanılır
+ */
+final class XlsxRowReader {
+
+    private XlsxRowReader() {
+    }
+
+    static void read(File file, RowHandler handler) throws IOException {
+        try (OPCPackage pkg = OPCPackage.open(file, PackageAccess.READ)) {
+            XSSFReader reader = new XSSFReader(pkg);
+            ReadOnlySharedStringsTable strings = new ReadOnlySharedStringsTable(pkg, false);
+            StylesTable styles = reader.getStylesTable();
+            Iterator<InputStream> sheets = reader.getSheetsData();
+            if (!sheets.hasNext()) {
+                return;
+            }
+            try (InputStream sheet = sheets.next()) {
+                XMLReader parser = XMLHelper.newXMLReader();
+                // Sayılar yerel ayardan bağımsız biçimlenir (ondalık ayracı '.')
+                parser.setContentHandler(new XSSFSheetXMLHandler(styles, null, strings,
+                        new RowCollector(handler), new DataFormatter(Locale.ROOT), false));
+                parser.parse(new InputSource(sheet));
+            }
+        } catch (OpenXML4JException | SAXException | ParserConfigurationException e) {
+            throw new IOException("Excel dosyası okunamadı: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Hücre olaylarını satır listelerine çevirir; atlanan (boş) hücreler "" ile doldurulur
+     */
+    private static class RowCollector implements XSSFSheetXMLHandler.SheetContentsHandler {
+
+        private final RowHandler handler;
+
+        private List<String> cells;
+
+        RowCollector(RowHandler handler) {
+            this.handler = handler;
+        }
+
+        @Override
+        public void startRow(int rowNum) {
+            cells = new ArrayList<>();
+        }
+
+        @Override
+        public void endRow(int rowNum) {
+            handler.onRow(rowNum + 1, cells);
+        }
+
+        @Override
+        public void cell(String cellReference, String formattedValue, XSSFComment comment) {
+            int column = cellReference != null ? new CellReference(cellReference).getCol() : cells.size();
+            while (cells.size() < column) {
+                cells.add("");
+            }
+            cells.add(formattedValue != null ? formattedValue : "");
+        }
+    }
+}
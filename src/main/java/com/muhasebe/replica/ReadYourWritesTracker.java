@@ -0,0 +1,73 @@
+package com.muhasebe.replica;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+
+/**
+ * Yazma yapan kullanıcının okumalarını bir süre primary'ye yönlendirmek için son yazma zamanlarını tutar
+ * Replika kullanıcının kendi değişikliğini henüz almamış olabilir; pencere, izin verilen en büyük replika
+ * gecikmesinden (app.datasource.replica.max-lag-ms) uzun tutulur
+ * Kullanıcı, isteğin kimlik doğrulamasından (SecurityContext) alınır; kimliği olmayan işler izlenmez
+ */
+@Component
+public class ReadYourWritesTracker {
+
+    @Value("${app.datasource.replica.read-your-writes-ms:5000}")
+    private long windowMillis;
+
+    @Value("${app.datasource.replica.read-your-writes-max-users:100000}")
+    private long maxUsers;
+
+    private Cache<String, Boolean> recentWriters;
+
+    @PostConstruct
+    public void init() {
+        recentWriters = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofMillis(windowMillis))
+                .maximumSize(maxUsers)
+                .build();
+    }
+
+    /**
+     * Primary'den bağlantı alan yazma transaction'ı commit edildiğinde kullanıcının penceresini başlatır
+     */
+    public void onPrimaryConnection() {
+        String username = currentUsername();
+        if (username == null || !TransactionSynchronizationManager.isSynchronizationActive()
+                || TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                recentWriters.put(username, Boolean.TRUE);
+            }
+        });
+    }
+
+    /**
+     * Geçerli kullanıcı pencere içinde yazma yaptıysa true
+     */
+    public boolean hasRecentWrite() {
+        String username = currentUsername();
+        return username != null && recentWriters.getIfPresent(username) != null;
+    }
+
+    private static String currentUsername() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated() || authentication instanceof AnonymousAuthenticationToken) {
+            return null;
+        }
+        return authentication.getName();
+    }
+}
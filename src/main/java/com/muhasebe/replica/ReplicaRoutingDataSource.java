@@ -0,0 +1,178 @@
+package com.muhasebe.replica;
+
+import com.muhasebe.tenant.TenantContext;
+import com.zaxxer.hikari.HikariDataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.Closeable;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Şirket verisini okuyan read-only transaction'ları replika havuzlarına, diğer tüm bağlantıları primary'ye verir
+ * Karar bağlantı istendiği anda transaction'ın read-only bayrağına bakılarak verilir; bu yüzden bu DataSource
+ * LazyConnectionDataSourceProxy arkasında kullanılır (fiziksel bağlantı ilk SQL'de, bayrak ayarlandıktan sonra alınır)
+ * Şirketsiz read-only işler (giriş, token ve kullanıcı doğrulama) her zaman primary'den okur
+ * Replika, gecikmesi app.datasource.replica.max-lag-ms'i aşarsa, gecikmesi ölçülemezse veya bağlantı
+ * verememişse kullanılmaz; hiçbir replika uygun değilse ya da kullanıcı kısa süre önce yazma yaptıysa
+ * (ReadYourWritesTracker) okuma primary'ye düşer
+ */
+public class ReplicaRoutingDataSource extends AbstractDataSource implements Closeable {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReplicaRoutingDataSource.class);
+
+    /**
+     * Replika kendisine gelen WAL'ın tamamını uyguladıysa gecikme 0'dır (primary boşta beklerken son replay zamanı
+     * eskir ama replika geride değildir); aksi halde son uygulanan transaction'ın yaşı
+     */
+    public static final String DEFAULT_LAG_QUERY = "SELECT CASE WHEN NOT pg_is_in_recovery() "
+            + "OR pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0 "
+            + "ELSE CAST(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()) * 1000 AS bigint) END";
+
+    private final HikariDataSource primary;
+
+    private final List<Replica> replicas;
+
+    private final ReadYourWritesTracker readYourWritesTracker;
+
+    private final long maxLagMillis;
+
+    private final String lagQuery;
+
+    private final AtomicInteger nextReplica = new AtomicInteger();
+
+    public ReplicaRoutingDataSource(HikariDataSource primary, List<HikariDataSource> replicas,
+                                    ReadYourWritesTracker readYourWritesTracker, long maxLagMillis, String lagQuery) {
+        this.primary = primary;
+        this.replicas = replicas.stream().map(Replica::new).toList();
+        this.readYourWritesTracker = readYourWritesTracker;
+        this.maxLagMillis = maxLagMillis;
+        this.lagQuery = lagQuery;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (!isReplicaRead()) {
+            readYourWritesTracker.onPrimaryConnection();
+            return primary.getConnection();
+        }
+        if (readYourWritesTracker.hasRecentWrite()) {
+            return primary.getConnection();
+        }
+        for (int i = 0; i < replicas.size(); i++) {
+            Replica replica = replicas.get(Math.floorMod(nextReplica.getAndIncrement(), replicas.size()));
+            if (!replica.isUsable(maxLagMillis)) {
+                continue;
+            }
+            try {
+                return replica.dataSource.getConnection();
+            } catch (SQLException e) {
+                replica.markDown(e.getMessage());
+            }
+        }
+        return primary.getConnection();
+    }
+
+    /**
+     * Kullanıcı adı/şifre ile istenen bağlantılar yönlendirilmez
+     */
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return primary.getConnection(username, password);
+    }
+
+    /**
+     * Replikaların gecikmesini ölçer; ölçülemeyen replika bir sonraki başarılı ölçüme kadar kullanılmaz
+     */
+    @Scheduled(fixedDelayString = "${app.datasource.replica.lag-check-interval-ms:1000}")
+    public void checkReplicas() {
+        for (Replica replica : replicas) {
+            try {
+                Long lagMillis = replica.jdbcTemplate.queryForObject(lagQuery, Long.class);
+                replica.updateLag(lagMillis != null ? lagMillis : Long.MAX_VALUE, maxLagMillis);
+            } catch (DataAccessException e) {
+                replica.markDown(e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Havuz ayarlarını okuyan kodlar (ör. tenant şema havuzları) primary'nin HikariDataSource'unu görür
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T unwrap(Class<T> iface) throws SQLException {
+        if (iface.isInstance(this)) {
+            return (T) this;
+        }
+        return primary.unwrap(iface);
+    }
+
+    @Override
+    public boolean isWrapperFor(Class<?> iface) throws SQLException {
+        return iface.isInstance(this) || primary.isWrapperFor(iface);
+    }
+
+    @Override
+    public void close() {
+        replicas.forEach(replica -> replica.dataSource.close());
+    }
+
+    private static boolean isReplicaRead() {
+        return TransactionSynchronizationManager.isCurrentTransactionReadOnly() && TenantContext.getCompanyId() != null;
+    }
+
+    private static final class Replica {
+
+        private final HikariDataSource dataSource;
+
+        private final JdbcTemplate jdbcTemplate;
+
+        /**
+         * İlk ölçüme kadar replika kullanılmaz
+         */
+        private volatile long lagMillis = Long.MAX_VALUE;
+
+        private volatile boolean up;
+
+        private Replica(HikariDataSource dataSource) {
+            this.dataSource = dataSource;
+            this.jdbcTemplate = new JdbcTemplate(dataSource);
+            this.jdbcTemplate.setQueryTimeout(1);
+        }
+
+        private boolean isUsable(long maxLagMillis) {
+            return up && lagMillis <= maxLagMillis;
+        }
+
+        private void updateLag(long lagMillis, long maxLagMillis) {
+            boolean wasUsable = isUsable(maxLagMillis);
+            this.lagMillis = lagMillis;
+            this.up = true;
+            boolean usable = isUsable(maxLagMillis);
+            if (wasUsable != usable) {
+                if (usable) {
+                    logger.info("Replica {} is in use (lag {} ms)", dataSource.getPoolName(), lagMillis);
+                } else {
+                    logger.warn("Replica {} lag {} ms exceeds {} ms, reading from primary",
+                            dataSource.getPoolName(), lagMillis, maxLagMillis);
+                }
+            }
+        }
+
+        private void markDown(String reason) {
+            if (up) {
+                logger.warn("Replica {} is unavailable, reading from primary: {}", dataSource.getPoolName(), reason);
+            }
+            up = false;
+        }
+    }
+}
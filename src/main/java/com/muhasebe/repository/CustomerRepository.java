@@ -1,54 +1,218 @@
 package com.muhasebe.repository;
 
 import com.muhasebe.entity.Customer;
+import com.muhasebe.repository.projection.BalanceSummaryRow;
+import com.muhasebe.repository.projection.CustomerExportRow;
+import com.muhasebe.repository.projection.CustomerSummary;
+import com.muhasebe.repository.support.KeysetCursor;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
 
 @Repository
+@Transactional(readOnly = true)
 public interface CustomerRepository extends JpaRepository<Customer, Long> {
 
-    @Query("SELECT c FROM Customer c LEFT JOIN FETCH c.company WHERE c.company.id = :companyId AND c.isDeleted = false")
-    Page<Customer> findByCompanyId(@Param("companyId") Long companyId, Pageable pageable);
+    // JPQL sorgularına şirket koşulu tenant filtresinden, silinmemiş koşulu @SQLRestriction'dan gelir;
+    // native sorgulara ikisi de uygulanmaz, bu sorgularda company_id ve is_deleted koşulları elle yazılır
+    // Filtre transaction başında açıldığından sorgu metotları servis dışından çağrılsa da transaction'da çalışır
 
-    @Query("SELECT c FROM Customer c LEFT JOIN FETCH c.company WHERE c.company.id = :companyId AND c.isDeleted = false")
-    List<Customer> findAllByCompanyId(@Param("companyId") Long companyId);
+    String SEARCH_FROM_WHERE = "FROM customers c WHERE c.company_id = :companyId AND c.is_deleted = false AND " +
+            "tr_fold(coalesce(c.name, '') || ' ' || coalesce(c.tax_number, '') || ' ' || " +
+            "coalesce(c.phone, '') || ' ' || coalesce(c.email, '')) LIKE tr_search_pattern(:keyword) ESCAPE '!'";
 
-    @Query("SELECT c FROM Customer c LEFT JOIN FETCH c.company WHERE c.company.id = :companyId AND c.isActive = true AND c.isDeleted = false")
-    Page<Customer> findActiveCustomersByCompanyId(@Param("companyId") Long companyId, Pageable pageable);
+    String SEARCH_ORDER_BY = " ORDER BY tr_fold(c.name) = tr_fold(:keyword) DESC, " +
+            "starts_with(tr_fold(c.name), tr_fold(:keyword)) DESC, " +
+            "similarity(tr_fold(c.name), tr_fold(:keyword)) DESC, c.name, c.id";
 
-    @Query("SELECT c FROM Customer c WHERE c.taxNumber = :taxNumber AND c.company.id = :companyId AND c.isDeleted = false")
-    Optional<Customer> findByTaxNumberAndCompanyId(@Param("taxNumber") String taxNumber, @Param("companyId") Long companyId);
+    // Liste görünümü projeksiyonu (CustomerSummary) için seçilen kolonlar
+    String SUMMARY_SELECT = "SELECT c.id AS id, c.name AS name, c.taxNumber AS taxNumber, c.city AS city, " +
+            "c.balance AS balance, c.isActive AS isActive FROM Customer c";
 
-    @Query("SELECT c FROM Customer c LEFT JOIN FETCH c.company WHERE c.company.id = :companyId AND LOWER(c.name) LIKE LOWER(CONCAT('%', :name, '%')) AND c.isDeleted = false")
-    Page<Customer> searchByName(@Param("companyId") Long companyId, @Param("name") String name, Pageable pageable);
+    // Dışa aktarım akışında sunucu tarafı cursor'dan bir seferde okunan satır sayısı
+    int EXPORT_FETCH_SIZE = 1000;
 
-    @Query("SELECT c FROM Customer c LEFT JOIN FETCH c.company WHERE c.company.id = :companyId AND c.city = :city AND c.isDeleted = false")
-    Page<Customer> findByCity(@Param("companyId") Long companyId, @Param("city") String city, Pageable pageable);
+    /**
+     * Kaydı şirketiyle birlikte tek sorguda getirir; tenant filtresi nedeniyle başka şirketin kaydı bulunamaz
+     * (findById filtreyi uygulamaz, şirkete ait kayıt okumalarında bu metot kullanılmalıdır)
+     */
+    @Query("SELECT c FROM Customer c JOIN FETCH c.company WHERE c.id = :id")
+    Optional<Customer> findWithCompanyById(@Param("id") Long id);
 
-    @Query("SELECT c FROM Customer c LEFT JOIN FETCH c.company WHERE c.company.id = :companyId AND c.customerType = :customerType AND c.isDeleted = false")
-    Page<Customer> findByCustomerType(@Param("companyId") Long companyId, @Param("customerType") String customerType, Pageable pageable);
+    @Query("SELECT c FROM Customer c LEFT JOIN FETCH c.company")
+    Page<Customer> findPageWithCompany(Pageable pageable);
 
-    @Query("SELECT c FROM Customer c LEFT JOIN FETCH c.company WHERE c.company.id = :companyId AND c.balance < 0 AND c.isDeleted = false")
-    List<Customer> findCustomersWithDebt(@Param("companyId") Long companyId);
+    @Query("SELECT c FROM Customer c LEFT JOIN FETCH c.company")
+    List<Customer> findAllWithCompany();
 
-    @Query("SELECT c FROM Customer c LEFT JOIN FETCH c.company WHERE c.company.id = :companyId AND c.balance > 0 AND c.isDeleted = false")
-    List<Customer> findCustomersWithCredit(@Param("companyId") Long companyId);
+    @Query("SELECT c FROM Customer c LEFT JOIN FETCH c.company WHERE c.isActive = true")
+    Page<Customer> findActiveCustomers(Pageable pageable);
 
-    @Query("SELECT COUNT(c) > 0 FROM Customer c WHERE c.taxNumber = :taxNumber AND c.company.id = :companyId AND c.isDeleted = false")
-    boolean existsByTaxNumberAndCompanyId(@Param("taxNumber") String taxNumber, @Param("companyId") Long companyId);
+    @Query("SELECT c FROM Customer c WHERE c.taxNumber = :taxNumber")
+    Optional<Customer> findByTaxNumber(@Param("taxNumber") String taxNumber);
 
-    @Query("SELECT c FROM Customer c LEFT JOIN FETCH c.company WHERE c.company.id = :companyId AND " +
-            "(LOWER(c.name) LIKE LOWER(CONCAT('%', :keyword, '%')) OR " +
-            "LOWER(c.taxNumber) LIKE LOWER(CONCAT('%', :keyword, '%')) OR " +
-            "LOWER(c.phone) LIKE LOWER(CONCAT('%', :keyword, '%')) OR " +
-            "LOWER(c.email) LIKE LOWER(CONCAT('%', :keyword, '%'))) AND " +
-            "c.isDeleted = false")
-    Page<Customer> globalSearch(@Param("companyId") Long companyId, @Param("keyword") String keyword, Pageable pageable);
+    @Query("SELECT c FROM Customer c LEFT JOIN FETCH c.company WHERE LOWER(c.name) LIKE LOWER(CONCAT('%', :name, '%'))")
+    Slice<Customer> searchByName(@Param("name") String name, Pageable pageable);
+
+    @Query("SELECT c FROM Customer c LEFT JOIN FETCH c.company WHERE c.city = :city")
+    Page<Customer> findByCity(@Param("city") String city, Pageable pageable);
+
+    @Query("SELECT c FROM Customer c LEFT JOIN FETCH c.company WHERE c.customerType = :customerType")
+    Page<Customer> findByCustomerType(@Param("customerType") String customerType, Pageable pageable);
+
+    @Query("SELECT c FROM Customer c LEFT JOIN FETCH c.company WHERE c.balance < 0")
+    List<Customer> findCustomersWithDebt();
+
+    @Query("SELECT c FROM Customer c LEFT JOIN FETCH c.company WHERE c.balance > 0")
+    List<Customer> findCustomersWithCredit();
+
+    /**
+     * Vergi numarasının şirkette kullanılıp kullanılmadığını kontrol eder
+     * Silinmiş kayıtlar da dahildir; (tax_number, company_id) unique kısıtı onları da kapsar (@SQLRestriction
+     * uygulanmasın diye native)
+     */
+    @Query(value = "SELECT EXISTS (SELECT 1 FROM customers c WHERE c.company_id = :companyId AND c.tax_number = :taxNumber)",
+            nativeQuery = true)
+    boolean existsByTaxNumber(@Param("companyId") Long companyId, @Param("taxNumber") String taxNumber);
+
+    /**
+     * Verilen vergi numaralarından şirkette zaten kullanılanları döndürür (toplu içe aktarma, tek sorguda)
+     * Silinmiş kayıtlar da dahildir; (tax_number, company_id) unique kısıtı onları da kapsar
+     */
+    @Query(value = "SELECT c.tax_number FROM customers c WHERE c.company_id = :companyId AND c.tax_number IN :taxNumbers",
+            nativeQuery = true)
+    Set<String> findExistingTaxNumbers(@Param("companyId") Long companyId, @Param("taxNumbers") Collection<String> taxNumbers);
+
+    /**
+     * Ad, vergi no, telefon ve email içinde Türkçe karakter duyarsız arama (pg_trgm GIN indeksi ile)
+     * Sonuçlar tam eşleşme, ad başı eşleşmesi ve ada benzerliğe göre sıralanır; Pageable sıralaması kullanılmaz
+     * Slice döner: eşleşmelerin tamamını tarayan COUNT çalıştırılmaz, sonraki sayfa bir fazla satır okunarak anlaşılır
+     */
+    @Query(value = "SELECT c.* " + SEARCH_FROM_WHERE + SEARCH_ORDER_BY, nativeQuery = true)
+    Slice<Customer> globalSearch(@Param("companyId") Long companyId, @Param("keyword") String keyword, Pageable pageable);
+
+    /**
+     * globalSearch ile aynı arama ve sıralama, yalnızca liste görünümündeki kolonlar okunur
+     */
+    @Query(value = "SELECT c.id AS id, c.name AS name, c.tax_number AS \"taxNumber\", c.city AS city, " +
+            "c.balance AS balance, c.is_active AS \"isActive\" " + SEARCH_FROM_WHERE + SEARCH_ORDER_BY,
+            nativeQuery = true)
+    Slice<CustomerSummary> globalSearchSummaries(@Param("companyId") Long companyId, @Param("keyword") String keyword, Pageable pageable);
+
+    /**
+     * globalSearch eşleşmelerinin kesin sayısı; yalnızca istemci açıkça istediğinde (CountMode.EXACT) çalıştırılır
+     */
+    @Query(value = "SELECT COUNT(*) " + SEARCH_FROM_WHERE, nativeQuery = true)
+    long countGlobalSearch(@Param("companyId") Long companyId, @Param("keyword") String keyword);
+
+    @Query(value = SUMMARY_SELECT,
+            countQuery = "SELECT COUNT(c) FROM Customer c")
+    Page<CustomerSummary> findSummaries(Pageable pageable);
+
+    @Query(value = SUMMARY_SELECT + " WHERE c.isActive = true",
+            countQuery = "SELECT COUNT(c) FROM Customer c WHERE c.isActive = true")
+    Page<CustomerSummary> findActiveSummaries(Pageable pageable);
+
+    /**
+     * Şirketin bakiye özeti tek sorguda: toplam, şehir bazında ve tip bazında gruplar (GROUPING SETS)
+     * Borçlar tutara göre kovalara ayrılır: 0-1.000, 1.000-10.000, 10.000-100.000, 100.000 üzeri
+     */
+    @Query(value = "SELECT c.city AS city, c.customer_type AS type, " +
+            "GROUPING(c.city) AS \"cityGrouped\", GROUPING(c.customer_type) AS \"typeGrouped\", " +
+            "COUNT(*) AS \"totalCount\", " +
+            "COUNT(*) FILTER (WHERE c.balance < 0) AS \"debtorCount\", " +
+            "COALESCE(-SUM(c.balance) FILTER (WHERE c.balance < 0), 0) AS \"totalDebt\", " +
+            "COUNT(*) FILTER (WHERE c.balance > 0) AS \"creditorCount\", " +
+            "COALESCE(SUM(c.balance) FILTER (WHERE c.balance > 0), 0) AS \"totalCredit\", " +
+            "COALESCE(SUM(c.balance), 0) AS \"netBalance\", " +
+            "COUNT(*) FILTER (WHERE c.credit_limit IS NOT NULL AND -c.balance > c.credit_limit) AS \"overLimitCount\", " +
+            "COALESCE(SUM(-c.balance - c.credit_limit) FILTER (WHERE c.credit_limit IS NOT NULL AND -c.balance > c.credit_limit), 0) AS \"overLimitAmount\", " +
+            "COUNT(*) FILTER (WHERE c.balance < 0 AND c.balance >= -1000) AS \"debtUpTo1k\", " +
+            "COUNT(*) FILTER (WHERE c.balance < -1000 AND c.balance >= -10000) AS \"debtUpTo10k\", " +
+            "COUNT(*) FILTER (WHERE c.balance < -10000 AND c.balance >= -100000) AS \"debtUpTo100k\", " +
+            "COUNT(*) FILTER (WHERE c.balance < -100000) AS \"debtOver100k\" " +
+            "FROM customers c WHERE c.company_id = :companyId AND c.is_deleted = false " +
+            "GROUP BY GROUPING SETS ((), (c.city), (c.customer_type))",
+            nativeQuery = true)
+    List<BalanceSummaryRow> summarizeBalances(@Param("companyId") Long companyId);
+
+    /**
+     * Dışa aktarım için şirketin kayıtlarını ada göre sıralı akış olarak döndürür
+     * Transaction içinde tüketilmelidir; fetch size ile PostgreSQL sunucu tarafı cursor kullanır,
+     * kayıtlar EXPORT_FETCH_SIZE'lık parçalar halinde okunur
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + EXPORT_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT c.name AS name, c.taxNumber AS taxNumber, c.taxOffice AS taxOffice, c.city AS city, " +
+            "c.district AS district, c.phone AS phone, c.email AS email, c.customerType AS customerType, c.balance AS balance, c.creditLimit AS creditLimit, " +
+            "c.paymentTerms AS paymentTerms, c.isActive AS isActive " +
+            "FROM Customer c ORDER BY c.name, c.id")
+    Stream<CustomerExportRow> streamExportRows();
+
+    /**
+     * Cursor ile listelemenin ilk sayfası (sıralama Pageable'dan gelir, COUNT sorgusu çalışmaz)
+     */
+    @Query("SELECT c FROM Customer c")
+    List<Customer> findFirstPage(Pageable pageable);
+
+    // Seek sorguları: (anahtar, id) satır karşılaştırması, (company_id, anahtar, id) indeksinde
+    // doğrudan son kaydın konumundan başlayan bir aralık taramasına dönüşür
+
+    @Query(value = "SELECT c.* FROM customers c WHERE c.company_id = :companyId AND c.is_deleted = false AND (c.name, c.id) > (:name, :id) " +
+            "ORDER BY c.name, c.id LIMIT :limit", nativeQuery = true)
+    List<Customer> findAfterName(@Param("companyId") Long companyId, @Param("name") String name,
+                           @Param("id") Long id, @Param("limit") int limit);
+
+    @Query(value = "SELECT c.* FROM customers c WHERE c.company_id = :companyId AND c.is_deleted = false AND (c.name, c.id) < (:name, :id) " +
+            "ORDER BY c.name DESC, c.id DESC LIMIT :limit", nativeQuery = true)
+    List<Customer> findBeforeName(@Param("companyId") Long companyId, @Param("name") String name,
+                           @Param("id") Long id, @Param("limit") int limit);
+
+    @Query(value = "SELECT c.* FROM customers c WHERE c.company_id = :companyId AND c.is_deleted = false AND (c.created_at, c.id) > (:createdAt, :id) " +
+            "ORDER BY c.created_at, c.id LIMIT :limit", nativeQuery = true)
+    List<Customer> findAfterCreatedAt(@Param("companyId") Long companyId, @Param("createdAt") LocalDateTime createdAt,
+                           @Param("id") Long id, @Param("limit") int limit);
+
+    @Query(value = "SELECT c.* FROM customers c WHERE c.company_id = :companyId AND c.is_deleted = false AND (c.created_at, c.id) < (:createdAt, :id) " +
+            "ORDER BY c.created_at DESC, c.id DESC LIMIT :limit", nativeQuery = true)
+    List<Customer> findBeforeCreatedAt(@Param("companyId") Long companyId, @Param("createdAt") LocalDateTime createdAt,
+                           @Param("id") Long id, @Param("limit") int limit);
+
+    /**
+     * Cursor'daki son kayıttan sonraki en fazla limit kaydı getirir
+     */
+    default List<Customer> findNextPage(Long companyId, KeysetCursor cursor, int limit) {
+        if (cursor.isFirstPage()) {
+            return findFirstPage(PageRequest.of(0, limit, cursor.sort()));
+        }
+        boolean ascending = cursor.getDirection().isAscending();
+        if ("createdAt".equals(cursor.getSortKey())) {
+            LocalDateTime createdAt = (LocalDateTime) cursor.getLastValue();
+            return ascending
+                    ? findAfterCreatedAt(companyId, createdAt, cursor.getLastId(), limit)
+                    : findBeforeCreatedAt(companyId, createdAt, cursor.getLastId(), limit);
+        }
+        String name = (String) cursor.getLastValue();
+        return ascending
+                ? findAfterName(companyId, name, cursor.getLastId(), limit)
+                : findBeforeName(companyId, name, cursor.getLastId(), limit);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,64 @@
+package com.muhasebe.repository;
+
+import com.muhasebe.entity.RefreshToken;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * RefreshToken Entity için JPA Repository
+ */
+@Repository
+public interface RefreshTokenRepository extends JpaRepository<RefreshToken, Long> {
+
+    /**
+     * Token kimliğine (jti) göre kayıt bulur
+     */
+    Optional<RefreshToken> findByJti(String jti);
+
+    /**
+     * Açılışta bellek indeksini kurmak için süresi dolmamış ve iptal edilmemiş kayıtları getirir
+     */
+    @Query("SELECT r FROM RefreshToken r WHERE r.expiresAt > :now AND r.revoked = false")
+    List<RefreshToken> findLiveTokens(@Param("now") LocalDateTime now);
+
+    /**
+     * Token'ı kullanılmış olarak işaretler; yalnızca ilk çağrı 1 döner
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE RefreshToken r SET r.used = true WHERE r.jti = :jti AND r.used = false AND r.revoked = false")
+    int markUsed(@Param("jti") String jti);
+
+    /**
+     * Bir token ailesinin tamamını iptal eder
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE RefreshToken r SET r.revoked = true WHERE r.familyId = :familyId")
+    int revokeFamily(@Param("familyId") String familyId);
+
+    /**
+     * Süresi dolan kayıtları toplu olarak siler
+     */
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM RefreshToken r WHERE r.jti IN :jtis")
+    int deleteByJtiIn(@Param("jtis") Collection<String> jtis);
+
+    /**
+     * Süresi dolmuş tüm kayıtları siler (yalnızca açılışta, diğer node'lardan kalanlar için)
+     */
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM RefreshToken r WHERE r.expiresAt <= :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+}
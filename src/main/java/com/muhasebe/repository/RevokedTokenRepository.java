@@ -0,0 +1,48 @@
+package com.muhasebe.repository;
+
+import com.muhasebe.entity.RevokedToken;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * RevokedToken Entity için JPA Repository
+ */
+@Repository
+public interface RevokedTokenRepository extends JpaRepository<RevokedToken, Long> {
+
+    /**
+     * Açılışta deny-list'i kurmak için süresi dolmamış kayıtları getirir
+     */
+    @Query("SELECT r FROM RevokedToken r WHERE r.expiresAt > :now")
+    List<RevokedToken> findActive(@Param("now") LocalDateTime now);
+
+    /**
+     * Diğer node'larda eklenen kayıtları almak için belirli bir andan sonra eklenenleri getirir
+     */
+    @Query("SELECT r FROM RevokedToken r WHERE r.createdAt > :since AND r.expiresAt > :now")
+    List<RevokedToken> findCreatedSince(@Param("since") LocalDateTime since, @Param("now") LocalDateTime now);
+
+    /**
+     * Süresi dolan kayıtları toplu olarak siler
+     */
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM RevokedToken r WHERE r.jti IN :jtis")
+    int deleteByJtiIn(@Param("jtis") Collection<String> jtis);
+
+    /**
+     * Süresi dolmuş tüm kayıtları siler (yalnızca açılışta)
+     */
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM RevokedToken r WHERE r.expiresAt <= :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+}
@@ -1,54 +1,213 @@
 package com.muhasebe.repository;
 
 import com.muhasebe.entity.Supplier;
+import com.muhasebe.repository.projection.BalanceSummaryRow;
+import com.muhasebe.repository.projection.SupplierExportRow;
+import com.muhasebe.repository.projection.SupplierSummary;
+import com.muhasebe.repository.support.KeysetCursor;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
 
 @Repository
+@Transactional(readOnly = true)
 public interface SupplierRepository extends JpaRepository<Supplier, Long> {
 
-    @Query("SELECT s FROM Supplier s LEFT JOIN FETCH s.company WHERE s.company.id = :companyId AND s.isDeleted = false")
-    Page<Supplier> findByCompanyId(@Param("companyId") Long companyId, Pageable pageable);
+    // JPQL sorgularına şirket koşulu tenant filtresinden, silinmemiş koşulu @SQLRestriction'dan gelir;
+    // native sorgulara ikisi de uygulanmaz, bu sorgularda company_id ve is_deleted koşulları elle yazılır
+    // Filtre transaction başında açıldığından sorgu metotları servis dışından çağrılsa da transaction'da çalışır
 
-    @Query("SELECT s FROM Supplier s LEFT JOIN FETCH s.company WHERE s.company.id = :companyId AND s.isDeleted = false")
-    List<Supplier> findAllByCompanyId(@Param("companyId") Long companyId);
+    String SEARCH_FROM_WHERE = "FROM suppliers s WHERE s.company_id = :companyId AND s.is_deleted = false AND " +
+            "tr_fold(coalesce(s.name, '') || ' ' || coalesce(s.tax_number, '') || ' ' || " +
+            "coalesce(s.phone, '') || ' ' || coalesce(s.email, '')) LIKE tr_search_pattern(:keyword) ESCAPE '!'";
 
-    @Query("SELECT s FROM Supplier s LEFT JOIN FETCH s.company WHERE s.company.id = :companyId AND s.isActive = true AND s.isDeleted = false")
-    Page<Supplier> findActiveSuppliersByCompanyId(@Param("companyId") Long companyId, Pageable pageable);
+    String SEARCH_ORDER_BY = " ORDER BY tr_fold(s.name) = tr_fold(:keyword) DESC, " +
+            "starts_with(tr_fold(s.name), tr_fold(:keyword)) DESC, " +
+            "similarity(tr_fold(s.name), tr_fold(:keyword)) DESC, s.name, s.id";
 
-    @Query("SELECT s FROM Supplier s WHERE s.taxNumber = :taxNumber AND s.company.id = :companyId AND s.isDeleted = false")
-    Optional<Supplier> findByTaxNumberAndCompanyId(@Param("taxNumber") String taxNumber, @Param("companyId") Long companyId);
+    // Liste görünümü projeksiyonu (SupplierSummary) için seçilen kolonlar
+    String SUMMARY_SELECT = "SELECT s.id AS id, s.name AS name, s.taxNumber AS taxNumber, s.city AS city, " +
+            "s.balance AS balance, s.isActive AS isActive FROM Supplier s";
 
-    @Query("SELECT s FROM Supplier s LEFT JOIN FETCH s.company WHERE s.company.id = :companyId AND LOWER(s.name) LIKE LOWER(CONCAT('%', :name, '%')) AND s.isDeleted = false")
-    Page<Supplier> searchByName(@Param("companyId") Long companyId, @Param("name") String name, Pageable pageable);
+    // Dışa aktarım akışında sunucu tarafı cursor'dan bir seferde okunan satır sayısı
+    int EXPORT_FETCH_SIZE = 1000;
 
-    @Query("SELECT s FROM Supplier s LEFT JOIN FETCH s.company WHERE s.company.id = :companyId AND s.city = :city AND s.isDeleted = false")
-    Page<Supplier> findByCity(@Param("companyId") Long companyId, @Param("city") String city, Pageable pageable);
+    /**
+     * Kaydı şirketiyle birlikte tek sorguda getirir; tenant filtresi nedeniyle başka şirketin kaydı bulunamaz
+     * (findById filtreyi uygulamaz, şirkete ait kayıt okumalarında bu metot kullanılmalıdır)
+     */
+    @Query("SELECT s FROM Supplier s JOIN FETCH s.company WHERE s.id = :id")
+    Optional<Supplier> findWithCompanyById(@Param("id") Long id);
 
-    @Query("SELECT s FROM Supplier s LEFT JOIN FETCH s.company WHERE s.company.id = :companyId AND s.supplierType = :supplierType AND s.isDeleted = false")
-    Page<Supplier> findBySupplierType(@Param("companyId") Long companyId, @Param("supplierType") String supplierType, Pageable pageable);
+    @Query("SELECT s FROM Supplier s LEFT JOIN FETCH s.company")
+    Page<Supplier> findPageWithCompany(Pageable pageable);
 
-    @Query("SELECT s FROM Supplier s LEFT JOIN FETCH s.company WHERE s.company.id = :companyId AND s.balance < 0 AND s.isDeleted = false")
-    List<Supplier> findSuppliersWithDebt(@Param("companyId") Long companyId);
+    @Query("SELECT s FROM Supplier s LEFT JOIN FETCH s.company")
+    List<Supplier> findAllWithCompany();
 
-    @Query("SELECT s FROM Supplier s LEFT JOIN FETCH s.company WHERE s.company.id = :companyId AND s.balance > 0 AND s.isDeleted = false")
-    List<Supplier> findSuppliersWithCredit(@Param("companyId") Long companyId);
+    @Query("SELECT s FROM Supplier s LEFT JOIN FETCH s.company WHERE s.isActive = true")
+    Page<Supplier> findActiveSuppliers(Pageable pageable);
 
-    @Query("SELECT COUNT(s) > 0 FROM Supplier s WHERE s.taxNumber = :taxNumber AND s.company.id = :companyId AND s.isDeleted = false")
-    boolean existsByTaxNumberAndCompanyId(@Param("taxNumber") String taxNumber, @Param("companyId") Long companyId);
+    @Query("SELECT s FROM Supplier s WHERE s.taxNumber = :taxNumber")
+    Optional<Supplier> findByTaxNumber(@Param("taxNumber") String taxNumber);
 
-    @Query("SELECT s FROM Supplier s LEFT JOIN FETCH s.company WHERE s.company.id = :companyId AND " +
-            "(LOWER(s.name) LIKE LOWER(CONCAT('%', :keyword, '%')) OR " +
-            "LOWER(s.taxNumber) LIKE LOWER(CONCAT('%', :keyword, '%')) OR " +
-            "LOWER(s.phone) LIKE LOWER(CONCAT('%', :keyword, '%')) OR " +
-            "LOWER(s.email) LIKE LOWER(CONCAT('%', :keyword, '%'))) AND " +
-            "s.isDeleted = false")
-    Page<Supplier> globalSearch(@Param("companyId") Long companyId, @Param("keyword") String keyword, Pageable pageable);
+    @Query("SELECT s FROM Supplier s LEFT JOIN FETCH s.company WHERE LOWER(s.name) LIKE LOWER(CONCAT('%', :name, '%'))")
+    Slice<Supplier> searchByName(@Param("name") String name, Pageable pageable);
+
+    @Query("SELECT s FROM Supplier s LEFT JOIN FETCH s.company WHERE s.city = :city")
+    Page<Supplier> findByCity(@Param("city") String city, Pageable pageable);
+
+    @Query("SELECT s FROM Supplier s LEFT JOIN FETCH s.company WHERE s.supplierType = :supplierType")
+    Page<Supplier> findBySupplierType(@Param("supplierType") String supplierType, Pageable pageable);
+
+    @Query("SELECT s FROM Supplier s LEFT JOIN FETCH s.company WHERE s.balance < 0")
+    List<Supplier> findSuppliersWithDebt();
+
+    @Query("SELECT s FROM Supplier s LEFT JOIN FETCH s.company WHERE s.balance > 0")
+    List<Supplier> findSuppliersWithCredit();
+
+    /**
+     * Vergi numarasının şirkette kullanılıp kullanılmadığını kontrol eder
+     * Silinmiş kayıtlar da dahildir; (tax_number, company_id) unique kısıtı onları da kapsar (@SQLRestriction
+     * uygulanmasın diye native)
+     */
+    @Query(value = "SELECT EXISTS (SELECT 1 FROM suppliers s WHERE s.company_id = :companyId AND s.tax_number = :taxNumber)",
+            nativeQuery = true)
+    boolean existsByTaxNumber(@Param("companyId") Long companyId, @Param("taxNumber") String taxNumber);
+
+    /**
+     * Verilen vergi numaralarından şirkette zaten kullanılanları döndürür (toplu içe aktarma, tek sorguda)
+     * Silinmiş kayıtlar da dahildir; (tax_number, company_id) unique kısıtı onları da kapsar
+     */
+    @Query(value = "SELECT s.tax_number FROM suppliers s WHERE s.company_id = :companyId AND s.tax_number IN :taxNumbers",
+            nativeQuery = true)
+    Set<String> findExistingTaxNumbers(@Param("companyId") Long companyId, @Param("taxNumbers") Collection<String> taxNumbers);
+
+    /**
+     * Ad, vergi no, telefon ve email içinde Türkçe karakter duyarsız arama (pg_trgm GIN indeksi ile)
+     * Sonuçlar tam eşleşme, ad başı eşleşmesi ve ada benzerliğe göre sıralanır; Pageable sıralaması kullanılmaz
+     * Slice döner: eşleşmelerin tamamını tarayan COUNT çalıştırılmaz, sonraki sayfa bir fazla satır okunarak anlaşılır
+     */
+    @Query(value = "SELECT s.* " + SEARCH_FROM_WHERE + SEARCH_ORDER_BY, nativeQuery = true)
+    Slice<Supplier> globalSearch(@Param("companyId") Long companyId, @Param("keyword") String keyword, Pageable pageable);
+
+    /**
+     * globalSearch ile aynı arama ve sıralama, yalnızca liste görünümündeki kolonlar okunur
+     */
+    @Query(value = "SELECT s.id AS id, s.name AS name, s.tax_number AS \"taxNumber\", s.city AS city, " +
+            "s.balance AS balance, s.is_active AS \"isActive\" " + SEARCH_FROM_WHERE + SEARCH_ORDER_BY,
+            nativeQuery = true)
+    Slice<SupplierSummary> globalSearchSummaries(@Param("companyId") Long companyId, @Param("keyword") String keyword, Pageable pageable);
+
+    /**
+     * globalSearch eşleşmelerinin kesin sayısı; yalnızca istemci açıkça istediğinde (CountMode.EXACT) çalıştırılır
+     */
+    @Query(value = "SELECT COUNT(*) " + SEARCH_FROM_WHERE, nativeQuery = true)
+    long countGlobalSearch(@Param("companyId") Long companyId, @Param("keyword") String keyword);
+
+    @Query(value = SUMMARY_SELECT,
+            countQuery = "SELECT COUNT(s) FROM Supplier s")
+    Page<SupplierSummary> findSummaries(Pageable pageable);
+
+    /**
+     * Şirketin bakiye özeti tek sorguda: toplam, şehir bazında ve tip bazında gruplar (GROUPING SETS)
+     * Borçlar tutara göre kovalara ayrılır: 0-1.000, 1.000-10.000, 10.000-100.000, 100.000 üzeri
+     */
+    @Query(value = "SELECT s.city AS city, s.supplier_type AS type, " +
+            "GROUPING(s.city) AS \"cityGrouped\", GROUPING(s.supplier_type) AS \"typeGrouped\", " +
+            "COUNT(*) AS \"totalCount\", " +
+            "COUNT(*) FILTER (WHERE s.balance < 0) AS \"debtorCount\", " +
+            "COALESCE(-SUM(s.balance) FILTER (WHERE s.balance < 0), 0) AS \"totalDebt\", " +
+            "COUNT(*) FILTER (WHERE s.balance > 0) AS \"creditorCount\", " +
+            "COALESCE(SUM(s.balance) FILTER (WHERE s.balance > 0), 0) AS \"totalCredit\", " +
+            "COALESCE(SUM(s.balance), 0) AS \"netBalance\", " +
+            "CAST(NULL AS bigint) AS \"overLimitCount\", CAST(NULL AS numeric) AS \"overLimitAmount\", " +
+            "COUNT(*) FILTER (WHERE s.balance < 0 AND s.balance >= -1000) AS \"debtUpTo1k\", " +
+            "COUNT(*) FILTER (WHERE s.balance < -1000 AND s.balance >= -10000) AS \"debtUpTo10k\", " +
+            "COUNT(*) FILTER (WHERE s.balance < -10000 AND s.balance >= -100000) AS \"debtUpTo100k\", " +
+            "COUNT(*) FILTER (WHERE s.balance < -100000) AS \"debtOver100k\" " +
+            "FROM suppliers s WHERE s.company_id = :companyId AND s.is_deleted = false " +
+            "GROUP BY GROUPING SETS ((), (s.city), (s.supplier_type))",
+            nativeQuery = true)
+    List<BalanceSummaryRow> summarizeBalances(@Param("companyId") Long companyId);
+
+    /**
+     * Dışa aktarım için şirketin kayıtlarını ada göre sıralı akış olarak döndürür
+     * Transaction içinde tüketilmelidir; fetch size ile PostgreSQL sunucu tarafı cursor kullanır,
+     * kayıtlar EXPORT_FETCH_SIZE'lık parçalar halinde okunur
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + EXPORT_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT s.name AS name, s.taxNumber AS taxNumber, s.taxOffice AS taxOffice, s.city AS city, " +
+            "s.district AS district, s.phone AS phone, s.email AS email, s.supplierType AS supplierType, s.balance AS balance, " +
+            "s.paymentTerms AS paymentTerms, s.iban AS iban, s.isActive AS isActive " +
+            "FROM Supplier s ORDER BY s.name, s.id")
+    Stream<SupplierExportRow> streamExportRows();
+
+    /**
+     * Cursor ile listelemenin ilk sayfası (sıralama Pageable'dan gelir, COUNT sorgusu çalışmaz)
+     */
+    @Query("SELECT s FROM Supplier s")
+    List<Supplier> findFirstPage(Pageable pageable);
+
+    // Seek sorguları: (anahtar, id) satır karşılaştırması, (company_id, anahtar, id) indeksinde
+    // doğrudan son kaydın konumundan başlayan bir aralık taramasına dönüşür
+
+    @Query(value = "SELECT s.* FROM suppliers s WHERE s.company_id = :companyId AND s.is_deleted = false AND (s.name, s.id) > (:name, :id) " +
+            "ORDER BY s.name, s.id LIMIT :limit", nativeQuery = true)
+    List<Supplier> findAfterName(@Param("companyId") Long companyId, @Param("name") String name,
+                           @Param("id") Long id, @Param("limit") int limit);
+
+    @Query(value = "SELECT s.* FROM suppliers s WHERE s.company_id = :companyId AND s.is_deleted = false AND (s.name, s.id) < (:name, :id) " +
+            "ORDER BY s.name DESC, s.id DESC LIMIT :limit", nativeQuery = true)
+    List<Supplier> findBeforeName(@Param("companyId") Long companyId, @Param("name") String name,
+                           @Param("id") Long id, @Param("limit") int limit);
+
+    @Query(value = "SELECT s.* FROM suppliers s WHERE s.company_id = :companyId AND s.is_deleted = false AND (s.created_at, s.id) > (:createdAt, :id) " +
+            "ORDER BY s.created_at, s.id LIMIT :limit", nativeQuery = true)
+    List<Supplier> findAfterCreatedAt(@Param("companyId") Long companyId, @Param("createdAt") LocalDateTime createdAt,
+                           @Param("id") Long id, @Param("limit") int limit);
+
+    @Query(value = "SELECT s.* FROM suppliers s WHERE s.company_id = :companyId AND s.is_deleted = false AND (s.created_at, s.id) < (:createdAt, :id) " +
+            "ORDER BY s.created_at DESC, s.id DESC LIMIT :limit", nativeQuery = true)
+    List<Supplier> findBeforeCreatedAt(@Param("companyId") Long companyId, @Param("createdAt") LocalDateTime createdAt,
+                           @Param("id") Long id, @Param("limit") int limit);
+
+    /**
+     * Cursor'daki son kayıttan sonraki en fazla limit kaydı getirir
+     */
+    default List<Supplier> findNextPage(Long companyId, KeysetCursor cursor, int limit) {
+        if (cursor.isFirstPage()) {
+            return findFirstPage(PageRequest.of(0, limit, cursor.sort()));
+        }
+        boolean ascending = cursor.getDirection().isAscending();
+        if ("createdAt".equals(cursor.getSortKey())) {
+            LocalDateTime createdAt = (LocalDateTime) cursor.getLastValue();
+            return ascending
+                    ? findAfterCreatedAt(companyId, createdAt, cursor.getLastId(), limit)
+                    : findBeforeCreatedAt(companyId, createdAt, cursor.getLastId(), limit);
+        }
+        String name = (String) cursor.getLastValue();
+        return ascending
+                ? findAfterName(companyId, name, cursor.getLastId(), limit)
+                : findBeforeName(companyId, name, cursor.getLastId(), limit);
+    }
 }
\ No newline at end of file
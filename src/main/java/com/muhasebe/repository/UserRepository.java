@@ -6,14 +6,18 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
 
 /**
  * User Entity için JPA Repository
+ * Silinmiş kullanıcılar @SQLRestriction ile elenir; istekte şirket çözülmüşse sorgular tenant filtresiyle o şirketle sınırlanır
+ * (filtre transaction başında açılır, bu yüzden sorgu metotları read-only transaction'da çalışır)
  */
 @Repository
+@Transactional(readOnly = true)
 public interface UserRepository extends JpaRepository<User, Long> {
 
     /**
@@ -34,42 +38,40 @@ public interface UserRepository extends JpaRepository<User, Long> {
 
     /**
      * Kullanıcı adının kullanılıp kullanılmadığını kontrol eder
+     * Silinmiş kullanıcılar da dahildir; unique kısıtı onları da kapsar
      */
-    boolean existsByUsername(String username);
+    @Query(value = "SELECT EXISTS (SELECT 1 FROM users u WHERE u.username = :username)", nativeQuery = true)
+    boolean existsByUsername(@Param("username") String username);
 
     /**
      * Email adresinin kullanılıp kullanılmadığını kontrol eder
+     * Silinmiş kullanıcılar da dahildir; unique kısıtı onları da kapsar
      */
-    boolean existsByEmail(String email);
+    @Query(value = "SELECT EXISTS (SELECT 1 FROM users u WHERE u.email = :email)", nativeQuery = true)
+    boolean existsByEmail(@Param("email") String email);
 
     /**
-     * Şirkete göre kullanıcıları getirir
+     * Geçerli şirketin kullanıcılarını getirir
      */
-    @Query("SELECT u FROM User u WHERE u.company.id = :companyId AND u.isDeleted = false")
-    List<User> findByCompanyId(@Param("companyId") Long companyId);
+    @Query("SELECT u FROM User u")
+    List<User> findCompanyUsers();
 
     /**
      * Aktif kullanıcıları getirir
      */
-    @Query("SELECT u FROM User u WHERE u.isActive = true AND u.isDeleted = false")
+    @Query("SELECT u FROM User u WHERE u.isActive = true")
     List<User> findAllActiveUsers();
 
     /**
      * Role göre kullanıcıları getirir
      */
-    @Query("SELECT u FROM User u WHERE u.role = :role AND u.isDeleted = false")
+    @Query("SELECT u FROM User u WHERE u.role = :role")
     List<User> findByRole(@Param("role") Role role);
 
-    /**
-     * Şirket ve role göre kullanıcıları getirir
-     */
-    @Query("SELECT u FROM User u WHERE u.company.id = :companyId AND u.role = :role AND u.isDeleted = false")
-    List<User> findByCompanyIdAndRole(@Param("companyId") Long companyId, @Param("role") Role role);
-
     /**
      * Email doğrulaması yapılmamış kullanıcıları getirir
      */
-    @Query("SELECT u FROM User u WHERE u.isEmailVerified = false AND u.isDeleted = false")
+    @Query("SELECT u FROM User u WHERE u.isEmailVerified = false")
     List<User> findUnverifiedUsers();
 
     /**
@@ -81,6 +83,6 @@ public interface UserRepository extends JpaRepository<User, Long> {
     /**
      * Kilitli hesapları getirir
      */
-    @Query("SELECT u FROM User u WHERE u.lockedUntil > :now AND u.isDeleted = false")
+    @Query("SELECT u FROM User u WHERE u.lockedUntil > :now")
     List<User> findLockedAccounts(@Param("now") java.time.LocalDateTime now);
 }
\ No newline at end of file
@@ -0,0 +1,43 @@
+package com.muhasebe.repository.projection;
+
+import java.math.BigDecimal;
+
+/**
+ * Bakiye özet sorgusunun (GROUPING SETS) bir satırı: şirket toplamı, bir şehir veya bir tip grubu
+ * cityGrouped / typeGrouped 1 ise o kolon bu satırda gruplanmamıştır (GROUPING() sonucu)
+ * Borç negatif bakiyedir; tutarlar pozitif döner. Tedarikçilerde kredi limiti olmadığından limit kolonları null'dır
+ */
+public interface BalanceSummaryRow {
+
+    String getCity();
+
+    String getType();
+
+    Integer getCityGrouped();
+
+    Integer getTypeGrouped();
+
+    Long getTotalCount();
+
+    Long getDebtorCount();
+
+    BigDecimal getTotalDebt();
+
+    Long getCreditorCount();
+
+    BigDecimal getTotalCredit();
+
+    BigDecimal getNetBalance();
+
+    Long getOverLimitCount();
+
+    BigDecimal getOverLimitAmount();
+
+    Long getDebtUpTo1k();
+
+    Long getDebtUpTo10k();
+
+    Long getDebtUpTo100k();
+
+    Long getDebtOver100k();
+}
@@ -0,0 +1,34 @@
+package com.muhasebe.repository.projection;
+
+import java.math.BigDecimal;
+
+/**
+ * Müşteri dışa aktarımında yazılan kolonlar
+ * Entity yüklenmediği için uzun akışlarda persistence context büyümez
+ */
+public interface CustomerExportRow {
+
+    String getName();
+
+    String getTaxNumber();
+
+    String getTaxOffice();
+
+    String getCity();
+
+    String getDistrict();
+
+    String getPhone();
+
+    String getEmail();
+
+    String getCustomerType();
+
+    BigDecimal getBalance();
+
+    BigDecimal getCreditLimit();
+
+    Integer getPaymentTerms();
+
+    Boolean getIsActive();
+}
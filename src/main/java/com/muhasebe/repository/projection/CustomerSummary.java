@@ -0,0 +1,22 @@
+package com.muhasebe.repository.projection;
+
+import java.math.BigDecimal;
+
+/**
+ * Müşteri listeleri için yalnızca liste görünümündeki kolonları okuyan projeksiyon
+ * Entity yüklenmediği için persistence context'e eklenmez ve dirty-check yapılmaz
+ */
+public interface CustomerSummary {
+
+    Long getId();
+
+    String getName();
+
+    String getTaxNumber();
+
+    String getCity();
+
+    BigDecimal getBalance();
+
+    Boolean getIsActive();
+}
@@ -0,0 +1,34 @@
+package com.muhasebe.repository.projection;
+
+import java.math.BigDecimal;
+
+/**
+ * Tedarikçi dışa aktarımında yazılan kolonlar
+ * Entity yüklenmediği için uzun akışlarda persistence context büyümez
+ */
+public interface SupplierExportRow {
+
+    String getName();
+
+    String getTaxNumber();
+
+    String getTaxOffice();
+
+    String getCity();
+
+    String getDistrict();
+
+    String getPhone();
+
+    String getEmail();
+
+    String getSupplierType();
+
+    BigDecimal getBalance();
+
+    Integer getPaymentTerms();
+
+    String getIban();
+
+    Boolean getIsActive();
+}
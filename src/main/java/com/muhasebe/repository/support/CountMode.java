@@ -0,0 +1,13 @@
+package com.muhasebe.repository.support;
+
+/**
+ * Cursor ile listelemede toplam kayıt sayısının nasıl döneceği
+ */
+public enum CountMode {
+    /** Toplam sayı hesaplanmaz */
+    NONE,
+    /** Planlayıcı istatistiklerinden tahmin edilir, tablo taranmaz */
+    ESTIMATE,
+    /** COUNT sorgusu ile kesin sayılır */
+    EXACT
+}
@@ -0,0 +1,125 @@
+package com.muhasebe.repository.support;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.muhasebe.exception.BadRequestException;
+import org.springframework.beans.BeanWrapperImpl;
+import org.springframework.data.domain.Sort;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.Set;
+
+/**
+ * Keyset (seek) sayfalama için istemciye verilen opak cursor
+ * Son kaydın sıralama anahtarı ve id'sini taşır; bir sonraki sayfa OFFSET yerine
+ * "(anahtar, id) > (son anahtar, son id)" koşuluyla, indeks üzerinden doğrudan okunur
+ */
+public final class KeysetCursor {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    /**
+     * Keyset sıralamasında kullanılabilecek, null olamayan alanlar
+     */
+    private static final Set<String> SORT_KEYS = Set.of("name", "createdAt");
+
+    private final String sortKey;
+
+    private final Sort.Direction direction;
+
+    private final Object lastValue;
+
+    private final Long lastId;
+
+    private KeysetCursor(String sortKey, Sort.Direction direction, Object lastValue, Long lastId) {
+        this.sortKey = sortKey;
+        this.direction = direction;
+        this.lastValue = lastValue;
+        this.lastId = lastId;
+    }
+
+    /**
+     * İlk sayfa için cursor oluşturur
+     */
+    public static KeysetCursor first(String sortBy, String sortDir) {
+        if (!SORT_KEYS.contains(sortBy)) {
+            throw new BadRequestException("Cursor ile sıralama yalnızca şu alanlarla yapılabilir: " + SORT_KEYS);
+        }
+        Sort.Direction direction = "desc".equalsIgnoreCase(sortDir) ? Sort.Direction.DESC : Sort.Direction.ASC;
+        return new KeysetCursor(sortBy, direction, null, null);
+    }
+
+    /**
+     * İstemciden gelen cursor'ı çözer
+     */
+    public static KeysetCursor decode(String cursor) {
+        try {
+            JsonNode node = MAPPER.readTree(Base64.getUrlDecoder().decode(cursor));
+            String sortKey = node.path("s").asText();
+            if (!SORT_KEYS.contains(sortKey) || !node.hasNonNull("v") || !node.hasNonNull("id")) {
+                throw new BadRequestException("Geçersiz cursor");
+            }
+            String value = node.get("v").asText();
+            return new KeysetCursor(
+                    sortKey,
+                    Sort.Direction.fromString(node.path("d").asText()),
+                    "createdAt".equals(sortKey) ? LocalDateTime.parse(value) : value,
+                    node.get("id").asLong());
+        } catch (IOException | RuntimeException ex) {
+            if (ex instanceof BadRequestException badRequest) {
+                throw badRequest;
+            }
+            throw new BadRequestException("Geçersiz cursor");
+        }
+    }
+
+    /**
+     * Verilen kayıttan sonrasını gösteren cursor'ı döndürür
+     */
+    public KeysetCursor after(Object lastEntity) {
+        BeanWrapperImpl wrapper = new BeanWrapperImpl(lastEntity);
+        return new KeysetCursor(sortKey, direction,
+                wrapper.getPropertyValue(sortKey), (Long) wrapper.getPropertyValue("id"));
+    }
+
+    public String encode() {
+        ObjectNode node = MAPPER.createObjectNode()
+                .put("s", sortKey)
+                .put("d", direction.name())
+                .put("v", lastValue.toString())
+                .put("id", lastId);
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(node.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Eşit anahtarlı kayıtların sırası sabit kalsın diye id ikinci sıralama anahtarıdır
+     */
+    public Sort sort() {
+        return Sort.by(direction, sortKey).and(Sort.by(direction, "id"));
+    }
+
+    public boolean isFirstPage() {
+        return lastId == null;
+    }
+
+    public String getSortKey() {
+        return sortKey;
+    }
+
+    public Sort.Direction getDirection() {
+        return direction;
+    }
+
+    public Object getLastValue() {
+        return lastValue;
+    }
+
+    public Long getLastId() {
+        return lastId;
+    }
+}
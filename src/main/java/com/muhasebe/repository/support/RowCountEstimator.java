@@ -0,0 +1,55 @@
+package com.muhasebe.repository.support;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Map;
+
+/**
+ * Şirkete ait kayıt sayısını COUNT çalıştırmadan, PostgreSQL planlayıcısının tahmininden okur
+ * Sonuç tablo istatistikleri kadar günceldir (ANALYZE / autovacuum)
+ */
+@Component
+public class RowCountEstimator {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * table yalnızca koddaki sabitlerden verilmelidir, kullanıcı girdisi olamaz
+     */
+    public long estimateByCompany(String table, Long companyId) {
+        String plan = jdbcTemplate.queryForObject(
+                "EXPLAIN (FORMAT JSON) SELECT 1 FROM " + table + " WHERE company_id = ? AND is_deleted = false",
+                String.class, companyId);
+        try {
+            JsonNode root = MAPPER.readTree(plan);
+            return root.path(0).path("Plan").path("Plan Rows").asLong();
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    /**
+     * Verilen FROM ... WHERE parçasına uyan satır sayısını planlayıcı tahmininden okur (ör. arama eşleşmeleri)
+     * fromWhere yalnızca koddaki sabitlerden verilmelidir; kullanıcı girdisi yalnızca params ile bağlanır
+     */
+    public long estimateMatches(String fromWhere, Map<String, ?> params) {
+        String plan = new NamedParameterJdbcTemplate(jdbcTemplate)
+                .queryForObject("EXPLAIN (FORMAT JSON) SELECT 1 " + fromWhere, params, String.class);
+        try {
+            JsonNode root = MAPPER.readTree(plan);
+            return root.path(0).path("Plan").path("Plan Rows").asLong();
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+}
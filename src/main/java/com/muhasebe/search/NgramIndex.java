@@ -0,0 +1,294 @@
+package com.muhasebe.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Tek bir şirketin kayıtları için trigram posting listeli ters indeks
+ * Her doküman eklendiğinde yeni ve artan bir slot alır, böylece posting listeleri her zaman sıralı kalır ve
+ * birleştirme (merge) ile kesişir. Silinen slotlar boş bırakılır, boş slotlar çoğalınca indeks sıkıştırılır
+ */
+class NgramIndex {
+
+    private static final int GRAM_LENGTH = 3;
+
+    private static final int MIN_DEAD_SLOTS_TO_COMPACT = 1024;
+
+    private static final Comparator<Match> MATCH_ORDER = Comparator
+            .comparingInt(Match::rank)
+            .thenComparing(match -> match.entry().foldedName())
+            .thenComparing(match -> match.entry().document().id());
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Map<Long, Integer> slotById = new HashMap<>();
+
+    private final Map<String, IntList> postings = new HashMap<>();
+
+    /**
+     * Ad önek eşleşmeleri için katlanmış ada göre sıralı tablo
+     */
+    private final NavigableMap<String, Integer> slotByName = new TreeMap<>();
+
+    private Entry[] slots = new Entry[16];
+
+    private int nextSlot;
+
+    private int deadSlots;
+
+    NgramIndex(Collection<SearchDocument> documents) {
+        documents.forEach(this::insert);
+    }
+
+    void put(SearchDocument document) {
+        lock.writeLock().lock();
+        try {
+            delete(document.id());
+            insert(document);
+            compactIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void remove(Long id) {
+        lock.writeLock().lock();
+        try {
+            delete(id);
+            compactIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    int size() {
+        lock.readLock().lock();
+        try {
+            return slotById.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Sorguyu ad, vergi no, telefon veya email içinde geçen kayıtları ilgiye göre sıralı döndürür
+     */
+    List<SearchDocument> search(String query, int limit) {
+        String folded = TurkishFolding.fold(query).trim();
+        if (folded.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+
+        lock.readLock().lock();
+        try {
+            // Ad tam eşleşmeleri ve önek eşleşmeleri ad sırasıyla doğrudan önek tablosundan gelir
+            List<SearchDocument> result = searchByNamePrefix(folded, limit);
+            if (result.size() >= limit || folded.length() < GRAM_LENGTH) {
+                return result;
+            }
+
+            // Kalanlar için trigram adaylarından en iyi (limit - bulunan) kayıt sınırlı bir yığında tutulur
+            int remaining = limit - result.size();
+            PriorityQueue<Match> best = new PriorityQueue<>(remaining, MATCH_ORDER.reversed());
+            for (int slot : candidateSlots(folded)) {
+                Entry entry = slots[slot];
+                if (entry == null || entry.foldedName().startsWith(folded) || !entry.text().contains(folded)) {
+                    continue;
+                }
+                Match match = new Match(entry, rank(entry, folded));
+                if (best.size() < remaining) {
+                    best.add(match);
+                } else if (MATCH_ORDER.compare(match, best.peek()) < 0) {
+                    best.poll();
+                    best.add(match);
+                }
+            }
+
+            List<Match> ordered = new ArrayList<>(best);
+            ordered.sort(MATCH_ORDER);
+            for (Match match : ordered) {
+                result.add(match.entry().document());
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private List<SearchDocument> searchByNamePrefix(String prefix, int limit) {
+        List<SearchDocument> result = new ArrayList<>(limit);
+        for (Map.Entry<String, Integer> named : slotByName.tailMap(prefix, true).entrySet()) {
+            if (!named.getKey().startsWith(prefix) || result.size() >= limit) {
+                break;
+            }
+            result.add(slots[named.getValue()].document());
+        }
+        return result;
+    }
+
+    /**
+     * Sorgunun tüm trigramlarını içeren slotları, en kısa listeden başlayarak kesiştirir
+     */
+    private int[] candidateSlots(String folded) {
+        Set<String> grams = grams(folded);
+        List<IntList> lists = new ArrayList<>(grams.size());
+        for (String gram : grams) {
+            IntList list = postings.get(gram);
+            if (list == null) {
+                return new int[0];
+            }
+            lists.add(list);
+        }
+        lists.sort(Comparator.comparingInt(IntList::size));
+
+        int[] result = Arrays.copyOf(lists.get(0).values, lists.get(0).size);
+        int length = result.length;
+        for (int i = 1; i < lists.size() && length > 0; i++) {
+            length = intersect(result, length, lists.get(i));
+        }
+        return Arrays.copyOf(result, length);
+    }
+
+    /**
+     * result dizisinin ilk length elemanını other ile kesiştirip yerinde yazar, yeni uzunluğu döndürür
+     * Aday kümesi küçüldükçe diğer listede sırayla ilerlemek yerine ikili arama yapılır
+     */
+    private static int intersect(int[] result, int length, IntList other) {
+        int kept = 0;
+        int from = 0;
+        if ((long) length * 16 < other.size) {
+            for (int a = 0; a < length && from < other.size; a++) {
+                int found = Arrays.binarySearch(other.values, from, other.size, result[a]);
+                if (found >= 0) {
+                    result[kept++] = result[a];
+                    from = found + 1;
+                } else {
+                    from = -found - 1;
+                }
+            }
+            return kept;
+        }
+        int a = 0;
+        while (a < length && from < other.size) {
+            if (result[a] < other.values[from]) {
+                a++;
+            } else if (result[a] > other.values[from]) {
+                from++;
+            } else {
+                result[kept++] = result[a];
+                a++;
+                from++;
+            }
+        }
+        return kept;
+    }
+
+    /**
+     * Önek eşleşmesi olmayan kayıtlar için: 0 addaki bir kelime sorguyla başlıyor, 1 diğer alanlarda geçiyor
+     */
+    private static int rank(Entry entry, String folded) {
+        return entry.foldedName().contains(" " + folded) ? 0 : 1;
+    }
+
+    private void insert(SearchDocument document) {
+        String foldedName = TurkishFolding.fold(document.name());
+        String text = TurkishFolding.fold(String.join(" ",
+                nullToEmpty(document.name()), nullToEmpty(document.taxNumber()),
+                nullToEmpty(document.phone()), nullToEmpty(document.email())));
+
+        int slot = nextSlot++;
+        if (slot == slots.length) {
+            slots = Arrays.copyOf(slots, slots.length * 2);
+        }
+        slots[slot] = new Entry(document, foldedName, text);
+        slotById.put(document.id(), slot);
+        slotByName.put(nameKey(foldedName, slot), slot);
+        for (String gram : grams(text)) {
+            postings.computeIfAbsent(gram, key -> new IntList()).add(slot);
+        }
+    }
+
+    private void delete(Long id) {
+        Integer slot = slotById.remove(id);
+        if (slot == null) {
+            return;
+        }
+        slotByName.remove(nameKey(slots[slot].foldedName(), slot));
+        slots[slot] = null;
+        deadSlots++;
+    }
+
+    private void compactIfNeeded() {
+        if (deadSlots < MIN_DEAD_SLOTS_TO_COMPACT || deadSlots < slotById.size()) {
+            return;
+        }
+        List<SearchDocument> live = new ArrayList<>(slotById.size());
+        for (int slot = 0; slot < nextSlot; slot++) {
+            if (slots[slot] != null) {
+                live.add(slots[slot].document());
+            }
+        }
+        slotById.clear();
+        postings.clear();
+        slotByName.clear();
+        slots = new Entry[Math.max(16, live.size() * 2)];
+        nextSlot = 0;
+        deadSlots = 0;
+        live.forEach(this::insert);
+    }
+
+    private static Set<String> grams(String text) {
+        Set<String> grams = new LinkedHashSet<>();
+        for (int i = 0; i + GRAM_LENGTH <= text.length(); i++) {
+            grams.add(text.substring(i, i + GRAM_LENGTH));
+        }
+        return grams;
+    }
+
+    private static String nameKey(String foldedName, int slot) {
+        // Aynı adlı kayıtlar ayrı tutulur ve ad sırası korunur
+        return foldedName + '\u0000' + slot;
+    }
+
+    private static String nullToEmpty(String value) {
+        return value != null ? value : "";
+    }
+
+    private record Entry(SearchDocument document, String foldedName, String text) {
+    }
+
+    private record Match(Entry entry, int rank) {
+    }
+
+    /**
+     * Artan slot numaralarını tutan büyüyebilir int dizisi
+     */
+    private static final class IntList {
+
+        private int[] values = new int[4];
+
+        private int size;
+
+        private void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        private int size() {
+            return size;
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.muhasebe.search;
+
+/**
+ * Öneri indeksinde tutulan, müşteri veya tedarikçinin aranabilir alanları
+ */
+public record SearchDocument(Long id, String name, String taxNumber, String phone, String email) {
+
+    /**
+     * Dokümanın ait olduğu indeks
+     */
+    public enum Kind {
+        CUSTOMER,
+        SUPPLIER
+    }
+}
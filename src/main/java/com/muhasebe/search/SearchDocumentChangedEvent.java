@@ -0,0 +1,41 @@
+package com.muhasebe.search;
+
+/**
+ * Müşteri veya tedarikçinin aranabilir alanları değiştiğinde ya da kayıt silindiğinde yayınlanır
+ */
+public class SearchDocumentChangedEvent {
+
+    private final SearchDocument.Kind kind;
+
+    private final Long companyId;
+
+    private final SearchDocument document;
+
+    private final boolean removed;
+
+    public SearchDocumentChangedEvent(SearchDocument.Kind kind, Long companyId, SearchDocument document, boolean removed) {
+        this.kind = kind;
+        this.companyId = companyId;
+        this.document = document;
+        this.removed = removed;
+    }
+
+    public SearchDocument.Kind getKind() {
+        return kind;
+    }
+
+    public Long getCompanyId() {
+        return companyId;
+    }
+
+    public SearchDocument getDocument() {
+        return document;
+    }
+
+    /**
+     * Kayıt silindiyse (soft delete dahil) true döner
+     */
+    public boolean isRemoved() {
+        return removed;
+    }
+}
@@ -0,0 +1,50 @@
+package com.muhasebe.search;
+
+import com.muhasebe.entity.Customer;
+import com.muhasebe.entity.Supplier;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+/**
+ * Müşteri ve tedarikçi kaydedildiğinde veya silindiğinde SearchDocumentChangedEvent yayınlar
+ * Öneri indeksi bu olayları commit sonrası işler; geri alınan değişiklikler indekse yansımaz
+ */
+@Component
+public class SearchIndexEntityListener {
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @PostPersist
+    @PostUpdate
+    public void onSave(Object entity) {
+        publish(entity, false);
+    }
+
+    @PostRemove
+    public void onRemove(Object entity) {
+        publish(entity, true);
+    }
+
+    private void publish(Object entity, boolean removed) {
+        if (entity instanceof Customer customer) {
+            eventPublisher.publishEvent(new SearchDocumentChangedEvent(
+                    SearchDocument.Kind.CUSTOMER,
+                    customer.getCompany().getId(),
+                    new SearchDocument(customer.getId(), customer.getName(), customer.getTaxNumber(),
+                            customer.getPhone(), customer.getEmail()),
+                    removed || Boolean.TRUE.equals(customer.getIsDeleted())));
+        } else if (entity instanceof Supplier supplier) {
+            eventPublisher.publishEvent(new SearchDocumentChangedEvent(
+                    SearchDocument.Kind.SUPPLIER,
+                    supplier.getCompany().getId(),
+                    new SearchDocument(supplier.getId(), supplier.getName(), supplier.getTaxNumber(),
+                            supplier.getPhone(), supplier.getEmail()),
+                    removed || Boolean.TRUE.equals(supplier.getIsDeleted())));
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package com.muhasebe.search;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.muhasebe.repository.CustomerRepository;
+import com.muhasebe.repository.SupplierRepository;
+import com.muhasebe.tenant.TenantContext;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Yazarken öneri (type-ahead) için şirket başına bellekte tutulan müşteri ve tedarikçi indeksleri
+ * İndeks şirketin ilk öneri isteğinde veritabanından kurulur, sonrasında kayıt değişiklikleriyle
+ * artımlı güncellenir. Uzun süre kullanılmayan şirketlerin indeksleri bellekten atılır
+ */
+@Component
+public class SearchIndexService {
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private SupplierRepository supplierRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.search.suggest.enabled:false}")
+    private boolean enabled;
+
+    @Value("${app.search.suggest.max-tenants:200}")
+    private long maxTenants;
+
+    @Value("${app.search.suggest.idle-minutes:30}")
+    private long idleMinutes;
+
+    /**
+     * Kaçırılmış bir güncelleme olsa bile indeksin en geç bu sürede yeniden kurulması için
+     */
+    @Value("${app.search.suggest.rebuild-minutes:60}")
+    private long rebuildMinutes;
+
+    private Cache<Long, NgramIndex> customerIndexes;
+
+    private Cache<Long, NgramIndex> supplierIndexes;
+
+    @PostConstruct
+    public void init() {
+        if (!enabled) {
+            return;
+        }
+        customerIndexes = buildCache();
+        supplierIndexes = buildCache();
+        CaffeineCacheMetrics.monitor(meterRegistry, customerIndexes, "customerSearchIndex");
+        CaffeineCacheMetrics.monitor(meterRegistry, supplierIndexes, "supplierSearchIndex");
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Şirketin müşterileri içinde sorguya uyan ilk limit kaydı döndürür
+     */
+    public List<SearchDocument> suggestCustomers(Long companyId, String query, int limit) {
+        return customerIndexes.get(companyId, this::loadCustomers).search(query, limit);
+    }
+
+    /**
+     * Şirketin tedarikçileri içinde sorguya uyan ilk limit kaydı döndürür
+     */
+    public List<SearchDocument> suggestSuppliers(Long companyId, String query, int limit) {
+        return supplierIndexes.get(companyId, this::loadSuppliers).search(query, limit);
+    }
+
+    /**
+     * Değişiklik commit edildiğinde yalnızca bellekte olan şirket indeksini günceller
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDocumentChanged(SearchDocumentChangedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        Cache<Long, NgramIndex> indexes = event.getKind() == SearchDocument.Kind.CUSTOMER
+                ? customerIndexes
+                : supplierIndexes;
+        NgramIndex index = indexes.getIfPresent(event.getCompanyId());
+        if (index == null) {
+            return;
+        }
+        if (event.isRemoved()) {
+            index.remove(event.getDocument().id());
+        } else {
+            index.put(event.getDocument());
+        }
+    }
+
+    /**
+     * Entity listener'ı atlayan toplu yazımlardan sonra şirket indeksini bellekten atar
+     * Bir sonraki öneri isteğinde indeks veritabanından yeniden kurulur
+     */
+    public void invalidate(SearchDocument.Kind kind, Long companyId) {
+        if (!enabled) {
+            return;
+        }
+        (kind == SearchDocument.Kind.CUSTOMER ? customerIndexes : supplierIndexes).invalidate(companyId);
+    }
+
+    private Cache<Long, NgramIndex> buildCache() {
+        return Caffeine.newBuilder()
+                .maximumSize(maxTenants)
+                .expireAfterAccess(Duration.ofMinutes(idleMinutes))
+                .expireAfterWrite(Duration.ofMinutes(rebuildMinutes))
+                .recordStats()
+                .build();
+    }
+
+    // İndeks öneri isteği dışında da (süresi dolunca) yüklenebilir, şirket filtreye açıkça verilir
+    private NgramIndex loadCustomers(Long companyId) {
+        return new NgramIndex(TenantContext.callAs(companyId, customerRepository::findAllWithCompany).stream()
+                .map(customer -> new SearchDocument(customer.getId(), customer.getName(),
+                        customer.getTaxNumber(), customer.getPhone(), customer.getEmail()))
+                .collect(Collectors.toList()));
+    }
+
+    private NgramIndex loadSuppliers(Long companyId) {
+        return new NgramIndex(TenantContext.callAs(companyId, supplierRepository::findAllWithCompany).stream()
+                .map(supplier -> new SearchDocument(supplier.getId(), supplier.getName(),
+                        supplier.getTaxNumber(), supplier.getPhone(), supplier.getEmail()))
+                .collect(Collectors.toList()));
+    }
+}
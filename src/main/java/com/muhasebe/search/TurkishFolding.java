@@ -0,0 +1,30 @@
+package com.muhasebe.search;
+
+import java.util.Locale;
+
+/**
+ * Türkçe karakterleri ASCII karşılıklarına katlayıp küçük harfe çevirir
+ * Veritabanındaki tr_fold() fonksiyonu ile aynı sonucu üretir (db/migration/V3__search_trigram_indexes.sql)
+ */
+public final class TurkishFolding {
+
+    private static final String FROM = "İIıŞşĞğÜüÖöÇçÂâÎîÛû";
+    private static final String TO = "iiissgguuooccaaiiuu";
+
+    private TurkishFolding() {
+    }
+
+    public static String fold(String value) {
+        if (value == null) {
+            return "";
+        }
+        char[] chars = value.toCharArray();
+        for (int i = 0; i < chars.length; i++) {
+            int index = FROM.indexOf(chars[i]);
+            if (index >= 0) {
+                chars[i] = TO.charAt(index);
+            }
+        }
+        return new String(chars).toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,85 @@
+package com.muhasebe.security;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free, sabit boyutlu Bloom filter
+ * mightContain false dönerse eleman kesinlikle eklenmemiştir; true dönerse kesin kontrol gerekir
+ */
+public class BloomFilter {
+
+    private final AtomicLongArray bits;
+
+    private final long bitCount;
+
+    private final int hashCount;
+
+    private final int expectedInsertions;
+
+    /**
+     * Beklenen eleman sayısı ve hedeflenen yanlış pozitif oranına göre boyutlandırır
+     */
+    public BloomFilter(int expectedInsertions, double falsePositiveRate) {
+        int expected = Math.max(1, expectedInsertions);
+        long optimalBits = (long) Math.ceil(-expected * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        int words = (int) Math.max(1, (optimalBits + 63) / 64);
+
+        this.bits = new AtomicLongArray(words);
+        this.bitCount = (long) words * 64;
+        this.hashCount = Math.max(1, (int) Math.round((double) bitCount / expected * Math.log(2)));
+        this.expectedInsertions = expected;
+    }
+
+    public void put(String value) {
+        long hash64 = hash(value);
+        int hash1 = (int) hash64;
+        int hash2 = (int) (hash64 >>> 32);
+        for (int i = 1; i <= hashCount; i++) {
+            long bitIndex = Math.floorMod(hash1 + (long) i * hash2, bitCount);
+            int word = (int) (bitIndex >>> 6);
+            long mask = 1L << bitIndex;
+            long current;
+            do {
+                current = bits.get(word);
+                if ((current & mask) != 0) {
+                    break;
+                }
+            } while (!bits.compareAndSet(word, current, current | mask));
+        }
+    }
+
+    public boolean mightContain(String value) {
+        long hash64 = hash(value);
+        int hash1 = (int) hash64;
+        int hash2 = (int) (hash64 >>> 32);
+        for (int i = 1; i <= hashCount; i++) {
+            long bitIndex = Math.floorMod(hash1 + (long) i * hash2, bitCount);
+            if ((bits.get((int) (bitIndex >>> 6)) & (1L << bitIndex)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public int getExpectedInsertions() {
+        return expectedInsertions;
+    }
+
+    /**
+     * 64 bit FNV-1a özeti, ardından karıştırma (murmur3 fmix64)
+     */
+    private static long hash(String value) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b;
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
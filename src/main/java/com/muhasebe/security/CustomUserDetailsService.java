@@ -1,46 +1,99 @@
 package com.muhasebe.security;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import com.muhasebe.entity.User;
 import com.muhasebe.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
 
+import java.time.Duration;
+import java.time.LocalDateTime;
 import java.util.Collection;
 import java.util.Collections;
 
 /**
  * Spring Security için kullanıcı detaylarını yükleyen servis
+ * İsteğe bağlı olarak kullanıcı adına göre boyut ve süre sınırlı bir önbellek kullanır
  */
 @Service
-public class CustomUserDetailsService implements UserDetailsService {
+public class CustomUserDetailsService implements UserDetailsService, UserDetailsPasswordService {
 
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.security.user-cache.enabled:false}")
+    private boolean cacheEnabled;
+
+    @Value("${app.security.user-cache.max-size:10000}")
+    private long cacheMaxSize;
+
+    @Value("${app.security.user-cache.ttl-seconds:300}")
+    private long cacheTtlSeconds;
+
+    private Cache<String, CachedUser> userCache;
+
+    @PostConstruct
+    public void init() {
+        if (!cacheEnabled) {
+            return;
+        }
+        userCache = Caffeine.newBuilder()
+                .maximumSize(cacheMaxSize)
+                .expireAfterWrite(Duration.ofSeconds(cacheTtlSeconds))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, userCache, "userDetails");
+    }
+
+    /**
+     * Önbellek açıksa kayıt önbellekten döner; isabet halinde transaction ve bağlantı açılmaz
+     */
     @Override
-    @Transactional
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        User user = userRepository.findByUsername(username)
-                .orElseThrow(() ->
-                        new UsernameNotFoundException("Kullanıcı bulunamadı: " + username));
-
-        return org.springframework.security.core.userdetails.User.builder()
-                .username(user.getUsername())
-                .password(user.getPassword())
-                .authorities(getAuthorities(user))
-                .accountExpired(false)
-                .accountLocked(user.isAccountLocked())
-                .credentialsExpired(false)
-                .disabled(!user.getIsActive())
+        if (userCache == null) {
+            return buildUserDetails(findUser(username));
+        }
+        CachedUser cached = userCache.get(username, key -> {
+            User user = findUser(key);
+            return new CachedUser(buildUserDetails(user), user.getLockedUntil());
+        });
+        // Kimlik doğrulama sonrası şifre silindiği için önbellekteki nesne dışarı verilmez
+        // Kilidin süresi dolduğunda olay yayınlanmadığından kilit durumu her okumada lockedUntil'den hesaplanır
+        return org.springframework.security.core.userdetails.User.withUserDetails(cached.details())
+                .accountLocked(cached.lockedUntil() != null && LocalDateTime.now().isBefore(cached.lockedUntil()))
                 .build();
     }
 
+    /**
+     * Maliyet faktörü değişen şifre hash'ini kaydeder
+     * Giriş read-only transaction'da çalıştığı için ayrı bir transaction açılır
+     */
+    @Override
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public UserDetails updatePassword(UserDetails userDetails, String newPassword) {
+        User user = findUser(userDetails.getUsername());
+        user.setPassword(newPassword);
+        userRepository.save(user);
+        return buildUserDetails(user);
+    }
+
     /**
      * Email ile kullanıcı yükler
      */
@@ -50,6 +103,33 @@ public class CustomUserDetailsService implements UserDetailsService {
                 .orElseThrow(() ->
                         new UsernameNotFoundException("Kullanıcı bulunamadı: " + email));
 
+        return buildUserDetails(user);
+    }
+
+    /**
+     * Kilit, rol veya aktiflik değişikliği commit edildiğinde önbellek kaydını siler
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserSecurityChanged(UserSecurityChangedEvent event) {
+        evict(event.getUsername());
+    }
+
+    /**
+     * Kullanıcının önbellek kaydını siler
+     */
+    public void evict(String username) {
+        if (userCache != null) {
+            userCache.invalidate(username);
+        }
+    }
+
+    private User findUser(String username) {
+        return userRepository.findByUsername(username)
+                .orElseThrow(() ->
+                        new UsernameNotFoundException("Kullanıcı bulunamadı: " + username));
+    }
+
+    private UserDetails buildUserDetails(User user) {
         return org.springframework.security.core.userdetails.User.builder()
                 .username(user.getUsername())
                 .password(user.getPassword())
@@ -61,6 +141,12 @@ public class CustomUserDetailsService implements UserDetailsService {
                 .build();
     }
 
+    /**
+     * Önbellek kaydı: kilit durumu okuma anında hesaplanabilsin diye lockedUntil ayrıca tutulur
+     */
+    private record CachedUser(UserDetails details, LocalDateTime lockedUntil) {
+    }
+
     /**
      * Kullanıcının yetkilerini döndürür
      */
@@ -69,4 +155,4 @@ public class CustomUserDetailsService implements UserDetailsService {
                 new SimpleGrantedAuthority("ROLE_" + user.getRole().name())
         );
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,68 @@
+package com.muhasebe.security;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Consumer;
+
+/**
+ * Süresi dolan anahtarları tablo taraması yapmadan bulmak için hashed timer wheel
+ * Her tick'te yalnızca ilgili slot işlenir; ekleme ve tick başına maliyet kayıt sayısından bağımsızdır
+ */
+public class ExpiryTimerWheel<K> {
+
+    private final long tickMillis;
+
+    private final List<Queue<Entry<K>>> slots;
+
+    private long lastTick;
+
+    public ExpiryTimerWheel(long tickMillis, int slotCount) {
+        this.tickMillis = tickMillis;
+        this.slots = new ArrayList<>(slotCount);
+        for (int i = 0; i < slotCount; i++) {
+            slots.add(new ConcurrentLinkedQueue<>());
+        }
+        this.lastTick = System.currentTimeMillis() / tickMillis;
+    }
+
+    /**
+     * Anahtarı verilen zamanda (epoch milisaniye) süresi dolacak şekilde ekler
+     */
+    public void schedule(K key, long expiresAtMillis) {
+        slots.get(slotIndex(expiresAtMillis / tickMillis)).add(new Entry<>(key, expiresAtMillis));
+    }
+
+    /**
+     * Son çağrıdan bu yana geçen tick'leri işler ve süresi dolan anahtarları callback'e verir
+     * Tek bir zamanlanmış thread'den çağrılmalıdır
+     */
+    public synchronized void advance(long nowMillis, Consumer<K> onExpired) {
+        long currentTick = nowMillis / tickMillis;
+        // Bir turdan uzun süre geçtiyse tüm slotları bir kez işlemek yeterlidir
+        long firstTick = Math.max(lastTick + 1, currentTick - slots.size() + 1);
+
+        for (long tick = firstTick; tick <= currentTick; tick++) {
+            Queue<Entry<K>> slot = slots.get(slotIndex(tick));
+            List<Entry<K>> pending = new ArrayList<>();
+            Entry<K> entry;
+            while ((entry = slot.poll()) != null) {
+                if (entry.expiresAtMillis <= nowMillis) {
+                    onExpired.accept(entry.key);
+                } else {
+                    pending.add(entry);
+                }
+            }
+            slot.addAll(pending);
+        }
+        lastTick = Math.max(lastTick, currentTick);
+    }
+
+    private int slotIndex(long tick) {
+        return (int) Math.floorMod(tick, (long) slots.size());
+    }
+
+    private record Entry<K>(K key, long expiresAtMillis) {
+    }
+}
@@ -1,5 +1,9 @@
 package com.muhasebe.security;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.muhasebe.enums.Role;
+import com.muhasebe.tenant.TenantContext;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -7,38 +11,78 @@ import jakarta.servlet.http.HttpServletResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.util.StringUtils;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private static final Logger logger = LoggerFactory.getLogger(JwtAuthenticationFilter.class);
 
+    private static final Pattern COMPANY_PATH = Pattern.compile("/api/companies/(\\d+)(?:/|$)");
+
+    private static final SimpleGrantedAuthority ADMIN_AUTHORITY = new SimpleGrantedAuthority("ROLE_" + Role.ADMIN.name());
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
     @Autowired
     private JwtTokenProvider jwtTokenProvider;
 
     @Autowired
     private CustomUserDetailsService userDetailsService;
 
+    @Autowired
+    private TokenRevocationRegistry tokenRevocationRegistry;
+
+    @Autowired
+    private TokenDenyList tokenDenyList;
+
+    /**
+     * Açıkken yetkiler token claim'lerinden kurulur ve kullanıcı tablosuna gidilmez
+     */
+    @Value("${jwt.claims-trusted:false}")
+    private boolean claimsTrusted;
+
     @Override
     protected void doFilterInternal(HttpServletRequest request,
                                     HttpServletResponse response,
                                     FilterChain filterChain) throws ServletException, IOException {
+        Long companyId = null;
+        boolean admin = false;
+        boolean authenticated = false;
         try {
             String jwt = getJwtFromRequest(request);
 
-            if (StringUtils.hasText(jwt) && jwtTokenProvider.validateToken(jwt)) {
-                String username = jwtTokenProvider.getUsernameFromToken(jwt);
+            // Geçersiz token'lar burada loglanmaz, JwtTokenProvider metriklerinde sayılır
+            Claims claims = StringUtils.hasText(jwt) ? jwtTokenProvider.validate(jwt).getClaims() : null;
+
+            // Refresh token'lar yalnızca /api/auth/refresh için geçerlidir, erişim token'ı olarak kabul edilmez
+            if (claims != null
+                    && !JwtTokenProvider.TOKEN_TYPE_REFRESH.equals(claims.get(JwtTokenProvider.CLAIM_TYPE))
+                    && !tokenRevocationRegistry.isRevoked(claims.getSubject(),
+                            claims.get(JwtTokenProvider.CLAIM_TOKEN_EPOCH, Number.class))
+                    && (claims.getId() == null || !tokenDenyList.isRevoked(claims.getId()))) {
+                String username = claims.getSubject();
 
-                UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+                UserDetails userDetails = claimsTrusted && claims.get(JwtTokenProvider.CLAIM_ROLE) != null
+                        ? buildUserDetailsFromClaims(claims)
+                        : userDetailsService.loadUserByUsername(username);
 
                 UsernamePasswordAuthenticationToken authentication =
                         new UsernamePasswordAuthenticationToken(
@@ -52,12 +96,76 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                 SecurityContextHolder.getContext().setAuthentication(authentication);
 
                 logger.debug("Set Authentication for user: {}", username);
+
+                Number companyClaim = claims.get(JwtTokenProvider.CLAIM_COMPANY_ID, Number.class);
+                companyId = companyClaim != null ? companyClaim.longValue() : null;
+                admin = userDetails.getAuthorities().contains(ADMIN_AUTHORITY);
+                authenticated = true;
+            }
+        } catch (UsernameNotFoundException ex) {
+            logger.debug("Token owner no longer exists: {}", ex.getMessage());
+        } catch (RuntimeException ex) {
+            logger.warn("Could not set user authentication in security context: {}", ex.getMessage());
+        }
+
+        // Tenant istekte bir kez çözülür: kullanıcının şirketi token'dan, yönetici için yoldaki şirket
+        Long pathCompanyId = companyIdFromPath(request);
+        if (authenticated && pathCompanyId != null) {
+            if (admin) {
+                companyId = pathCompanyId;
+            } else if (!pathCompanyId.equals(companyId)) {
+                logger.debug("Company {} denied for token company {}", pathCompanyId, companyId);
+                writeForbidden(request, response);
+                return;
             }
-        } catch (Exception ex) {
-            logger.error("Could not set user authentication in security context", ex);
         }
 
-        filterChain.doFilter(request, response);
+        TenantContext.setCompanyId(companyId);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            TenantContext.clear();
+        }
+    }
+
+    /**
+     * /api/companies/{companyId}/... yollarındaki şirket id'si, diğer yollarda null
+     */
+    private Long companyIdFromPath(HttpServletRequest request) {
+        Matcher matcher = COMPANY_PATH.matcher(request.getRequestURI().substring(request.getContextPath().length()));
+        if (!matcher.lookingAt()) {
+            return null;
+        }
+        try {
+            return Long.valueOf(matcher.group(1));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private void writeForbidden(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        response.setContentType("application/json;charset=UTF-8");
+        response.setStatus(HttpServletResponse.SC_FORBIDDEN);
+
+        Map<String, Object> errorDetails = new HashMap<>();
+        errorDetails.put("timestamp", LocalDateTime.now().toString());
+        errorDetails.put("status", HttpServletResponse.SC_FORBIDDEN);
+        errorDetails.put("error", "Forbidden");
+        errorDetails.put("message", "Bu şirketin kayıtlarına erişim yetkiniz yok");
+        errorDetails.put("path", request.getServletPath());
+
+        response.getWriter().write(objectMapper.writeValueAsString(errorDetails));
+    }
+
+    /**
+     * Token claim'lerinden veritabanına gitmeden UserDetails oluşturur
+     */
+    private UserDetails buildUserDetailsFromClaims(Claims claims) {
+        return User.builder()
+                .username(claims.getSubject())
+                .password("")
+                .authorities(new SimpleGrantedAuthority("ROLE_" + claims.get(JwtTokenProvider.CLAIM_ROLE, String.class)))
+                .build();
     }
 
     private String getJwtFromRequest(HttpServletRequest request) {
@@ -1,36 +1,265 @@
 package com.muhasebe.security;
 
+import com.muhasebe.entity.User;
 import io.jsonwebtoken.*;
+import io.jsonwebtoken.security.Jwk;
+import io.jsonwebtoken.security.JwkSet;
+import io.jsonwebtoken.security.Jwks;
 import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.PrivateJwk;
+import io.jsonwebtoken.security.PublicJwk;
+import io.jsonwebtoken.security.SecurityException;
+import io.jsonwebtoken.security.SignatureAlgorithm;
 import io.jsonwebtoken.security.SignatureException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
 
 import javax.crypto.SecretKey;
+import java.io.IOException;
+import java.io.Reader;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.Key;
+import java.security.KeyPair;
+import java.security.PrivateKey;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Date;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
 
 /**
  * JWT Token oluşturma ve doğrulama işlemlerini yönetir
+ * Anahtarlar ve parser uygulama açılışında bir kez oluşturulur ve thread-safe olarak paylaşılır.
+ * HMAC modunda tek bir paylaşılan secret kullanılır; ES256/EdDSA modunda token'lar JWKS dosyasındaki
+ * özel anahtarla imzalanır ve yalnızca açık anahtarları olan node'lar token doğrulayabilir
  */
 @Component
 public class JwtTokenProvider {
 
     private static final Logger logger = LoggerFactory.getLogger(JwtTokenProvider.class);
 
-    @Value("${jwt.secret}")
+    private static final String ALGORITHM_HMAC = "HMAC";
+
+    /**
+     * Bilinmeyen bir kid geldiğinde JWKS dosyasının en fazla bu sıklıkta yeniden okunması
+     */
+    private static final long KEY_SET_RELOAD_INTERVAL_MS = 30_000;
+
+    public static final String CLAIM_USER_ID = "uid";
+    public static final String CLAIM_ROLE = "role";
+    public static final String CLAIM_COMPANY_ID = "cid";
+    public static final String CLAIM_TYPE = "type";
+    public static final String CLAIM_FAMILY = "fam";
+    public static final String CLAIM_TOKEN_EPOCH = "tep";
+    public static final String TOKEN_TYPE_REFRESH = "refresh";
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    /**
+     * İmza algoritması: HMAC, ES256 veya EdDSA
+     */
+    @Value("${jwt.algorithm:HMAC}")
+    private String jwtAlgorithm;
+
+    @Value("${jwt.secret:}")
     private String jwtSecret;
 
+    /**
+     * ES256/EdDSA modunda anahtarların okunduğu JWKS dosyası
+     * jwt.key-id ile eşleşen özel anahtar yoksa node yalnızca doğrulama yapar
+     */
+    @Value("${jwt.key-set-file:}")
+    private String keySetFile;
+
+    @Value("${jwt.key-id:default}")
+    private String jwtKeyId;
+
+    /**
+     * Rotasyon sonrası hâlâ doğrulanması gereken eski anahtarlar (kid:secret,kid:secret)
+     */
+    @Value("${jwt.retired-secrets:}")
+    private String retiredSecrets;
+
     @Value("${jwt.expiration}")
     private long jwtExpiration;
 
     @Value("${jwt.refresh-expiration}")
     private long jwtRefreshExpiration;
 
+    private SecretKey signingKey;
+
+    private SignatureAlgorithm signatureAlgorithm;
+
+    private volatile PrivateKey privateSigningKey;
+
+    private volatile Map<String, Key> verificationKeys;
+
+    private volatile List<PublicJwk<?>> publicJwks = Collections.emptyList();
+
+    private long lastKeySetLoad;
+
+    private JwtParser jwtParser;
+
+    private final Map<TokenValidationResult.Status, Counter> rejectionCounters =
+            new EnumMap<>(TokenValidationResult.Status.class);
+
+    /**
+     * İmzalama anahtarını, kid -> anahtar tablosunu ve paylaşılan parser'ı oluşturur
+     */
+    @PostConstruct
+    public void init() {
+        if (ALGORITHM_HMAC.equalsIgnoreCase(jwtAlgorithm)) {
+            initHmacKeys();
+        } else {
+            if (!(Jwts.SIG.get().get(jwtAlgorithm) instanceof SignatureAlgorithm algorithm)) {
+                throw new IllegalStateException("Desteklenmeyen jwt.algorithm: " + jwtAlgorithm);
+            }
+            signatureAlgorithm = algorithm;
+            loadKeySet();
+        }
+
+        for (TokenValidationResult.Status status : TokenValidationResult.Status.values()) {
+            if (status != TokenValidationResult.Status.VALID) {
+                rejectionCounters.put(status, Counter.builder("auth.jwt.rejected")
+                        .tag("reason", status.name())
+                        .register(meterRegistry));
+            }
+        }
+
+        jwtParser = Jwts.parser()
+                .keyLocator(new LocatorAdapter<Key>() {
+                    @Override
+                    protected Key locate(JwsHeader header) {
+                        String kid = header.getKeyId() != null ? header.getKeyId() : jwtKeyId;
+                        Key key = verificationKeys.get(kid);
+                        if (key == null && reloadKeySetIfStale()) {
+                            key = verificationKeys.get(kid);
+                        }
+                        if (key == null) {
+                            throw new SignatureException("Bilinmeyen anahtar kimliği: " + kid);
+                        }
+                        return key;
+                    }
+                })
+                .build();
+    }
+
+    private void initHmacKeys() {
+        if (!StringUtils.hasText(jwtSecret)) {
+            throw new IllegalStateException("HMAC modunda jwt.secret tanımlanmalıdır");
+        }
+        signingKey = Keys.hmacShaKeyFor(jwtSecret.getBytes(StandardCharsets.UTF_8));
+
+        Map<String, Key> keys = new HashMap<>();
+        keys.put(jwtKeyId, signingKey);
+        if (StringUtils.hasText(retiredSecrets)) {
+            for (String entry : retiredSecrets.split(",")) {
+                String[] parts = entry.trim().split(":", 2);
+                if (parts.length != 2 || !StringUtils.hasText(parts[0]) || !StringUtils.hasText(parts[1])) {
+                    throw new IllegalStateException("Geçersiz jwt.retired-secrets girdisi: " + entry);
+                }
+                keys.putIfAbsent(parts[0], Keys.hmacShaKeyFor(parts[1].getBytes(StandardCharsets.UTF_8)));
+            }
+        }
+        verificationKeys = Collections.unmodifiableMap(keys);
+    }
+
+    /**
+     * JWKS dosyasından açık anahtarları ve (varsa) jwt.key-id'ye ait özel anahtarı yükler
+     * Dosya tanımlı değilse yalnızca bu süreç için geçici bir anahtar çifti üretilir
+     */
+    private synchronized void loadKeySet() {
+        Map<String, Key> keys = new HashMap<>();
+        List<PublicJwk<?>> publicKeys = new ArrayList<>();
+        PrivateKey privateKey = null;
+
+        if (!StringUtils.hasText(keySetFile)) {
+            // EdDSA için varsayılan eğri Ed448'dir; daha hızlı ve yaygın olan Ed25519 kullanılır
+            KeyPair pair = Jwts.SIG.EdDSA.equals(signatureAlgorithm)
+                    ? Jwks.CRV.Ed25519.keyPair().build()
+                    : signatureAlgorithm.keyPair().build();
+            PrivateJwk<?, ?, ?> jwk = Jwks.builder().keyPair(pair).id(jwtKeyId).build();
+            privateKey = (PrivateKey) jwk.toKey();
+            publicKeys.add(jwk.toPublicJwk());
+            logger.warn("jwt.key-set-file tanımlı değil, geçici {} anahtarı üretildi; token'lar yeniden başlatmada geçersiz olur",
+                    signatureAlgorithm.getId());
+        } else {
+            JwkSet keySet;
+            try (Reader reader = Files.newBufferedReader(Path.of(keySetFile), StandardCharsets.UTF_8)) {
+                keySet = Jwks.setParser().build().parse(reader);
+            } catch (IOException ex) {
+                throw new IllegalStateException("JWKS dosyası okunamadı: " + keySetFile, ex);
+            }
+            for (Jwk<?> jwk : keySet.getKeys()) {
+                if (!StringUtils.hasText(jwk.getId())) {
+                    throw new IllegalStateException("JWKS dosyasındaki her anahtarın kid değeri olmalıdır");
+                }
+                if (jwk instanceof PrivateJwk<?, ?, ?> privateJwk) {
+                    if (jwtKeyId.equals(jwk.getId())) {
+                        privateKey = (PrivateKey) privateJwk.toKey();
+                    }
+                    publicKeys.add(privateJwk.toPublicJwk());
+                } else if (jwk instanceof PublicJwk<?> publicJwk) {
+                    publicKeys.add(publicJwk);
+                } else {
+                    throw new IllegalStateException("JWKS dosyasında simetrik anahtar bulunamaz: " + jwk.getId());
+                }
+            }
+        }
+
+        for (PublicJwk<?> jwk : publicKeys) {
+            keys.put(jwk.getId(), jwk.toKey());
+        }
+        if (privateKey == null && lastKeySetLoad == 0) {
+            logger.info("jwt.key-id={} için özel anahtar yok, node yalnızca doğrulama modunda çalışıyor", jwtKeyId);
+        }
+        privateSigningKey = privateKey;
+        publicJwks = Collections.unmodifiableList(publicKeys);
+        verificationKeys = Collections.unmodifiableMap(keys);
+        lastKeySetLoad = System.currentTimeMillis();
+    }
+
+    /**
+     * Bilinmeyen kid için JWKS dosyasını yeniden okur (rotasyonda doğrulayan node'lar için)
+     */
+    private synchronized boolean reloadKeySetIfStale() {
+        if (signatureAlgorithm == null || !StringUtils.hasText(keySetFile)
+                || System.currentTimeMillis() - lastKeySetLoad < KEY_SET_RELOAD_INTERVAL_MS) {
+            return false;
+        }
+        try {
+            loadKeySet();
+            return true;
+        } catch (RuntimeException ex) {
+            lastKeySetLoad = System.currentTimeMillis();
+            logger.warn("JWKS dosyası yeniden yüklenemedi: {}", ex.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Doğrulama için kullanılabilecek açık anahtarları JWKS biçiminde döndürür
+     * HMAC modunda secret paylaşılamayacağı için liste boştur
+     */
+    public Map<String, Object> getPublicKeySet() {
+        return Collections.singletonMap("keys", publicJwks);
+    }
+
     /**
      * Authentication nesnesinden JWT token oluşturur
      */
@@ -46,117 +275,125 @@ public class JwtTokenProvider {
         Date now = new Date();
         Date expiryDate = new Date(now.getTime() + jwtExpiration);
 
-        SecretKey key = Keys.hmacShaKeyFor(jwtSecret.getBytes(StandardCharsets.UTF_8));
-
-        return Jwts.builder()
+        return sign(Jwts.builder()
+                .header().keyId(jwtKeyId).and()
+                .id(UUID.randomUUID().toString())
                 .subject(username)
                 .issuedAt(now)
-                .expiration(expiryDate)
-                .signWith(key)
-                .compact();
+                .expiration(expiryDate));
     }
 
     /**
-     * Refresh token oluşturur (daha uzun süreli)
+     * Kullanıcının rol ve şirket bilgilerini içeren JWT token oluşturur
      */
-    public String generateRefreshToken(String username) {
+    public String generateToken(User user) {
         Date now = new Date();
-        Date expiryDate = new Date(now.getTime() + jwtRefreshExpiration);
-
-        SecretKey key = Keys.hmacShaKeyFor(jwtSecret.getBytes(StandardCharsets.UTF_8));
+        Date expiryDate = new Date(now.getTime() + jwtExpiration);
 
-        return Jwts.builder()
-                .subject(username)
+        return sign(Jwts.builder()
+                .header().keyId(jwtKeyId).and()
+                .id(UUID.randomUUID().toString())
+                .subject(user.getUsername())
                 .issuedAt(now)
                 .expiration(expiryDate)
-                .claim("type", "refresh")
-                .signWith(key)
-                .compact();
+                .claim(CLAIM_USER_ID, user.getId())
+                .claim(CLAIM_ROLE, user.getRole().name())
+                .claim(CLAIM_COMPANY_ID, user.getCompany() != null ? user.getCompany().getId() : null)
+                .claim(CLAIM_TOKEN_EPOCH, user.getTokenEpoch() != null ? user.getTokenEpoch() : 0L));
     }
 
     /**
-     * JWT token'dan kullanıcı adını çıkarır
+     * Refresh token oluşturur (daha uzun süreli)
+     * jti token'ın kendi kimliği, familyId aynı girişten türeyen token zincirinin kimliğidir
      */
-    public String getUsernameFromToken(String token) {
-        SecretKey key = Keys.hmacShaKeyFor(jwtSecret.getBytes(StandardCharsets.UTF_8));
+    public String generateRefreshToken(String username, String jti, String familyId, Date expiryDate) {
+        return sign(Jwts.builder()
+                .header().keyId(jwtKeyId).and()
+                .id(jti)
+                .subject(username)
+                .issuedAt(new Date())
+                .expiration(expiryDate)
+                .claim(CLAIM_TYPE, TOKEN_TYPE_REFRESH)
+                .claim(CLAIM_FAMILY, familyId));
+    }
 
-        Claims claims = Jwts.parser()
-                .verifyWith(key)
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+    /**
+     * Token'ı yapılandırılmış algoritma ve anahtarla imzalar
+     */
+    private String sign(JwtBuilder builder) {
+        if (signatureAlgorithm == null) {
+            return builder.signWith(signingKey).compact();
+        }
+        if (privateSigningKey == null) {
+            throw new IllegalStateException("Bu node yalnızca doğrulama modunda çalışıyor, token üretemez");
+        }
+        return builder.signWith(privateSigningKey, signatureAlgorithm).compact();
+    }
 
-        return claims.getSubject();
+    /**
+     * Refresh token geçerlilik süresini döndürür (milisaniye)
+     */
+    public long getRefreshExpiration() {
+        return jwtRefreshExpiration;
     }
 
     /**
-     * JWT token'ı doğrular
+     * Token'ı doğrular ve sonucu durum koduyla döndürür
+     * Her çağrıda log yazılmaz, reddedilen token'lar yalnızca metriklerde sayılır.
+     * Payload yalnızca parser tarafından bir kez çözülür; süresi dolmuş token'lar ExpiredJwtException ile ayrılır
      */
-    public boolean validateToken(String token) {
+    public TokenValidationResult validate(String token) {
         try {
-            SecretKey key = Keys.hmacShaKeyFor(jwtSecret.getBytes(StandardCharsets.UTF_8));
-
-            Jwts.parser()
-                    .verifyWith(key)
-                    .build()
-                    .parseSignedClaims(token);
-
-            return true;
-        } catch (SignatureException ex) {
-            logger.error("Invalid JWT signature: {}", ex.getMessage());
-        } catch (MalformedJwtException ex) {
-            logger.error("Invalid JWT token: {}", ex.getMessage());
+            return TokenValidationResult.valid(jwtParser.parseSignedClaims(token).getPayload());
         } catch (ExpiredJwtException ex) {
-            logger.error("Expired JWT token: {}", ex.getMessage());
-        } catch (UnsupportedJwtException ex) {
-            logger.error("Unsupported JWT token: {}", ex.getMessage());
-        } catch (IllegalArgumentException ex) {
-            logger.error("JWT claims string is empty: {}", ex.getMessage());
+            return reject(TokenValidationResult.Status.EXPIRED);
+        } catch (SecurityException ex) {
+            return reject(TokenValidationResult.Status.BAD_SIGNATURE);
+        } catch (JwtException | IllegalArgumentException ex) {
+            return reject(TokenValidationResult.Status.MALFORMED);
         }
-        return false;
     }
 
     /**
-     * Token'ın süresinin dolup dolmadığını kontrol eder
+     * Token'ı bir kez doğrular ve claim'leri döndürür, geçersizse null döner
      */
-    public boolean isTokenExpired(String token) {
-        try {
-            SecretKey key = Keys.hmacShaKeyFor(jwtSecret.getBytes(StandardCharsets.UTF_8));
+    public Claims parseClaims(String token) {
+        return validate(token).getClaims();
+    }
 
-            Claims claims = Jwts.parser()
-                    .verifyWith(key)
-                    .build()
-                    .parseSignedClaims(token)
-                    .getPayload();
+    /**
+     * JWT token'dan kullanıcı adını çıkarır, token geçersizse null döner
+     */
+    public String getUsernameFromToken(String token) {
+        Claims claims = parseClaims(token);
+        return claims != null ? claims.getSubject() : null;
+    }
 
-            return claims.getExpiration().before(new Date());
-        } catch (ExpiredJwtException e) {
-            return true;
-        } catch (Exception e) {
-            logger.error("Error checking token expiration: {}", e.getMessage());
-            return true;
-        }
+    /**
+     * JWT token'ı doğrular
+     */
+    public boolean validateToken(String token) {
+        return validate(token).isValid();
+    }
+
+    /**
+     * Token'ın süresinin dolup dolmadığını kontrol eder
+     */
+    public boolean isTokenExpired(String token) {
+        Claims claims = parseClaims(token);
+        return claims == null || claims.getExpiration().before(new Date());
     }
 
     /**
      * Token'ın kalan süresini döndürür (milisaniye)
      */
     public long getRemainingTime(String token) {
-        try {
-            SecretKey key = Keys.hmacShaKeyFor(jwtSecret.getBytes(StandardCharsets.UTF_8));
-
-            Claims claims = Jwts.parser()
-                    .verifyWith(key)
-                    .build()
-                    .parseSignedClaims(token)
-                    .getPayload();
-
-            Date expiration = claims.getExpiration();
-            Date now = new Date();
-            return expiration.getTime() - now.getTime();
-        } catch (Exception e) {
-            logger.error("Error getting remaining time: {}", e.getMessage());
-            return 0;
-        }
+        Claims claims = parseClaims(token);
+        return claims != null ? claims.getExpiration().getTime() - System.currentTimeMillis() : 0;
+    }
+
+    private TokenValidationResult reject(TokenValidationResult.Status status) {
+        rejectionCounters.get(status).increment();
+        return TokenValidationResult.invalid(status);
     }
-}
\ No newline at end of file
+}
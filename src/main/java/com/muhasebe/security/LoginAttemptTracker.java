@@ -0,0 +1,295 @@
+package com.muhasebe.security;
+
+import com.muhasebe.entity.User;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Başarılı/başarısız giriş kayıtlarını bellekte tutar ve kısa aralıklarla toplu UPDATE ile yazar
+ * Veritabanına mutlak değer değil artış yazılır ve kilit koşulu SQL'de hesaplanır; böylece birden fazla node'un
+ * veya yeniden başlatmanın sayaçları birbirinin üzerine yazması önlenir.
+ * Flush edilene kadar kilit kararları için bellekteki sayaç esas alınır, her flush'ta veritabanındaki değerle tazelenir
+ */
+@Component
+public class LoginAttemptTracker {
+
+    private static final Logger logger = LoggerFactory.getLogger(LoginAttemptTracker.class);
+
+    private static final int FLUSH_CHUNK_SIZE = 500;
+
+    private static final String ATTEMPTS_AFTER_FLUSH =
+            "(CASE WHEN v.reset THEN 0 ELSE COALESCE(u.failed_login_attempts, 0) END + v.failures)";
+
+    private static final String UPDATE_SQL_PREFIX =
+            "UPDATE users u SET failed_login_attempts = " + ATTEMPTS_AFTER_FLUSH + ", " +
+            "locked_until = CASE WHEN v.failures > 0 AND " + ATTEMPTS_AFTER_FLUSH + " >= ? THEN v.lock_until " +
+            "WHEN v.reset THEN NULL ELSE u.locked_until END, " +
+            "last_login_at = COALESCE(v.last_login_at, u.last_login_at) FROM (VALUES ";
+
+    private static final String UPDATE_SQL_ROW =
+            "(CAST(? AS bigint), CAST(? AS boolean), CAST(? AS integer), CAST(? AS timestamp), CAST(? AS timestamp))";
+
+    private static final String UPDATE_SQL_SUFFIX =
+            ") AS v(id, reset, failures, lock_until, last_login_at) WHERE u.id = v.id " +
+            "RETURNING u.id, u.failed_login_attempts, u.locked_until, v.failures > 0 AND u.failed_login_attempts >= ? AS locked_now";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    /**
+     * Flush edilmiş ve bu süre boyunca dokunulmamış kayıtlar bellekten atılır
+     */
+    @Value("${app.security.login-tracker.idle-evict-ms:60000}")
+    private long idleEvictMillis;
+
+    private final Map<Long, LoginState> states = new ConcurrentHashMap<>();
+
+    /**
+     * Kullanıcının kilitli olup olmadığını döndürür; bellekte kayıt varsa o esas alınır
+     */
+    public boolean isLocked(User user) {
+        LoginState state = states.get(user.getId());
+        if (state == null) {
+            return user.isAccountLocked();
+        }
+        synchronized (state) {
+            return state.lockedUntil != null && LocalDateTime.now().isBefore(state.lockedUntil);
+        }
+    }
+
+    /**
+     * Başarılı girişi kaydeder: sayaç ve kilit sıfırlanır, son giriş zamanı güncellenir
+     */
+    public void recordSuccess(User user) {
+        while (true) {
+            LoginState state = stateFor(user);
+            synchronized (state) {
+                if (state.removed) {
+                    continue;
+                }
+                state.unlocked |= state.lockedUntil != null;
+                state.reset = true;
+                state.pendingFailures = 0;
+                state.failedAttempts = 0;
+                state.lockedUntil = null;
+                state.lastLoginAt = LocalDateTime.now();
+                state.touch();
+                return;
+            }
+        }
+    }
+
+    /**
+     * Başarısız girişi kaydeder, eşik aşılırsa hesabı kilitler
+     */
+    public void recordFailure(User user) {
+        while (true) {
+            LoginState state = stateFor(user);
+            synchronized (state) {
+                if (state.removed) {
+                    continue;
+                }
+                state.pendingFailures++;
+                state.failedAttempts++;
+                if (state.failedAttempts >= User.MAX_FAILED_LOGIN_ATTEMPTS) {
+                    state.lockedUntil = LocalDateTime.now().plusMinutes(User.LOCK_DURATION_MINUTES);
+                }
+                state.touch();
+                return;
+            }
+        }
+    }
+
+    /**
+     * Değişen kayıtları tek bir UPDATE ... FROM (VALUES ...) ile users tablosuna yazar
+     */
+    @Scheduled(fixedDelayString = "${app.security.login-tracker.flush-interval-ms:250}")
+    public void flush() {
+        List<Pending> batch = new ArrayList<>();
+
+        for (LoginState state : states.values()) {
+            synchronized (state) {
+                if (!state.dirty) {
+                    continue;
+                }
+                batch.add(new Pending(state, state.reset, state.pendingFailures,
+                        LocalDateTime.now().plusMinutes(User.LOCK_DURATION_MINUTES), state.lastLoginAt, state.unlocked));
+                state.dirty = false;
+                state.reset = false;
+                state.pendingFailures = 0;
+                state.lastLoginAt = null;
+                state.unlocked = false;
+            }
+        }
+
+        for (int from = 0; from < batch.size(); from += FLUSH_CHUNK_SIZE) {
+            List<Pending> chunk = batch.subList(from, Math.min(from + FLUSH_CHUNK_SIZE, batch.size()));
+            List<FlushResult> results;
+            try {
+                results = write(chunk);
+            } catch (RuntimeException ex) {
+                logger.warn("Giriş kayıtları yazılamadı, bir sonraki turda tekrar denenecek: {}", ex.getMessage());
+                batch.subList(from, batch.size()).forEach(Pending::restore);
+                return;
+            }
+            publish(chunk, results);
+        }
+
+        evictIdle();
+    }
+
+    /**
+     * Uygulama kapanırken bekleyen kayıtları yazar
+     */
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    private List<FlushResult> write(List<Pending> chunk) {
+        StringBuilder sql = new StringBuilder(UPDATE_SQL_PREFIX);
+        List<Object> args = new ArrayList<>();
+        args.add(User.MAX_FAILED_LOGIN_ATTEMPTS);
+        for (Pending pending : chunk) {
+            if (args.size() > 1) {
+                sql.append(", ");
+            }
+            sql.append(UPDATE_SQL_ROW);
+            args.add(pending.state().userId);
+            args.add(pending.reset());
+            args.add(pending.failures());
+            args.add(Timestamp.valueOf(pending.lockUntil()));
+            args.add(pending.lastLoginAt() != null ? Timestamp.valueOf(pending.lastLoginAt()) : null);
+        }
+        sql.append(UPDATE_SQL_SUFFIX);
+        args.add(User.MAX_FAILED_LOGIN_ATTEMPTS);
+
+        return jdbcTemplate.query(sql.toString(), (rs, rowNum) -> {
+            Timestamp lockedUntil = rs.getTimestamp("locked_until");
+            return new FlushResult(rs.getLong("id"), rs.getInt("failed_login_attempts"),
+                    lockedUntil != null ? lockedUntil.toLocalDateTime() : null, rs.getBoolean("locked_now"));
+        }, args.toArray());
+    }
+
+    /**
+     * Bellekteki görünümü diğer node'ların artışlarını da içeren veritabanı değeriyle tazeler ve kilit olaylarını yayınlar
+     */
+    private void publish(List<Pending> chunk, List<FlushResult> results) {
+        Map<Long, FlushResult> byUserId = new HashMap<>();
+        results.forEach(result -> byUserId.put(result.userId(), result));
+
+        for (Pending pending : chunk) {
+            LoginState state = pending.state();
+            FlushResult result = byUserId.get(state.userId);
+            if (result == null) {
+                continue;
+            }
+            synchronized (state) {
+                // Flush sırasında yeni bir başarılı giriş geldiyse bellekteki sıfırlanmış görünüm korunur
+                if (!state.reset) {
+                    state.failedAttempts = result.failedAttempts() + state.pendingFailures;
+                    if (state.lockedUntil == null || (result.lockedUntil() != null && result.lockedUntil().isAfter(state.lockedUntil))) {
+                        state.lockedUntil = result.lockedUntil();
+                    }
+                }
+            }
+            if (result.lockedNow()) {
+                eventPublisher.publishEvent(new UserSecurityChangedEvent(state.username, true));
+            } else if (pending.unlocked()) {
+                eventPublisher.publishEvent(new UserSecurityChangedEvent(state.username, false));
+            }
+        }
+    }
+
+    private void evictIdle() {
+        long threshold = System.currentTimeMillis() - idleEvictMillis;
+        for (Long userId : states.keySet()) {
+            states.computeIfPresent(userId, (id, state) -> {
+                synchronized (state) {
+                    if (state.dirty || state.lastTouched > threshold) {
+                        return state;
+                    }
+                    state.removed = true;
+                    return null;
+                }
+            });
+        }
+    }
+
+    private LoginState stateFor(User user) {
+        return states.computeIfAbsent(user.getId(), id -> new LoginState(user));
+    }
+
+    /**
+     * Bir kullanıcının henüz veritabanına yazılmamış giriş durumu
+     */
+    private static final class LoginState {
+
+        private final Long userId;
+        private final String username;
+        private int failedAttempts;
+        private LocalDateTime lockedUntil;
+        private LocalDateTime lastLoginAt;
+        private int pendingFailures;
+        private boolean reset;
+        private boolean unlocked;
+        private boolean dirty;
+        private boolean removed;
+        private long lastTouched;
+
+        private LoginState(User user) {
+            this.userId = user.getId();
+            this.username = user.getUsername();
+            this.failedAttempts = user.getFailedLoginAttempts() != null ? user.getFailedLoginAttempts() : 0;
+            this.lockedUntil = user.getLockedUntil();
+        }
+
+        private void touch() {
+            dirty = true;
+            lastTouched = System.currentTimeMillis();
+        }
+    }
+
+    /**
+     * Bir flush turunda yazılmak üzere alınan artışlar; yazılamazsa sonraki artışlarla birleştirilip geri konur
+     */
+    private record Pending(LoginState state, boolean reset, int failures, LocalDateTime lockUntil,
+                           LocalDateTime lastLoginAt, boolean unlocked) {
+
+        private void restore() {
+            synchronized (state) {
+                state.dirty = true;
+                state.unlocked |= unlocked;
+                if (state.lastLoginAt == null) {
+                    state.lastLoginAt = lastLoginAt;
+                }
+                // Sonradan gelen başarılı giriş önceki artışları zaten geçersiz kılar
+                if (!state.reset) {
+                    state.reset = reset;
+                    state.pendingFailures += failures;
+                }
+            }
+        }
+    }
+
+    private record FlushResult(Long userId, int failedAttempts, LocalDateTime lockedUntil, boolean lockedNow) {
+    }
+}
@@ -0,0 +1,185 @@
+package com.muhasebe.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.muhasebe.exception.TooManyRequestsException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Giriş ve kayıt uçları için IP ve kullanıcı adı/email bazlı token bucket sınırlayıcı
+ * Her anahtar için tek bir AtomicLong (GCRA "theoretical arrival time") tutulur; kontrol kilitsiz
+ * bir CAS'tır ve veritabanı ya da BCrypt işinden önce yapılır
+ * Anahtarlar boyutu max-keys ile sınırlı bir Caffeine önbelleğinde tutulur; kotası dolacak kadar boşta kalan
+ * anahtar erişim süresiyle düşer, rastgele anahtarlarla yapılan saldırıda boyut sınırı aşılmaz
+ */
+@Component
+public class LoginRateLimiter {
+
+    private static final String SCOPE_IP = "ip";
+
+    private static final String SCOPE_ACCOUNT = "account";
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.security.rate-limit.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.security.rate-limit.ip.capacity:20}")
+    private int ipCapacity;
+
+    @Value("${app.security.rate-limit.ip.refill-per-minute:20}")
+    private int ipRefillPerMinute;
+
+    @Value("${app.security.rate-limit.account.capacity:5}")
+    private int accountCapacity;
+
+    @Value("${app.security.rate-limit.account.refill-per-minute:5}")
+    private int accountRefillPerMinute;
+
+    @Value("${app.security.rate-limit.max-keys:100000}")
+    private int maxKeys;
+
+    private Cache<String, AtomicLong> buckets;
+
+    private Bandwidth ipBandwidth;
+
+    private Bandwidth accountBandwidth;
+
+    private Counter ipRejected;
+
+    private Counter accountRejected;
+
+    @PostConstruct
+    public void init() {
+        ipBandwidth = new Bandwidth(ipCapacity, ipRefillPerMinute);
+        accountBandwidth = new Bandwidth(accountCapacity, accountRefillPerMinute);
+        // Son erişimden burst süresi kadar sonra kova tamamen dolmuştur; silmek yeni kova açmakla aynıdır
+        buckets = Caffeine.newBuilder()
+                .maximumSize(maxKeys)
+                .expireAfterAccess(Duration.ofNanos(Math.max(ipBandwidth.burstNanos, accountBandwidth.burstNanos)))
+                .executor(Runnable::run)
+                .build();
+        ipRejected = Counter.builder("auth.rate_limit.rejected").tag("scope", SCOPE_IP).register(meterRegistry);
+        accountRejected = Counter.builder("auth.rate_limit.rejected").tag("scope", SCOPE_ACCOUNT).register(meterRegistry);
+        meterRegistry.gauge("auth.rate_limit.keys", buckets, Cache::estimatedSize);
+    }
+
+    /**
+     * Giriş denemesi için IP ve hesap kotasından birer jeton harcar; kotalardan biri yoksa hiçbirini harcamadan 429 fırlatır
+     * clientIp, server.forward-headers-strategy ile proxy'nin X-Forwarded-For başlığından çözülmüş istemci adresidir
+     */
+    public void checkLogin(String clientIp, String usernameOrEmail) {
+        check("login", clientIp, usernameOrEmail);
+    }
+
+    /**
+     * Kayıt isteği için IP ve email kotasından birer jeton harcar; kotalardan biri yoksa hiçbirini harcamadan 429 fırlatır
+     */
+    public void checkRegister(String clientIp, String email) {
+        check("register", clientIp, email);
+    }
+
+    /**
+     * Önce tüm kotalar kontrol edilir, jeton yalnızca hepsi izin veriyorsa harcanır
+     * Böylece IP sınırına takılan istekler hedef hesabın kotasını tüketip sahibini dışarıda bırakamaz
+     */
+    private void check(String endpoint, String clientIp, String account) {
+        if (!enabled) {
+            return;
+        }
+        long now = System.nanoTime();
+
+        AtomicLong accountBucket = account != null && !account.isBlank()
+                ? bucketFor(endpoint + ":a:" + account.trim().toLowerCase(Locale.ROOT), now)
+                : null;
+        AtomicLong ipBucket = clientIp != null ? bucketFor(endpoint + ":ip:" + clientIp, now) : null;
+
+        while (true) {
+            long accountWait = accountBucket != null ? waitNanos(accountBucket, accountBandwidth, now) : 0;
+            long ipWait = ipBucket != null ? waitNanos(ipBucket, ipBandwidth, now) : 0;
+            if (accountWait > 0 || ipWait > 0) {
+                if (accountWait > 0) {
+                    accountRejected.increment();
+                }
+                if (ipWait > 0) {
+                    ipRejected.increment();
+                }
+                throw tooManyRequests(Math.max(accountWait, ipWait));
+            }
+
+            if (accountBucket != null && !tryAcquire(accountBucket, accountBandwidth, now)) {
+                continue;
+            }
+            if (ipBucket != null && !tryAcquire(ipBucket, ipBandwidth, now)) {
+                // Kontrolden sonra eşzamanlı bir istek IP kotasını bitirdi; hesaptan alınan jeton geri verilir
+                if (accountBucket != null) {
+                    release(accountBucket, accountBandwidth);
+                }
+                continue;
+            }
+            return;
+        }
+    }
+
+    private AtomicLong bucketFor(String key, long now) {
+        return buckets.get(key, k -> new AtomicLong(now));
+    }
+
+    /**
+     * GCRA ile jeton alınabiliyorsa 0, alınamıyorsa bir sonraki jetona kalan süreyi (ns) döndürür; jeton harcamaz
+     */
+    private static long waitNanos(AtomicLong bucket, Bandwidth bandwidth, long now) {
+        long newTat = Math.max(bucket.get(), now) + bandwidth.emissionIntervalNanos;
+        return Math.max(0, newTat - now - bandwidth.burstNanos);
+    }
+
+    /**
+     * GCRA ile bir jeton almaya çalışır; kota bu arada dolduysa false döner
+     */
+    private static boolean tryAcquire(AtomicLong bucket, Bandwidth bandwidth, long now) {
+        while (true) {
+            long tat = bucket.get();
+            long newTat = Math.max(tat, now) + bandwidth.emissionIntervalNanos;
+            if (newTat - now - bandwidth.burstNanos > 0) {
+                return false;
+            }
+            if (bucket.compareAndSet(tat, newTat)) {
+                return true;
+            }
+        }
+    }
+
+    private static void release(AtomicLong bucket, Bandwidth bandwidth) {
+        bucket.addAndGet(-bandwidth.emissionIntervalNanos);
+    }
+
+    private static TooManyRequestsException tooManyRequests(long waitNanos) {
+        long retryAfterSeconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + TimeUnit.SECONDS.toNanos(1) - 1));
+        return new TooManyRequestsException("Çok fazla deneme yapıldı, lütfen daha sonra tekrar deneyin", retryAfterSeconds);
+    }
+
+    /**
+     * Kova kapasitesi ve dolum hızının nanosaniye karşılıkları
+     */
+    private static final class Bandwidth {
+
+        private final long emissionIntervalNanos;
+        private final long burstNanos;
+
+        private Bandwidth(int capacity, int refillPerMinute) {
+            this.emissionIntervalNanos = TimeUnit.MINUTES.toNanos(1) / Math.max(1, refillPerMinute);
+            this.burstNanos = emissionIntervalNanos * Math.max(1, capacity);
+        }
+    }
+}
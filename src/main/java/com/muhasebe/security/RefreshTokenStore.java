@@ -0,0 +1,205 @@
+package com.muhasebe.security;
+
+import com.muhasebe.entity.RefreshToken;
+import com.muhasebe.repository.RefreshTokenRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Refresh token rotasyonunu ve tekrar kullanım tespitini yöneten depo
+ * "Bu jti geçerli mi" sorusu bellekteki indeksten O(1) ile cevaplanır; kayıtlar veritabanında da tutulur
+ * ve süresi dolanlar timer wheel ile temizlenir
+ */
+@Component
+public class RefreshTokenStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(RefreshTokenStore.class);
+
+    /**
+     * Refresh token kullanım sonucu
+     */
+    public enum RotationResult {
+        ROTATED,
+        REUSED,
+        UNKNOWN
+    }
+
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Autowired
+    private JwtTokenProvider jwtTokenProvider;
+
+    private final Map<String, TokenEntry> tokens = new ConcurrentHashMap<>();
+
+    private final Map<String, Set<String>> families = new ConcurrentHashMap<>();
+
+    private final ExpiryTimerWheel<String> expiryWheel = new ExpiryTimerWheel<>(1000, 4096);
+
+    /**
+     * Açılışta süresi dolmamış kayıtlarla bellek indeksini yeniden kurar
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadLiveTokens() {
+        LocalDateTime now = LocalDateTime.now();
+        int deleted = refreshTokenRepository.deleteExpired(now);
+        List<RefreshToken> live = refreshTokenRepository.findLiveTokens(now);
+        live.forEach(this::index);
+        logger.info("Refresh token indeksi yüklendi: {} kayıt ({} süresi dolmuş kayıt silindi)", live.size(), deleted);
+    }
+
+    /**
+     * Yeni bir refresh token üretir ve kaydeder; familyId null ise yeni bir aile başlatılır
+     * Giriş read-only transaction'da çalıştığı için kayıt ayrı bir transaction'da yazılır
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public String issue(String username, String familyId) {
+        String jti = UUID.randomUUID().toString();
+        String family = familyId != null ? familyId : UUID.randomUUID().toString();
+        Date expiresAt = new Date(System.currentTimeMillis() + jwtTokenProvider.getRefreshExpiration());
+
+        String token = jwtTokenProvider.generateRefreshToken(username, jti, family, expiresAt);
+
+        RefreshToken record = refreshTokenRepository.save(RefreshToken.builder()
+                .jti(jti)
+                .familyId(family)
+                .username(username)
+                .expiresAt(LocalDateTime.ofInstant(expiresAt.toInstant(), ZoneId.systemDefault()))
+                .build());
+        index(record);
+        return token;
+    }
+
+    /**
+     * Refresh token'ı tek kullanımlık olarak tüketir
+     * Daha önce kullanılmış bir token tekrar gelirse ailenin tamamı iptal edilir
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public RotationResult consume(String jti, String familyId) {
+        TokenEntry entry = tokens.get(jti);
+        if (entry == null) {
+            // Başka bir node'da üretilmiş olabilir
+            entry = refreshTokenRepository.findByJti(jti).map(this::index).orElse(null);
+            if (entry == null) {
+                return RotationResult.UNKNOWN;
+            }
+        }
+
+        if (entry.revoked || entry.expiresAtMillis <= System.currentTimeMillis()) {
+            return RotationResult.REUSED;
+        }
+
+        if (!entry.used.compareAndSet(false, true) || refreshTokenRepository.markUsed(jti) == 0) {
+            logger.warn("Refresh token tekrar kullanıldı, aile iptal ediliyor: user={}, family={}",
+                    entry.username, entry.familyId);
+            revokeFamily(entry.familyId != null ? entry.familyId : familyId);
+            return RotationResult.REUSED;
+        }
+        return RotationResult.ROTATED;
+    }
+
+    /**
+     * Token'ın kullanılmamış, iptal edilmemiş ve süresi dolmamış olup olmadığını döndürür
+     */
+    public boolean isLive(String jti) {
+        TokenEntry entry = tokens.get(jti);
+        return entry != null
+                && !entry.revoked
+                && !entry.used.get()
+                && entry.expiresAtMillis > System.currentTimeMillis();
+    }
+
+    /**
+     * Bir token ailesindeki tüm refresh token'ları iptal eder
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void revokeFamily(String familyId) {
+        if (familyId == null) {
+            return;
+        }
+        Set<String> members = families.get(familyId);
+        if (members != null) {
+            for (String memberJti : members) {
+                TokenEntry member = tokens.get(memberJti);
+                if (member != null) {
+                    member.revoked = true;
+                }
+            }
+        }
+        refreshTokenRepository.revokeFamily(familyId);
+    }
+
+    /**
+     * Süresi dolan kayıtları bellekten ve veritabanından siler
+     */
+    @Scheduled(fixedRate = 1000)
+    public void expire() {
+        List<String> expired = new ArrayList<>();
+        expiryWheel.advance(System.currentTimeMillis(), jti -> {
+            TokenEntry entry = tokens.remove(jti);
+            if (entry != null && entry.familyId != null) {
+                families.computeIfPresent(entry.familyId, (family, members) -> {
+                    members.remove(jti);
+                    return members.isEmpty() ? null : members;
+                });
+            }
+            expired.add(jti);
+        });
+
+        for (int from = 0; from < expired.size(); from += 500) {
+            refreshTokenRepository.deleteByJtiIn(expired.subList(from, Math.min(from + 500, expired.size())));
+        }
+    }
+
+    private TokenEntry index(RefreshToken record) {
+        long expiresAtMillis = record.getExpiresAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        TokenEntry entry = new TokenEntry(record.getUsername(), record.getFamilyId(), expiresAtMillis,
+                Boolean.TRUE.equals(record.getUsed()), Boolean.TRUE.equals(record.getRevoked()));
+
+        TokenEntry existing = tokens.putIfAbsent(record.getJti(), entry);
+        if (existing != null) {
+            return existing;
+        }
+        families.computeIfAbsent(record.getFamilyId(), family -> ConcurrentHashMap.newKeySet()).add(record.getJti());
+        expiryWheel.schedule(record.getJti(), expiresAtMillis);
+        return entry;
+    }
+
+    /**
+     * Bellek indeksindeki refresh token kaydı
+     */
+    private static final class TokenEntry {
+
+        private final String username;
+        private final String familyId;
+        private final long expiresAtMillis;
+        private final AtomicBoolean used;
+        private volatile boolean revoked;
+
+        private TokenEntry(String username, String familyId, long expiresAtMillis, boolean used, boolean revoked) {
+            this.username = username;
+            this.familyId = familyId;
+            this.expiresAtMillis = expiresAtMillis;
+            this.used = new AtomicBoolean(used);
+            this.revoked = revoked;
+        }
+    }
+}
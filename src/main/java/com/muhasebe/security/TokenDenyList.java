@@ -0,0 +1,169 @@
+package com.muhasebe.security;
+
+import com.muhasebe.entity.RevokedToken;
+import com.muhasebe.repository.RevokedTokenRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Çıkış yapılmış erişim token'larının deny-list'i
+ * Kontrol önce Bloom filter'a, yalnızca olası eşleşmede kesin kümeye bakar; veritabanına gidilmez.
+ * Kayıtlar token süresi dolduğunda timer wheel ile düşer, Bloom filter gerektiğinde yeniden kurulur
+ */
+@Component
+public class TokenDenyList {
+
+    private static final Logger logger = LoggerFactory.getLogger(TokenDenyList.class);
+
+    private static final double FALSE_POSITIVE_RATE = 0.01;
+
+    @Autowired
+    private RevokedTokenRepository revokedTokenRepository;
+
+    @Value("${app.security.deny-list.expected-entries:100000}")
+    private int expectedEntries;
+
+    private final Map<String, Long> revoked = new ConcurrentHashMap<>();
+
+    private final ExpiryTimerWheel<String> expiryWheel = new ExpiryTimerWheel<>(1000, 4096);
+
+    private volatile BloomFilter bloomFilter;
+
+    private int removedSinceRebuild;
+
+    private LocalDateTime lastSync;
+
+    /**
+     * Açılışta süresi dolmamış kayıtlarla deny-list'i yeniden kurar
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void load() {
+        LocalDateTime now = LocalDateTime.now();
+        revokedTokenRepository.deleteExpired(now);
+        List<RevokedToken> active = revokedTokenRepository.findActive(now);
+        active.forEach(this::index);
+        rebuildBloomFilter();
+        lastSync = now;
+        logger.info("Token deny-list yüklendi: {} kayıt", active.size());
+    }
+
+    /**
+     * Token'ın iptal edilip edilmediğini kontrol eder
+     */
+    public boolean isRevoked(String jti) {
+        BloomFilter filter = bloomFilter;
+        if (filter != null && !filter.mightContain(jti)) {
+            return false;
+        }
+        return revoked.containsKey(jti);
+    }
+
+    /**
+     * Token'ı süresi dolana kadar deny-list'e ekler
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void revoke(String jti, String username, long expiresAtMillis) {
+        if (expiresAtMillis <= System.currentTimeMillis() || revoked.containsKey(jti)) {
+            return;
+        }
+        RevokedToken record = revokedTokenRepository.save(RevokedToken.builder()
+                .jti(jti)
+                .username(username)
+                .expiresAt(LocalDateTime.ofInstant(Instant.ofEpochMilli(expiresAtMillis), ZoneId.systemDefault()))
+                .build());
+        index(record);
+    }
+
+    /**
+     * Diğer node'larda iptal edilen token'ları deny-list'e ekler
+     */
+    @Scheduled(fixedDelayString = "${app.security.deny-list.sync-interval-ms:5000}")
+    public void syncFromDatabase() {
+        LocalDateTime since;
+        synchronized (this) {
+            if (lastSync == null) {
+                return;
+            }
+            since = lastSync;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        // Saat farkları ve commit gecikmesi için pencere biraz geriden başlatılır
+        revokedTokenRepository.findCreatedSince(since.minusSeconds(5), now).forEach(this::index);
+        synchronized (this) {
+            lastSync = now;
+        }
+    }
+
+    /**
+     * Süresi dolan kayıtları kümeden ve veritabanından siler
+     */
+    @Scheduled(fixedRate = 1000)
+    public void expire() {
+        List<String> expired = new ArrayList<>();
+        expiryWheel.advance(System.currentTimeMillis(), jti -> {
+            if (revoked.remove(jti) != null) {
+                expired.add(jti);
+            }
+        });
+        if (expired.isEmpty()) {
+            return;
+        }
+
+        for (int from = 0; from < expired.size(); from += 500) {
+            revokedTokenRepository.deleteByJtiIn(expired.subList(from, Math.min(from + 500, expired.size())));
+        }
+
+        synchronized (this) {
+            removedSinceRebuild += expired.size();
+            // Silinen elemanlar Bloom filter'dan çıkarılamaz; yarısı kadar birikince yeniden kurulur
+            if (removedSinceRebuild > Math.max(1024, revoked.size() / 2)) {
+                rebuildBloomFilter();
+            }
+        }
+    }
+
+    private void index(RevokedToken record) {
+        long expiresAtMillis = record.getExpiresAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        if (revoked.putIfAbsent(record.getJti(), expiresAtMillis) != null) {
+            return;
+        }
+        expiryWheel.schedule(record.getJti(), expiresAtMillis);
+
+        BloomFilter filter = bloomFilter;
+        if (filter != null) {
+            filter.put(record.getJti());
+            if (revoked.size() > filter.getExpectedInsertions()) {
+                synchronized (this) {
+                    if (bloomFilter == filter) {
+                        rebuildBloomFilter();
+                    }
+                }
+            }
+        }
+    }
+
+    private synchronized void rebuildBloomFilter() {
+        BloomFilter filter = new BloomFilter(Math.max(expectedEntries, revoked.size() * 2), FALSE_POSITIVE_RATE);
+        revoked.keySet().forEach(filter::put);
+        bloomFilter = filter;
+        // Yeniden kurulum sırasında eklenen kayıtlar kaçmasın diye ikinci tur
+        revoked.keySet().forEach(filter::put);
+        removedSinceRebuild = 0;
+    }
+}
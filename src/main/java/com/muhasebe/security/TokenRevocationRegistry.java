@@ -0,0 +1,139 @@
+package com.muhasebe.security;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Kilitlenen veya pasifleştirilen kullanıcıların daha önce üretilmiş token'larını geçersiz kılar
+ * Her kullanıcı için veritabanında bir token sayacı (users.token_epoch) tutulur ve erişim token'larında
+ * claim olarak taşınır; sayacı güncel değerden küçük olan token'lar reddedilir.
+ * Son iptaller deny-list gibi açılışta yüklenir ve node'lar arasında periyodik olarak senkronlanır
+ */
+@Component
+public class TokenRevocationRegistry {
+
+    private static final Logger logger = LoggerFactory.getLogger(TokenRevocationRegistry.class);
+
+    private static final String REVOKE_SQL =
+            "UPDATE users SET token_epoch = token_epoch + 1, tokens_revoked_at = ? WHERE username = ? RETURNING token_epoch";
+
+    private static final String REVOKED_SINCE_SQL =
+            "SELECT username, token_epoch, tokens_revoked_at FROM users WHERE tokens_revoked_at >= ?";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${jwt.expiration}")
+    private long jwtExpiration;
+
+    private final Map<String, Revocation> revocations = new ConcurrentHashMap<>();
+
+    private LocalDateTime lastSync;
+
+    /**
+     * Açılışta süresi dolmamış token'ları etkileyebilecek iptalleri yükler
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void load() {
+        LocalDateTime now = LocalDateTime.now();
+        int loaded = loadRevokedSince(now.minusNanos(jwtExpiration * 1_000_000));
+        lastSync = now;
+        logger.info("Token iptal kayıtları yüklendi: {} kullanıcı", loaded);
+    }
+
+    /**
+     * Kullanıcının şu ana kadar üretilmiş tüm token'larını geçersiz kılar
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void revokeAll(String username) {
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> epochs = jdbcTemplate.queryForList(REVOKE_SQL, Long.class, Timestamp.valueOf(now), username);
+        if (!epochs.isEmpty()) {
+            index(username, epochs.get(0), now);
+        }
+    }
+
+    /**
+     * Kilitlenen, pasifleştirilen veya silinen kullanıcının token'larını commit sonrası geçersiz kılar
+     * Commit sonrasında çalıştığı için sayaç ayrı bir transaction'da artırılır
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void onUserSecurityChanged(UserSecurityChangedEvent event) {
+        if (event.isAccessRevoked()) {
+            revokeAll(event.getUsername());
+        }
+    }
+
+    /**
+     * Diğer node'larda yapılan iptalleri yükler
+     */
+    @Scheduled(fixedDelayString = "${app.security.deny-list.sync-interval-ms:5000}")
+    public void syncFromDatabase() {
+        LocalDateTime since;
+        synchronized (this) {
+            if (lastSync == null) {
+                return;
+            }
+            since = lastSync;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        // Saat farkları ve commit gecikmesi için pencere biraz geriden başlatılır
+        loadRevokedSince(since.minusSeconds(5));
+        synchronized (this) {
+            lastSync = now;
+        }
+    }
+
+    /**
+     * Token'daki sayacın kullanıcının güncel sayacından geride olup olmadığını kontrol eder
+     * Sayaç claim'i olmayan token'lar 0 kabul edilir
+     */
+    public boolean isRevoked(String username, Number tokenEpoch) {
+        Revocation revocation = revocations.get(username);
+        if (revocation == null) {
+            return false;
+        }
+        // İptalden önce üretilmiş token'ların hepsinin süresi dolduysa kaydı temizle
+        if (System.currentTimeMillis() - revocation.revokedAtMillis() > jwtExpiration) {
+            revocations.remove(username, revocation);
+            return false;
+        }
+        return revocation.epoch() > (tokenEpoch != null ? tokenEpoch.longValue() : 0L);
+    }
+
+    private int loadRevokedSince(LocalDateTime since) {
+        List<Map<String, Object>> rows = jdbcTemplate.queryForList(REVOKED_SINCE_SQL, Timestamp.valueOf(since));
+        for (Map<String, Object> row : rows) {
+            index((String) row.get("username"),
+                    ((Number) row.get("token_epoch")).longValue(),
+                    ((Timestamp) row.get("tokens_revoked_at")).toLocalDateTime());
+        }
+        return rows.size();
+    }
+
+    private void index(String username, long epoch, LocalDateTime revokedAt) {
+        long revokedAtMillis = Timestamp.valueOf(revokedAt).getTime();
+        revocations.merge(username, new Revocation(epoch, revokedAtMillis),
+                (current, candidate) -> candidate.epoch() > current.epoch() ? candidate : current);
+    }
+
+    private record Revocation(long epoch, long revokedAtMillis) {
+    }
+}
@@ -0,0 +1,61 @@
+package com.muhasebe.security;
+
+import io.jsonwebtoken.Claims;
+
+/**
+ * JWT doğrulama sonucu
+ * Geçersiz token'lar exception/log yerine durum koduyla döner
+ */
+public final class TokenValidationResult {
+
+    /**
+     * Doğrulama durumu
+     */
+    public enum Status {
+        VALID,
+        EXPIRED,
+        BAD_SIGNATURE,
+        MALFORMED
+    }
+
+    private static final TokenValidationResult EXPIRED = new TokenValidationResult(Status.EXPIRED, null);
+    private static final TokenValidationResult BAD_SIGNATURE = new TokenValidationResult(Status.BAD_SIGNATURE, null);
+    private static final TokenValidationResult MALFORMED = new TokenValidationResult(Status.MALFORMED, null);
+
+    private final Status status;
+
+    private final Claims claims;
+
+    private TokenValidationResult(Status status, Claims claims) {
+        this.status = status;
+        this.claims = claims;
+    }
+
+    public static TokenValidationResult valid(Claims claims) {
+        return new TokenValidationResult(Status.VALID, claims);
+    }
+
+    public static TokenValidationResult invalid(Status status) {
+        return switch (status) {
+            case EXPIRED -> EXPIRED;
+            case BAD_SIGNATURE -> BAD_SIGNATURE;
+            case MALFORMED -> MALFORMED;
+            case VALID -> throw new IllegalArgumentException("Geçerli sonuç claim'siz oluşturulamaz");
+        };
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    /**
+     * Token geçerliyse claim'leri, değilse null döner
+     */
+    public Claims getClaims() {
+        return claims;
+    }
+
+    public boolean isValid() {
+        return status == Status.VALID;
+    }
+}
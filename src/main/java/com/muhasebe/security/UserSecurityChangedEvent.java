@@ -0,0 +1,27 @@
+package com.muhasebe.security;
+
+/**
+ * Kullanıcının güvenlikle ilgili alanları (kilit, rol, aktiflik, şifre) kalıcı hale geldiğinde yayınlanır
+ */
+public class UserSecurityChangedEvent {
+
+    private final String username;
+
+    private final boolean accessRevoked;
+
+    public UserSecurityChangedEvent(String username, boolean accessRevoked) {
+        this.username = username;
+        this.accessRevoked = accessRevoked;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    /**
+     * Kullanıcı kilitlendi, pasifleştirildi veya silindiyse true döner
+     */
+    public boolean isAccessRevoked() {
+        return accessRevoked;
+    }
+}
@@ -0,0 +1,32 @@
+package com.muhasebe.security;
+
+import com.muhasebe.entity.User;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+/**
+ * User entity'si güncellendiğinde veya silindiğinde UserSecurityChangedEvent yayınlar
+ * Başarısız giriş sayacı, kilit, rol ve aktiflik değişiklikleri bu yoldan önbelleğe yansır
+ */
+@Component
+public class UserSecurityEntityListener {
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @PostUpdate
+    public void onUpdate(User user) {
+        boolean accessRevoked = user.isAccountLocked()
+                || !Boolean.TRUE.equals(user.getIsActive())
+                || Boolean.TRUE.equals(user.getIsDeleted());
+        eventPublisher.publishEvent(new UserSecurityChangedEvent(user.getUsername(), accessRevoked));
+    }
+
+    @PostRemove
+    public void onRemove(User user) {
+        eventPublisher.publishEvent(new UserSecurityChangedEvent(user.getUsername(), true));
+    }
+}
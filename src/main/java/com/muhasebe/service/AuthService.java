@@ -9,6 +9,10 @@ import com.muhasebe.enums.Role;
 import com.muhasebe.repository.CompanyRepository;
 import com.muhasebe.repository.UserRepository;
 import com.muhasebe.security.JwtTokenProvider;
+import com.muhasebe.security.LoginAttemptTracker;
+import com.muhasebe.security.RefreshTokenStore;
+import com.muhasebe.security.TokenDenyList;
+import io.jsonwebtoken.Claims;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -41,25 +45,38 @@ public class AuthService {
     @Autowired
     private JwtTokenProvider jwtTokenProvider;
 
+    @Autowired
+    private LoginAttemptTracker loginAttemptTracker;
+
+    @Autowired
+    private RefreshTokenStore refreshTokenStore;
+
+    @Autowired
+    private TokenDenyList tokenDenyList;
+
     @Value("${jwt.expiration}")
     private long jwtExpiration;
 
     /**
      * Kullanıcı girişi yapar
+     * Başarılı/başarısız giriş kayıtları LoginAttemptTracker üzerinden toplu olarak yazılır
      */
-    @Transactional
+    @Transactional(readOnly = true)
     public AuthResponse login(LoginRequest request) {
+        // Kullanıcıyı bul
+        User user = userRepository.findByUsernameOrEmail(request.getUsernameOrEmail()).orElse(null);
+
         try {
-            // Kullanıcıyı bul
-            User user = userRepository.findByUsernameOrEmail(request.getUsernameOrEmail())
-                    .orElseThrow(() -> new BadCredentialsException("Kullanıcı bulunamadı"));
+            if (user == null) {
+                throw new BadCredentialsException("Kullanıcı bulunamadı");
+            }
 
             // Hesap kontrolü
             if (!user.getIsActive()) {
                 throw new BadCredentialsException("Hesabınız aktif değil");
             }
 
-            if (user.isAccountLocked()) {
+            if (loginAttemptTracker.isLocked(user)) {
                 throw new BadCredentialsException("Hesabınız kilitli. Lütfen daha sonra tekrar deneyin");
             }
 
@@ -74,12 +91,11 @@ public class AuthService {
             SecurityContextHolder.getContext().setAuthentication(authentication);
 
             // Token oluştur
-            String accessToken = jwtTokenProvider.generateToken(authentication);
-            String refreshToken = jwtTokenProvider.generateRefreshToken(user.getUsername());
+            String accessToken = jwtTokenProvider.generateToken(user);
+            String refreshToken = refreshTokenStore.issue(user.getUsername(), null);
 
             // Başarılı giriş kaydı
-            user.resetFailedLoginAttempts();
-            userRepository.save(user);
+            loginAttemptTracker.recordSuccess(user);
 
             // Response oluştur
             return AuthResponse.builder()
@@ -98,11 +114,9 @@ public class AuthService {
 
         } catch (BadCredentialsException ex) {
             // Başarısız giriş kaydı
-            userRepository.findByUsernameOrEmail(request.getUsernameOrEmail())
-                    .ifPresent(user -> {
-                        user.incrementFailedLoginAttempts();
-                        userRepository.save(user);
-                    });
+            if (user != null) {
+                loginAttemptTracker.recordFailure(user);
+            }
             throw new BadCredentialsException("Kullanıcı adı veya şifre hatalı");
         }
     }
@@ -168,17 +182,32 @@ public class AuthService {
     /**
      * Refresh token ile yeni access token üretir
      */
+    @Transactional(readOnly = true)
     public AuthResponse refreshToken(String refreshToken) {
-        if (!jwtTokenProvider.validateToken(refreshToken)) {
+        Claims claims = jwtTokenProvider.parseClaims(refreshToken);
+        if (claims == null
+                || !JwtTokenProvider.TOKEN_TYPE_REFRESH.equals(claims.get(JwtTokenProvider.CLAIM_TYPE, String.class))
+                || claims.getId() == null) {
             throw new BadCredentialsException("Geçersiz refresh token");
         }
 
-        String username = jwtTokenProvider.getUsernameFromToken(refreshToken);
+        // Her refresh token tek kullanımlıktır; tekrar kullanımda aile iptal edilir
+        String familyId = claims.get(JwtTokenProvider.CLAIM_FAMILY, String.class);
+        if (refreshTokenStore.consume(claims.getId(), familyId) != RefreshTokenStore.RotationResult.ROTATED) {
+            throw new BadCredentialsException("Refresh token geçersiz veya daha önce kullanılmış");
+        }
+
+        String username = claims.getSubject();
         User user = userRepository.findByUsername(username)
                 .orElseThrow(() -> new BadCredentialsException("Kullanıcı bulunamadı"));
 
-        String newAccessToken = jwtTokenProvider.generateToken(username);
-        String newRefreshToken = jwtTokenProvider.generateRefreshToken(username);
+        // Token claim'lerine güvenilen modda hesap durumu yalnızca burada yeniden kontrol edilir
+        if (!user.getIsActive() || user.isAccountLocked()) {
+            throw new BadCredentialsException("Hesabınız aktif değil veya kilitli");
+        }
+
+        String newAccessToken = jwtTokenProvider.generateToken(user);
+        String newRefreshToken = refreshTokenStore.issue(username, familyId);
 
         return AuthResponse.builder()
                 .accessToken(newAccessToken)
@@ -197,8 +226,22 @@ public class AuthService {
 
     /**
      * Kullanıcı çıkışı yapar
+     * Erişim token'ı süresi dolana kadar deny-list'e eklenir, refresh token verilmişse ailesi iptal edilir
      */
-    public void logout() {
+    public void logout(String accessToken, String refreshToken) {
+        Claims accessClaims = accessToken != null ? jwtTokenProvider.parseClaims(accessToken) : null;
+        if (accessClaims != null && accessClaims.getId() != null) {
+            tokenDenyList.revoke(accessClaims.getId(), accessClaims.getSubject(),
+                    accessClaims.getExpiration().getTime());
+        }
+
+        Claims refreshClaims = refreshToken != null ? jwtTokenProvider.parseClaims(refreshToken) : null;
+        if (refreshClaims != null
+                && JwtTokenProvider.TOKEN_TYPE_REFRESH.equals(refreshClaims.get(JwtTokenProvider.CLAIM_TYPE, String.class))
+                && (accessClaims == null || refreshClaims.getSubject().equals(accessClaims.getSubject()))) {
+            refreshTokenStore.revokeFamily(refreshClaims.get(JwtTokenProvider.CLAIM_FAMILY, String.class));
+        }
+
         SecurityContextHolder.clearContext();
     }
-}
\ No newline at end of file
+}
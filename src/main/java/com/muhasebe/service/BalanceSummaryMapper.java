@@ -0,0 +1,91 @@
+package com.muhasebe.service;
+
+import com.muhasebe.dto.response.BalanceGroupResponse;
+import com.muhasebe.dto.response.BalanceSummaryResponse;
+import com.muhasebe.repository.projection.BalanceSummaryRow;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * GROUPING SETS sorgusunun satırlarını toplam, şehir ve tip gruplarına ayırır
+ */
+final class BalanceSummaryMapper {
+
+    private static final Comparator<BalanceGroupResponse> BY_DEBT_DESC =
+            Comparator.comparing(BalanceGroupResponse::getTotalDebt).reversed();
+
+    private BalanceSummaryMapper() {
+    }
+
+    static BalanceSummaryResponse toResponse(List<BalanceSummaryRow> rows) {
+        BalanceGroupResponse total = null;
+        List<BalanceGroupResponse> byCity = new ArrayList<>();
+        List<BalanceGroupResponse> byType = new ArrayList<>();
+
+        for (BalanceSummaryRow row : rows) {
+            boolean cityGrouped = row.getCityGrouped() == 1;
+            boolean typeGrouped = row.getTypeGrouped() == 1;
+            if (cityGrouped && typeGrouped) {
+                total = toGroup(null, row);
+            } else if (!cityGrouped) {
+                byCity.add(toGroup(row.getCity(), row));
+            } else {
+                byType.add(toGroup(row.getType(), row));
+            }
+        }
+
+        // Kayıt yoksa GROUPING SETS boş küme için de satır döndürmez
+        if (total == null) {
+            total = emptyGroup();
+        }
+        byCity.sort(BY_DEBT_DESC);
+        byType.sort(BY_DEBT_DESC);
+
+        return BalanceSummaryResponse.builder()
+                .total(total)
+                .byCity(byCity)
+                .byType(byType)
+                .build();
+    }
+
+    private static BalanceGroupResponse toGroup(String key, BalanceSummaryRow row) {
+        Map<String, Long> buckets = new LinkedHashMap<>();
+        buckets.put("0-1000", row.getDebtUpTo1k());
+        buckets.put("1000-10000", row.getDebtUpTo10k());
+        buckets.put("10000-100000", row.getDebtUpTo100k());
+        buckets.put("100000+", row.getDebtOver100k());
+
+        return BalanceGroupResponse.builder()
+                .key(key)
+                .totalCount(row.getTotalCount())
+                .debtorCount(row.getDebtorCount())
+                .totalDebt(row.getTotalDebt())
+                .creditorCount(row.getCreditorCount())
+                .totalCredit(row.getTotalCredit())
+                .netBalance(row.getNetBalance())
+                .overLimitCount(row.getOverLimitCount())
+                .overLimitAmount(row.getOverLimitAmount())
+                .debtBuckets(buckets)
+                .build();
+    }
+
+    private static BalanceGroupResponse emptyGroup() {
+        Map<String, Long> buckets = new LinkedHashMap<>();
+        buckets.put("0-1000", 0L);
+        buckets.put("1000-10000", 0L);
+        buckets.put("10000-100000", 0L);
+        buckets.put("100000+", 0L);
+
+        return BalanceGroupResponse.builder()
+                .totalDebt(BigDecimal.ZERO)
+                .totalCredit(BigDecimal.ZERO)
+                .netBalance(BigDecimal.ZERO)
+                .debtBuckets(buckets)
+                .build();
+    }
+}
@@ -1,44 +1,106 @@
 package com.muhasebe.service;
 
 import com.muhasebe.dto.request.CustomerRequest;
+import com.muhasebe.dto.response.BalanceSummaryResponse;
 import com.muhasebe.dto.response.CustomerResponse;
+import com.muhasebe.dto.response.CustomerSummaryResponse;
+import com.muhasebe.dto.response.ScrollResponse;
+import com.muhasebe.dto.response.SearchResponse;
+import com.muhasebe.dto.response.SuggestionResponse;
 import com.muhasebe.entity.Customer;
 import com.muhasebe.entity.Company;
 import com.muhasebe.exception.ResourceNotFoundException;
 import com.muhasebe.exception.BadRequestException;
+import com.muhasebe.exception.PreconditionFailedException;
 import com.muhasebe.repository.CustomerRepository;
 import com.muhasebe.repository.CompanyRepository;
+import com.muhasebe.repository.projection.CustomerSummary;
+import com.muhasebe.repository.support.CountMode;
+import com.muhasebe.repository.support.KeysetCursor;
+import com.muhasebe.repository.support.RowCountEstimator;
+import com.muhasebe.search.SearchDocument;
+import com.muhasebe.search.SearchIndexService;
+import com.muhasebe.tenant.TenantContext;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiConsumer;
 import java.util.stream.Collectors;
 
 @Service
 public class CustomerService {
 
+    /**
+     * Güncellemeyle yazılabilen alanlar (bakiye güncellemeyle değişmez)
+     * PUT hepsini, PATCH yalnızca istekte gelenleri uygular; değeri değişmeyen alan UPDATE'e girmez (@DynamicUpdate)
+     */
+    private static final Map<String, BiConsumer<Customer, CustomerRequest>> UPDATABLE_FIELDS = Map.ofEntries(
+            Map.entry("name", (customer, request) -> customer.setName(request.getName())),
+            Map.entry("contactPerson", (customer, request) -> customer.setContactPerson(request.getContactPerson())),
+            Map.entry("taxNumber", (customer, request) -> customer.setTaxNumber(request.getTaxNumber())),
+            Map.entry("identityNumber", (customer, request) -> customer.setIdentityNumber(request.getIdentityNumber())),
+            Map.entry("taxOffice", (customer, request) -> customer.setTaxOffice(request.getTaxOffice())),
+            Map.entry("address", (customer, request) -> customer.setAddress(request.getAddress())),
+            Map.entry("city", (customer, request) -> customer.setCity(request.getCity())),
+            Map.entry("district", (customer, request) -> customer.setDistrict(request.getDistrict())),
+            Map.entry("postalCode", (customer, request) -> customer.setPostalCode(request.getPostalCode())),
+            Map.entry("country", (customer, request) -> customer.setCountry(request.getCountry())),
+            Map.entry("phone", (customer, request) -> customer.setPhone(request.getPhone())),
+            Map.entry("mobile", (customer, request) -> customer.setMobile(request.getMobile())),
+            Map.entry("fax", (customer, request) -> customer.setFax(request.getFax())),
+            Map.entry("email", (customer, request) -> customer.setEmail(request.getEmail())),
+            Map.entry("website", (customer, request) -> customer.setWebsite(request.getWebsite())),
+            Map.entry("isActive", (customer, request) -> customer.setIsActive(request.getIsActive())),
+            Map.entry("notes", (customer, request) -> customer.setNotes(request.getNotes())),
+            Map.entry("customerType", (customer, request) -> customer.setCustomerType(request.getCustomerType())),
+            Map.entry("paymentTerms", (customer, request) -> customer.setPaymentTerms(request.getPaymentTerms())),
+            Map.entry("creditLimit", (customer, request) -> customer.setCreditLimit(request.getCreditLimit()))
+    );
+
+    /**
+     * If-Match'siz PATCH başka bir güncellemeyle çakışırsa değişiklik kaydın son haline en fazla bu kadar kez uygulanır
+     */
+    private static final int PATCH_ATTEMPTS = 3;
+
     @Autowired
     private CustomerRepository customerRepository;
 
     @Autowired
     private CompanyRepository companyRepository;
 
+    @Autowired
+    private SearchIndexService searchIndexService;
+
+    @Autowired
+    private RowCountEstimator rowCountEstimator;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
     /**
      * Yeni müşteri oluşturur
      */
     @Transactional
     public CustomerResponse createCustomer(Long companyId, CustomerRequest request) {
+        TenantContext.requireCompanyId(companyId);
         // Şirket kontrolü
         Company company = companyRepository.findById(companyId)
                 .orElseThrow(() -> new ResourceNotFoundException("Şirket bulunamadı"));
 
         // Vergi numarası kontrolü
         if (request.getTaxNumber() != null &&
-                customerRepository.existsByTaxNumberAndCompanyId(request.getTaxNumber(), companyId)) {
+                customerRepository.existsByTaxNumber(companyId, request.getTaxNumber())) {
             throw new BadRequestException("Bu vergi numarası zaten kayıtlı");
         }
 
@@ -73,48 +135,58 @@ public class CustomerService {
     }
 
     /**
-     * Müşteri günceller
+     * Müşteri günceller (tüm alanlar)
+     * expectedVersion If-Match başlığından gelir; verilmişse kaydın güncel sürümüyle eşleşmelidir
      */
     @Transactional
-    public CustomerResponse updateCustomer(Long companyId, Long customerId, CustomerRequest request) {
-        Customer customer = customerRepository.findById(customerId)
+    public CustomerResponse updateCustomer(Long companyId, Long customerId, CustomerRequest request, Long expectedVersion) {
+        TenantContext.requireCompanyId(companyId);
+        return applyUpdate(customerId, request, UPDATABLE_FIELDS.keySet(), expectedVersion);
+    }
+
+    /**
+     * Müşterinin yalnızca istekte gelen alanlarını günceller (fields: istek gövdesindeki alan adları)
+     * If-Match yoksa araya giren başka bir güncelleme hata sayılmaz, değişiklik kaydın son haline yeniden uygulanır;
+     * böylece farklı alanları düzenleyen kullanıcılar birbirinin değişikliğini ezmez
+     */
+    public CustomerResponse patchCustomer(Long companyId, Long customerId, CustomerRequest request, Set<String> fields, Long expectedVersion) {
+        TenantContext.requireCompanyId(companyId);
+        for (String field : fields) {
+            if (!UPDATABLE_FIELDS.containsKey(field)) {
+                throw new BadRequestException("Bu alan güncellenemez: " + field);
+            }
+        }
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return transactionTemplate.execute(status -> applyUpdate(customerId, request, fields, expectedVersion));
+            } catch (OptimisticLockingFailureException e) {
+                if (expectedVersion != null || attempt == PATCH_ATTEMPTS) {
+                    throw e;
+                }
+            }
+        }
+    }
+
+    private CustomerResponse applyUpdate(Long customerId, CustomerRequest request, Set<String> fields, Long expectedVersion) {
+        Customer customer = customerRepository.findWithCompanyById(customerId)
                 .orElseThrow(() -> new ResourceNotFoundException("Müşteri bulunamadı"));
 
-        // Şirket kontrolü
-        if (!customer.getCompany().getId().equals(companyId)) {
-            throw new BadRequestException("Bu müşteri bu şirkete ait değil");
+        if (expectedVersion != null && !expectedVersion.equals(customer.getVersion())) {
+            throw new PreconditionFailedException("Kayıt okunduktan sonra değiştirilmiş (güncel sürüm " + customer.getVersion() + ")");
         }
 
         // Vergi numarası kontrolü (değiştirilmişse)
-        if (request.getTaxNumber() != null &&
+        if (fields.contains("taxNumber") && request.getTaxNumber() != null &&
                 !request.getTaxNumber().equals(customer.getTaxNumber()) &&
-                customerRepository.existsByTaxNumberAndCompanyId(request.getTaxNumber(), companyId)) {
+                customerRepository.existsByTaxNumber(customer.getCompany().getId(), request.getTaxNumber())) {
             throw new BadRequestException("Bu vergi numarası zaten kayıtlı");
         }
 
         // Güncelle
-        customer.setName(request.getName());
-        customer.setContactPerson(request.getContactPerson());
-        customer.setTaxNumber(request.getTaxNumber());
-        customer.setIdentityNumber(request.getIdentityNumber());
-        customer.setTaxOffice(request.getTaxOffice());
-        customer.setAddress(request.getAddress());
-        customer.setCity(request.getCity());
-        customer.setDistrict(request.getDistrict());
-        customer.setPostalCode(request.getPostalCode());
-        customer.setCountry(request.getCountry());
-        customer.setPhone(request.getPhone());
-        customer.setMobile(request.getMobile());
-        customer.setFax(request.getFax());
-        customer.setEmail(request.getEmail());
-        customer.setWebsite(request.getWebsite());
-        customer.setIsActive(request.getIsActive());
-        customer.setNotes(request.getNotes());
-        customer.setCustomerType(request.getCustomerType());
-        customer.setPaymentTerms(request.getPaymentTerms());
-        customer.setCreditLimit(request.getCreditLimit());
+        fields.forEach(field -> UPDATABLE_FIELDS.get(field).accept(customer, request));
 
-        customer = customerRepository.save(customer);
+        // Yeni sürüm yanıtta (ETag) dönebilsin diye UPDATE hemen yazılır
+        customerRepository.saveAndFlush(customer);
         return mapToResponse(customer);
     }
 
@@ -123,13 +195,10 @@ public class CustomerService {
      */
     @Transactional
     public void deleteCustomer(Long companyId, Long customerId) {
-        Customer customer = customerRepository.findById(customerId)
+        TenantContext.requireCompanyId(companyId);
+        Customer customer = customerRepository.findWithCompanyById(customerId)
                 .orElseThrow(() -> new ResourceNotFoundException("Müşteri bulunamadı"));
 
-        if (!customer.getCompany().getId().equals(companyId)) {
-            throw new BadRequestException("Bu müşteri bu şirkete ait değil");
-        }
-
         customer.setIsDeleted(true);
         customerRepository.save(customer);
     }
@@ -137,57 +206,175 @@ public class CustomerService {
     /**
      * Müşteri detayını getirir
      */
+    @Transactional(readOnly = true)
     public CustomerResponse getCustomer(Long companyId, Long customerId) {
-        Customer customer = customerRepository.findById(customerId)
+        TenantContext.requireCompanyId(companyId);
+        Customer customer = customerRepository.findWithCompanyById(customerId)
                 .orElseThrow(() -> new ResourceNotFoundException("Müşteri bulunamadı"));
 
-        if (!customer.getCompany().getId().equals(companyId)) {
-            throw new BadRequestException("Bu müşteri bu şirkete ait değil");
-        }
-
         return mapToResponse(customer);
     }
 
     /**
      * Şirkete ait tüm müşterileri getirir (sayfalı)
      */
-    public Page<CustomerResponse> getAllCustomers(Long companyId, Pageable pageable) {
-        Page<Customer> customers = customerRepository.findByCompanyId(companyId, pageable);
-        return customers.map(this::mapToResponse);
+    @Transactional(readOnly = true)
+    public Page<CustomerSummaryResponse> getAllCustomers(Long companyId, Pageable pageable) {
+        TenantContext.requireCompanyId(companyId);
+        Page<CustomerSummary> customers = customerRepository.findSummaries(pageable);
+        return customers.map(this::mapToSummaryResponse);
+    }
+
+    /**
+     * Şirkete ait müşterileri OFFSET kullanmadan, cursor ile sayfa sayfa getirir
+     * cursor null ise ilk sayfa sortBy/sortDir ile başlar; sonraki sayfalarda sıralama cursor'dan okunur
+     */
+    @Transactional(readOnly = true)
+    public ScrollResponse<CustomerResponse> scrollCustomers(Long companyId, String cursor, int size,
+                                                        String sortBy, String sortDir, CountMode countMode) {
+        TenantContext.requireCompanyId(companyId);
+        KeysetCursor position = cursor != null ? KeysetCursor.decode(cursor) : KeysetCursor.first(sortBy, sortDir);
+
+        // Bir fazla kayıt okunarak sonraki sayfanın olup olmadığı COUNT yapmadan anlaşılır
+        List<Customer> rows = customerRepository.findNextPage(companyId, position, size + 1);
+        boolean hasNext = rows.size() > size;
+        List<Customer> page = hasNext ? rows.subList(0, size) : rows;
+
+        Long total = switch (countMode) {
+            // count() JPQL ile sayar; tenant filtresi ve @SQLRestriction uygulanır
+            case EXACT -> customerRepository.count();
+            case ESTIMATE -> rowCountEstimator.estimateByCompany("customers", companyId);
+            case NONE -> null;
+        };
+
+        return ScrollResponse.<CustomerResponse>builder()
+                .items(page.stream().map(this::mapToResponse).collect(Collectors.toList()))
+                .nextCursor(hasNext ? position.after(page.get(page.size() - 1)).encode() : null)
+                .hasNext(hasNext)
+                .totalItems(total)
+                .totalEstimated(countMode == CountMode.ESTIMATE)
+                .build();
     }
 
     /**
      * Aktif müşterileri getirir
      */
-    public Page<CustomerResponse> getActiveCustomers(Long companyId, Pageable pageable) {
-        Page<Customer> customers = customerRepository.findActiveCustomersByCompanyId(companyId, pageable);
-        return customers.map(this::mapToResponse);
+    @Transactional(readOnly = true)
+    public Page<CustomerSummaryResponse> getActiveCustomers(Long companyId, Pageable pageable) {
+        TenantContext.requireCompanyId(companyId);
+        Page<CustomerSummary> customers = customerRepository.findActiveSummaries(pageable);
+        return customers.map(this::mapToSummaryResponse);
     }
 
     /**
      * İsme göre arama yapar
      */
-    public Page<CustomerResponse> searchCustomersByName(Long companyId, String name, Pageable pageable) {
-        Page<Customer> customers = customerRepository.searchByName(companyId, name, pageable);
+    @Transactional(readOnly = true)
+    public Slice<CustomerResponse> searchCustomersByName(Long companyId, String name, Pageable pageable) {
+        TenantContext.requireCompanyId(companyId);
+        Slice<Customer> customers = customerRepository.searchByName(name, pageable);
         return customers.map(this::mapToResponse);
     }
 
     /**
      * Genel arama yapar
+     * Sonuçlar ilgiye göre sıralandığı için istekteki sıralama dikkate alınmaz. Eşleşmelerin tamamını sayan COUNT
+     * yalnızca countMode EXACT ise çalışır; sonraki sayfanın varlığı bir fazla satır okunarak anlaşılır
      */
-    public Page<CustomerResponse> globalSearch(Long companyId, String keyword, Pageable pageable) {
-        Page<Customer> customers = customerRepository.globalSearch(companyId, keyword, pageable);
-        return customers.map(this::mapToResponse);
+    @Transactional(readOnly = true)
+    public SearchResponse<CustomerSummaryResponse> globalSearch(Long companyId, String keyword, Pageable pageable,
+                                                          CountMode countMode) {
+        TenantContext.requireCompanyId(companyId);
+        if (keyword == null || keyword.isBlank()) {
+            return SearchResponse.<CustomerSummaryResponse>builder()
+                    .items(List.of())
+                    .page(pageable.getPageNumber())
+                    .totalItems(countMode == CountMode.NONE ? null : 0L)
+                    .build();
+        }
+        String trimmed = keyword.trim();
+        Pageable ranked = PageRequest.of(pageable.getPageNumber(), pageable.getPageSize());
+        Slice<CustomerSummary> customers = customerRepository.globalSearchSummaries(companyId, trimmed, ranked);
+
+        Long total = switch (countMode) {
+            case EXACT -> customerRepository.countGlobalSearch(companyId, trimmed);
+            case ESTIMATE -> rowCountEstimator.estimateMatches(CustomerRepository.SEARCH_FROM_WHERE,
+                    Map.of("companyId", companyId, "keyword", trimmed));
+            case NONE -> null;
+        };
+
+        return SearchResponse.<CustomerSummaryResponse>builder()
+                .items(customers.getContent().stream().map(this::mapToSummaryResponse).collect(Collectors.toList()))
+                .page(customers.getNumber())
+                .hasNext(customers.hasNext())
+                .totalItems(total)
+                .totalEstimated(countMode == CountMode.ESTIMATE)
+                .build();
     }
 
     /**
      * Borçlu müşterileri getirir
      */
+    @Transactional(readOnly = true)
     public List<CustomerResponse> getCustomersWithDebt(Long companyId) {
-        List<Customer> customers = customerRepository.findCustomersWithDebt(companyId);
+        TenantContext.requireCompanyId(companyId);
+        List<Customer> customers = customerRepository.findCustomersWithDebt();
         return customers.stream().map(this::mapToResponse).collect(Collectors.toList());
     }
 
+    /**
+     * Borç/alacak özetini veritabanında tek sorguda toplar (toplam, şehir ve tip kırılımı)
+     */
+    @Transactional(readOnly = true)
+    public BalanceSummaryResponse getBalanceSummary(Long companyId) {
+        TenantContext.requireCompanyId(companyId);
+        return BalanceSummaryMapper.toResponse(customerRepository.summarizeBalances(companyId));
+    }
+
+    /**
+     * Yazarken öneri için ad, vergi no, telefon veya emailde sorguyu içeren en uygun kayıtları döndürür
+     * Öneri indeksi kapalıysa veritabanı araması kullanılır
+     */
+    public List<SuggestionResponse> suggestCustomers(Long companyId, String query, int limit) {
+        TenantContext.requireCompanyId(companyId);
+        if (query == null || query.isBlank()) {
+            return List.of();
+        }
+        if (searchIndexService.isEnabled()) {
+            return searchIndexService.suggestCustomers(companyId, query, limit).stream()
+                    .map(this::mapToSuggestion)
+                    .collect(Collectors.toList());
+        }
+        return customerRepository.globalSearch(companyId, query.trim(), PageRequest.of(0, limit)).stream()
+                .map(customer -> mapToSuggestion(new SearchDocument(customer.getId(), customer.getName(),
+                        customer.getTaxNumber(), customer.getPhone(), customer.getEmail())))
+                .collect(Collectors.toList());
+    }
+
+    private SuggestionResponse mapToSuggestion(SearchDocument document) {
+        return SuggestionResponse.builder()
+                .id(document.id())
+                .name(document.name())
+                .taxNumber(document.taxNumber())
+                .phone(document.phone())
+                .email(document.email())
+                .build();
+    }
+
+    /**
+     * Liste projeksiyonunu özet yanıta dönüştürür
+     */
+    private CustomerSummaryResponse mapToSummaryResponse(CustomerSummary summary) {
+        return CustomerSummaryResponse.builder()
+                .id(summary.getId())
+                .name(summary.getName())
+                .taxNumber(summary.getTaxNumber())
+                .city(summary.getCity())
+                .balance(summary.getBalance())
+                .isActive(summary.getIsActive())
+                .build();
+    }
+
     /**
      * Customer'ı CustomerResponse'a dönüştürür
      */
@@ -221,6 +408,7 @@ public class CustomerService {
                 .updatedAt(customer.getUpdatedAt())
                 .createdBy(customer.getCreatedBy())
                 .updatedBy(customer.getUpdatedBy())
+                .version(customer.getVersion())
                 .hasDebt(customer.hasDebt())
                 .hasCredit(customer.hasCredit())
                 .isOverCreditLimit(customer.isOverCreditLimit())
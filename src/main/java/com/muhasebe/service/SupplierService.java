@@ -1,42 +1,105 @@
 package com.muhasebe.service;
 
 import com.muhasebe.dto.request.SupplierRequest;
+import com.muhasebe.dto.response.BalanceSummaryResponse;
 import com.muhasebe.dto.response.SupplierResponse;
+import com.muhasebe.dto.response.SupplierSummaryResponse;
+import com.muhasebe.dto.response.ScrollResponse;
+import com.muhasebe.dto.response.SearchResponse;
+import com.muhasebe.dto.response.SuggestionResponse;
 import com.muhasebe.entity.Supplier;
 import com.muhasebe.entity.Company;
 import com.muhasebe.exception.ResourceNotFoundException;
 import com.muhasebe.exception.BadRequestException;
+import com.muhasebe.exception.PreconditionFailedException;
 import com.muhasebe.repository.SupplierRepository;
 import com.muhasebe.repository.CompanyRepository;
+import com.muhasebe.repository.projection.SupplierSummary;
+import com.muhasebe.repository.support.CountMode;
+import com.muhasebe.repository.support.KeysetCursor;
+import com.muhasebe.repository.support.RowCountEstimator;
+import com.muhasebe.search.SearchDocument;
+import com.muhasebe.search.SearchIndexService;
+import com.muhasebe.tenant.TenantContext;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiConsumer;
 import java.util.stream.Collectors;
 
 @Service
 public class SupplierService {
 
+    /**
+     * Güncellemeyle yazılabilen alanlar (bakiye güncellemeyle değişmez)
+     * PUT hepsini, PATCH yalnızca istekte gelenleri uygular; değeri değişmeyen alan UPDATE'e girmez (@DynamicUpdate)
+     */
+    private static final Map<String, BiConsumer<Supplier, SupplierRequest>> UPDATABLE_FIELDS = Map.ofEntries(
+            Map.entry("name", (supplier, request) -> supplier.setName(request.getName())),
+            Map.entry("contactPerson", (supplier, request) -> supplier.setContactPerson(request.getContactPerson())),
+            Map.entry("taxNumber", (supplier, request) -> supplier.setTaxNumber(request.getTaxNumber())),
+            Map.entry("taxOffice", (supplier, request) -> supplier.setTaxOffice(request.getTaxOffice())),
+            Map.entry("address", (supplier, request) -> supplier.setAddress(request.getAddress())),
+            Map.entry("city", (supplier, request) -> supplier.setCity(request.getCity())),
+            Map.entry("district", (supplier, request) -> supplier.setDistrict(request.getDistrict())),
+            Map.entry("postalCode", (supplier, request) -> supplier.setPostalCode(request.getPostalCode())),
+            Map.entry("country", (supplier, request) -> supplier.setCountry(request.getCountry())),
+            Map.entry("phone", (supplier, request) -> supplier.setPhone(request.getPhone())),
+            Map.entry("mobile", (supplier, request) -> supplier.setMobile(request.getMobile())),
+            Map.entry("fax", (supplier, request) -> supplier.setFax(request.getFax())),
+            Map.entry("email", (supplier, request) -> supplier.setEmail(request.getEmail())),
+            Map.entry("website", (supplier, request) -> supplier.setWebsite(request.getWebsite())),
+            Map.entry("isActive", (supplier, request) -> supplier.setIsActive(request.getIsActive())),
+            Map.entry("notes", (supplier, request) -> supplier.setNotes(request.getNotes())),
+            Map.entry("supplierType", (supplier, request) -> supplier.setSupplierType(request.getSupplierType())),
+            Map.entry("paymentTerms", (supplier, request) -> supplier.setPaymentTerms(request.getPaymentTerms())),
+            Map.entry("bankName", (supplier, request) -> supplier.setBankName(request.getBankName())),
+            Map.entry("bankAccountNumber", (supplier, request) -> supplier.setBankAccountNumber(request.getBankAccountNumber())),
+            Map.entry("iban", (supplier, request) -> supplier.setIban(request.getIban()))
+    );
+
+    /**
+     * If-Match'siz PATCH başka bir güncellemeyle çakışırsa değişiklik kaydın son haline en fazla bu kadar kez uygulanır
+     */
+    private static final int PATCH_ATTEMPTS = 3;
+
     @Autowired
     private SupplierRepository supplierRepository;
 
     @Autowired
     private CompanyRepository companyRepository;
 
+    @Autowired
+    private SearchIndexService searchIndexService;
+
+    @Autowired
+    private RowCountEstimator rowCountEstimator;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
     /**
      * Yeni tedarikçi oluşturur
      */
     @Transactional
     public SupplierResponse createSupplier(Long companyId, SupplierRequest request) {
+        TenantContext.requireCompanyId(companyId);
         Company company = companyRepository.findById(companyId)
                 .orElseThrow(() -> new ResourceNotFoundException("Şirket bulunamadı"));
 
         if (request.getTaxNumber() != null &&
-                supplierRepository.existsByTaxNumberAndCompanyId(request.getTaxNumber(), companyId)) {
+                supplierRepository.existsByTaxNumber(companyId, request.getTaxNumber())) {
             throw new BadRequestException("Bu vergi numarası zaten kayıtlı");
         }
 
@@ -71,46 +134,58 @@ public class SupplierService {
     }
 
     /**
-     * Tedarikçi günceller
+     * Tedarikçi günceller (tüm alanlar)
+     * expectedVersion If-Match başlığından gelir; verilmişse kaydın güncel sürümüyle eşleşmelidir
      */
     @Transactional
-    public SupplierResponse updateSupplier(Long companyId, Long supplierId, SupplierRequest request) {
-        Supplier supplier = supplierRepository.findById(supplierId)
+    public SupplierResponse updateSupplier(Long companyId, Long supplierId, SupplierRequest request, Long expectedVersion) {
+        TenantContext.requireCompanyId(companyId);
+        return applyUpdate(supplierId, request, UPDATABLE_FIELDS.keySet(), expectedVersion);
+    }
+
+    /**
+     * Tedarikçinin yalnızca istekte gelen alanlarını günceller (fields: istek gövdesindeki alan adları)
+     * If-Match yoksa araya giren başka bir güncelleme hata sayılmaz, değişiklik kaydın son haline yeniden uygulanır;
+     * böylece farklı alanları düzenleyen kullanıcılar birbirinin değişikliğini ezmez
+     */
+    public SupplierResponse patchSupplier(Long companyId, Long supplierId, SupplierRequest request, Set<String> fields, Long expectedVersion) {
+        TenantContext.requireCompanyId(companyId);
+        for (String field : fields) {
+            if (!UPDATABLE_FIELDS.containsKey(field)) {
+                throw new BadRequestException("Bu alan güncellenemez: " + field);
+            }
+        }
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return transactionTemplate.execute(status -> applyUpdate(supplierId, request, fields, expectedVersion));
+            } catch (OptimisticLockingFailureException e) {
+                if (expectedVersion != null || attempt == PATCH_ATTEMPTS) {
+                    throw e;
+                }
+            }
+        }
+    }
+
+    private SupplierResponse applyUpdate(Long supplierId, SupplierRequest request, Set<String> fields, Long expectedVersion) {
+        Supplier supplier = supplierRepository.findWithCompanyById(supplierId)
                 .orElseThrow(() -> new ResourceNotFoundException("Tedarikçi bulunamadı"));
 
-        if (!supplier.getCompany().getId().equals(companyId)) {
-            throw new BadRequestException("Bu tedarikçi bu şirkete ait değil");
+        if (expectedVersion != null && !expectedVersion.equals(supplier.getVersion())) {
+            throw new PreconditionFailedException("Kayıt okunduktan sonra değiştirilmiş (güncel sürüm " + supplier.getVersion() + ")");
         }
 
-        if (request.getTaxNumber() != null &&
+        // Vergi numarası kontrolü (değiştirilmişse)
+        if (fields.contains("taxNumber") && request.getTaxNumber() != null &&
                 !request.getTaxNumber().equals(supplier.getTaxNumber()) &&
-                supplierRepository.existsByTaxNumberAndCompanyId(request.getTaxNumber(), companyId)) {
+                supplierRepository.existsByTaxNumber(supplier.getCompany().getId(), request.getTaxNumber())) {
             throw new BadRequestException("Bu vergi numarası zaten kayıtlı");
         }
 
-        supplier.setName(request.getName());
-        supplier.setContactPerson(request.getContactPerson());
-        supplier.setTaxNumber(request.getTaxNumber());
-        supplier.setTaxOffice(request.getTaxOffice());
-        supplier.setAddress(request.getAddress());
-        supplier.setCity(request.getCity());
-        supplier.setDistrict(request.getDistrict());
-        supplier.setPostalCode(request.getPostalCode());
-        supplier.setCountry(request.getCountry());
-        supplier.setPhone(request.getPhone());
-        supplier.setMobile(request.getMobile());
-        supplier.setFax(request.getFax());
-        supplier.setEmail(request.getEmail());
-        supplier.setWebsite(request.getWebsite());
-        supplier.setIsActive(request.getIsActive());
-        supplier.setNotes(request.getNotes());
-        supplier.setSupplierType(request.getSupplierType());
-        supplier.setPaymentTerms(request.getPaymentTerms());
-        supplier.setBankName(request.getBankName());
-        supplier.setBankAccountNumber(request.getBankAccountNumber());
-        supplier.setIban(request.getIban());
+        // Güncelle
+        fields.forEach(field -> UPDATABLE_FIELDS.get(field).accept(supplier, request));
 
-        supplier = supplierRepository.save(supplier);
+        // Yeni sürüm yanıtta (ETag) dönebilsin diye UPDATE hemen yazılır
+        supplierRepository.saveAndFlush(supplier);
         return mapToResponse(supplier);
     }
 
@@ -119,13 +194,10 @@ public class SupplierService {
      */
     @Transactional
     public void deleteSupplier(Long companyId, Long supplierId) {
-        Supplier supplier = supplierRepository.findById(supplierId)
+        TenantContext.requireCompanyId(companyId);
+        Supplier supplier = supplierRepository.findWithCompanyById(supplierId)
                 .orElseThrow(() -> new ResourceNotFoundException("Tedarikçi bulunamadı"));
 
-        if (!supplier.getCompany().getId().equals(companyId)) {
-            throw new BadRequestException("Bu tedarikçi bu şirkete ait değil");
-        }
-
         supplier.setIsDeleted(true);
         supplierRepository.save(supplier);
     }
@@ -133,31 +205,143 @@ public class SupplierService {
     /**
      * Tedarikçi detayını getirir
      */
+    @Transactional(readOnly = true)
     public SupplierResponse getSupplier(Long companyId, Long supplierId) {
-        Supplier supplier = supplierRepository.findById(supplierId)
+        TenantContext.requireCompanyId(companyId);
+        Supplier supplier = supplierRepository.findWithCompanyById(supplierId)
                 .orElseThrow(() -> new ResourceNotFoundException("Tedarikçi bulunamadı"));
 
-        if (!supplier.getCompany().getId().equals(companyId)) {
-            throw new BadRequestException("Bu tedarikçi bu şirkete ait değil");
-        }
-
         return mapToResponse(supplier);
     }
 
     /**
      * Şirkete ait tüm tedarikçileri getirir
      */
-    public Page<SupplierResponse> getAllSuppliers(Long companyId, Pageable pageable) {
-        Page<Supplier> suppliers = supplierRepository.findByCompanyId(companyId, pageable);
-        return suppliers.map(this::mapToResponse);
+    @Transactional(readOnly = true)
+    public Page<SupplierSummaryResponse> getAllSuppliers(Long companyId, Pageable pageable) {
+        TenantContext.requireCompanyId(companyId);
+        Page<SupplierSummary> suppliers = supplierRepository.findSummaries(pageable);
+        return suppliers.map(this::mapToSummaryResponse);
+    }
+
+    /**
+     * Şirkete ait tedarikçileri OFFSET kullanmadan, cursor ile sayfa sayfa getirir
+     * cursor null ise ilk sayfa sortBy/sortDir ile başlar; sonraki sayfalarda sıralama cursor'dan okunur
+     */
+    @Transactional(readOnly = true)
+    public ScrollResponse<SupplierResponse> scrollSuppliers(Long companyId, String cursor, int size,
+                                                        String sortBy, String sortDir, CountMode countMode) {
+        TenantContext.requireCompanyId(companyId);
+        KeysetCursor position = cursor != null ? KeysetCursor.decode(cursor) : KeysetCursor.first(sortBy, sortDir);
+
+        // Bir fazla kayıt okunarak sonraki sayfanın olup olmadığı COUNT yapmadan anlaşılır
+        List<Supplier> rows = supplierRepository.findNextPage(companyId, position, size + 1);
+        boolean hasNext = rows.size() > size;
+        List<Supplier> page = hasNext ? rows.subList(0, size) : rows;
+
+        Long total = switch (countMode) {
+            // count() JPQL ile sayar; tenant filtresi ve @SQLRestriction uygulanır
+            case EXACT -> supplierRepository.count();
+            case ESTIMATE -> rowCountEstimator.estimateByCompany("suppliers", companyId);
+            case NONE -> null;
+        };
+
+        return ScrollResponse.<SupplierResponse>builder()
+                .items(page.stream().map(this::mapToResponse).collect(Collectors.toList()))
+                .nextCursor(hasNext ? position.after(page.get(page.size() - 1)).encode() : null)
+                .hasNext(hasNext)
+                .totalItems(total)
+                .totalEstimated(countMode == CountMode.ESTIMATE)
+                .build();
     }
 
     /**
      * Genel arama yapar
+     * Sonuçlar ilgiye göre sıralandığı için istekteki sıralama dikkate alınmaz. Eşleşmelerin tamamını sayan COUNT
+     * yalnızca countMode EXACT ise çalışır; sonraki sayfanın varlığı bir fazla satır okunarak anlaşılır
+     */
+    @Transactional(readOnly = true)
+    public SearchResponse<SupplierSummaryResponse> globalSearch(Long companyId, String keyword, Pageable pageable,
+                                                          CountMode countMode) {
+        TenantContext.requireCompanyId(companyId);
+        if (keyword == null || keyword.isBlank()) {
+            return SearchResponse.<SupplierSummaryResponse>builder()
+                    .items(List.of())
+                    .page(pageable.getPageNumber())
+                    .totalItems(countMode == CountMode.NONE ? null : 0L)
+                    .build();
+        }
+        String trimmed = keyword.trim();
+        Pageable ranked = PageRequest.of(pageable.getPageNumber(), pageable.getPageSize());
+        Slice<SupplierSummary> suppliers = supplierRepository.globalSearchSummaries(companyId, trimmed, ranked);
+
+        Long total = switch (countMode) {
+            case EXACT -> supplierRepository.countGlobalSearch(companyId, trimmed);
+            case ESTIMATE -> rowCountEstimator.estimateMatches(SupplierRepository.SEARCH_FROM_WHERE,
+                    Map.of("companyId", companyId, "keyword", trimmed));
+            case NONE -> null;
+        };
+
+        return SearchResponse.<SupplierSummaryResponse>builder()
+                .items(suppliers.getContent().stream().map(this::mapToSummaryResponse).collect(Collectors.toList()))
+                .page(suppliers.getNumber())
+                .hasNext(suppliers.hasNext())
+                .totalItems(total)
+                .totalEstimated(countMode == CountMode.ESTIMATE)
+                .build();
+    }
+
+    /**
+     * Borç/alacak özetini veritabanında tek sorguda toplar (toplam, şehir ve tip kırılımı)
      */
-    public Page<SupplierResponse> globalSearch(Long companyId, String keyword, Pageable pageable) {
-        Page<Supplier> suppliers = supplierRepository.globalSearch(companyId, keyword, pageable);
-        return suppliers.map(this::mapToResponse);
+    @Transactional(readOnly = true)
+    public BalanceSummaryResponse getBalanceSummary(Long companyId) {
+        TenantContext.requireCompanyId(companyId);
+        return BalanceSummaryMapper.toResponse(supplierRepository.summarizeBalances(companyId));
+    }
+
+    /**
+     * Yazarken öneri için ad, vergi no, telefon veya emailde sorguyu içeren en uygun kayıtları döndürür
+     * Öneri indeksi kapalıysa veritabanı araması kullanılır
+     */
+    public List<SuggestionResponse> suggestSuppliers(Long companyId, String query, int limit) {
+        TenantContext.requireCompanyId(companyId);
+        if (query == null || query.isBlank()) {
+            return List.of();
+        }
+        if (searchIndexService.isEnabled()) {
+            return searchIndexService.suggestSuppliers(companyId, query, limit).stream()
+                    .map(this::mapToSuggestion)
+                    .collect(Collectors.toList());
+        }
+        return supplierRepository.globalSearch(companyId, query.trim(), PageRequest.of(0, limit)).stream()
+                .map(supplier -> mapToSuggestion(new SearchDocument(supplier.getId(), supplier.getName(),
+                        supplier.getTaxNumber(), supplier.getPhone(), supplier.getEmail())))
+                .collect(Collectors.toList());
+    }
+
+    private SuggestionResponse mapToSuggestion(SearchDocument document) {
+        return SuggestionResponse.builder()
+                .id(document.id())
+                .name(document.name())
+                .taxNumber(document.taxNumber())
+                .phone(document.phone())
+                .email(document.email())
+                .build();
+    }
+
+    /**
+     * Liste projeksiyonunu özet yanıta dönüştürür
+     */
+    private SupplierSummaryResponse mapToSummaryResponse(SupplierSummary summary) {
+        return SupplierSummaryResponse.builder()
+                .id(summary.getId())
+                .name(summary.getName())
+                .taxNumber(summary.getTaxNumber())
+                .city(summary.getCity())
+                .balance(summary.getBalance())
+                .isActive(summary.getIsActive())
+                .build();
     }
 
     /**
@@ -194,6 +378,7 @@ public class SupplierService {
                 .updatedAt(supplier.getUpdatedAt())
                 .createdBy(supplier.getCreatedBy())
                 .updatedBy(supplier.getUpdatedBy())
+                .version(supplier.getVersion())
                 .hasDebt(supplier.hasDebt())
                 .hasCredit(supplier.hasCredit())
                 .build();
@@ -0,0 +1,113 @@
+package com.muhasebe.tenant;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import org.hibernate.engine.jdbc.connections.spi.MultiTenantConnectionProvider;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Hibernate oturumlarına şirketin depolamasına göre bağlantı verir (app.tenancy.routing.enabled)
+ * Paylaşılan şirketler uygulamanın havuzunu kullanır; ayrı şemadaki her şirketin aynı veritabanına bağlanan
+ * kendi Hikari havuzu vardır. Havuzun bağlantıları açılırken search_path bir kez şirketin şemasına ayarlanır,
+ * böylece aynı SQL şirketin tablolarında çalışır; şemada olmayan tablolar ve id dizileri public'ten okunur
+ * Büyük şirketin yükü paylaşılan havuzu tüketmez, havuz metrikleri şirket bazında ayrı raporlanır
+ */
+@Component
+public class TenantConnectionProvider implements MultiTenantConnectionProvider, DisposableBean {
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Value("${app.tenancy.dedicated-pool.maximum-pool-size:5}")
+    private int maximumPoolSize;
+
+    @Value("${app.tenancy.dedicated-pool.minimum-idle:1}")
+    private int minimumIdle;
+
+    private final Map<String, HikariDataSource> pools = new ConcurrentHashMap<>();
+
+    @Override
+    public Connection getAnyConnection() throws SQLException {
+        return dataSource.getConnection();
+    }
+
+    @Override
+    public void releaseAnyConnection(Connection connection) throws SQLException {
+        connection.close();
+    }
+
+    @Override
+    public Connection getConnection(String tenantIdentifier) throws SQLException {
+        if (TenantDirectory.SHARED_STORAGE.equals(tenantIdentifier)) {
+            return getAnyConnection();
+        }
+        return pools.computeIfAbsent(tenantIdentifier, this::createPool).getConnection();
+    }
+
+    @Override
+    public void releaseConnection(String tenantIdentifier, Connection connection) throws SQLException {
+        connection.close();
+    }
+
+    @Override
+    public boolean supportsAggressiveRelease() {
+        return false;
+    }
+
+    @Override
+    public boolean isUnwrappableAs(Class<?> unwrapType) {
+        return unwrapType.isInstance(this);
+    }
+
+    @Override
+    public <T> T unwrap(Class<T> unwrapType) {
+        if (isUnwrappableAs(unwrapType)) {
+            return unwrapType.cast(this);
+        }
+        throw new IllegalArgumentException("Desteklenmeyen tip: " + unwrapType);
+    }
+
+    /**
+     * Şirket paylaşılan tablolara geri taşındığında şemanın havuzunu kapatır
+     */
+    public void closePool(String schema) {
+        HikariDataSource pool = pools.remove(schema);
+        if (pool != null) {
+            pool.close();
+        }
+    }
+
+    @Override
+    public void destroy() {
+        pools.values().forEach(HikariDataSource::close);
+        pools.clear();
+    }
+
+    private HikariDataSource createPool(String schema) {
+        HikariConfig config = new HikariConfig();
+        try {
+            if (dataSource.isWrapperFor(HikariDataSource.class)) {
+                // URL, kullanıcı, sürücü ayarları ve metrik kaydı uygulamanın havuzundan kopyalanır
+                dataSource.unwrap(HikariDataSource.class).copyStateTo(config);
+            } else {
+                config.setDataSource(dataSource);
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("Tenant havuzu oluşturulamadı: " + schema, e);
+        }
+        config.setPoolName(schema);
+        config.setMaximumPoolSize(maximumPoolSize);
+        config.setMinimumIdle(minimumIdle);
+        config.setConnectionInitSql("SET search_path TO " + schema + ", public");
+        return new HikariDataSource(config);
+    }
+}
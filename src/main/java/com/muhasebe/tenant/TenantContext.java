@@ -0,0 +1,83 @@
+package com.muhasebe.tenant;
+
+import java.util.function.Supplier;
+
+/**
+ * Geçerli isteğin şirketini (tenant) thread'e bağlı tutar
+ * İstekte JwtAuthenticationFilter tarafından bir kez çözülür; istek dışındaki işler (dışa aktarım akışı,
+ * arama indeksi yüklemesi) callAs ile şirketi açıkça verir
+ * Her transaction'da Hibernate tenant filtresi bu şirketle açılır (TenantFilterTransactionManager)
+ */
+public final class TenantContext {
+
+    /**
+     * Customer ve Supplier üzerindeki Hibernate filtresinin adı ve parametresi
+     * Bu filtre her transaction'da açıktır; şirket yoksa hiçbir şirketle eşleşmeyen NO_COMPANY ile açılır
+     */
+    public static final String FILTER_NAME = "tenantFilter";
+
+    public static final String FILTER_PARAMETER = "companyId";
+
+    /**
+     * User üzerindeki filtre; şirket yoksa kapalıdır (giriş ve token doğrulama kullanıcıyı şirketten bağımsız arar)
+     */
+    public static final String USER_FILTER_NAME = "userTenantFilter";
+
+    /**
+     * Şirket çözülmemişken tenant filtresine verilen, hiçbir kayıtla eşleşmeyen şirket id'si
+     */
+    public static final long NO_COMPANY = -1L;
+
+    private static final ThreadLocal<Long> CURRENT = new ThreadLocal<>();
+
+    private TenantContext() {
+    }
+
+    /**
+     * Şirket çözülmemişse (giriş, platform yöneticisinin şirket dışı istekleri) null döner; bu durumda Customer ve
+     * Supplier sorguları kayıt döndürmez, User sorguları şirketle sınırlanmaz
+     */
+    public static Long getCompanyId() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Şirket verisine erişen servis metotlarının girişinde çağrılır: istekteki şirket çözülmüş tenant olmalıdır
+     * Tenant yoksa (zamanlanmış iş, async görev, JwtAuthenticationFilter'ın yol eşleşmesinin kaçırdığı bir istek)
+     * veya başka bir şirketse IllegalStateException fırlatır
+     */
+    public static void requireCompanyId(Long companyId) {
+        Long current = CURRENT.get();
+        if (current == null) {
+            throw new IllegalStateException("Şirket bağlamı olmadan şirket verisine erişilemez");
+        }
+        if (!current.equals(companyId)) {
+            throw new IllegalStateException("İstenen şirket (" + companyId + ") geçerli şirketle (" + current + ") eşleşmiyor");
+        }
+    }
+
+    public static void setCompanyId(Long companyId) {
+        if (companyId == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(companyId);
+        }
+    }
+
+    public static void clear() {
+        CURRENT.remove();
+    }
+
+    /**
+     * İşi verilen şirket adına çalıştırır, önceki şirketi geri yükler
+     */
+    public static <T> T callAs(Long companyId, Supplier<T> work) {
+        Long previous = CURRENT.get();
+        setCompanyId(companyId);
+        try {
+            return work.get();
+        } finally {
+            setCompanyId(previous);
+        }
+    }
+}
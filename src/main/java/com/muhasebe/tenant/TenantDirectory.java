@@ -0,0 +1,90 @@
+package com.muhasebe.tenant;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Ayrı şemada tutulan şirketlerin dizini (tenant_storage tablosunun bellekteki kopyası)
+ * Her Hibernate oturumu açılırken şirketin depolaması buradan okunur (TenantIdentifierResolver), bu yüzden
+ * tablo istek başına değil periyodik olarak yüklenir; taşıma yapan node kendi kopyasını hemen günceller,
+ * diğer node'lar en geç bir yenileme aralığında yeni yeri görür
+ */
+@Component
+public class TenantDirectory {
+
+    /**
+     * Paylaşılan tablolardaki şirketlerin Hibernate tenant kimliği
+     */
+    public static final String SHARED_STORAGE = "shared";
+
+    private static final String SCHEMA_PREFIX = "tenant_";
+
+    private static final Pattern SCHEMA_NAME = Pattern.compile(SCHEMA_PREFIX + "\\d+");
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Value("${app.tenancy.routing.enabled:false}")
+    private boolean enabled;
+
+    private volatile Map<Long, String> schemas = Map.of();
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Şirketin ayrı şemasının adı; şirket paylaşılan tablolardaysa veya yönlendirme kapalıysa null
+     */
+    public String schemaFor(Long companyId) {
+        return companyId == null ? null : schemas.get(companyId);
+    }
+
+    public Map<Long, String> getSchemas() {
+        return schemas;
+    }
+
+    /**
+     * Şema adı şirket id'sinden üretilir; SQL'e tırnaksız yazıldığı için dizinden okunan adlar da bu kalıba uymalıdır
+     */
+    public static String schemaName(Long companyId) {
+        return SCHEMA_PREFIX + companyId;
+    }
+
+    @Scheduled(fixedDelayString = "${app.tenancy.directory-refresh-ms:30000}",
+            initialDelayString = "${app.tenancy.directory-refresh-ms:30000}")
+    public synchronized void refresh() {
+        if (!enabled) {
+            return;
+        }
+        Map<Long, String> loaded = new HashMap<>();
+        new JdbcTemplate(dataSource).query("SELECT company_id, schema_name FROM tenant_storage", rs -> {
+            String schema = rs.getString("schema_name");
+            if (!SCHEMA_NAME.matcher(schema).matches()) {
+                throw new IllegalStateException("Geçersiz tenant şema adı: " + schema);
+            }
+            loaded.put(rs.getLong("company_id"), schema);
+        });
+        schemas = Map.copyOf(loaded);
+    }
+
+    synchronized void register(Long companyId, String schema) {
+        Map<Long, String> updated = new HashMap<>(schemas);
+        updated.put(companyId, schema);
+        schemas = Map.copyOf(updated);
+    }
+
+    synchronized void unregister(Long companyId) {
+        Map<Long, String> updated = new HashMap<>(schemas);
+        updated.remove(companyId);
+        schemas = Map.copyOf(updated);
+    }
+}
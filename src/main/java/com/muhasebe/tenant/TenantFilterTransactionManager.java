@@ -0,0 +1,43 @@
+package com.muhasebe.tenant;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Session;
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Her yeni transaction'ın Hibernate oturumunda tenant filtresini TenantContext'teki şirketle açar
+ * Böylece JPQL sorguları şirket koşulunu elle yazmadan alır; native SQL'e filtre uygulanmaz
+ * Şirket yoksa Customer/Supplier filtresi hiçbir şirketle eşleşmeyen değerle açılır: şirketsiz çalışan bir iş
+ * tüm şirketlerin kayıtlarını görmek yerine boş sonuç alır. User filtresi kapalı kalır (giriş ve kullanıcı
+ * doğrulama sorguları şirketten bağımsızdır)
+ */
+public class TenantFilterTransactionManager extends JpaTransactionManager {
+
+    public TenantFilterTransactionManager(EntityManagerFactory entityManagerFactory) {
+        super(entityManagerFactory);
+    }
+
+    @Override
+    protected void doBegin(Object transaction, TransactionDefinition definition) {
+        super.doBegin(transaction, definition);
+
+        EntityManagerHolder holder = (EntityManagerHolder) TransactionSynchronizationManager.getResource(obtainEntityManagerFactory());
+        if (holder == null) {
+            return;
+        }
+        EntityManager entityManager = holder.getEntityManager();
+        Session session = entityManager.unwrap(Session.class);
+        Long companyId = TenantContext.getCompanyId();
+        session.enableFilter(TenantContext.FILTER_NAME)
+                .setParameter(TenantContext.FILTER_PARAMETER, companyId != null ? companyId : TenantContext.NO_COMPANY);
+        if (companyId != null) {
+            session.enableFilter(TenantContext.USER_FILTER_NAME).setParameter(TenantContext.FILTER_PARAMETER, companyId);
+        } else {
+            session.disableFilter(TenantContext.USER_FILTER_NAME);
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.muhasebe.tenant;
+
+import org.hibernate.context.spi.CurrentTenantIdentifierResolver;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Hibernate oturumunun tenant kimliğini TenantContext'teki şirketten çözer
+ * Ayrı şemadaki şirket için şemanın adı, diğer tüm durumlarda (paylaşılan şirket, giriş gibi şirketsiz
+ * istekler) paylaşılan depolama döner; bağlantı TenantConnectionProvider'dan bu kimlikle alınır
+ */
+@Component
+public class TenantIdentifierResolver implements CurrentTenantIdentifierResolver {
+
+    @Autowired
+    private TenantDirectory tenantDirectory;
+
+    @Override
+    public String resolveCurrentTenantIdentifier() {
+        String schema = tenantDirectory.schemaFor(TenantContext.getCompanyId());
+        return schema != null ? schema : TenantDirectory.SHARED_STORAGE;
+    }
+
+    @Override
+    public boolean validateExistingCurrentSessions() {
+        return false;
+    }
+}
@@ -0,0 +1,247 @@
+package com.muhasebe.tenant;
+
+import com.muhasebe.dto.response.TenantStorageResponse;
+import com.muhasebe.exception.BadRequestException;
+import com.muhasebe.exception.ResourceNotFoundException;
+import jakarta.annotation.PostConstruct;
+import org.flywaydb.core.Flyway;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Şirketin müşteri ve tedarikçi kayıtlarını paylaşılan tablolarla şirketin kendi şeması arasında taşır
+ * Şema db/tenant migration'larıyla oluşturulur ve uygulama açılışında güncellenir. Taşıma tek transaction'dır:
+ * şirket satırı kilitlenir (şirkete yeni kayıt eklenemez), satırlar DELETE ... RETURNING ile hedef tabloya
+ * aktarılır ve dizin güncellenir. Taşıma sırasında güncellenen kayıt commit sonrasında bulunamaz, istek tekrarlanmalıdır
+ * Diğer node'lar dizini yenileyene kadar eski yere yazabilir; bu satırlar gecikmeli bir süpürmeyle hedefe taşınır
+ * Tüm SQL şemayla nitelenmiş tablo adlarıyla ve Hibernate oturumu dışında, paylaşılan havuzdan çalışır
+ */
+@Service
+public class TenantStorageService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TenantStorageService.class);
+
+    private static final String SHARED_SCHEMA = "public";
+
+    private static final String TENANT_MIGRATIONS = "classpath:db/tenant";
+
+    private static final List<String> TENANT_TABLES = List.of("customers", "suppliers");
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private TenantDirectory tenantDirectory;
+
+    @Autowired
+    private TenantConnectionProvider tenantConnectionProvider;
+
+    @Autowired
+    private TaskScheduler taskScheduler;
+
+    /**
+     * Dizin yenileme aralığından uzun olmalıdır: süpürme, tüm node'lar yeni yeri gördükten sonra çalışır
+     */
+    @Value("${app.tenancy.sweep-delay-ms:60000}")
+    private long sweepDelayMs;
+
+    private JdbcTemplate jdbcTemplate;
+
+    private TransactionTemplate transactionTemplate;
+
+    /**
+     * Servis Flyway açılışında kullanıldığından JdbcTemplate bean'i yerine (veritabanı hazırlığından sonra oluşur)
+     * kendi JdbcTemplate'ini kullanır
+     */
+    @PostConstruct
+    public void init() {
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+    }
+
+    /**
+     * Ayrı şemadaki şirketler
+     */
+    public List<TenantStorageResponse> getDedicatedTenants() {
+        requireEnabled();
+        return jdbcTemplate.query("SELECT company_id, schema_name FROM tenant_storage ORDER BY company_id",
+                (rs, rowNum) -> TenantStorageResponse.builder()
+                        .companyId(rs.getLong("company_id"))
+                        .schemaName(rs.getString("schema_name"))
+                        .build());
+    }
+
+    /**
+     * Şirketin kayıtlarını kendi şemasına taşır
+     */
+    public TenantStorageResponse moveToDedicated(Long companyId) {
+        requireEnabled();
+        Integer companies = jdbcTemplate.queryForObject("SELECT count(*) FROM public.companies WHERE id = ?", Integer.class, companyId);
+        if (companies == null || companies == 0) {
+            throw new ResourceNotFoundException("Şirket", "id", companyId);
+        }
+        String schema = TenantDirectory.schemaName(companyId);
+        migrateSchema(schema);
+
+        int[] moved = transactionTemplate.execute(status -> {
+            lockCompany(companyId);
+            if (currentSchema(companyId) != null) {
+                throw new BadRequestException("Şirket zaten ayrı şemada: " + companyId);
+            }
+            int[] counts = moveRows(companyId, SHARED_SCHEMA, schema);
+            jdbcTemplate.update("INSERT INTO tenant_storage (company_id, schema_name) VALUES (?, ?)", companyId, schema);
+            return counts;
+        });
+        tenantDirectory.register(companyId, schema);
+        analyze(schema);
+        analyze(SHARED_SCHEMA);
+        scheduleSweep(companyId, SHARED_SCHEMA, schema);
+
+        logger.info("Company {} moved to schema {}: customers={} suppliers={}", companyId, schema, moved[0], moved[1]);
+        return TenantStorageResponse.builder()
+                .companyId(companyId)
+                .schemaName(schema)
+                .movedCustomers(moved[0])
+                .movedSuppliers(moved[1])
+                .build();
+    }
+
+    /**
+     * Şirketin kayıtlarını paylaşılan tablolara geri taşır; boşalan şema sonraki taşıma için bırakılır
+     */
+    public TenantStorageResponse moveToShared(Long companyId) {
+        requireEnabled();
+        String schema = TenantDirectory.schemaName(companyId);
+
+        int[] moved = transactionTemplate.execute(status -> {
+            lockCompany(companyId);
+            if (currentSchema(companyId) == null) {
+                throw new BadRequestException("Şirket zaten paylaşılan tablolarda: " + companyId);
+            }
+            int[] counts = moveRows(companyId, schema, SHARED_SCHEMA);
+            jdbcTemplate.update("DELETE FROM tenant_storage WHERE company_id = ?", companyId);
+            return counts;
+        });
+        tenantDirectory.unregister(companyId);
+        analyze(SHARED_SCHEMA);
+        scheduleSweep(companyId, schema, SHARED_SCHEMA);
+
+        logger.info("Company {} moved back to shared tables: customers={} suppliers={}", companyId, moved[0], moved[1]);
+        return TenantStorageResponse.builder()
+                .companyId(companyId)
+                .movedCustomers(moved[0])
+                .movedSuppliers(moved[1])
+                .build();
+    }
+
+    /**
+     * Dizindeki tüm şemalara bekleyen db/tenant migration'larını uygular (açılışta, ana migration'lardan sonra)
+     */
+    public void migrateDedicatedSchemas() {
+        if (!tenantDirectory.isEnabled()) {
+            return;
+        }
+        tenantDirectory.refresh();
+        tenantDirectory.getSchemas().values().forEach(this::migrateSchema);
+    }
+
+    private void migrateSchema(String schema) {
+        Flyway.configure()
+                .dataSource(dataSource)
+                .locations(TENANT_MIGRATIONS)
+                .schemas(schema)
+                .encoding(StandardCharsets.UTF_8)
+                .load()
+                .migrate();
+    }
+
+    private void requireEnabled() {
+        if (!tenantDirectory.isEnabled()) {
+            throw new BadRequestException("Tenant yönlendirmesi kapalı (app.tenancy.routing.enabled)");
+        }
+    }
+
+    /**
+     * Şirkete yeni müşteri/tedarikçi eklenmesini transaction sonuna kadar bekletir
+     * (ekleme, yabancı anahtar kontrolünde şirket satırını paylaşımlı kilitler)
+     */
+    private void lockCompany(Long companyId) {
+        List<Long> ids = jdbcTemplate.queryForList("SELECT id FROM public.companies WHERE id = ? FOR UPDATE", Long.class, companyId);
+        if (ids.isEmpty()) {
+            throw new ResourceNotFoundException("Şirket", "id", companyId);
+        }
+    }
+
+    private String currentSchema(Long companyId) {
+        List<String> schemas = jdbcTemplate.queryForList(
+                "SELECT schema_name FROM tenant_storage WHERE company_id = ?", String.class, companyId);
+        return schemas.isEmpty() ? null : schemas.get(0);
+    }
+
+    /**
+     * Şirketin satırlarını kaynak şemadan hedefe aktarır, tablo başına aktarılan satır sayısını döndürür
+     * Kolonlar adlarıyla eşlenir; iki tablodaki kolon sırası farklı olabilir
+     */
+    private int[] moveRows(Long companyId, String from, String to) {
+        int[] counts = new int[TENANT_TABLES.size()];
+        for (int i = 0; i < TENANT_TABLES.size(); i++) {
+            String table = TENANT_TABLES.get(i);
+            String columns = jdbcTemplate.queryForList(
+                            "SELECT column_name FROM information_schema.columns WHERE table_schema = ? AND table_name = ? "
+                                    + "ORDER BY ordinal_position", String.class, to, table)
+                    .stream()
+                    .map(column -> "\"" + column + "\"")
+                    .collect(Collectors.joining(", "));
+            counts[i] = jdbcTemplate.update("WITH moved AS (DELETE FROM " + from + "." + table
+                    + " WHERE company_id = ? RETURNING *) INSERT INTO " + to + "." + table + " (" + columns + ") "
+                    + "SELECT " + columns + " FROM moved", companyId);
+        }
+        return counts;
+    }
+
+    /**
+     * Taşımadan sonra planlayıcı istatistikleri otovakumu beklemeden yenilenir
+     */
+    private void analyze(String schema) {
+        TENANT_TABLES.forEach(table -> jdbcTemplate.execute("ANALYZE " + schema + "." + table));
+    }
+
+    /**
+     * Dizini henüz yenilememiş node'ların eski yere yazdığı satırları hedefe taşır
+     * Şirket bu arada tekrar taşınmışsa süpürme yapılmaz; paylaşılana dönüşte şemanın havuzu sonra kapatılır
+     */
+    private void scheduleSweep(Long companyId, String from, String to) {
+        taskScheduler.schedule(() -> {
+            try {
+                int[] swept = transactionTemplate.execute(status -> {
+                    lockCompany(companyId);
+                    String current = currentSchema(companyId);
+                    boolean stillThere = SHARED_SCHEMA.equals(to) ? current == null : to.equals(current);
+                    return stillThere ? moveRows(companyId, from, to) : new int[TENANT_TABLES.size()];
+                });
+                if (swept[0] + swept[1] > 0) {
+                    logger.warn("Company {}: {} customers and {} suppliers written to {} after the move, moved to {}",
+                            companyId, swept[0], swept[1], from, to);
+                }
+            } catch (RuntimeException e) {
+                logger.error("Tenant storage sweep failed for company {}: {}", companyId, e.getMessage(), e);
+            }
+            if (SHARED_SCHEMA.equals(to) && tenantDirectory.schemaFor(companyId) == null) {
+                tenantConnectionProvider.closePool(from);
+            }
+        }, Instant.now().plusMillis(sweepDelayMs));
+    }
+}
@@ -0,0 +1,10 @@
+-- Id dizilerinin artışını Hibernate'in pooled-lo blok boyutuna eşitler (app.jpa.id-allocation-size)
+-- Hibernate nextval'in döndürdüğü değerden başlayarak ${id_allocation_size} id kullanır; mevcut değerler korunur,
+-- yeni id'ler en büyük mevcut id'den sonra gelir. Tekrarlanabilir migration: değer değiştiğinde yeniden çalışır
+
+ALTER SEQUENCE companies_id_seq INCREMENT BY ${id_allocation_size};
+ALTER SEQUENCE customers_id_seq INCREMENT BY ${id_allocation_size};
+ALTER SEQUENCE suppliers_id_seq INCREMENT BY ${id_allocation_size};
+ALTER SEQUENCE users_id_seq INCREMENT BY ${id_allocation_size};
+ALTER SEQUENCE refresh_tokens_id_seq INCREMENT BY ${id_allocation_size};
+ALTER SEQUENCE revoked_tokens_id_seq INCREMENT BY ${id_allocation_size};
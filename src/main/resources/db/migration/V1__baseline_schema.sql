@@ -0,0 +1,170 @@
+-- Başlangıç şeması: Hibernate eşlemelerinin (ddl-auto=update) oluşturduğu tablolar
+-- Mevcut veritabanlarında bu sürüm uygulanmaz, spring.flyway.baseline-on-migrate ile V1 olarak işaretlenir
+
+create table companies (
+    e_archive_enabled boolean,
+    e_invoice_enabled boolean,
+    establishment_date date,
+    is_active boolean,
+    is_deleted boolean,
+    created_at timestamp(6) not null,
+    id bigserial not null,
+    updated_at timestamp(6),
+    postal_code varchar(10),
+    tax_number varchar(11) not null unique,
+    mersis_no varchar(16),
+    fax varchar(20),
+    phone varchar(20),
+    company_type varchar(50),
+    country varchar(50),
+    gib_username varchar(50),
+    city varchar(100),
+    district varchar(100),
+    email varchar(100),
+    tax_office varchar(100),
+    trade_name varchar(100),
+    name varchar(200) not null,
+    website varchar(200),
+    address varchar(500),
+    logo_url varchar(500),
+    created_by varchar(255),
+    gib_password varchar(255),
+    updated_by varchar(255),
+    primary key (id)
+);
+
+create table customers (
+    balance numeric(15,2),
+    credit_limit numeric(15,2),
+    is_active boolean,
+    is_deleted boolean,
+    payment_terms integer,
+    company_id bigint not null,
+    created_at timestamp(6) not null,
+    id bigserial not null,
+    updated_at timestamp(6),
+    postal_code varchar(10),
+    identity_number varchar(11),
+    tax_number varchar(11),
+    fax varchar(20),
+    mobile varchar(20),
+    phone varchar(20),
+    country varchar(50),
+    customer_type varchar(50),
+    city varchar(100),
+    contact_person varchar(100),
+    district varchar(100),
+    email varchar(100),
+    tax_office varchar(100),
+    name varchar(200) not null,
+    website varchar(200),
+    address varchar(500),
+    notes varchar(500),
+    created_by varchar(255),
+    updated_by varchar(255),
+    primary key (id),
+    unique (tax_number, company_id)
+);
+
+create table refresh_tokens (
+    is_deleted boolean,
+    revoked boolean not null,
+    used boolean not null,
+    created_at timestamp(6) not null,
+    expires_at timestamp(6) not null,
+    id bigserial not null,
+    updated_at timestamp(6),
+    family_id varchar(36) not null,
+    jti varchar(36) not null,
+    username varchar(50) not null,
+    created_by varchar(255),
+    updated_by varchar(255),
+    primary key (id),
+    unique (jti)
+);
+
+create table revoked_tokens (
+    is_deleted boolean,
+    created_at timestamp(6) not null,
+    expires_at timestamp(6) not null,
+    id bigserial not null,
+    updated_at timestamp(6),
+    jti varchar(36) not null,
+    username varchar(50),
+    created_by varchar(255),
+    updated_by varchar(255),
+    primary key (id),
+    unique (jti)
+);
+
+create table suppliers (
+    balance numeric(15,2),
+    is_active boolean,
+    is_deleted boolean,
+    payment_terms integer,
+    company_id bigint not null,
+    created_at timestamp(6) not null,
+    id bigserial not null,
+    updated_at timestamp(6),
+    postal_code varchar(10),
+    tax_number varchar(11),
+    fax varchar(20),
+    mobile varchar(20),
+    phone varchar(20),
+    iban varchar(26),
+    bank_account_number varchar(50),
+    country varchar(50),
+    supplier_type varchar(50),
+    bank_name varchar(100),
+    city varchar(100),
+    contact_person varchar(100),
+    district varchar(100),
+    email varchar(100),
+    tax_office varchar(100),
+    name varchar(200) not null,
+    website varchar(200),
+    address varchar(500),
+    notes varchar(500),
+    created_by varchar(255),
+    updated_by varchar(255),
+    primary key (id),
+    unique (tax_number, company_id)
+);
+
+create table users (
+    failed_login_attempts integer,
+    is_active boolean,
+    is_deleted boolean,
+    is_email_verified boolean,
+    company_id bigint,
+    created_at timestamp(6) not null,
+    id bigserial not null,
+    last_login_at timestamp(6),
+    locked_until timestamp(6),
+    updated_at timestamp(6),
+    phone varchar(20),
+    role varchar(20) not null check (role in ('ADMIN','ACCOUNTANT','USER','VIEWER','OWNER')),
+    username varchar(50) not null unique,
+    email varchar(100) not null unique,
+    first_name varchar(100) not null,
+    last_name varchar(100) not null,
+    created_by varchar(255),
+    password varchar(255) not null,
+    updated_by varchar(255),
+    primary key (id)
+);
+
+create index idx_refresh_tokens_family_id
+    on refresh_tokens (family_id);
+
+alter table customers
+    add constraint fk_customers_company
+    foreign key (company_id) references companies (id);
+
+alter table suppliers
+    add constraint fk_suppliers_company
+    foreign key (company_id) references companies (id);
+
+alter table users
+    add constraint fk_users_company
+    foreign key (company_id) references companies (id);
@@ -0,0 +1,68 @@
+-- Müşteri/tedarikçi sorguları için şirket bazlı kısmi indeksler
+-- Tüm repository sorguları company_id ve is_deleted = false ile filtrelendiği için indeksler yalnızca
+-- silinmemiş kayıtları içerir; vergi no aramaları (tax_number, company_id) unique kısıtı ile karşılanır
+-- Büyük tablolarda yazmaları kilitlememek için indeksler CONCURRENTLY ile oluşturulur; bu nedenle migration
+-- transaction dışında çalışır (V2__tenant_query_indexes.sql.conf). Yarıda kalan bir CONCURRENTLY oluşturma
+-- geçersiz (INVALID) bir indeks bırakır; tekrar denemeden önce o indeks DROP INDEX CONCURRENTLY ile silinmelidir
+
+-- customers
+-- ddl-auto=update ile oluşturulmuş kısmi olmayan cursor indeksleri yenileriyle değiştirilir
+DROP INDEX CONCURRENTLY IF EXISTS idx_customers_company_name_id;
+DROP INDEX CONCURRENTLY IF EXISTS idx_customers_company_created_id;
+
+-- Sayfalı listeleme (ada göre), ada göre cursor, isimle arama ve kayıt sayısı (index-only scan)
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_customers_company_name_id
+    ON customers (company_id, name, id) WHERE is_deleted = false;
+
+-- Oluşturulma tarihine göre cursor
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_customers_company_created_id
+    ON customers (company_id, created_at, id) WHERE is_deleted = false;
+
+-- Aktif kayıtlar
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_customers_company_active_name_id
+    ON customers (company_id, name, id) WHERE is_deleted = false AND is_active = true;
+
+-- Şehre ve türe göre filtreleme
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_customers_company_city_name
+    ON customers (company_id, city, name) WHERE is_deleted = false;
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_customers_company_type_name
+    ON customers (company_id, customer_type, name) WHERE is_deleted = false;
+
+-- Borçlu / alacaklı kayıtlar (tablonun küçük bir kısmı)
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_customers_company_debt
+    ON customers (company_id) WHERE is_deleted = false AND balance < 0;
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_customers_company_credit
+    ON customers (company_id) WHERE is_deleted = false AND balance > 0;
+
+-- suppliers
+-- ddl-auto=update ile oluşturulmuş kısmi olmayan cursor indeksleri yenileriyle değiştirilir
+DROP INDEX CONCURRENTLY IF EXISTS idx_suppliers_company_name_id;
+DROP INDEX CONCURRENTLY IF EXISTS idx_suppliers_company_created_id;
+
+-- Sayfalı listeleme (ada göre), ada göre cursor, isimle arama ve kayıt sayısı (index-only scan)
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_suppliers_company_name_id
+    ON suppliers (company_id, name, id) WHERE is_deleted = false;
+
+-- Oluşturulma tarihine göre cursor
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_suppliers_company_created_id
+    ON suppliers (company_id, created_at, id) WHERE is_deleted = false;
+
+-- Aktif kayıtlar
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_suppliers_company_active_name_id
+    ON suppliers (company_id, name, id) WHERE is_deleted = false AND is_active = true;
+
+-- Şehre ve türe göre filtreleme
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_suppliers_company_city_name
+    ON suppliers (company_id, city, name) WHERE is_deleted = false;
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_suppliers_company_type_name
+    ON suppliers (company_id, supplier_type, name) WHERE is_deleted = false;
+
+-- Borçlu / alacaklı kayıtlar (tablonun küçük bir kısmı)
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_suppliers_company_debt
+    ON suppliers (company_id) WHERE is_deleted = false AND balance < 0;
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_suppliers_company_credit
+    ON suppliers (company_id) WHERE is_deleted = false AND balance > 0;
@@ -0,0 +1,35 @@
+-- Müşteri/tedarikçi araması için trigram indeksleri
+-- Daha önce uygulama açılışında oluşturulmuş nesneler bulunabileceği için ifadeler tekrar çalıştırılabilir
+-- GIN indeksleri büyük tablolarda uzun sürdüğü için CONCURRENTLY ile, yazmalar kilitlenmeden oluşturulur;
+-- migration bu nedenle transaction dışında çalışır (V3__search_trigram_indexes.sql.conf)
+
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+-- Türkçe karakterleri katlayıp küçük harfe çevirir (İ/I/ı -> i, ş -> s, ğ -> g ...)
+-- "sahin", "ŞAHİN" ve "Şahin" aynı metne dönüşür; indeks ifadesinde kullanılabilmesi için IMMUTABLE
+CREATE OR REPLACE FUNCTION tr_fold(input text) RETURNS text
+    LANGUAGE sql IMMUTABLE STRICT PARALLEL SAFE
+AS $$ SELECT lower(translate(input, 'İIıŞşĞğÜüÖöÇçÂâÎîÛû', 'iiissgguuooccaaiiuu')) $$;
+
+-- Aranan kelimeyi katlanmış, LIKE joker karakterleri kaçışlanmış bir '%...%' desenine çevirir (ESCAPE '!')
+CREATE OR REPLACE FUNCTION tr_search_pattern(keyword text) RETURNS text
+    LANGUAGE sql IMMUTABLE STRICT PARALLEL SAFE
+AS $$ SELECT '%' || replace(replace(replace(tr_fold(keyword), '!', '!!'), '%', '!%'), '_', '!_') || '%' $$;
+
+-- Arama indeksi yalnızca silinmemiş kayıtlarla yeniden oluşturulur; ada göre tek başına filtreleyen
+-- sorgu olmadığı için ad trigram indeksi kaldırılır
+DROP INDEX CONCURRENTLY IF EXISTS idx_customers_name_trgm;
+DROP INDEX CONCURRENTLY IF EXISTS idx_suppliers_name_trgm;
+DROP INDEX CONCURRENTLY IF EXISTS idx_customers_search_trgm;
+DROP INDEX CONCURRENTLY IF EXISTS idx_suppliers_search_trgm;
+
+-- globalSearch: ad, vergi no, telefon ve email üzerinde LIKE '%...%' (yalnızca silinmemiş kayıtlar)
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_customers_search_trgm
+    ON customers USING gin (tr_fold(coalesce(name, '') || ' ' || coalesce(tax_number, '') || ' '
+        || coalesce(phone, '') || ' ' || coalesce(email, '')) gin_trgm_ops)
+    WHERE is_deleted = false;
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_suppliers_search_trgm
+    ON suppliers USING gin (tr_fold(coalesce(name, '') || ' ' || coalesce(tax_number, '') || ' '
+        || coalesce(phone, '') || ' ' || coalesce(email, '')) gin_trgm_ops)
+    WHERE is_deleted = false;
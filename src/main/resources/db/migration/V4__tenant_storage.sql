@@ -0,0 +1,8 @@
+-- Ayrı şemaya taşınmış şirketlerin dizini (app.tenancy.routing.enabled)
+-- Kaydı olmayan şirketin müşteri ve tedarikçileri paylaşılan (public) tablolardadır
+
+CREATE TABLE tenant_storage (
+    company_id bigint NOT NULL PRIMARY KEY REFERENCES companies (id),
+    schema_name varchar(63) NOT NULL UNIQUE,
+    created_at timestamp(6) NOT NULL DEFAULT now()
+);
@@ -0,0 +1,9 @@
+-- İyimser kilitleme (BaseEntity.version): her UPDATE sürümü artırır ve okunan sürümle koşullanır
+-- Sabit varsayılanlı kolon eklemek PostgreSQL 11+ sürümlerinde tabloyu yeniden yazmaz; mevcut kayıtlar 0 ile başlar
+
+ALTER TABLE companies ADD COLUMN version bigint NOT NULL DEFAULT 0;
+ALTER TABLE customers ADD COLUMN version bigint NOT NULL DEFAULT 0;
+ALTER TABLE suppliers ADD COLUMN version bigint NOT NULL DEFAULT 0;
+ALTER TABLE users ADD COLUMN version bigint NOT NULL DEFAULT 0;
+ALTER TABLE refresh_tokens ADD COLUMN version bigint NOT NULL DEFAULT 0;
+ALTER TABLE revoked_tokens ADD COLUMN version bigint NOT NULL DEFAULT 0;
@@ -0,0 +1,7 @@
+-- Kilitlenen/pasifleştirilen kullanıcının token'larını iptal eden sayaç; erişim token'larında "tep" claim'i olarak taşınır
+-- tokens_revoked_at, node'ların son iptalleri artımlı olarak senkronlayabilmesi içindir
+
+ALTER TABLE users ADD COLUMN token_epoch bigint NOT NULL DEFAULT 0;
+ALTER TABLE users ADD COLUMN tokens_revoked_at timestamp;
+
+CREATE INDEX idx_users_tokens_revoked_at ON users (tokens_revoked_at) WHERE tokens_revoked_at IS NOT NULL;
@@ -0,0 +1,16 @@
+-- Ayrı şemaya taşınan şirketin müşteri ve tedarikçi tabloları (TenantStorageService)
+-- Tablolar paylaşılan tabloların kopyasıdır: kolonlar, varsayılanlar, CHECK/UNIQUE kısıtları ve indeksler
+-- (kısmi ve trigram indeksleri dahil) aynen gelir; yabancı anahtarlar LIKE ile kopyalanmadığı için ayrıca eklenir
+-- Şemada dizi oluşturulmaz: id varsayılanları ve Hibernate'in nextval çağrıları search_path ile public'teki
+-- dizilere düşer, id'ler şirketler arasında tekil kalır ve kayıtlar paylaşılan tablolara geri taşınabilir
+-- db/migration'da customers/suppliers'ı değiştiren her migration'ın karşılığı bu klasöre de eklenmelidir
+
+CREATE TABLE customers (LIKE public.customers INCLUDING ALL);
+
+ALTER TABLE customers
+    ADD CONSTRAINT fk_customers_company FOREIGN KEY (company_id) REFERENCES public.companies (id);
+
+CREATE TABLE suppliers (LIKE public.suppliers INCLUDING ALL);
+
+ALTER TABLE suppliers
+    ADD CONSTRAINT fk_suppliers_company FOREIGN KEY (company_id) REFERENCES public.companies (id);
@@ -0,0 +1,5 @@
+-- db/migration/V5__entity_versions.sql karşılığı
+-- Bu migration'dan sonra oluşturulan şemalar kolonu V1'deki LIKE ile zaten alır
+
+ALTER TABLE customers ADD COLUMN IF NOT EXISTS version bigint NOT NULL DEFAULT 0;
+ALTER TABLE suppliers ADD COLUMN IF NOT EXISTS version bigint NOT NULL DEFAULT 0;
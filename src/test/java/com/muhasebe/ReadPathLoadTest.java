@@ -0,0 +1,226 @@
+package com.muhasebe;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Okuma uçlarında bağlantı havuzu tutma süresini open-in-view açık ve kapalıyken karşılaştıran yük testi
+ * Varsayılan test çalıştırmasına dahil değildir: mvn test -Pload-test
+ * Tutma süresi HikariCP'nin hikaricp.connections.usage metriğinden, bekleme süresi hikaricp.connections.acquire'dan okunur
+ */
+@Tag("load")
+class ReadPathLoadTest {
+
+    private static final long COMPANY_ID = 7L;
+
+    private static final int THREADS = 8;
+
+    private static final int ROUNDS_PER_THREAD = 40;
+
+    // Sıra etkisini (ısınma, autovacuum) azaltmak için iki mod dönüşümlü olarak birkaç kez çalıştırılır
+    private static final int REPETITIONS = 2;
+
+    private static final String USERNAME = "yuktesti";
+
+    private static final String PASSWORD = "yuktesti123";
+
+    private static EmbeddedPostgres postgres;
+
+    private static boolean seeded;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final HttpClient httpClient = HttpClient.newHttpClient();
+
+    @BeforeAll
+    static void startDatabase() throws Exception {
+        postgres = EmbeddedPostgres.builder().start();
+    }
+
+    @AfterAll
+    static void stopDatabase() throws Exception {
+        postgres.close();
+    }
+
+    @Test
+    void connectionsAreReleasedBeforeSerializationWithoutOpenInView() throws Exception {
+        List<LoadResult> openInView = new ArrayList<>();
+        List<LoadResult> readOnlyTransactions = new ArrayList<>();
+        for (int i = 0; i < REPETITIONS; i++) {
+            openInView.add(runLoad(true));
+            readOnlyTransactions.add(runLoad(false));
+        }
+
+        System.out.printf("%n%-22s %12s %12s %12s %12s %12s%n",
+                "", "hold ort(ms)", "hold max(ms)", "bekleme(ms)", "p50(ms)", "p95(ms)");
+        openInView.forEach(result -> System.out.println(result.format("open-in-view=true")));
+        readOnlyTransactions.forEach(result -> System.out.println(result.format("open-in-view=false")));
+
+        assertTrue(median(readOnlyTransactions) < median(openInView),
+                "open-in-view kapalıyken bağlantı tutma süresi kısalmalı");
+    }
+
+    private LoadResult runLoad(boolean openInView) throws Exception {
+        // Komut satırı argümanları application.properties'teki değerleri ezer
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(MuhasebeApplication.class).run(
+                "--server.port=0",
+                "--spring.datasource.url=" + postgres.getJdbcUrl("postgres", "postgres"),
+                "--spring.datasource.username=postgres",
+                "--spring.datasource.password=postgres",
+                "--spring.jpa.open-in-view=" + openInView,
+                "--spring.datasource.hikari.maximum-pool-size=4",
+                "--spring.datasource.hikari.minimum-idle=4",
+                "--spring.jpa.show-sql=false",
+                "--app.security.rate-limit.enabled=false",
+                "--logging.level.root=WARN",
+                "--logging.level.com.muhasebe=WARN",
+                "--logging.level.org.springframework.web=WARN",
+                "--logging.level.org.springframework.security=WARN",
+                "--logging.level.org.hibernate.SQL=WARN",
+                "--logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN",
+                "--logging.file.name=target/load-test.log")) {
+            seedOnce();
+            String baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+            String token = authenticate(baseUrl);
+            // Tam CustomerResponse dönen uçlarda JSON yazımı OSIV açıkken bağlantı tutulurken yapılır
+            List<String> paths = List.of(
+                    "/api/companies/" + COMPANY_ID + "/customers/scroll?size=100",
+                    "/api/companies/" + COMPANY_ID + "/customers?size=100",
+                    "/api/companies/" + COMPANY_ID + "/customers/with-debt",
+                    "/api/companies/" + COMPANY_ID + "/customers/2410");
+
+            // Isınma: JIT, Hibernate sorgu planı önbelleği ve havuzdaki bağlantılar
+            for (int i = 0; i < 60; i++) {
+                for (String path : paths) {
+                    get(baseUrl + path, token);
+                }
+            }
+
+            MeterRegistry registry = context.getBean(MeterRegistry.class);
+            Timer usage = registry.get("hikaricp.connections.usage").timer();
+            Timer acquire = registry.get("hikaricp.connections.acquire").timer();
+            long usageCount = usage.count();
+            double usageTotal = usage.totalTime(TimeUnit.MILLISECONDS);
+            long acquireCount = acquire.count();
+            double acquireTotal = acquire.totalTime(TimeUnit.MILLISECONDS);
+
+            ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+            List<Future<List<Long>>> futures = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                futures.add(executor.submit(() -> {
+                    List<Long> latencies = new ArrayList<>();
+                    for (int round = 0; round < ROUNDS_PER_THREAD; round++) {
+                        for (String path : paths) {
+                            long start = System.nanoTime();
+                            get(baseUrl + path, token);
+                            latencies.add(System.nanoTime() - start);
+                        }
+                    }
+                    return latencies;
+                }));
+            }
+            List<Long> latencies = new ArrayList<>();
+            for (Future<List<Long>> future : futures) {
+                latencies.addAll(future.get());
+            }
+            executor.shutdown();
+            latencies.sort(null);
+
+            return new LoadResult(
+                    (usage.totalTime(TimeUnit.MILLISECONDS) - usageTotal) / (usage.count() - usageCount),
+                    usage.max(TimeUnit.MILLISECONDS),
+                    (acquire.totalTime(TimeUnit.MILLISECONDS) - acquireTotal) / (acquire.count() - acquireCount),
+                    percentileMillis(latencies, 0.50),
+                    percentileMillis(latencies, 0.95));
+        }
+    }
+
+    private static synchronized void seedOnce() {
+        if (!seeded) {
+            ResourceDatabasePopulator populator = new ResourceDatabasePopulator(new ClassPathResource("db/query-plan-seed.sql"));
+            populator.setSqlScriptEncoding("UTF-8");
+            populator.addScript(new ByteArrayResource("VACUUM ANALYZE;".getBytes(StandardCharsets.UTF_8)));
+            populator.execute(postgres.getPostgresDatabase());
+            seeded = true;
+        }
+    }
+
+    /**
+     * İlk çalıştırmada kullanıcıyı kaydeder, sonrakilerde giriş yapar
+     */
+    private String authenticate(String baseUrl) throws Exception {
+        HttpResponse<String> login = post(baseUrl + "/api/auth/login",
+                "{\"usernameOrEmail\":\"" + USERNAME + "\",\"password\":\"" + PASSWORD + "\"}");
+        if (login.statusCode() == 200) {
+            return objectMapper.readTree(login.body()).get("accessToken").asText();
+        }
+        HttpResponse<String> register = post(baseUrl + "/api/auth/register",
+                "{\"username\":\"" + USERNAME + "\",\"email\":\"yuk@test.com\",\"password\":\"" + PASSWORD + "\","
+                        + "\"firstName\":\"Yük\",\"lastName\":\"Testi\",\"role\":\"ACCOUNTANT\",\"companyId\":" + COMPANY_ID + "}");
+        JsonNode body = objectMapper.readTree(register.body());
+        assertTrue(body.hasNonNull("accessToken"), "Kayıt başarısız: " + register.body());
+        return body.get("accessToken").asText();
+    }
+
+    private void get(String url, String token) throws Exception {
+        HttpResponse<String> response = httpClient.send(HttpRequest.newBuilder(URI.create(url))
+                .header("Authorization", "Bearer " + token)
+                .GET()
+                .build(), HttpResponse.BodyHandlers.ofString());
+        assertEquals(200, response.statusCode(), url + " -> " + response.body());
+    }
+
+    private HttpResponse<String> post(String url, String json) throws Exception {
+        return httpClient.send(HttpRequest.newBuilder(URI.create(url))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json))
+                .build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private static double median(List<LoadResult> results) {
+        List<Double> holds = results.stream().map(LoadResult::meanHoldMillis).sorted().toList();
+        int middle = holds.size() / 2;
+        return holds.size() % 2 == 1 ? holds.get(middle) : (holds.get(middle - 1) + holds.get(middle)) / 2;
+    }
+
+    private static double percentileMillis(List<Long> sortedNanos, double percentile) {
+        int index = (int) Math.ceil(percentile * sortedNanos.size()) - 1;
+        return sortedNanos.get(Math.max(0, index)) / 1_000_000.0;
+    }
+
+    private record LoadResult(double meanHoldMillis, double maxHoldMillis, double meanAcquireMillis,
+                              double p50Millis, double p95Millis) {
+
+        String format(String label) {
+            return String.format("%-22s %12.2f %12.2f %12.2f %12.2f %12.2f",
+                    label, meanHoldMillis, maxHoldMillis, meanAcquireMillis, p50Millis, p95Millis);
+        }
+    }
+}
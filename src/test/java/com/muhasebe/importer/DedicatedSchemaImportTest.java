@@ -0,0 +1,177 @@
+package com.muhasebe.importer;
+
+import com.muhasebe.config.JpaAuditingConfig;
+import com.muhasebe.config.TenantConfig;
+import com.muhasebe.config.TenantRoutingConfig;
+import com.muhasebe.dto.response.ImportResultResponse;
+import com.muhasebe.repository.CustomerRepository;
+import com.muhasebe.search.SearchIndexService;
+import com.muhasebe.tenant.TenantConnectionProvider;
+import com.muhasebe.tenant.TenantContext;
+import com.muhasebe.tenant.TenantDirectory;
+import com.muhasebe.tenant.TenantIdentifierResolver;
+import com.muhasebe.tenant.TenantStorageService;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.validation.ValidationAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Ayrı şemaya taşınmış şirketin toplu içe aktarmasının şirketin şemasına yazdığını doğrular
+ * Vergi numarası tekrar kontrolü (Hibernate, şirketin havuzu) ile INSERT aynı tabloya bakmalıdır
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.show-sql=false",
+        "spring.jpa.properties.hibernate.format_sql=false",
+        "spring.jpa.properties.hibernate.use_sql_comments=false",
+        "app.tenancy.routing.enabled=true",
+        "app.tenancy.sweep-delay-ms=3600000"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ImportAutoConfiguration(ValidationAutoConfiguration.class)
+@Import({BulkImportService.class, TenantConfig.class, TenantRoutingConfig.class, TenantDirectory.class,
+        TenantConnectionProvider.class, TenantIdentifierResolver.class, TenantStorageService.class,
+        JpaAuditingConfig.class, DedicatedSchemaImportTest.EmbeddedDatabaseConfig.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class DedicatedSchemaImportTest {
+
+    private static final long COMPANY_ID = 1L;
+
+    private static final String CSV = "Ad;Vergi No;Şehir\nYılmaz Ticaret;0000000010;Ankara\nDoğan Ltd;0000000011;İzmir\n";
+
+    @Autowired
+    private BulkImportService bulkImportService;
+
+    @Autowired
+    private TenantStorageService tenantStorageService;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @MockBean
+    private SearchIndexService searchIndexService;
+
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void seed() {
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        if (!tenantStorageService.getDedicatedTenants().isEmpty()) {
+            tenantStorageService.moveToShared(COMPANY_ID);
+        }
+        jdbcTemplate.update("DELETE FROM customers");
+        jdbcTemplate.update("DELETE FROM companies");
+        jdbcTemplate.update("INSERT INTO companies (id, name, tax_number, is_active, is_deleted, created_at) "
+                + "VALUES (?, 'Şirket A', '1111111111', true, false, now())", COMPANY_ID);
+        tenantStorageService.moveToDedicated(COMPANY_ID);
+        TenantContext.setCompanyId(COMPANY_ID);
+    }
+
+    @AfterEach
+    void clearTenant() {
+        TenantContext.clear();
+    }
+
+    @Test
+    void importWritesToCompanySchema() {
+        ImportResultResponse result = bulkImportService.importCustomers(COMPANY_ID, csv());
+
+        assertEquals(2, result.getImportedRows());
+        assertEquals(2, count("tenant_1.customers"));
+        assertEquals(0, count("public.customers"));
+        assertEquals(2, customerRepository.count());
+    }
+
+    @Test
+    void duplicateTaxNumbersAreCheckedInCompanySchema() {
+        bulkImportService.importCustomers(COMPANY_ID, csv());
+
+        ImportResultResponse again = bulkImportService.importCustomers(COMPANY_ID, csv());
+
+        assertEquals(0, again.getImportedRows());
+        assertEquals(2, again.getFailedRows());
+        assertEquals(2, count("tenant_1.customers"));
+    }
+
+    @Test
+    void rowsWithoutTaxNumberImportAlongsideDuplicates() {
+        bulkImportService.importCustomers(COMPANY_ID, csv());
+        String mixed = "Ad;Vergi No;Şehir\nVergisiz Bakkal;;Bursa\nYılmaz Ticaret;0000000010;Ankara\n"
+                + "Yeni Ticaret;0000000012;Adana\nİkinci Vergisiz;;Konya\n";
+
+        ImportResultResponse result = bulkImportService.importCustomers(COMPANY_ID, csv(mixed));
+
+        assertEquals(4, result.getTotalRows());
+        assertEquals(3, result.getImportedRows());
+        assertEquals(1, result.getFailedRows());
+        assertEquals(1, result.getErrors().size());
+        assertEquals(3, result.getErrors().get(0).getRow());
+        assertEquals(5, count("tenant_1.customers"));
+    }
+
+    @Test
+    void chunkWithoutTaxNumbersImports() {
+        ImportResultResponse result = bulkImportService.importCustomers(COMPANY_ID,
+                csv("Ad;Şehir\nVergisiz Bakkal;Bursa\nİkinci Vergisiz;Konya\n"));
+
+        assertEquals(2, result.getImportedRows());
+        assertEquals(0, result.getFailedRows());
+        assertEquals(2, count("tenant_1.customers"));
+    }
+
+    private int count(String table) {
+        return jdbcTemplate.queryForObject("SELECT count(*) FROM " + table, Integer.class);
+    }
+
+    private static MockMultipartFile csv() {
+        return csv(CSV);
+    }
+
+    private static MockMultipartFile csv(String content) {
+        return new MockMultipartFile("file", "musteriler.csv", "text/csv", content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @TestConfiguration
+    static class EmbeddedDatabaseConfig {
+
+        @Bean(destroyMethod = "close")
+        EmbeddedPostgres embeddedPostgres() throws Exception {
+            return EmbeddedPostgres.builder().start();
+        }
+
+        @Bean
+        DataSource dataSource(EmbeddedPostgres embeddedPostgres) {
+            return embeddedPostgres.getPostgresDatabase();
+        }
+
+        @Bean
+        TaskScheduler taskScheduler() {
+            ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+            scheduler.initialize();
+            return scheduler;
+        }
+    }
+}
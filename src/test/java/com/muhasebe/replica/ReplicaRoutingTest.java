@@ -0,0 +1,208 @@
+package com.muhasebe.replica;
+
+import com.muhasebe.config.ReplicaDataSourceConfig;
+import com.muhasebe.config.TenantConfig;
+import com.muhasebe.dto.request.CustomerRequest;
+import com.muhasebe.repository.CompanyRepository;
+import com.muhasebe.repository.support.RowCountEstimator;
+import com.muhasebe.search.SearchIndexService;
+import com.muhasebe.service.CustomerService;
+import com.muhasebe.tenant.TenantContext;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Okuma/yazma yönlendirmesini iki gömülü PostgreSQL ile doğrular: biri primary, diğeri replika
+ * Replikasyon yoktur; aynı müşteri iki veritabanında farklı adla tutulur, dönen ad okumanın nereden yapıldığını gösterir
+ * Replika gecikmesi replikadaki replica_lag tablosundan okunur (app.datasource.replica.lag-query)
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.show-sql=false",
+        "spring.jpa.properties.hibernate.format_sql=false",
+        "spring.jpa.properties.hibernate.use_sql_comments=false",
+        "app.datasource.replica.enabled=true",
+        "app.datasource.replica.max-lag-ms=1000",
+        "app.datasource.replica.read-your-writes-ms=60000",
+        "app.datasource.replica.lag-query=SELECT lag_ms FROM replica_lag"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({ReplicaDataSourceConfig.class, ReadYourWritesTracker.class, TenantConfig.class, CustomerService.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ReplicaRoutingTest {
+
+    private static final long COMPANY_ID = 1L;
+
+    private static final long CUSTOMER_ID = 10L;
+
+    private static final String PRIMARY_NAME = "Primary Ticaret";
+
+    private static final String REPLICA_NAME = "Replika Ticaret";
+
+    private static final EmbeddedPostgres PRIMARY = start();
+
+    private static final EmbeddedPostgres REPLICA = startReplica();
+
+    @Autowired
+    private CustomerService customerService;
+
+    @Autowired
+    private CompanyRepository companyRepository;
+
+    @Autowired
+    private ReplicaRoutingDataSource replicaRoutingDataSource;
+
+    @MockBean
+    private SearchIndexService searchIndexService;
+
+    @MockBean
+    private RowCountEstimator rowCountEstimator;
+
+    @DynamicPropertySource
+    static void databaseProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> PRIMARY.getJdbcUrl("postgres", "postgres"));
+        registry.add("spring.datasource.username", () -> "postgres");
+        registry.add("spring.datasource.password", () -> "postgres");
+        registry.add("app.datasource.replica.urls", () -> REPLICA.getJdbcUrl("postgres", "postgres"));
+    }
+
+    @BeforeEach
+    void seed() {
+        seed(PRIMARY.getPostgresDatabase(), PRIMARY_NAME);
+        seed(REPLICA.getPostgresDatabase(), REPLICA_NAME);
+        setReplicaLag(0);
+        TenantContext.setCompanyId(COMPANY_ID);
+    }
+
+    @AfterEach
+    void clearContext() {
+        TenantContext.clear();
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void readOnlyTenantReadsGoToReplica() {
+        authenticate("okuyucu");
+
+        assertEquals(REPLICA_NAME, customerService.getCustomer(COMPANY_ID, CUSTOMER_ID).getName());
+    }
+
+    @Test
+    void writesGoToPrimary() {
+        authenticate("yazar");
+
+        customerService.updateCustomer(COMPANY_ID, CUSTOMER_ID, request("Güncel Ticaret"), null);
+
+        assertEquals("Güncel Ticaret", nameIn(PRIMARY.getPostgresDatabase()));
+        assertEquals(REPLICA_NAME, nameIn(REPLICA.getPostgresDatabase()));
+    }
+
+    @Test
+    void userReadsOwnWriteFromPrimary() {
+        authenticate("muhasebeci");
+        customerService.updateCustomer(COMPANY_ID, CUSTOMER_ID, request("Güncel Ticaret"), null);
+
+        assertEquals("Güncel Ticaret", customerService.getCustomer(COMPANY_ID, CUSTOMER_ID).getName());
+
+        authenticate("baska-kullanici");
+        assertEquals(REPLICA_NAME, customerService.getCustomer(COMPANY_ID, CUSTOMER_ID).getName());
+    }
+
+    @Test
+    void laggingReplicaFallsBackToPrimary() {
+        authenticate("okuyucu");
+        setReplicaLag(5000);
+
+        assertEquals(PRIMARY_NAME, customerService.getCustomer(COMPANY_ID, CUSTOMER_ID).getName());
+
+        setReplicaLag(0);
+        assertEquals(REPLICA_NAME, customerService.getCustomer(COMPANY_ID, CUSTOMER_ID).getName());
+    }
+
+    @Test
+    void readsWithoutTenantUsePrimary() {
+        TenantContext.clear();
+        new JdbcTemplate(REPLICA.getPostgresDatabase()).update("UPDATE companies SET name = 'Replika Şirket'");
+
+        assertEquals("Şirket A", companyRepository.findById(COMPANY_ID).orElseThrow().getName());
+    }
+
+    private void setReplicaLag(long lagMillis) {
+        new JdbcTemplate(REPLICA.getPostgresDatabase()).update("UPDATE replica_lag SET lag_ms = ?", lagMillis);
+        replicaRoutingDataSource.checkReplicas();
+    }
+
+    private static void authenticate(String username) {
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(username, null, List.of()));
+    }
+
+    private static CustomerRequest request(String name) {
+        CustomerRequest request = new CustomerRequest();
+        request.setName(name);
+        request.setTaxNumber("0000000010");
+        request.setIsActive(true);
+        return request;
+    }
+
+    private static String nameIn(DataSource dataSource) {
+        return new JdbcTemplate(dataSource).queryForObject("SELECT name FROM customers WHERE id = ?", String.class, CUSTOMER_ID);
+    }
+
+    private static void seed(DataSource dataSource, String customerName) {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.update("DELETE FROM customers");
+        jdbcTemplate.update("DELETE FROM companies");
+        jdbcTemplate.update("INSERT INTO companies (id, name, tax_number, is_active, is_deleted, created_at) "
+                + "VALUES (?, 'Şirket A', '1111111111', true, false, now())", COMPANY_ID);
+        jdbcTemplate.update("INSERT INTO customers (id, name, tax_number, balance, is_active, is_deleted, company_id, created_at) "
+                + "VALUES (?, ?, '0000000010', 0, true, false, ?, now())", CUSTOMER_ID, customerName, COMPANY_ID);
+    }
+
+    private static EmbeddedPostgres start() {
+        try {
+            return EmbeddedPostgres.builder().start();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Primary'nin şeması uygulama açılışında Flyway ile kurulur; replikaya aynı migration'lar burada uygulanır
+     */
+    private static EmbeddedPostgres startReplica() {
+        EmbeddedPostgres replica = start();
+        Flyway.configure()
+                .dataSource(replica.getPostgresDatabase())
+                .locations("classpath:db/migration")
+                .placeholders(Map.of("id_allocation_size", "50"))
+                // CONCURRENTLY index migration'ları Flyway'in transaction içindeki kilidiyle bekler (application.properties ile aynı)
+                .configuration(Map.of("flyway.postgresql.transactional.lock", "false"))
+                .load()
+                .migrate();
+        new JdbcTemplate(replica.getPostgresDatabase()).execute(
+                "CREATE TABLE replica_lag (lag_ms bigint NOT NULL); INSERT INTO replica_lag VALUES (0)");
+        return replica;
+    }
+}
@@ -0,0 +1,163 @@
+package com.muhasebe.repository;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 1M müşterili bir şirkette genel arama gecikmesini (p50/p99) değişiklikten önceki LIKE + COUNT sorgusu ile
+ * trigram indeksli, sayımsız Slice araması için karşılaştırır
+ * Varsayılan test çalıştırmasına dahil değildir: mvn test -Pload-test
+ * Veri bir kez generate_series ile yüklenir; V3 migration'ındaki trigram indeksi yükleme sırasında güncellenir
+ */
+@Tag("load")
+@DataJpaTest(properties = {
+        "spring.jpa.show-sql=false",
+        "spring.jpa.properties.hibernate.format_sql=false",
+        "spring.jpa.properties.hibernate.use_sql_comments=false",
+        "logging.level.org.hibernate.SQL=WARN",
+        "logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(GlobalSearchBenchmarkTest.EmbeddedDatabaseConfig.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class GlobalSearchBenchmarkTest {
+
+    private static final long COMPANY_ID = 1L;
+
+    private static final int CUSTOMERS = 1_000_000;
+
+    private static final int PAGE_SIZE = 20;
+
+    // p99 için her yöntemde en az 100 ölçüm
+    private static final int SAMPLES = 100;
+
+    // Arama kutusuna yazılan tipik girdiler: ad parçası, tam ad, vergi no, telefon ve email parçası
+    private static final List<String> KEYWORDS = List.of(
+            "yılmaz ticaret 4711", "ŞAHİN TİCARET 12", "0000654321", "05320099", "info77@", "kaya ticaret 999999");
+
+    /**
+     * Değişiklikten önceki globalSearch: dört kolonda LOWER(..) LIKE '%..%' ve sayfa toplamı için COUNT
+     */
+    private static final String LEGACY_WHERE = "FROM customers c WHERE c.company_id = ? AND ("
+            + "LOWER(c.name) LIKE LOWER('%' || ? || '%') OR LOWER(c.tax_number) LIKE LOWER('%' || ? || '%') OR "
+            + "LOWER(c.phone) LIKE LOWER('%' || ? || '%') OR LOWER(c.email) LIKE LOWER('%' || ? || '%')) "
+            + "AND c.is_deleted = false";
+
+    private static boolean seeded;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void seed() {
+        if (seeded) {
+            return;
+        }
+        jdbcTemplate.update("INSERT INTO companies (id, name, tax_number, is_active, is_deleted, created_at) "
+                + "VALUES (?, 'Benchmark', '0000000001', true, false, now()) ON CONFLICT DO NOTHING", COMPANY_ID);
+        jdbcTemplate.update("INSERT INTO customers (id, name, tax_number, phone, email, city, balance, "
+                + "is_active, is_deleted, company_id, created_at) "
+                + "SELECT g, (ARRAY['Şahin', 'Öztürk', 'Çelik', 'Yılmaz', 'Kaya'])[1 + g % 5] || ' Ticaret ' || g, "
+                + "lpad(g::text, 10, '0'), '0532' || lpad(g::text, 7, '0'), 'info' || g || '@firma.com', "
+                + "(ARRAY['İstanbul', 'Ankara', 'İzmir', 'Bursa', 'Antalya'])[1 + g % 5], 0, "
+                + "true, g % 10 = 0, ?, now() - (g || ' seconds')::interval "
+                + "FROM generate_series(1, ?) g", COMPANY_ID, CUSTOMERS);
+        jdbcTemplate.execute("VACUUM ANALYZE customers");
+        seeded = true;
+    }
+
+    @Test
+    void trigramSliceSearchHasLowerTailLatency() {
+        // Isınma: plan önbelleği ve paylaşılan bellekteki indeks sayfaları
+        for (String keyword : KEYWORDS) {
+            legacySearch(keyword);
+            sliceSearch(keyword);
+        }
+
+        LatencyResult legacy = measure(this::legacySearch);
+        LatencyResult slice = measure(this::sliceSearch);
+        LatencyResult exactCount = measure(this::sliceSearchWithExactCount);
+
+        System.out.printf("%n%-26s %12s %12s %12s%n", "", "p50(ms)", "p99(ms)", "max(ms)");
+        System.out.println(legacy.format("LIKE + COUNT (önceki)"));
+        System.out.println(slice.format("trigram, count=none"));
+        System.out.println(exactCount.format("trigram, count=exact"));
+
+        assertTrue(slice.p99Millis() < legacy.p99Millis(), "Trigram indeksli Slice araması p99'da daha hızlı olmalı");
+    }
+
+    private void legacySearch(String keyword) {
+        Object[] args = {COMPANY_ID, keyword, keyword, keyword, keyword};
+        jdbcTemplate.queryForList("SELECT c.* " + LEGACY_WHERE + " ORDER BY c.name LIMIT " + PAGE_SIZE, args);
+        jdbcTemplate.queryForObject("SELECT COUNT(*) " + LEGACY_WHERE, Long.class, args);
+    }
+
+    private void sliceSearch(String keyword) {
+        customerRepository.globalSearchSummaries(COMPANY_ID, keyword, PageRequest.of(0, PAGE_SIZE));
+    }
+
+    private void sliceSearchWithExactCount(String keyword) {
+        sliceSearch(keyword);
+        customerRepository.countGlobalSearch(COMPANY_ID, keyword);
+    }
+
+    private static LatencyResult measure(Consumer<String> search) {
+        List<Long> latencies = new ArrayList<>(SAMPLES);
+        for (int i = 0; i < SAMPLES; i++) {
+            long start = System.nanoTime();
+            search.accept(KEYWORDS.get(i % KEYWORDS.size()));
+            latencies.add(System.nanoTime() - start);
+        }
+        latencies.sort(null);
+        return new LatencyResult(percentileMillis(latencies, 0.50), percentileMillis(latencies, 0.99),
+                latencies.get(latencies.size() - 1) / 1_000_000.0);
+    }
+
+    private static double percentileMillis(List<Long> sortedNanos, double percentile) {
+        int index = (int) Math.ceil(percentile * sortedNanos.size()) - 1;
+        return sortedNanos.get(Math.max(0, index)) / 1_000_000.0;
+    }
+
+    private record LatencyResult(double p50Millis, double p99Millis, double maxMillis) {
+
+        String format(String label) {
+            return String.format("%-26s %12.2f %12.2f %12.2f", label, p50Millis, p99Millis, maxMillis);
+        }
+    }
+
+    @TestConfiguration
+    static class EmbeddedDatabaseConfig {
+
+        @Bean(destroyMethod = "close")
+        EmbeddedPostgres embeddedPostgres() throws Exception {
+            return EmbeddedPostgres.builder().start();
+        }
+
+        @Bean
+        DataSource dataSource(EmbeddedPostgres embeddedPostgres) {
+            return embeddedPostgres.getPostgresDatabase();
+        }
+    }
+}
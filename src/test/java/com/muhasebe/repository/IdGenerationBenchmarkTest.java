@@ -0,0 +1,247 @@
+package com.muhasebe.repository;
+
+import com.muhasebe.entity.support.TableSequenceGenerator;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.MappedSuperclass;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Table;
+import org.hibernate.SessionFactory;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntFunction;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Hibernate ile toplu INSERT hızını IDENTITY ve pooled-lo dizi (TableSequenceGenerator) id üretimi için karşılaştırır
+ * Varsayılan test çalıştırmasına dahil değildir: mvn test -Pload-test
+ * customers tablosuna aynı sütunlarla eşlenmiş iki entity kullanılır, yalnızca id stratejileri farklıdır
+ */
+@Tag("load")
+@DataJpaTest(properties = {
+        "spring.jpa.show-sql=false",
+        "spring.jpa.properties.hibernate.format_sql=false",
+        "spring.jpa.properties.hibernate.use_sql_comments=false",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "logging.level.org.hibernate.SQL=WARN",
+        "logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN",
+        "logging.level.org.hibernate.engine.internal.StatisticalLoggingSessionEventListener=WARN"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(IdGenerationBenchmarkTest.EmbeddedDatabaseConfig.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class IdGenerationBenchmarkTest {
+
+    private static final long COMPANY_ID = 1L;
+
+    private static final int ROWS = 20_000;
+
+    // Uygulamada bir istek/transaction içinde yazılan kayıt sayısına yakın
+    private static final int ROWS_PER_TRANSACTION = 500;
+
+    // hibernate.jdbc.batch_size ile aynı
+    private static final int FLUSH_INTERVAL = 20;
+
+    // Sıra etkisini azaltmak için iki strateji dönüşümlü çalıştırılır
+    private static final int REPETITIONS = 2;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void createCompany() {
+        jdbcTemplate.update("INSERT INTO companies (id, name, tax_number, is_active, is_deleted, created_at) "
+                + "VALUES (?, 'Benchmark', '0000000001', true, false, now()) ON CONFLICT DO NOTHING", COMPANY_ID);
+    }
+
+    @Test
+    void pooledSequenceBatchesInserts() {
+        // Isınma: JIT, Hibernate metamodeli ve sequence bloğu
+        insert(2_000, this::identityCustomer);
+        insert(2_000, this::sequenceCustomer);
+
+        List<InsertResult> identity = new ArrayList<>();
+        List<InsertResult> sequence = new ArrayList<>();
+        for (int i = 0; i < REPETITIONS; i++) {
+            identity.add(insert(ROWS, this::identityCustomer));
+            sequence.add(insert(ROWS, this::sequenceCustomer));
+        }
+
+        System.out.printf("%n%-22s %12s %12s %16s%n", "", "satır/sn", "süre(ms)", "statement sayısı");
+        identity.forEach(result -> System.out.println(result.format("IDENTITY")));
+        sequence.forEach(result -> System.out.println(result.format("pooled-lo sequence")));
+
+        // IDENTITY'de her satır ayrı statement'tır; dizide INSERT'ler batch başına bir statement + blok başına bir nextval
+        assertTrue(sequence.stream().allMatch(result -> result.statements() < ROWS / 10),
+                "pooled-lo ile INSERT'ler batch'lenmeli");
+        assertTrue(best(sequence) > best(identity), "pooled-lo ile toplu INSERT daha hızlı olmalı");
+    }
+
+    private InsertResult insert(int rows, IntFunction<Object> factory) {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        long start = System.nanoTime();
+        for (int from = 0; from < rows; from += ROWS_PER_TRANSACTION) {
+            int first = from;
+            transactionTemplate.executeWithoutResult(status -> {
+                for (int i = first; i < Math.min(first + ROWS_PER_TRANSACTION, rows); i++) {
+                    entityManager.persist(factory.apply(i));
+                    if ((i + 1) % FLUSH_INTERVAL == 0) {
+                        entityManager.flush();
+                        entityManager.clear();
+                    }
+                }
+            });
+        }
+        double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+        return new InsertResult(rows / seconds, seconds * 1000, statistics.getPrepareStatementCount());
+    }
+
+    private SequenceCustomer sequenceCustomer(int i) {
+        return fill(new SequenceCustomer(), "Pooled Müşteri " + i, i);
+    }
+
+    private IdentityCustomer identityCustomer(int i) {
+        return fill(new IdentityCustomer(), "Identity Müşteri " + i, i);
+    }
+
+    private static <T extends BenchmarkCustomer> T fill(T customer, String name, int i) {
+        customer.name = name;
+        customer.city = "İstanbul";
+        customer.phone = "0532" + i;
+        customer.email = "musteri" + i + "@firma.com";
+        customer.country = "Türkiye";
+        customer.isActive = true;
+        customer.balance = BigDecimal.ZERO;
+        customer.companyId = COMPANY_ID;
+        customer.createdAt = LocalDateTime.now();
+        customer.isDeleted = false;
+        return customer;
+    }
+
+    private static double best(List<InsertResult> results) {
+        return results.stream().mapToDouble(InsertResult::rowsPerSecond).max().orElse(0);
+    }
+
+    private record InsertResult(double rowsPerSecond, double millis, long statements) {
+
+        String format(String label) {
+            return String.format("%-22s %12.0f %12.0f %16d", label, rowsPerSecond, millis, statements);
+        }
+    }
+
+    /**
+     * İki stratejide de aynı sütunlar yazılır, yalnızca id üretimi farklıdır
+     */
+    @MappedSuperclass
+    abstract static class BenchmarkCustomer {
+
+        @Column(name = "name")
+        String name;
+
+        @Column(name = "city")
+        String city;
+
+        @Column(name = "phone")
+        String phone;
+
+        @Column(name = "email")
+        String email;
+
+        @Column(name = "country")
+        String country;
+
+        @Column(name = "is_active")
+        Boolean isActive;
+
+        @Column(name = "balance")
+        BigDecimal balance;
+
+        @Column(name = "company_id")
+        Long companyId;
+
+        @Column(name = "created_at")
+        LocalDateTime createdAt;
+
+        @Column(name = "is_deleted")
+        Boolean isDeleted;
+    }
+
+    /**
+     * Değişiklikten önceki id stratejisi
+     */
+    @Entity(name = "IdentityCustomer")
+    @Table(name = "customers")
+    static class IdentityCustomer extends BenchmarkCustomer {
+
+        @Id
+        @GeneratedValue(strategy = GenerationType.IDENTITY)
+        Long id;
+    }
+
+    /**
+     * BaseEntity ile aynı id eşlemesi
+     */
+    @Entity(name = "SequenceCustomer")
+    @Table(name = "customers")
+    static class SequenceCustomer extends BenchmarkCustomer {
+
+        @Id
+        @GeneratedValue(generator = "table_sequence")
+        @GenericGenerator(name = "table_sequence", type = TableSequenceGenerator.class)
+        Long id;
+    }
+
+    @TestConfiguration
+    static class EmbeddedDatabaseConfig {
+
+        @Bean(destroyMethod = "close")
+        EmbeddedPostgres embeddedPostgres() throws Exception {
+            return EmbeddedPostgres.builder().start();
+        }
+
+        @Bean
+        DataSource dataSource(EmbeddedPostgres embeddedPostgres) {
+            // Uygulamadaki spring.datasource.hikari.data-source-properties ile aynı sürücü ayarı
+            return embeddedPostgres.getDatabase("postgres", "postgres", Map.of("reWriteBatchedInserts", "true"));
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package com.muhasebe.repository;
+
+import com.muhasebe.config.TenantConfig;
+import com.muhasebe.entity.Customer;
+import com.muhasebe.repository.support.KeysetCursor;
+import com.muhasebe.tenant.TenantContext;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Sıralama anahtarı eşit olan kayıtlarda cursor sayfalamasının kayıt atlamadığını ve tekrarlamadığını doğrular
+ */
+@DataJpaTest(properties = "spring.jpa.show-sql=false")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({TenantConfig.class, KeysetPaginationTest.EmbeddedDatabaseConfig.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class KeysetPaginationTest {
+
+    private static final long COMPANY_ID = 1L;
+
+    private static final long OTHER_COMPANY_ID = 2L;
+
+    private static final int PAGE_SIZE = 4;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private final List<Customer> seeded = new ArrayList<>();
+
+    @BeforeEach
+    void seed() {
+        jdbcTemplate.update("DELETE FROM customers");
+        jdbcTemplate.update("DELETE FROM users");
+        jdbcTemplate.update("DELETE FROM companies");
+        jdbcTemplate.update("INSERT INTO companies (id, name, tax_number, is_active, is_deleted, created_at) "
+                + "VALUES (?, 'Şirket A', '1111111111', true, false, now()), (?, 'Şirket B', '2222222222', true, false, now())",
+                COMPANY_ID, OTHER_COMPANY_ID);
+
+        // Üç farklı ad ve iki farklı zaman: sayfa sınırları hep eşit anahtarlı kayıtların ortasına düşer
+        String[] names = {"Beta", "Alfa", "Gama"};
+        for (long id = 1; id <= 21; id++) {
+            jdbcTemplate.update("INSERT INTO customers (id, name, balance, is_active, is_deleted, company_id, created_at) "
+                    + "VALUES (?, ?, 0, true, ?, ?, TIMESTAMP '2024-01-01 10:00:00' + (? * INTERVAL '1 hour'))",
+                    id, names[(int) (id % 3)], id == 5, id == 20 ? OTHER_COMPANY_ID : COMPANY_ID, id % 2);
+        }
+        seeded.clear();
+        TenantContext.setCompanyId(COMPANY_ID);
+        seeded.addAll(transactionTemplate.execute(status -> customerRepository.findAll()));
+    }
+
+    @AfterEach
+    void clearTenant() {
+        TenantContext.clear();
+    }
+
+    @Test
+    void walksEqualNamesWithoutGapsAscending() {
+        assertWalk("name", "asc", Comparator.comparing(Customer::getName).thenComparing(Customer::getId));
+    }
+
+    @Test
+    void walksEqualNamesWithoutGapsDescending() {
+        assertWalk("name", "desc", Comparator.comparing(Customer::getName).thenComparing(Customer::getId).reversed());
+    }
+
+    @Test
+    void walksEqualTimestampsWithoutGaps() {
+        assertWalk("createdAt", "asc", Comparator.comparing(Customer::getCreatedAt).thenComparing(Customer::getId));
+        assertWalk("createdAt", "desc", Comparator.comparing(Customer::getCreatedAt).thenComparing(Customer::getId).reversed());
+    }
+
+    private void assertWalk(String sortBy, String sortDir, Comparator<Customer> expectedOrder) {
+        List<Long> expected = seeded.stream().sorted(expectedOrder).map(Customer::getId).toList();
+        assertEquals(19, expected.size());
+
+        List<Long> walked = new ArrayList<>();
+        KeysetCursor cursor = KeysetCursor.first(sortBy, sortDir);
+        while (true) {
+            KeysetCursor position = cursor;
+            List<Customer> page = transactionTemplate.execute(status ->
+                    customerRepository.findNextPage(COMPANY_ID, position, PAGE_SIZE));
+            page.forEach(customer -> walked.add(customer.getId()));
+            if (page.size() < PAGE_SIZE) {
+                break;
+            }
+            // İstemciye verilen opak cursor üzerinden devam edilir
+            cursor = KeysetCursor.decode(position.after(page.get(page.size() - 1)).encode());
+        }
+
+        assertEquals(expected, walked);
+    }
+
+    @TestConfiguration
+    static class EmbeddedDatabaseConfig {
+
+        @Bean(destroyMethod = "close")
+        EmbeddedPostgres embeddedPostgres() throws Exception {
+            return EmbeddedPostgres.builder().start();
+        }
+
+        @Bean
+        DataSource dataSource(EmbeddedPostgres embeddedPostgres) {
+            return embeddedPostgres.getPostgresDatabase();
+        }
+    }
+}
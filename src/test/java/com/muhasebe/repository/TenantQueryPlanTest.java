@@ -0,0 +1,307 @@
+package com.muhasebe.repository;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.muhasebe.entity.Customer;
+import com.muhasebe.entity.Supplier;
+import com.muhasebe.repository.projection.CustomerExportRow;
+import com.muhasebe.repository.projection.SupplierExportRow;
+import com.muhasebe.repository.support.KeysetCursor;
+import com.muhasebe.tenant.TenantContext;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Müşteri ve tedarikçi repository sorgularının migration'lardaki indeksleri kullandığını doğrular
+ * Her sorgu, örnek veriyle doldurulmuş gömülü PostgreSQL üzerinde aynı parametrelerle EXPLAIN edilir;
+ * planda customers veya suppliers tablosunda Seq Scan varsa test başarısız olur
+ * JPQL sorgularının şirket koşulu tenant filtresinden geldiği için filtre her testte açılır
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.show-sql=false",
+        "spring.jpa.properties.hibernate.format_sql=false",
+        "spring.jpa.properties.hibernate.use_sql_comments=false"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(TenantQueryPlanTest.EmbeddedDatabaseConfig.class)
+class TenantQueryPlanTest {
+
+    private static final Long COMPANY_ID = 7L;
+
+    private static final Set<String> TENANT_TABLES = Set.of("customers", "suppliers");
+
+    private static boolean seeded;
+
+    @Autowired
+    private EmbeddedPostgres embeddedPostgres;
+
+    @Autowired
+    private QueryRecorder queryRecorder;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private SupplierRepository supplierRepository;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @BeforeEach
+    void seed() throws Exception {
+        if (!seeded) {
+            DataSource database = embeddedPostgres.getPostgresDatabase();
+            ResourceDatabasePopulator populator = new ResourceDatabasePopulator(new ClassPathResource("db/query-plan-seed.sql"));
+            populator.setSqlScriptEncoding("UTF-8");
+            populator.execute(database);
+            // Planlayıcı istatistikleri ve index-only scan için visibility map
+            try (Connection connection = database.getConnection(); Statement statement = connection.createStatement()) {
+                statement.execute("VACUUM ANALYZE");
+            }
+            seeded = true;
+        }
+        // Uygulamada TenantFilterTransactionManager'ın yaptığı gibi; test transaction'ı @BeforeEach'ten önce açılır
+        entityManager.unwrap(Session.class).enableFilter(TenantContext.FILTER_NAME)
+                .setParameter(TenantContext.FILTER_PARAMETER, COMPANY_ID);
+        queryRecorder.clear();
+    }
+
+    @Test
+    void customerQueriesDoNotSeqScan() throws Exception {
+        PageRequest byName = PageRequest.of(2, 10, Sort.by("name"));
+
+        customerRepository.findPageWithCompany(byName);
+        customerRepository.findAllWithCompany();
+        customerRepository.findActiveCustomers(byName);
+        customerRepository.findWithCompanyById(2410L);
+        customerRepository.findByTaxNumber("0000002410");
+        customerRepository.existsByTaxNumber(COMPANY_ID, "0000002410");
+        customerRepository.findExistingTaxNumbers(COMPANY_ID, List.of("0000002410", "0000002411", "9999999999"));
+        customerRepository.searchByName("ticaret 25", byName);
+        customerRepository.findByCity("Ankara", byName);
+        customerRepository.findByCustomerType("Kurumsal", byName);
+        customerRepository.findCustomersWithDebt();
+        customerRepository.findCustomersWithCredit();
+        customerRepository.globalSearch(COMPANY_ID, "yılmaz ticaret 25", PageRequest.of(0, 10));
+        customerRepository.count();
+        customerRepository.findSummaries(byName);
+        customerRepository.findActiveSummaries(byName);
+        customerRepository.globalSearchSummaries(COMPANY_ID, "yılmaz ticaret 25", PageRequest.of(0, 10));
+        customerRepository.countGlobalSearch(COMPANY_ID, "yılmaz ticaret 25");
+        customerRepository.summarizeBalances(COMPANY_ID);
+        try (Stream<CustomerExportRow> rows = customerRepository.streamExportRows()) {
+            rows.forEach(row -> { });
+        }
+
+        for (String sortKey : List.of("name", "createdAt")) {
+            for (String direction : List.of("asc", "desc")) {
+                KeysetCursor first = KeysetCursor.first(sortKey, direction);
+                List<Customer> page = customerRepository.findNextPage(COMPANY_ID, first, 20);
+                customerRepository.findNextPage(COMPANY_ID, first.after(page.get(page.size() - 1)), 20);
+            }
+        }
+
+        assertNoSeqScan();
+    }
+
+    @Test
+    void supplierQueriesDoNotSeqScan() throws Exception {
+        PageRequest byName = PageRequest.of(2, 10, Sort.by("name"));
+
+        supplierRepository.findPageWithCompany(byName);
+        supplierRepository.findAllWithCompany();
+        supplierRepository.findActiveSuppliers(byName);
+        supplierRepository.findWithCompanyById(2410L);
+        supplierRepository.findByTaxNumber("0000002410");
+        supplierRepository.existsByTaxNumber(COMPANY_ID, "0000002410");
+        supplierRepository.findExistingTaxNumbers(COMPANY_ID, List.of("0000002410", "0000002411", "9999999999"));
+        supplierRepository.searchByName("tedarik 25", byName);
+        supplierRepository.findByCity("Ankara", byName);
+        supplierRepository.findBySupplierType("Üretici", byName);
+        supplierRepository.findSuppliersWithDebt();
+        supplierRepository.findSuppliersWithCredit();
+        supplierRepository.globalSearch(COMPANY_ID, "doğan tedarik 25", PageRequest.of(0, 10));
+        supplierRepository.count();
+        supplierRepository.findSummaries(byName);
+        supplierRepository.globalSearchSummaries(COMPANY_ID, "doğan tedarik 25", PageRequest.of(0, 10));
+        supplierRepository.countGlobalSearch(COMPANY_ID, "doğan tedarik 25");
+        supplierRepository.summarizeBalances(COMPANY_ID);
+        try (Stream<SupplierExportRow> rows = supplierRepository.streamExportRows()) {
+            rows.forEach(row -> { });
+        }
+
+        for (String sortKey : List.of("name", "createdAt")) {
+            for (String direction : List.of("asc", "desc")) {
+                KeysetCursor first = KeysetCursor.first(sortKey, direction);
+                List<Supplier> page = supplierRepository.findNextPage(COMPANY_ID, first, 20);
+                supplierRepository.findNextPage(COMPANY_ID, first.after(page.get(page.size() - 1)), 20);
+            }
+        }
+
+        assertNoSeqScan();
+    }
+
+    /**
+     * Kaydedilen sorguları aynı parametrelerle EXPLAIN eder ve Seq Scan içeren planları raporlar
+     */
+    private void assertNoSeqScan() throws Exception {
+        List<RecordedQuery> queries = queryRecorder.getQueries();
+        assertFalse(queries.isEmpty(), "Hiç sorgu kaydedilmedi");
+
+        List<String> failures = new ArrayList<>();
+        try (Connection connection = embeddedPostgres.getPostgresDatabase().getConnection()) {
+            for (RecordedQuery query : queries) {
+                JsonNode plan = explain(connection, query);
+                List<String> seqScans = new ArrayList<>();
+                collectSeqScans(plan, seqScans);
+                if (!seqScans.isEmpty()) {
+                    failures.add(seqScans + " <- " + query.sql() + "\n" + plan.toPrettyString());
+                }
+            }
+        }
+        assertTrue(failures.isEmpty(), "Seq Scan içeren sorgular:\n" + String.join("\n\n", failures));
+    }
+
+    private JsonNode explain(Connection connection, RecordedQuery query) throws Exception {
+        try (PreparedStatement statement = connection.prepareStatement("EXPLAIN (FORMAT JSON) " + query.sql())) {
+            for (Binding binding : query.bindings()) {
+                binding.method().invoke(statement, binding.args());
+            }
+            try (ResultSet resultSet = statement.executeQuery()) {
+                resultSet.next();
+                return objectMapper.readTree(resultSet.getString(1)).get(0).get("Plan");
+            }
+        }
+    }
+
+    private void collectSeqScans(JsonNode plan, List<String> seqScans) {
+        if ("Seq Scan".equals(plan.path("Node Type").asText())
+                && TENANT_TABLES.contains(plan.path("Relation Name").asText())) {
+            seqScans.add("Seq Scan on " + plan.path("Relation Name").asText());
+        }
+        for (JsonNode child : plan.path("Plans")) {
+            collectSeqScans(child, seqScans);
+        }
+    }
+
+    @TestConfiguration
+    static class EmbeddedDatabaseConfig {
+
+        @Bean(destroyMethod = "close")
+        EmbeddedPostgres embeddedPostgres() throws Exception {
+            return EmbeddedPostgres.builder().start();
+        }
+
+        @Bean
+        QueryRecorder queryRecorder() {
+            return new QueryRecorder();
+        }
+
+        @Bean
+        DataSource dataSource(EmbeddedPostgres embeddedPostgres, QueryRecorder queryRecorder) {
+            return queryRecorder.wrap(embeddedPostgres.getPostgresDatabase());
+        }
+    }
+
+    private record Binding(Method method, Object[] args) {
+    }
+
+    private record RecordedQuery(String sql, List<Binding> bindings) {
+    }
+
+    /**
+     * Uygulamanın çalıştırdığı müşteri/tedarikçi SELECT'lerini SQL ve parametreleriyle kaydeden DataSource sarmalayıcısı
+     */
+    static class QueryRecorder {
+
+        private final List<RecordedQuery> queries = new CopyOnWriteArrayList<>();
+
+        List<RecordedQuery> getQueries() {
+            return queries;
+        }
+
+        void clear() {
+            queries.clear();
+        }
+
+        DataSource wrap(DataSource target) {
+            return proxy(DataSource.class, target, (method, args, result) ->
+                    result instanceof Connection connection ? proxy(Connection.class, connection, this::onConnectionCall) : result);
+        }
+
+        private Object onConnectionCall(Method method, Object[] args, Object result) {
+            if (result instanceof PreparedStatement statement && method.getName().equals("prepareStatement")) {
+                return recordingStatement(statement, (String) args[0]);
+            }
+            return result;
+        }
+
+        private PreparedStatement recordingStatement(PreparedStatement target, String sql) {
+            Map<Integer, Binding> bindings = new TreeMap<>();
+            boolean tenantSelect = sql.stripLeading().toLowerCase().startsWith("select")
+                    && TENANT_TABLES.stream().anyMatch(sql::contains);
+            return proxy(PreparedStatement.class, target, (method, args, result) -> {
+                String name = method.getName();
+                if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer index) {
+                    bindings.put(index, new Binding(method, args));
+                } else if (name.equals("clearParameters")) {
+                    bindings.clear();
+                } else if (tenantSelect && (name.equals("executeQuery") || name.equals("execute")) && (args == null || args.length == 0)) {
+                    queries.add(new RecordedQuery(sql, List.copyOf(bindings.values())));
+                }
+                return result;
+            });
+        }
+
+        @FunctionalInterface
+        private interface CallHandler {
+            Object afterCall(Method method, Object[] args, Object result) throws Exception;
+        }
+
+        private static <T> T proxy(Class<T> type, T target, CallHandler handler) {
+            return type.cast(Proxy.newProxyInstance(QueryRecorder.class.getClassLoader(), new Class<?>[]{type},
+                    (proxy, method, args) -> {
+                        try {
+                            return handler.afterCall(method, args, method.invoke(target, args));
+                        } catch (InvocationTargetException e) {
+                            throw e.getCause();
+                        }
+                    }));
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.muhasebe.repository.support;
+
+import com.muhasebe.entity.Customer;
+import com.muhasebe.exception.BadRequestException;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Sort;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Cursor'ın kayıpsız kodlanıp çözüldüğünü ve bozuk girdilerin 400 olarak reddedildiğini doğrular
+ */
+class KeysetCursorTest {
+
+    @Test
+    void nameCursorRoundTrips() {
+        Customer last = new Customer();
+        last.setId(42L);
+        last.setName("Çağ \"Ltd\" Şti.");
+
+        KeysetCursor decoded = KeysetCursor.decode(KeysetCursor.first("name", "desc").after(last).encode());
+
+        assertFalse(decoded.isFirstPage());
+        assertEquals("name", decoded.getSortKey());
+        assertEquals(Sort.Direction.DESC, decoded.getDirection());
+        assertEquals("Çağ \"Ltd\" Şti.", decoded.getLastValue());
+        assertEquals(42L, decoded.getLastId());
+    }
+
+    @Test
+    void createdAtCursorKeepsFullPrecision() {
+        LocalDateTime createdAt = LocalDateTime.of(2024, 3, 1, 10, 15, 30, 123_456_000);
+        Customer last = new Customer();
+        last.setId(7L);
+        last.setCreatedAt(createdAt);
+
+        KeysetCursor decoded = KeysetCursor.decode(KeysetCursor.first("createdAt", "asc").after(last).encode());
+
+        assertEquals(createdAt, decoded.getLastValue());
+        assertEquals(Sort.Direction.ASC, decoded.getDirection());
+    }
+
+    @Test
+    void sortBreaksTiesById() {
+        Sort sort = KeysetCursor.first("name", "desc").sort();
+
+        assertEquals(List.of(Sort.Order.desc("name"), Sort.Order.desc("id")), sort.toList());
+        assertTrue(KeysetCursor.first("name", null).isFirstPage());
+        assertEquals(Sort.Direction.ASC, KeysetCursor.first("name", null).getDirection());
+    }
+
+    @Test
+    void unsupportedSortKeyIsRejected() {
+        assertThrows(BadRequestException.class, () -> KeysetCursor.first("balance", "asc"));
+    }
+
+    @Test
+    void malformedCursorsAreRejected() {
+        assertThrows(BadRequestException.class, () -> KeysetCursor.decode("bozuk!"));
+        assertThrows(BadRequestException.class, () -> KeysetCursor.decode(encode("[]")));
+        assertThrows(BadRequestException.class, () -> KeysetCursor.decode(encode("{\"s\":\"balance\",\"d\":\"ASC\",\"v\":\"1\",\"id\":1}")));
+        assertThrows(BadRequestException.class, () -> KeysetCursor.decode(encode("{\"s\":\"name\",\"d\":\"ASC\",\"id\":1}")));
+        assertThrows(BadRequestException.class, () -> KeysetCursor.decode(encode("{\"s\":\"name\",\"d\":\"YUKARI\",\"v\":\"a\",\"id\":1}")));
+        assertThrows(BadRequestException.class, () -> KeysetCursor.decode(encode("{\"s\":\"createdAt\",\"d\":\"ASC\",\"v\":\"dün\",\"id\":1}")));
+    }
+
+    private static String encode(String json) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(json.getBytes(StandardCharsets.UTF_8));
+    }
+}
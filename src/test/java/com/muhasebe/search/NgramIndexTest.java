@@ -0,0 +1,97 @@
+package com.muhasebe.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Öneri indeksinin Türkçe harf katlamasını, sıralamayı ve artımlı güncellemeleri doğrular
+ */
+class NgramIndexTest {
+
+    @Test
+    void turkishCasingAndDiacriticsAreFolded() {
+        NgramIndex index = new NgramIndex(List.of(
+                document(1, "İSTANBUL Ticaret"),
+                document(2, "Şeker Gıda"),
+                document(3, "ÇAĞDAŞ Yapı")));
+
+        assertEquals(List.of(1L), ids(index.search("istanbul", 10)));
+        assertEquals(List.of(1L), ids(index.search("Istanbul", 10)));
+        assertEquals(List.of(1L), ids(index.search("ıstanbul", 10)));
+        assertEquals(List.of(2L), ids(index.search("SEKER", 10)));
+        assertEquals(List.of(2L), ids(index.search("gida", 10)));
+        assertEquals(List.of(3L), ids(index.search("çağdaş", 10)));
+    }
+
+    @Test
+    void prefixMatchesComeFirstThenWordStartsThenOtherFields() {
+        NgramIndex index = new NgramIndex(List.of(
+                new SearchDocument(1L, "Mavi Deniz Ltd", "1111111111", null, "info@denizcilik.com"),
+                document(2, "Deniz Market"),
+                document(3, "Akdeniz Gıda"),
+                document(4, "Deniz Apartmanı"),
+                document(5, "Ege Deniz Ürünleri")));
+
+        // Önekler ad sırasıyla, sonra addaki bir kelimenin başı, sonra kelime içi ve diğer alanlar
+        assertEquals(List.of(4L, 2L, 5L, 1L, 3L), ids(index.search("deniz", 10)));
+        assertEquals(List.of(4L, 2L, 5L), ids(index.search("deniz", 3)));
+    }
+
+    @Test
+    void searchesTaxNumberPhoneAndEmail() {
+        NgramIndex index = new NgramIndex(List.of(
+                new SearchDocument(1L, "Alfa", "1234567890", "05321112233", "muhasebe@alfa.com.tr"),
+                new SearchDocument(2L, "Beta", "9876543210", null, null)));
+
+        assertEquals(List.of(1L), ids(index.search("4567", 10)));
+        assertEquals(List.of(1L), ids(index.search("1112233", 10)));
+        assertEquals(List.of(1L), ids(index.search("alfa.com", 10)));
+        assertTrue(index.search("yok", 10).isEmpty());
+        assertTrue(index.search("  ", 10).isEmpty());
+    }
+
+    @Test
+    void updatesAndRemovalsAreVisibleImmediately() {
+        NgramIndex index = new NgramIndex(List.of(document(1, "Eski Ad"), document(2, "Başka Firma")));
+
+        index.put(document(1, "Yeni Ad"));
+        assertTrue(index.search("eski", 10).isEmpty());
+        assertEquals(List.of(1L), ids(index.search("yeni", 10)));
+
+        index.remove(2L);
+        assertTrue(index.search("firma", 10).isEmpty());
+        assertEquals(1, index.size());
+    }
+
+    @Test
+    void compactionKeepsLiveDocumentsSearchable() {
+        List<SearchDocument> documents = new ArrayList<>();
+        for (long id = 1; id <= 3000; id++) {
+            documents.add(document(id, "Müşteri " + id));
+        }
+        NgramIndex index = new NgramIndex(documents);
+
+        // Silinen slot sayısı canlı kayıt sayısını geçince indeks yeniden kurulur
+        for (long id = 1; id <= 2000; id++) {
+            index.remove(id);
+        }
+
+        assertEquals(1000, index.size());
+        assertTrue(index.search("musteri 150", 10).isEmpty());
+        assertEquals(List.of(2500L), ids(index.search("musteri 2500", 10)));
+        assertEquals(10, index.search("musteri", 10).size());
+    }
+
+    private static SearchDocument document(long id, String name) {
+        return new SearchDocument(id, name, null, null, null);
+    }
+
+    private static List<Long> ids(List<SearchDocument> documents) {
+        return documents.stream().map(SearchDocument::id).toList();
+    }
+}
@@ -0,0 +1,81 @@
+package com.muhasebe.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Bloom filter'ın eklenen hiçbir elemanı kaçırmadığını ve yanlış pozitif oranının hedefe yakın kaldığını doğrular
+ */
+class BloomFilterTest {
+
+    @Test
+    void neverReportsFalseNegatives() {
+        BloomFilter filter = new BloomFilter(10_000, 0.01);
+        List<String> values = uuids(10_000);
+        values.forEach(filter::put);
+
+        for (String value : values) {
+            assertTrue(filter.mightContain(value), value);
+        }
+    }
+
+    @Test
+    void concurrentPutsAreNotLost() throws Exception {
+        BloomFilter filter = new BloomFilter(40_000, 0.01);
+        List<String> values = uuids(40_000);
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                List<String> part = values.subList(t * 5_000, (t + 1) * 5_000);
+                futures.add(executor.submit(() -> part.forEach(filter::put)));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        assertTrue(values.stream().allMatch(filter::mightContain));
+    }
+
+    @Test
+    void falsePositiveRateStaysNearTarget() {
+        BloomFilter filter = new BloomFilter(20_000, 0.01);
+        uuids(20_000).forEach(filter::put);
+
+        long falsePositives = uuids(100_000).stream().filter(filter::mightContain).count();
+
+        // Hedef %1; rastgele sapma için iki katına kadar tolerans
+        assertTrue(falsePositives < 2_000, "yanlış pozitif sayısı: " + falsePositives);
+    }
+
+    @Test
+    void sizingHandlesDegenerateInput() {
+        BloomFilter filter = new BloomFilter(0, 0.01);
+        assertEquals(1, filter.getExpectedInsertions());
+
+        filter.put("tek");
+        assertTrue(filter.mightContain("tek"));
+        assertEquals(20_000, new BloomFilter(20_000, 0.01).getExpectedInsertions());
+    }
+
+    private static List<String> uuids(int count) {
+        List<String> values = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            values.add(UUID.randomUUID().toString());
+        }
+        return values;
+    }
+}
@@ -0,0 +1,72 @@
+package com.muhasebe.security;
+
+import com.muhasebe.entity.User;
+import com.muhasebe.enums.Role;
+import com.muhasebe.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Önbellekli kullanıcı yüklemesinin kilit süresi dolunca, kayıt önbellekte kalsa bile kilidi kaldırdığını doğrular
+ */
+class CustomUserDetailsServiceTest {
+
+    private UserRepository userRepository;
+
+    private CustomUserDetailsService userDetailsService;
+
+    @BeforeEach
+    void setUp() {
+        userRepository = mock(UserRepository.class);
+        userDetailsService = new CustomUserDetailsService();
+        ReflectionTestUtils.setField(userDetailsService, "userRepository", userRepository);
+        ReflectionTestUtils.setField(userDetailsService, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(userDetailsService, "cacheEnabled", true);
+        ReflectionTestUtils.setField(userDetailsService, "cacheMaxSize", 100L);
+        ReflectionTestUtils.setField(userDetailsService, "cacheTtlSeconds", 300L);
+        userDetailsService.init();
+    }
+
+    @Test
+    void expiredLockIsLiftedWhileEntryIsCached() throws InterruptedException {
+        when(userRepository.findByUsername("ali")).thenReturn(Optional.of(user("ali", LocalDateTime.now().plusNanos(300_000_000))));
+
+        assertFalse(userDetailsService.loadUserByUsername("ali").isAccountNonLocked());
+
+        Thread.sleep(400);
+
+        assertTrue(userDetailsService.loadUserByUsername("ali").isAccountNonLocked());
+        verify(userRepository, times(1)).findByUsername("ali");
+    }
+
+    @Test
+    void unlockedUserIsServedFromCache() {
+        when(userRepository.findByUsername("veli")).thenReturn(Optional.of(user("veli", null)));
+
+        assertTrue(userDetailsService.loadUserByUsername("veli").isAccountNonLocked());
+        assertTrue(userDetailsService.loadUserByUsername("veli").isAccountNonLocked());
+        verify(userRepository, times(1)).findByUsername("veli");
+    }
+
+    private static User user(String username, LocalDateTime lockedUntil) {
+        User user = new User();
+        user.setUsername(username);
+        user.setPassword("{noop}sifre");
+        user.setRole(Role.ACCOUNTANT);
+        user.setIsActive(true);
+        user.setLockedUntil(lockedUntil);
+        return user;
+    }
+}
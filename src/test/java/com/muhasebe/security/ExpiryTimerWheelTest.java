@@ -0,0 +1,80 @@
+package com.muhasebe.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Timer wheel'in anahtarları sürelerinden önce düşürmediğini ve geç kalan tick'leri kaçırmadığını doğrular
+ */
+class ExpiryTimerWheelTest {
+
+    private static final long TICK = 1000;
+
+    @Test
+    void expiresKeysOnlyAfterTheirDeadline() {
+        long now = System.currentTimeMillis();
+        ExpiryTimerWheel<String> wheel = new ExpiryTimerWheel<>(TICK, 16);
+        wheel.schedule("a", now + 2 * TICK);
+        wheel.schedule("b", now + 5 * TICK);
+
+        List<String> expired = new ArrayList<>();
+        wheel.advance(now + TICK, expired::add);
+        assertTrue(expired.isEmpty());
+
+        wheel.advance(now + 3 * TICK, expired::add);
+        assertEquals(List.of("a"), expired);
+
+        wheel.advance(now + 6 * TICK, expired::add);
+        assertEquals(List.of("a", "b"), expired);
+    }
+
+    @Test
+    void keysBeyondOneRotationWaitForTheirTurn() {
+        long now = System.currentTimeMillis();
+        ExpiryTimerWheel<String> wheel = new ExpiryTimerWheel<>(TICK, 4);
+        // Aynı slota düşer ama bir tur sonra dolar
+        wheel.schedule("uzak", now + 10 * TICK);
+
+        List<String> expired = new ArrayList<>();
+        for (int i = 1; i <= 9; i++) {
+            wheel.advance(now + i * TICK, expired::add);
+        }
+        assertTrue(expired.isEmpty());
+
+        wheel.advance(now + 11 * TICK, expired::add);
+        assertEquals(List.of("uzak"), expired);
+    }
+
+    @Test
+    void longPauseProcessesEverySlotOnce() {
+        long now = System.currentTimeMillis();
+        ExpiryTimerWheel<Integer> wheel = new ExpiryTimerWheel<>(TICK, 8);
+        for (int i = 1; i <= 20; i++) {
+            wheel.schedule(i, now + i * TICK);
+        }
+
+        List<Integer> expired = new ArrayList<>();
+        wheel.advance(now + 100 * TICK, expired::add);
+
+        assertEquals(20, expired.size());
+    }
+
+    @Test
+    void alreadyExpiredKeyIsDroppedOnNextTick() {
+        long now = System.currentTimeMillis();
+        ExpiryTimerWheel<String> wheel = new ExpiryTimerWheel<>(TICK, 16);
+        wheel.schedule("eski", now - 5 * TICK);
+
+        List<String> expired = new ArrayList<>();
+        wheel.advance(now + TICK, expired::add);
+
+        // Geçmiş slot bir sonraki turda işlenir; kayıt kaybolmaz
+        wheel.advance(now + 16 * TICK, expired::add);
+        assertEquals(List.of("eski"), expired);
+    }
+}
@@ -0,0 +1,111 @@
+package com.muhasebe.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * jwt.algorithm seçeneklerinin (HMAC = HS256, ES256, EdDSA/Ed25519) imzalama ve doğrulama hızını karşılaştırır
+ * Varsayılan test çalıştırmasına dahil değildir: mvn test -Pload-test
+ * Asimetrik modlarda jwt.key-set-file verilmediği için her algoritma kendi geçici anahtar çiftiyle çalışır
+ */
+@Tag("load")
+class JwtSignatureAlgorithmBenchmarkTest {
+
+    private static final String SECRET = "muhasebeAppSecretKeyForJWTToken2024VeryLongAndSecureKey123456789";
+
+    private static final List<String> ALGORITHMS = List.of("HMAC", "ES256", "EdDSA");
+
+    private static final long MEASURE_MILLIS = 1_500;
+
+    // Sıra etkisini azaltmak için algoritmalar dönüşümlü olarak birkaç kez çalıştırılır
+    private static final int REPETITIONS = 2;
+
+    @Test
+    void compareSignAndVerifyThroughput() {
+        List<JwtTokenProvider> providers = ALGORITHMS.stream().map(JwtSignatureAlgorithmBenchmarkTest::provider).toList();
+        List<String> tokens = providers.stream().map(provider -> provider.generateToken("yuktesti")).toList();
+        for (int i = 0; i < providers.size(); i++) {
+            assertEquals(TokenValidationResult.Status.VALID, providers.get(i).validate(tokens.get(i)).getStatus());
+        }
+
+        // Isınma: JIT, JCA sağlayıcıları ve eğri tabloları
+        for (int i = 0; i < providers.size(); i++) {
+            measure(signer(providers.get(i)), 300);
+            measure(verifier(providers.get(i), tokens.get(i)), 300);
+        }
+
+        List<List<AlgorithmResult>> results = new ArrayList<>();
+        ALGORITHMS.forEach(algorithm -> results.add(new ArrayList<>()));
+        for (int repetition = 0; repetition < REPETITIONS; repetition++) {
+            for (int i = 0; i < providers.size(); i++) {
+                results.get(i).add(new AlgorithmResult(
+                        measure(signer(providers.get(i)), MEASURE_MILLIS),
+                        measure(verifier(providers.get(i), tokens.get(i)), MEASURE_MILLIS)));
+            }
+        }
+
+        System.out.printf("%n%-8s %14s %14s%n", "", "imza/sn", "doğrulama/sn");
+        for (int i = 0; i < ALGORITHMS.size(); i++) {
+            String label = ALGORITHMS.get(i);
+            results.get(i).forEach(result -> System.out.println(result.format(label)));
+        }
+
+        // Paylaşılan secret'lı HMAC, eliptik eğri imzalarından hızlı olmalı; asimetrik modun bedeli budur
+        double hmacVerify = bestVerify(results.get(0));
+        assertTrue(hmacVerify > bestVerify(results.get(1)), "HS256 doğrulaması ES256'dan hızlı olmalı");
+        assertTrue(hmacVerify > bestVerify(results.get(2)), "HS256 doğrulaması EdDSA'dan hızlı olmalı");
+    }
+
+    private static Supplier<Object> signer(JwtTokenProvider provider) {
+        return () -> provider.generateToken("yuktesti");
+    }
+
+    private static Supplier<Object> verifier(JwtTokenProvider provider, String token) {
+        return () -> provider.validate(token);
+    }
+
+    private static double measure(Supplier<Object> operation, long millis) {
+        long start = System.nanoTime();
+        long deadline = start + millis * 1_000_000;
+        long count = 0;
+        while (System.nanoTime() < deadline) {
+            operation.get();
+            count++;
+        }
+        return count * 1_000_000_000.0 / (System.nanoTime() - start);
+    }
+
+    private static double bestVerify(List<AlgorithmResult> results) {
+        return results.stream().mapToDouble(AlgorithmResult::verifiesPerSecond).max().orElse(0);
+    }
+
+    private static JwtTokenProvider provider(String algorithm) {
+        JwtTokenProvider provider = new JwtTokenProvider();
+        ReflectionTestUtils.setField(provider, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(provider, "jwtAlgorithm", algorithm);
+        ReflectionTestUtils.setField(provider, "jwtSecret", SECRET);
+        ReflectionTestUtils.setField(provider, "keySetFile", "");
+        ReflectionTestUtils.setField(provider, "jwtKeyId", "bench-" + algorithm);
+        ReflectionTestUtils.setField(provider, "retiredSecrets", "");
+        ReflectionTestUtils.setField(provider, "jwtExpiration", 3_600_000L);
+        ReflectionTestUtils.setField(provider, "jwtRefreshExpiration", 7_200_000L);
+        provider.init();
+        return provider;
+    }
+
+    private record AlgorithmResult(double signsPerSecond, double verifiesPerSecond) {
+
+        String format(String label) {
+            return String.format("%-8s %14.0f %14.0f", label, signsPerSecond, verifiesPerSecond);
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package com.muhasebe.security;
+
+import com.muhasebe.entity.Company;
+import com.muhasebe.entity.User;
+import com.muhasebe.enums.Role;
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Önbelleğe alınan anahtarlarla imzalama/doğrulamayı, anahtar rotasyonunu ve yapılandırılmış doğrulama sonucunu doğrular
+ */
+class JwtTokenProviderTest {
+
+    private JwtTokenProvider jwtTokenProvider;
+
+    private static final String SECRET = "testSecretKeyForJwtTokenProviderTest0123456789abcdef";
+
+    private static final String OLD_SECRET = "previousSecretKeyForJwtTokenProviderTest0123456789ab";
+
+    @BeforeEach
+    void setUp() {
+        jwtTokenProvider = provider(SECRET, "v2", "");
+    }
+
+    @Test
+    void accessTokenCarriesUserClaims() {
+        Company company = new Company();
+        company.setId(7L);
+        User user = new User();
+        user.setId(3L);
+        user.setUsername("ali");
+        user.setRole(Role.ADMIN);
+        user.setCompany(company);
+
+        Claims claims = jwtTokenProvider.parseClaims(jwtTokenProvider.generateToken(user));
+
+        assertEquals("ali", claims.getSubject());
+        assertEquals(3L, claims.get(JwtTokenProvider.CLAIM_USER_ID, Number.class).longValue());
+        assertEquals("ADMIN", claims.get(JwtTokenProvider.CLAIM_ROLE, String.class));
+        assertEquals(7L, claims.get(JwtTokenProvider.CLAIM_COMPANY_ID, Number.class).longValue());
+        assertEquals(0L, claims.get(JwtTokenProvider.CLAIM_TOKEN_EPOCH, Number.class).longValue());
+    }
+
+    @Test
+    void tokensSignedWithRetiredSecretStillVerify() {
+        String oldToken = provider(OLD_SECRET, "v1", "").generateToken("ali");
+        JwtTokenProvider rotated = provider(SECRET, "v2", "v1:" + OLD_SECRET);
+
+        assertEquals(TokenValidationResult.Status.VALID, rotated.validate(oldToken).getStatus());
+        // Eski anahtar listeden çıkarılınca aynı token reddedilir
+        assertEquals(TokenValidationResult.Status.BAD_SIGNATURE, jwtTokenProvider.validate(oldToken).getStatus());
+    }
+
+    @Test
+    void tokenFromAnotherSecretWithSameKeyIdIsRejected() {
+        String forged = provider(OLD_SECRET, "v2", "").generateToken("ali");
+
+        assertEquals(TokenValidationResult.Status.BAD_SIGNATURE, jwtTokenProvider.validate(forged).getStatus());
+    }
+
+    @Test
+    void validTokenYieldsClaims() {
+        String token = jwtTokenProvider.generateToken("ali");
+
+        assertEquals(TokenValidationResult.Status.VALID, jwtTokenProvider.validate(token).getStatus());
+        assertEquals("ali", jwtTokenProvider.getUsernameFromToken(token));
+    }
+
+    @Test
+    void invalidTokenYieldsNullUsernameInsteadOfThrowing() {
+        assertNull(jwtTokenProvider.getUsernameFromToken("bozuk.token"));
+        assertNull(jwtTokenProvider.getUsernameFromToken(withPayload(jwtTokenProvider.generateToken("ali"),
+                "{\"sub\":\"admin\",\"exp\":4102444800}")));
+    }
+
+    @Test
+    void expiredTokenIsClassifiedAsExpired() {
+        JwtTokenProvider expiring = provider(SECRET, "v2", "");
+        ReflectionTestUtils.setField(expiring, "jwtExpiration", -60_000L);
+
+        assertEquals(TokenValidationResult.Status.EXPIRED, jwtTokenProvider.validate(expiring.generateToken("ali")).getStatus());
+    }
+
+    @Test
+    void tamperedExpirationIsRejectedAsBadSignature() {
+        // Süresi dolmuş gösterilen imzasız payload EXPIRED değil, imza hatası olarak sayılır
+        String token = withPayload(jwtTokenProvider.generateToken("ali"), "{\"sub\":\"ali\",\"exp\":1000}");
+
+        assertEquals(TokenValidationResult.Status.BAD_SIGNATURE, jwtTokenProvider.validate(token).getStatus());
+    }
+
+    private static JwtTokenProvider provider(String secret, String keyId, String retiredSecrets) {
+        JwtTokenProvider provider = new JwtTokenProvider();
+        ReflectionTestUtils.setField(provider, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(provider, "jwtAlgorithm", "HMAC");
+        ReflectionTestUtils.setField(provider, "jwtSecret", secret);
+        ReflectionTestUtils.setField(provider, "keySetFile", "");
+        ReflectionTestUtils.setField(provider, "jwtKeyId", keyId);
+        ReflectionTestUtils.setField(provider, "retiredSecrets", retiredSecrets);
+        ReflectionTestUtils.setField(provider, "jwtExpiration", 60_000L);
+        ReflectionTestUtils.setField(provider, "jwtRefreshExpiration", 120_000L);
+        provider.init();
+        return provider;
+    }
+
+    /**
+     * İmzayı koruyarak payload'ı değiştirir
+     */
+    private static String withPayload(String token, String json) {
+        String[] parts = token.split("\\.");
+        String payload = Base64.getUrlEncoder().withoutPadding().encodeToString(json.getBytes(StandardCharsets.UTF_8));
+        return parts[0] + "." + payload + "." + parts[2];
+    }
+}
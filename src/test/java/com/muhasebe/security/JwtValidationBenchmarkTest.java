@@ -0,0 +1,132 @@
+package com.muhasebe.security;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * İstek başına token doğrulama hızını (token/sn) önbellekli parser ile değişiklikten önceki yöntem için karşılaştırır
+ * Varsayılan test çalıştırmasına dahil değildir: mvn test -Pload-test
+ * Önceki yöntem JwtAuthenticationFilter'ın yaptığı gibi token'ı iki kez doğrular (validateToken + getUsernameFromToken)
+ * ve her doğrulamada anahtarı ve parser'ı yeniden oluşturur
+ */
+@Tag("load")
+class JwtValidationBenchmarkTest {
+
+    private static final String SECRET = "muhasebeAppSecretKeyForJWTToken2024VeryLongAndSecureKey123456789";
+
+    private static final int THREADS = 4;
+
+    private static final long MEASURE_MILLIS = 2_000;
+
+    // Sıra etkisini azaltmak için iki yöntem dönüşümlü çalıştırılır
+    private static final int REPETITIONS = 2;
+
+    @Test
+    void cachedParserValidatesFasterThanPerCallParser() throws Exception {
+        JwtTokenProvider provider = provider();
+        String token = provider.generateToken("yuktesti");
+
+        Function<String, String> perCall = JwtValidationBenchmarkTest::perCallValidation;
+        Function<String, String> cached = candidate -> provider.parseClaims(candidate).getSubject();
+        assertEquals("yuktesti", perCall.apply(token));
+        assertEquals("yuktesti", cached.apply(token));
+
+        // Isınma: JIT ve jjwt sınıf yüklemesi
+        measure(perCall, token, 500);
+        measure(cached, token, 500);
+
+        List<ThroughputResult> before = new ArrayList<>();
+        List<ThroughputResult> after = new ArrayList<>();
+        for (int i = 0; i < REPETITIONS; i++) {
+            before.add(measure(perCall, token, MEASURE_MILLIS));
+            after.add(measure(cached, token, MEASURE_MILLIS));
+        }
+
+        System.out.printf("%n%-28s %14s %12s%n", "", "token/sn", "µs/token");
+        before.forEach(result -> System.out.println(result.format("anahtar+parser her çağrıda")));
+        after.forEach(result -> System.out.println(result.format("önbellekli parser")));
+
+        assertTrue(best(after) > best(before), "Önbellekli parser ile doğrulama daha hızlı olmalı");
+    }
+
+    /**
+     * Değişiklikten önceki doğrulama: her çağrıda Keys.hmacShaKeyFor ve Jwts.parser(), istek başına iki doğrulama
+     */
+    private static String perCallValidation(String token) {
+        SecretKey validateKey = Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8));
+        Jwts.parser().verifyWith(validateKey).build().parseSignedClaims(token);
+
+        SecretKey usernameKey = Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8));
+        Claims claims = Jwts.parser().verifyWith(usernameKey).build().parseSignedClaims(token).getPayload();
+        return claims.getSubject();
+    }
+
+    private static ThroughputResult measure(Function<String, String> validation, String token, long millis)
+            throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            long deadline = System.nanoTime() + millis * 1_000_000;
+            List<Future<Long>> futures = new ArrayList<>();
+            for (int i = 0; i < THREADS; i++) {
+                futures.add(executor.submit(() -> {
+                    long count = 0;
+                    while (System.nanoTime() < deadline) {
+                        validation.apply(token);
+                        count++;
+                    }
+                    return count;
+                }));
+            }
+            long total = 0;
+            for (Future<Long> future : futures) {
+                total += future.get();
+            }
+            double perSecond = total * 1000.0 / millis;
+            return new ThroughputResult(perSecond, THREADS * 1_000_000.0 / perSecond);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static double best(List<ThroughputResult> results) {
+        return results.stream().mapToDouble(ThroughputResult::perSecond).max().orElse(0);
+    }
+
+    private static JwtTokenProvider provider() {
+        JwtTokenProvider provider = new JwtTokenProvider();
+        ReflectionTestUtils.setField(provider, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(provider, "jwtAlgorithm", "HMAC");
+        ReflectionTestUtils.setField(provider, "jwtSecret", SECRET);
+        ReflectionTestUtils.setField(provider, "keySetFile", "");
+        ReflectionTestUtils.setField(provider, "jwtKeyId", "default");
+        ReflectionTestUtils.setField(provider, "retiredSecrets", "");
+        ReflectionTestUtils.setField(provider, "jwtExpiration", 3_600_000L);
+        ReflectionTestUtils.setField(provider, "jwtRefreshExpiration", 7_200_000L);
+        provider.init();
+        return provider;
+    }
+
+    private record ThroughputResult(double perSecond, double microsPerToken) {
+
+        String format(String label) {
+            return String.format("%-28s %14.0f %12.1f", label, perSecond, microsPerToken);
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package com.muhasebe.security;
+
+import com.muhasebe.entity.User;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Birden fazla node'un başarısız giriş sayaçlarını birbirinin üzerine yazmadan topladığını doğrular
+ */
+@DataJpaTest(properties = "spring.jpa.show-sql=false")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(LoginAttemptTrackerTest.EmbeddedDatabaseConfig.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class LoginAttemptTrackerTest {
+
+    private static final long USER_ID = 1L;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final List<UserSecurityChangedEvent> events = new ArrayList<>();
+
+    @BeforeEach
+    void seed() {
+        events.clear();
+        jdbcTemplate.update("DELETE FROM users");
+        jdbcTemplate.update("INSERT INTO users (id, username, email, password, first_name, last_name, role, is_active, "
+                + "is_deleted, failed_login_attempts, created_at) "
+                + "VALUES (?, 'ali', 'ali@firma.com', 'x', 'Ali', 'Veli', 'USER', true, false, 0, now())", USER_ID);
+    }
+
+    @Test
+    void failuresFromSeveralNodesAddUp() {
+        LoginAttemptTracker nodeA = newNode();
+        LoginAttemptTracker nodeB = newNode();
+        User user = user(0);
+
+        nodeA.recordFailure(user);
+        nodeA.recordFailure(user);
+        nodeB.recordFailure(user);
+        nodeB.recordFailure(user);
+        nodeA.flush();
+        nodeB.flush();
+
+        assertEquals(4, failedAttempts());
+        assertNull(lockedUntil());
+        assertTrue(events.isEmpty());
+
+        nodeA.recordFailure(user);
+        nodeA.flush();
+
+        assertEquals(User.MAX_FAILED_LOGIN_ATTEMPTS, failedAttempts());
+        assertNotNull(lockedUntil());
+        assertTrue(nodeA.isLocked(user));
+        assertEquals(1, events.size());
+        assertTrue(events.get(0).isAccessRevoked());
+    }
+
+    @Test
+    void restartedNodeDoesNotOverwriteStoredCount() {
+        jdbcTemplate.update("UPDATE users SET failed_login_attempts = 3 WHERE id = ?", USER_ID);
+        LoginAttemptTracker restarted = newNode();
+
+        // Bellekteki kullanıcı kaydı eski olsa bile artış veritabanındaki değerin üzerine eklenir
+        restarted.recordFailure(user(0));
+        restarted.flush();
+
+        assertEquals(4, failedAttempts());
+    }
+
+    @Test
+    void successResetsCountAndLock() {
+        jdbcTemplate.update("UPDATE users SET failed_login_attempts = 4 WHERE id = ?", USER_ID);
+        LoginAttemptTracker node = newNode();
+        User user = user(4);
+
+        node.recordFailure(user);
+        node.recordSuccess(user);
+        node.recordFailure(user);
+        node.flush();
+
+        assertEquals(1, failedAttempts());
+        assertNull(lockedUntil());
+        assertFalse(node.isLocked(user));
+        assertNotNull(jdbcTemplate.queryForObject("SELECT last_login_at FROM users WHERE id = ?", Object.class, USER_ID));
+    }
+
+    private LoginAttemptTracker newNode() {
+        LoginAttemptTracker tracker = new LoginAttemptTracker();
+        ReflectionTestUtils.setField(tracker, "jdbcTemplate", jdbcTemplate);
+        ReflectionTestUtils.setField(tracker, "eventPublisher", (ApplicationEventPublisher) event ->
+                events.add((UserSecurityChangedEvent) event));
+        ReflectionTestUtils.setField(tracker, "idleEvictMillis", 60_000L);
+        return tracker;
+    }
+
+    private User user(int failedAttempts) {
+        User user = new User();
+        user.setId(USER_ID);
+        user.setUsername("ali");
+        user.setFailedLoginAttempts(failedAttempts);
+        return user;
+    }
+
+    private int failedAttempts() {
+        return jdbcTemplate.queryForObject("SELECT failed_login_attempts FROM users WHERE id = ?", Integer.class, USER_ID);
+    }
+
+    private Object lockedUntil() {
+        return jdbcTemplate.queryForObject("SELECT locked_until FROM users WHERE id = ?", Object.class, USER_ID);
+    }
+
+    @TestConfiguration
+    static class EmbeddedDatabaseConfig {
+
+        @Bean(destroyMethod = "close")
+        EmbeddedPostgres embeddedPostgres() throws Exception {
+            return EmbeddedPostgres.builder().start();
+        }
+
+        @Bean
+        DataSource dataSource(EmbeddedPostgres embeddedPostgres) {
+            return embeddedPostgres.getPostgresDatabase();
+        }
+    }
+}
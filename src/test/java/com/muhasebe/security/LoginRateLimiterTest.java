@@ -0,0 +1,123 @@
+package com.muhasebe.security;
+
+import com.muhasebe.exception.TooManyRequestsException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * GCRA sınırlayıcısının anlık kapasiteyi, dolumu, kotaların birlikte harcanmasını ve anahtar sayısı sınırını doğrular
+ */
+class LoginRateLimiterTest {
+
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    void burstUpToCapacityThenRejects() {
+        LoginRateLimiter limiter = limiter(100, 60, 3, 60);
+
+        for (int i = 0; i < 3; i++) {
+            assertDoesNotThrow(() -> limiter.checkLogin("10.0.0.1", "ali"));
+        }
+        TooManyRequestsException ex = assertThrows(TooManyRequestsException.class,
+                () -> limiter.checkLogin("10.0.0.1", "ali"));
+        assertEquals(1, ex.getRetryAfterSeconds());
+        assertEquals(1.0, rejected("account"));
+    }
+
+    @Test
+    void tokensRefillOverTime() throws InterruptedException {
+        // Dakikada 600 jeton: her 100 ms'de bir yeni deneme hakkı
+        LoginRateLimiter limiter = limiter(100, 60, 2, 600);
+
+        limiter.checkLogin("10.0.0.1", "ali");
+        limiter.checkLogin("10.0.0.1", "ali");
+        assertThrows(TooManyRequestsException.class, () -> limiter.checkLogin("10.0.0.1", "ali"));
+
+        Thread.sleep(250);
+
+        assertDoesNotThrow(() -> limiter.checkLogin("10.0.0.1", "ali"));
+    }
+
+    @Test
+    void ipRejectionDoesNotConsumeAccountQuota() {
+        LoginRateLimiter limiter = limiter(1, 60, 2, 60);
+
+        limiter.checkLogin("10.0.0.9", "saldirgan");
+        // Kısıtlanmış IP'den hedef hesaba yapılan denemeler hesabın kotasını tüketmemeli
+        for (int i = 0; i < 5; i++) {
+            assertThrows(TooManyRequestsException.class, () -> limiter.checkLogin("10.0.0.9", "ali"));
+        }
+        assertEquals(5.0, rejected("ip"));
+        assertEquals(0.0, rejected("account"));
+
+        assertDoesNotThrow(() -> limiter.checkLogin("10.0.0.1", "ali"));
+        assertDoesNotThrow(() -> limiter.checkLogin("10.0.0.2", "ali"));
+    }
+
+    @Test
+    void accountKeysIgnoreCaseAndEndpointsAreSeparate() {
+        LoginRateLimiter limiter = limiter(100, 60, 1, 60);
+
+        limiter.checkLogin("10.0.0.1", "Ali@Firma.com");
+        assertThrows(TooManyRequestsException.class, () -> limiter.checkLogin("10.0.0.2", " ali@firma.com "));
+        assertDoesNotThrow(() -> limiter.checkRegister("10.0.0.1", "ali@firma.com"));
+    }
+
+    @Test
+    void disabledLimiterAllowsEverything() {
+        LoginRateLimiter limiter = limiter(1, 60, 1, 60);
+        ReflectionTestUtils.setField(limiter, "enabled", false);
+
+        for (int i = 0; i < 10; i++) {
+            limiter.checkLogin("10.0.0.1", "ali");
+        }
+        assertTrue(meterRegistry.find("auth.rate_limit.rejected").counters().stream().allMatch(c -> c.count() == 0));
+    }
+
+    @Test
+    void keyCountStaysBoundedUnderRandomKeys() {
+        LoginRateLimiter limiter = limiter(100, 60, 5, 60, 100);
+
+        // Her istek yeni bir IP ve hesap anahtarı açar
+        for (int i = 0; i < 5_000; i++) {
+            limiter.checkLogin("10.1." + (i / 256) + "." + (i % 256), "rastgele" + i);
+        }
+
+        double keys = meterRegistry.get("auth.rate_limit.keys").gauge().value();
+        assertTrue(keys <= 100, "Anahtar sayısı max-keys'i aşmamalı: " + keys);
+    }
+
+    private LoginRateLimiter limiter(int ipCapacity, int ipRefillPerMinute, int accountCapacity, int accountRefillPerMinute) {
+        return limiter(ipCapacity, ipRefillPerMinute, accountCapacity, accountRefillPerMinute, 1000);
+    }
+
+    private LoginRateLimiter limiter(int ipCapacity, int ipRefillPerMinute, int accountCapacity, int accountRefillPerMinute,
+                                     int maxKeys) {
+        LoginRateLimiter limiter = new LoginRateLimiter();
+        ReflectionTestUtils.setField(limiter, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(limiter, "enabled", true);
+        ReflectionTestUtils.setField(limiter, "ipCapacity", ipCapacity);
+        ReflectionTestUtils.setField(limiter, "ipRefillPerMinute", ipRefillPerMinute);
+        ReflectionTestUtils.setField(limiter, "accountCapacity", accountCapacity);
+        ReflectionTestUtils.setField(limiter, "accountRefillPerMinute", accountRefillPerMinute);
+        ReflectionTestUtils.setField(limiter, "maxKeys", maxKeys);
+        limiter.init();
+        return limiter;
+    }
+
+    private double rejected(String scope) {
+        return meterRegistry.get("auth.rate_limit.rejected").tag("scope", scope).counter().count();
+    }
+}
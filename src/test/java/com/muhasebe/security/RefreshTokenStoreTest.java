@@ -0,0 +1,118 @@
+package com.muhasebe.security;
+
+import com.muhasebe.config.JpaAuditingConfig;
+import com.muhasebe.repository.RefreshTokenRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Refresh token rotasyonunu, tekrar kullanımda ailenin iptalini ve node'lar arası tutarlılığı doğrular
+ */
+@DataJpaTest(properties = "spring.jpa.show-sql=false")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({RefreshTokenStore.class, JwtTokenProvider.class, JpaAuditingConfig.class,
+        RefreshTokenStoreTest.EmbeddedDatabaseConfig.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class RefreshTokenStoreTest {
+
+    @Autowired
+    private RefreshTokenStore refreshTokenStore;
+
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Autowired
+    private JwtTokenProvider jwtTokenProvider;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void clean() {
+        jdbcTemplate.update("DELETE FROM refresh_tokens");
+    }
+
+    @Test
+    void tokenRotatesOnlyOnce() {
+        String jti = jti(refreshTokenStore.issue("ali", null));
+        assertTrue(refreshTokenStore.isLive(jti));
+
+        assertEquals(RefreshTokenStore.RotationResult.ROTATED, refreshTokenStore.consume(jti, null));
+        assertFalse(refreshTokenStore.isLive(jti));
+    }
+
+    @Test
+    void reuseRevokesWholeFamily() {
+        String first = refreshTokenStore.issue("ali", null);
+        String family = jwtTokenProvider.parseClaims(first).get(JwtTokenProvider.CLAIM_FAMILY, String.class);
+        assertEquals(RefreshTokenStore.RotationResult.ROTATED, refreshTokenStore.consume(jti(first), family));
+        String second = jti(refreshTokenStore.issue("ali", family));
+
+        // Çalınan eski token tekrar kullanılırsa meşru sahibin yeni token'ı da iptal edilir
+        assertEquals(RefreshTokenStore.RotationResult.REUSED, refreshTokenStore.consume(jti(first), family));
+        assertFalse(refreshTokenStore.isLive(second));
+        assertEquals(RefreshTokenStore.RotationResult.REUSED, refreshTokenStore.consume(second, family));
+        assertEquals(2, jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM refresh_tokens WHERE family_id = ? AND revoked", Integer.class, family));
+    }
+
+    @Test
+    void unknownTokenIsRejected() {
+        assertEquals(RefreshTokenStore.RotationResult.UNKNOWN,
+                refreshTokenStore.consume("00000000-0000-0000-0000-000000000000", null));
+    }
+
+    @Test
+    void reuseAcrossNodesIsDetected() {
+        String jti = jti(refreshTokenStore.issue("ali", null));
+        RefreshTokenStore otherNode = new RefreshTokenStore();
+        ReflectionTestUtils.setField(otherNode, "refreshTokenRepository", refreshTokenRepository);
+        ReflectionTestUtils.setField(otherNode, "jwtTokenProvider", jwtTokenProvider);
+
+        // Diğer node token'ı veritabanından bulup tüketir; bu node'un bellek kaydı hâlâ kullanılmamış görünür
+        assertEquals(RefreshTokenStore.RotationResult.ROTATED, otherNode.consume(jti, null));
+        assertEquals(RefreshTokenStore.RotationResult.REUSED, refreshTokenStore.consume(jti, null));
+    }
+
+    private String jti(String token) {
+        return jwtTokenProvider.parseClaims(token).getId();
+    }
+
+    @TestConfiguration
+    static class EmbeddedDatabaseConfig {
+
+        @Bean(destroyMethod = "close")
+        EmbeddedPostgres embeddedPostgres() throws Exception {
+            return EmbeddedPostgres.builder().start();
+        }
+
+        @Bean
+        DataSource dataSource(EmbeddedPostgres embeddedPostgres) {
+            return embeddedPostgres.getPostgresDatabase();
+        }
+
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package com.muhasebe.security;
+
+import com.muhasebe.config.JpaAuditingConfig;
+import com.muhasebe.repository.RevokedTokenRepository;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Deny-list'in iptalleri yeniden başlatma ve node'lar arasında koruduğunu, süresi dolanları düşürdüğünü doğrular
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.show-sql=false",
+        "app.security.deny-list.expected-entries=16"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({TokenDenyList.class, JpaAuditingConfig.class, TokenDenyListTest.EmbeddedDatabaseConfig.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class TokenDenyListTest {
+
+    @Autowired
+    private TokenDenyList tokenDenyList;
+
+    @Autowired
+    private RevokedTokenRepository revokedTokenRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * Bean testler arasında paylaşıldığı için her test kendi jti'lerini kullanır
+     */
+    @BeforeEach
+    void clean() {
+        jdbcTemplate.update("DELETE FROM revoked_tokens");
+        tokenDenyList.load();
+    }
+
+    @Test
+    void revokedTokenIsRejectedOthersAreNot() {
+        tokenDenyList.revoke("jti-1", "ali", System.currentTimeMillis() + 60_000);
+
+        assertTrue(tokenDenyList.isRevoked("jti-1"));
+        assertFalse(tokenDenyList.isRevoked("jti-olmayan"));
+    }
+
+    @Test
+    void alreadyExpiredTokenIsNotStored() {
+        tokenDenyList.revoke("jti-eski", "ali", System.currentTimeMillis() - 1);
+
+        assertFalse(tokenDenyList.isRevoked("jti-eski"));
+        assertEquals(0, revokedTokenRepository.count());
+    }
+
+    @Test
+    void revocationSurvivesRestartAndReachesOtherNodes() {
+        TokenDenyList otherNode = newNode();
+
+        tokenDenyList.revoke("jti-paylasilan", "ali", System.currentTimeMillis() + 60_000);
+        assertFalse(otherNode.isRevoked("jti-paylasilan"));
+
+        otherNode.syncFromDatabase();
+        assertTrue(otherNode.isRevoked("jti-paylasilan"));
+        assertTrue(newNode().isRevoked("jti-paylasilan"));
+    }
+
+    @Test
+    void growingPastExpectedEntriesKeepsEveryRevocation() {
+        for (int i = 0; i < 100; i++) {
+            tokenDenyList.revoke("toplu-" + i, "ali", System.currentTimeMillis() + 60_000);
+        }
+
+        for (int i = 0; i < 100; i++) {
+            assertTrue(tokenDenyList.isRevoked("toplu-" + i));
+        }
+    }
+
+    @Test
+    void expiredEntriesAreDroppedFromMemoryAndDatabase() throws InterruptedException {
+        tokenDenyList.revoke("jti-kisa", "ali", System.currentTimeMillis() + 1_000);
+        tokenDenyList.revoke("jti-uzun", "ali", System.currentTimeMillis() + 60_000);
+
+        // Timer wheel saniyelik tick'lerle ilerler
+        Thread.sleep(2_100);
+        tokenDenyList.expire();
+
+        assertFalse(tokenDenyList.isRevoked("jti-kisa"));
+        assertTrue(tokenDenyList.isRevoked("jti-uzun"));
+        assertEquals(1, revokedTokenRepository.count());
+    }
+
+    private TokenDenyList newNode() {
+        TokenDenyList node = new TokenDenyList();
+        ReflectionTestUtils.setField(node, "revokedTokenRepository", revokedTokenRepository);
+        ReflectionTestUtils.setField(node, "expectedEntries", 16);
+        node.load();
+        return node;
+    }
+
+    @TestConfiguration
+    static class EmbeddedDatabaseConfig {
+
+        @Bean(destroyMethod = "close")
+        EmbeddedPostgres embeddedPostgres() throws Exception {
+            return EmbeddedPostgres.builder().start();
+        }
+
+        @Bean
+        DataSource dataSource(EmbeddedPostgres embeddedPostgres) {
+            return embeddedPostgres.getPostgresDatabase();
+        }
+    }
+}
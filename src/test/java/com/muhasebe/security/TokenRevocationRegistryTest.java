@@ -0,0 +1,107 @@
+package com.muhasebe.security;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Token iptalinin veritabanında kalıcı olduğunu ve saat çözünürlüğünden bağımsız sayaçla karşılaştırıldığını doğrular
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.show-sql=false",
+        "jwt.expiration=60000"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({TokenRevocationRegistry.class, TokenRevocationRegistryTest.EmbeddedDatabaseConfig.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class TokenRevocationRegistryTest {
+
+    @Autowired
+    private TokenRevocationRegistry tokenRevocationRegistry;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void seed() {
+        jdbcTemplate.update("DELETE FROM users");
+        jdbcTemplate.update("INSERT INTO users (id, username, email, password, first_name, last_name, role, is_active, "
+                + "is_deleted, created_at) VALUES (1, 'ali', 'ali@firma.com', 'x', 'Ali', 'Veli', 'USER', true, false, now())");
+        tokenRevocationRegistry.load();
+    }
+
+    @Test
+    void tokensBeforeRevocationAreRejected() {
+        assertFalse(tokenRevocationRegistry.isRevoked("ali", 0L));
+
+        tokenRevocationRegistry.revokeAll("ali");
+
+        assertEquals(1L, jdbcTemplate.queryForObject("SELECT token_epoch FROM users WHERE username = 'ali'", Long.class));
+        assertTrue(tokenRevocationRegistry.isRevoked("ali", 0L));
+        assertTrue(tokenRevocationRegistry.isRevoked("ali", null));
+        // İptalle aynı milisaniyede üretilmiş olsa bile yeni sayaçla imzalanan token geçerlidir
+        assertFalse(tokenRevocationRegistry.isRevoked("ali", 1L));
+    }
+
+    @Test
+    void revocationSurvivesRestartAndReachesOtherNodes() {
+        TokenRevocationRegistry otherNode = newNode();
+
+        tokenRevocationRegistry.revokeAll("ali");
+        assertFalse(otherNode.isRevoked("ali", 0L));
+
+        otherNode.syncFromDatabase();
+        assertTrue(otherNode.isRevoked("ali", 0L));
+
+        TokenRevocationRegistry restarted = newNode();
+        assertTrue(restarted.isRevoked("ali", 0L));
+        assertFalse(restarted.isRevoked("ali", 1L));
+    }
+
+    @Test
+    void unrelatedUsersAreNotAffected() {
+        tokenRevocationRegistry.revokeAll("ali");
+        tokenRevocationRegistry.revokeAll("olmayan");
+
+        assertFalse(tokenRevocationRegistry.isRevoked("ayse", 0L));
+        assertFalse(tokenRevocationRegistry.isRevoked("olmayan", 0L));
+    }
+
+    private TokenRevocationRegistry newNode() {
+        TokenRevocationRegistry node = new TokenRevocationRegistry();
+        ReflectionTestUtils.setField(node, "jdbcTemplate", jdbcTemplate);
+        ReflectionTestUtils.setField(node, "jwtExpiration", 60_000L);
+        node.load();
+        return node;
+    }
+
+    @TestConfiguration
+    static class EmbeddedDatabaseConfig {
+
+        @Bean(destroyMethod = "close")
+        EmbeddedPostgres embeddedPostgres() throws Exception {
+            return EmbeddedPostgres.builder().start();
+        }
+
+        @Bean
+        DataSource dataSource(EmbeddedPostgres embeddedPostgres) {
+            return embeddedPostgres.getPostgresDatabase();
+        }
+    }
+}
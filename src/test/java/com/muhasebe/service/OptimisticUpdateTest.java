@@ -0,0 +1,168 @@
+package com.muhasebe.service;
+
+import com.muhasebe.config.TenantConfig;
+import com.muhasebe.dto.request.CustomerRequest;
+import com.muhasebe.dto.response.CustomerResponse;
+import com.muhasebe.exception.BadRequestException;
+import com.muhasebe.exception.PreconditionFailedException;
+import com.muhasebe.repository.support.RowCountEstimator;
+import com.muhasebe.search.SearchIndexService;
+import com.muhasebe.tenant.TenantContext;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Sürüm (If-Match) kontrolünü ve PATCH'in yalnızca gönderilen, değişen kolonları yazdığını doğrular
+ * Çalışan UPDATE ifadeleri Hibernate'in StatementInspector'ı ile yakalanır
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.show-sql=false",
+        "spring.jpa.properties.hibernate.format_sql=false",
+        "spring.jpa.properties.hibernate.use_sql_comments=false",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.muhasebe.service.OptimisticUpdateTest$RecordingInspector"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({CustomerService.class, TenantConfig.class, OptimisticUpdateTest.EmbeddedDatabaseConfig.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class OptimisticUpdateTest {
+
+    private static final long COMPANY_ID = 1L;
+
+    private static final long CUSTOMER_ID = 10L;
+
+    private static final List<String> UPDATES = new CopyOnWriteArrayList<>();
+
+    @Autowired
+    private CustomerService customerService;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @MockBean
+    private SearchIndexService searchIndexService;
+
+    @MockBean
+    private RowCountEstimator rowCountEstimator;
+
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void seed() {
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.update("DELETE FROM customers");
+        jdbcTemplate.update("DELETE FROM companies");
+        jdbcTemplate.update("INSERT INTO companies (id, name, tax_number, is_active, is_deleted, created_at) "
+                + "VALUES (?, 'Şirket A', '1111111111', true, false, now())", COMPANY_ID);
+        jdbcTemplate.update("INSERT INTO customers (id, name, tax_number, city, balance, is_active, is_deleted, company_id, created_at) "
+                + "VALUES (?, 'Yılmaz Ticaret', '0000000010', 'Ankara', 0, true, false, ?, now())", CUSTOMER_ID, COMPANY_ID);
+
+        TenantContext.setCompanyId(COMPANY_ID);
+        UPDATES.clear();
+    }
+
+    @AfterEach
+    void clearTenant() {
+        TenantContext.clear();
+    }
+
+    @Test
+    void updateReturnsNextVersion() {
+        CustomerResponse customer = customerService.updateCustomer(COMPANY_ID, CUSTOMER_ID, request("Yılmaz Ticaret A.Ş.", null), 0L);
+
+        assertEquals(1L, customer.getVersion());
+        assertEquals(1L, column("version"));
+    }
+
+    @Test
+    void staleVersionIsRejected() {
+        customerService.updateCustomer(COMPANY_ID, CUSTOMER_ID, request("Yılmaz Ticaret A.Ş.", null), 0L);
+
+        assertThrows(PreconditionFailedException.class,
+                () -> customerService.updateCustomer(COMPANY_ID, CUSTOMER_ID, request("Eski Ad", null), 0L));
+        assertEquals("Yılmaz Ticaret A.Ş.", column("name"));
+    }
+
+    @Test
+    void patchWritesOnlySentColumns() {
+        // Araya başka bir kullanıcının ad değişikliği girer; şehir PATCH'i onu ezmez
+        jdbcTemplate.update("UPDATE customers SET name = 'Başka Kullanıcı', version = version + 1 WHERE id = ?", CUSTOMER_ID);
+
+        CustomerResponse customer = customerService.patchCustomer(COMPANY_ID, CUSTOMER_ID, request(null, "İzmir"), Set.of("city"), null);
+
+        assertEquals("Başka Kullanıcı", customer.getName());
+        assertEquals("İzmir", column("city"));
+        assertEquals(2L, column("version"));
+        assertEquals(1, UPDATES.size());
+        String update = UPDATES.get(0).toLowerCase(Locale.ROOT);
+        assertEquals(false, update.contains("name="), update);
+        assertEquals(false, update.contains("tax_number="), update);
+    }
+
+    @Test
+    void unknownPatchFieldIsRejected() {
+        assertThrows(BadRequestException.class,
+                () -> customerService.patchCustomer(COMPANY_ID, CUSTOMER_ID, request(null, null), Set.of("balance"), null));
+    }
+
+    private Object column(String name) {
+        Map<String, Object> row = jdbcTemplate.queryForMap("SELECT * FROM customers WHERE id = ?", CUSTOMER_ID);
+        return row.get(name);
+    }
+
+    private static CustomerRequest request(String name, String city) {
+        CustomerRequest request = new CustomerRequest();
+        request.setName(name);
+        request.setTaxNumber("0000000010");
+        request.setCity(city);
+        request.setIsActive(true);
+        return request;
+    }
+
+    public static class RecordingInspector implements StatementInspector {
+
+        @Override
+        public String inspect(String sql) {
+            if (sql.trim().toLowerCase(Locale.ROOT).startsWith("update customers")) {
+                UPDATES.add(sql);
+            }
+            return sql;
+        }
+    }
+
+    @TestConfiguration
+    static class EmbeddedDatabaseConfig {
+
+        @Bean(destroyMethod = "close")
+        EmbeddedPostgres embeddedPostgres() throws Exception {
+            return EmbeddedPostgres.builder().start();
+        }
+
+        @Bean
+        DataSource dataSource(EmbeddedPostgres embeddedPostgres) {
+            return embeddedPostgres.getPostgresDatabase();
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package com.muhasebe.service;
+
+import com.muhasebe.config.TenantConfig;
+import com.muhasebe.dto.request.CustomerRequest;
+import com.muhasebe.dto.request.SupplierRequest;
+import com.muhasebe.exception.BadRequestException;
+import com.muhasebe.repository.UserRepository;
+import com.muhasebe.repository.support.RowCountEstimator;
+import com.muhasebe.search.SearchIndexService;
+import com.muhasebe.tenant.TenantContext;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Benzersizlik ön kontrollerinin silinmiş kayıtları da gördüğünü doğrular
+ * Entity sorgularında silinmiş kayıtlar @SQLRestriction ile elenir; unique kısıtlar ise onları da kapsar, kontrol
+ * onları görmezse kayıt 500 ile unique ihlaline düşer
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.show-sql=false",
+        "spring.jpa.properties.hibernate.format_sql=false",
+        "spring.jpa.properties.hibernate.use_sql_comments=false"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({CustomerService.class, SupplierService.class, TenantConfig.class, SoftDeletedUniquenessTest.EmbeddedDatabaseConfig.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class SoftDeletedUniquenessTest {
+
+    private static final long COMPANY_ID = 1L;
+
+    private static final long OTHER_COMPANY_ID = 2L;
+
+    @Autowired
+    private CustomerService customerService;
+
+    @Autowired
+    private SupplierService supplierService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @MockBean
+    private SearchIndexService searchIndexService;
+
+    @MockBean
+    private RowCountEstimator rowCountEstimator;
+
+    @BeforeEach
+    void seed() {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.update("DELETE FROM users");
+        jdbcTemplate.update("DELETE FROM customers");
+        jdbcTemplate.update("DELETE FROM suppliers");
+        jdbcTemplate.update("DELETE FROM companies");
+        jdbcTemplate.update("INSERT INTO companies (id, name, tax_number, is_active, is_deleted, created_at) "
+                + "VALUES (?, 'Şirket A', '1111111111', true, false, now()), (?, 'Şirket B', '2222222222', true, false, now())",
+                COMPANY_ID, OTHER_COMPANY_ID);
+        jdbcTemplate.update("INSERT INTO customers (id, name, tax_number, balance, is_active, is_deleted, company_id, created_at) "
+                + "VALUES (10, 'Silinmiş Müşteri', '0000000010', 0, true, true, ?, now())", COMPANY_ID);
+        jdbcTemplate.update("INSERT INTO suppliers (id, name, tax_number, balance, is_active, is_deleted, company_id, created_at) "
+                + "VALUES (20, 'Silinmiş Tedarikçi', '0000000020', 0, true, true, ?, now())", COMPANY_ID);
+        jdbcTemplate.update("INSERT INTO users (id, username, email, password, first_name, last_name, role, is_active, "
+                + "is_deleted, company_id, created_at) VALUES (30, 'eski', 'eski@firma.com', 'x', 'Eski', 'Kullanıcı', "
+                + "'USER', true, true, ?, now())", COMPANY_ID);
+
+        TenantContext.setCompanyId(COMPANY_ID);
+    }
+
+    @AfterEach
+    void clearTenant() {
+        TenantContext.clear();
+    }
+
+    @Test
+    void deletedUserBlocksUsernameAndEmail() {
+        TenantContext.clear();
+
+        assertTrue(userRepository.existsByUsername("eski"));
+        assertTrue(userRepository.existsByEmail("eski@firma.com"));
+        assertTrue(userRepository.findByUsername("eski").isEmpty());
+    }
+
+    @Test
+    void deletedCustomerBlocksTaxNumber() {
+        CustomerRequest request = new CustomerRequest();
+        request.setName("Yeni Müşteri");
+        request.setTaxNumber("0000000010");
+
+        assertThrows(BadRequestException.class, () -> customerService.createCustomer(COMPANY_ID, request));
+    }
+
+    @Test
+    void deletedSupplierBlocksTaxNumber() {
+        SupplierRequest request = new SupplierRequest();
+        request.setName("Yeni Tedarikçi");
+        request.setTaxNumber("0000000020");
+
+        assertThrows(BadRequestException.class, () -> supplierService.createSupplier(COMPANY_ID, request));
+    }
+
+    @Test
+    void taxNumberOfAnotherCompanyIsFree() {
+        TenantContext.setCompanyId(OTHER_COMPANY_ID);
+        CustomerRequest request = new CustomerRequest();
+        request.setName("Başka Şirketin Müşterisi");
+        request.setTaxNumber("0000000010");
+
+        assertNotNull(customerService.createCustomer(OTHER_COMPANY_ID, request).getId());
+    }
+
+    @TestConfiguration
+    static class EmbeddedDatabaseConfig {
+
+        @Bean(destroyMethod = "close")
+        EmbeddedPostgres embeddedPostgres() throws Exception {
+            return EmbeddedPostgres.builder().start();
+        }
+
+        @Bean
+        DataSource dataSource(EmbeddedPostgres embeddedPostgres) {
+            return embeddedPostgres.getPostgresDatabase();
+        }
+    }
+}
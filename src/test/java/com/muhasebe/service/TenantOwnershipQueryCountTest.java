@@ -0,0 +1,252 @@
+package com.muhasebe.service;
+
+import com.muhasebe.config.TenantConfig;
+import com.muhasebe.dto.request.CustomerRequest;
+import com.muhasebe.dto.request.SupplierRequest;
+import com.muhasebe.dto.response.CustomerResponse;
+import com.muhasebe.dto.response.CustomerSummaryResponse;
+import com.muhasebe.dto.response.SearchResponse;
+import com.muhasebe.dto.response.SupplierResponse;
+import com.muhasebe.dto.response.SupplierSummaryResponse;
+import com.muhasebe.exception.ResourceNotFoundException;
+import com.muhasebe.repository.CustomerRepository;
+import com.muhasebe.repository.SupplierRepository;
+import com.muhasebe.repository.support.CountMode;
+import com.muhasebe.repository.support.RowCountEstimator;
+import com.muhasebe.search.SearchIndexService;
+import com.muhasebe.tenant.TenantContext;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Detay, güncelleme ve silmede şirket kontrolünün kaydı şirketiyle birlikte getiren tek sorguda yapıldığını doğrular
+ * Şirket koşulu, istekteki gibi TenantContext'ten açılan tenant filtresinden gelir; şirket bağlamı yoksa
+ * servisler hata verir, sorgular kayıt döndürmez
+ * Aramanın toplam sayı istenmedikçe COUNT çalıştırmadığı da aynı sayımla doğrulanır
+ * Sayım Hibernate istatistiklerindeki hazırlanan SQL ifadesi sayısından okunur
+ * Servis metotları kendi transaction'larında çalışır ki güncelleme commit'te gerçekten yazılsın
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.show-sql=false",
+        "spring.jpa.properties.hibernate.format_sql=false",
+        "spring.jpa.properties.hibernate.use_sql_comments=false",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "logging.level.org.hibernate.engine.internal.StatisticalLoggingSessionEventListener=WARN"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({CustomerService.class, SupplierService.class, TenantConfig.class, TenantOwnershipQueryCountTest.EmbeddedDatabaseConfig.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class TenantOwnershipQueryCountTest {
+
+    private static final long COMPANY_ID = 1L;
+
+    private static final long OTHER_COMPANY_ID = 2L;
+
+    private static final long CUSTOMER_ID = 10L;
+
+    private static final long SUPPLIER_ID = 20L;
+
+    @Autowired
+    private CustomerService customerService;
+
+    @Autowired
+    private SupplierService supplierService;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private SupplierRepository supplierRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @MockBean
+    private SearchIndexService searchIndexService;
+
+    @MockBean
+    private RowCountEstimator rowCountEstimator;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void seed() {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.update("DELETE FROM customers");
+        jdbcTemplate.update("DELETE FROM suppliers");
+        jdbcTemplate.update("DELETE FROM companies");
+        jdbcTemplate.update("INSERT INTO companies (id, name, tax_number, is_active, is_deleted, created_at) "
+                + "VALUES (?, 'Şirket A', '1111111111', true, false, now()), (?, 'Şirket B', '2222222222', true, false, now())",
+                COMPANY_ID, OTHER_COMPANY_ID);
+        jdbcTemplate.update("INSERT INTO customers (id, name, tax_number, balance, is_active, is_deleted, company_id, created_at) "
+                + "VALUES (?, 'Yılmaz Ticaret', '0000000010', 0, true, false, ?, now())", CUSTOMER_ID, COMPANY_ID);
+        jdbcTemplate.update("INSERT INTO suppliers (id, name, tax_number, balance, is_active, is_deleted, company_id, created_at) "
+                + "VALUES (?, 'Doğan Tedarik', '0000000020', 0, true, false, ?, now())", SUPPLIER_ID, COMPANY_ID);
+
+        TenantContext.setCompanyId(COMPANY_ID);
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @AfterEach
+    void clearTenant() {
+        TenantContext.clear();
+    }
+
+    @Test
+    void customerDetailUsesOneStatement() {
+        CustomerResponse customer = customerService.getCustomer(COMPANY_ID, CUSTOMER_ID);
+
+        assertEquals("Şirket A", customer.getCompanyName());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void customerSearchSkipsCountUnlessRequested() {
+        SearchResponse<CustomerSummaryResponse> page = customerService.globalSearch(COMPANY_ID, "yilmaz",
+                PageRequest.of(0, 10), CountMode.NONE);
+
+        assertEquals(1, page.getItems().size());
+        assertFalse(page.isHasNext());
+        assertNull(page.getTotalItems());
+        assertEquals(1, statistics.getPrepareStatementCount());
+
+        statistics.clear();
+        page = customerService.globalSearch(COMPANY_ID, "yilmaz", PageRequest.of(0, 10), CountMode.EXACT);
+
+        assertEquals(1L, page.getTotalItems());
+        assertEquals(2, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void customerUpdateUsesTwoStatements() {
+        CustomerRequest request = new CustomerRequest();
+        request.setName("Yılmaz Ticaret A.Ş.");
+        request.setTaxNumber("0000000010");
+        request.setIsActive(true);
+
+        CustomerResponse customer = customerService.updateCustomer(COMPANY_ID, CUSTOMER_ID, request, null);
+
+        assertEquals("Yılmaz Ticaret A.Ş.", customer.getName());
+        assertEquals(2, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void customerOfAnotherCompanyIsNotFound() {
+        TenantContext.setCompanyId(OTHER_COMPANY_ID);
+
+        assertThrows(ResourceNotFoundException.class, () -> customerService.getCustomer(OTHER_COMPANY_ID, CUSTOMER_ID));
+        assertThrows(ResourceNotFoundException.class, () -> customerService.deleteCustomer(OTHER_COMPANY_ID, CUSTOMER_ID));
+    }
+
+    @Test
+    void serviceCallWithoutTenantFails() {
+        TenantContext.clear();
+
+        assertThrows(IllegalStateException.class, () -> customerService.getCustomer(COMPANY_ID, CUSTOMER_ID));
+        assertThrows(IllegalStateException.class, () -> supplierService.getAllSuppliers(COMPANY_ID, PageRequest.of(0, 10)));
+    }
+
+    @Test
+    void serviceCallForAnotherCompanyFails() {
+        assertThrows(IllegalStateException.class, () -> customerService.getCustomer(OTHER_COMPANY_ID, CUSTOMER_ID));
+        assertThrows(IllegalStateException.class, () -> supplierService.deleteSupplier(OTHER_COMPANY_ID, SUPPLIER_ID));
+    }
+
+    @Test
+    void queriesWithoutTenantSeeNoRows() {
+        TenantContext.clear();
+
+        assertEquals(0, customerRepository.count());
+        assertTrue(customerRepository.findAllWithCompany().isEmpty());
+        assertTrue(supplierRepository.findWithCompanyById(SUPPLIER_ID).isEmpty());
+    }
+
+    @Test
+    void deletedCustomerIsNotFound() {
+        customerService.deleteCustomer(COMPANY_ID, CUSTOMER_ID);
+
+        assertThrows(ResourceNotFoundException.class, () -> customerService.getCustomer(COMPANY_ID, CUSTOMER_ID));
+    }
+
+    @Test
+    void supplierDetailUsesOneStatement() {
+        SupplierResponse supplier = supplierService.getSupplier(COMPANY_ID, SUPPLIER_ID);
+
+        assertEquals("Şirket A", supplier.getCompanyName());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void supplierSearchSkipsCountUnlessRequested() {
+        SearchResponse<SupplierSummaryResponse> page = supplierService.globalSearch(COMPANY_ID, "dogan",
+                PageRequest.of(0, 10), CountMode.NONE);
+
+        assertEquals(1, page.getItems().size());
+        assertFalse(page.isHasNext());
+        assertNull(page.getTotalItems());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void supplierUpdateUsesTwoStatements() {
+        SupplierRequest request = new SupplierRequest();
+        request.setName("Doğan Tedarik Ltd.");
+        request.setTaxNumber("0000000020");
+        request.setIsActive(true);
+
+        SupplierResponse supplier = supplierService.updateSupplier(COMPANY_ID, SUPPLIER_ID, request, null);
+
+        assertEquals("Doğan Tedarik Ltd.", supplier.getName());
+        assertEquals(2, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void supplierOfAnotherCompanyIsNotFound() {
+        TenantContext.setCompanyId(OTHER_COMPANY_ID);
+
+        assertThrows(ResourceNotFoundException.class, () -> supplierService.getSupplier(OTHER_COMPANY_ID, SUPPLIER_ID));
+        assertThrows(ResourceNotFoundException.class, () -> supplierService.deleteSupplier(OTHER_COMPANY_ID, SUPPLIER_ID));
+    }
+
+    @TestConfiguration
+    static class EmbeddedDatabaseConfig {
+
+        @Bean(destroyMethod = "close")
+        EmbeddedPostgres embeddedPostgres() throws Exception {
+            return EmbeddedPostgres.builder().start();
+        }
+
+        @Bean
+        DataSource dataSource(EmbeddedPostgres embeddedPostgres) {
+            return embeddedPostgres.getPostgresDatabase();
+        }
+    }
+}
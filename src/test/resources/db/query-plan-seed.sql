@@ -0,0 +1,41 @@
+-- TenantQueryPlanTest için örnek veri: 50 şirket, şirket başına 400 müşteri ve 400 tedarikçi
+-- Dağılım gerçek kullanıma yakın tutulur (%10 silinmiş, %10 pasif, az sayıda borçlu/alacaklı kayıt)
+-- id'ler açıkça verilir (diziler pooled-lo için allocation size kadar artar), sonda diziler ileri alınır
+
+INSERT INTO companies (id, name, tax_number, is_active, is_deleted, created_at)
+SELECT g, 'Şirket ' || g, lpad(g::text, 10, '0'), true, false, now()
+FROM generate_series(1, 50) g;
+
+INSERT INTO customers (id, name, tax_number, phone, email, city, customer_type, balance,
+                       is_active, is_deleted, company_id, created_at)
+SELECT g, (ARRAY['Şahin', 'Öztürk', 'Çelik', 'Yılmaz', 'Kaya'])[1 + g % 5] || ' Ticaret ' || g,
+       lpad(g::text, 10, '0'),
+       '0532' || lpad(g::text, 7, '0'),
+       'info' || g || '@firma.com',
+       (ARRAY['İstanbul', 'Ankara', 'İzmir', 'Bursa', 'Antalya', 'Konya', 'Adana', 'Kayseri', 'Eskişehir', 'Trabzon'])[1 + g % 10],
+       (ARRAY['Kurumsal', 'Bireysel'])[1 + g % 2],
+       CASE WHEN g % 37 = 0 THEN -100 WHEN g % 41 = 0 THEN 100 ELSE 0 END,
+       g % 10 <> 1,
+       g % 10 = 0,
+       1 + (g - 1) / 400,
+       now() - (g || ' minutes')::interval
+FROM generate_series(1, 20000) g;
+
+INSERT INTO suppliers (id, name, tax_number, phone, email, city, supplier_type, balance,
+                       is_active, is_deleted, company_id, created_at)
+SELECT g, (ARRAY['Demir', 'Aydın', 'Arslan', 'Doğan', 'Koç'])[1 + g % 5] || ' Tedarik ' || g,
+       lpad(g::text, 10, '0'),
+       '0212' || lpad(g::text, 7, '0'),
+       'satis' || g || '@tedarik.com',
+       (ARRAY['İstanbul', 'Ankara', 'İzmir', 'Bursa', 'Antalya', 'Konya', 'Adana', 'Kayseri', 'Eskişehir', 'Trabzon'])[1 + g % 10],
+       (ARRAY['Üretici', 'Toptancı'])[1 + g % 2],
+       CASE WHEN g % 37 = 0 THEN -100 WHEN g % 41 = 0 THEN 100 ELSE 0 END,
+       g % 10 <> 1,
+       g % 10 = 0,
+       1 + (g - 1) / 400,
+       now() - (g || ' minutes')::interval
+FROM generate_series(1, 20000) g;
+
+SELECT setval('companies_id_seq', (SELECT max(id) FROM companies));
+SELECT setval('customers_id_seq', (SELECT max(id) FROM customers));
+SELECT setval('suppliers_id_seq', (SELECT max(id) FROM suppliers));